@@ -36,6 +36,13 @@ public class MLConstants {
     public static final Integer MAXIMUM_TOKEN_LIMIT = 500000;
     public static final Integer MINIMUM_TOKEN_LIMIT = 1000;
 
+    /**
+     * LLM judgment pipeline defaulted concurrency, for searches and for model calls
+     */
+    public static final Integer DEFAULTED_SEARCH_CONCURRENCY = 4;
+    public static final Integer DEFAULTED_LLM_CONCURRENCY = 2;
+    public static final Integer MAXIMUM_CONCURRENCY = 64;
+
     /**
      * Prompt strings that specific for llm-as-a-judge use case.
      * TODO: need benchmark for final prompt definition.
@@ -58,6 +65,26 @@ public class MLConstants {
     public static final String INPUT_FORMAT_SEARCH = "SearchText - %s; Hits - %s";
     public static final String INPUT_FORMAT_SEARCH_WITH_REFERENCE = "SearchText: %s; Reference: %s; Hits: %s";
 
+    /**
+     * Prompt strings for judging hits of several query texts in one LLM call, each hit refers to its query by queryId.
+     */
+    public static final String PROMPT_MULTI_QUERY_SEARCH_RELEVANCE = escapeJson(
+        "You are an expert search relevance rater. "
+            + "Your task is to evaluate the relevance between search queries and results with these criteria:\n"
+            + "- Score 1.0: Perfect match, highly relevant\n"
+            + "- Score 0.7-0.9: Very relevant with minor variations\n"
+            + "- Score 0.4-0.6: Moderately relevant\n"
+            + "- Score 0.1-0.3: Slightly relevant\n"
+            + "- Score 0.0: Completely irrelevant\n"
+            + "Each hit has a queryId. Evaluate every hit only against the query with that queryId, based on: exact matches, "
+            + "semantic relevance, and overall context between its SearchText and content in the hit.\n"
+            + "When a query has a reference, evaluate based on the relevance to both its SearchText and its reference.\n\n"
+            + "IMPORTANT: Provide your response ONLY as a JSON array of objects, each with \"id\" and \"rating_score\" fields. "
+            + "You MUST include a rating for EVERY hit provided, even if the rating is 0. "
+            + "Do not include any explanation or additional text."
+    );
+    public static final String INPUT_FORMAT_MULTI_QUERY_SEARCH = "Queries - %s; Hits - %s";
+
     public static String escapeJson(String str) {
         if (str == null) {
             return "";
@@ -114,4 +141,33 @@ public class MLConstants {
         }
     }
 
+    public static int validateConcurrency(Map<String, Object> source, String field, int defaultConcurrency) {
+        if (!source.containsKey(field)) {
+            return defaultConcurrency;
+        }
+
+        Object concurrencyObj = source.get(field);
+        int concurrency;
+        try {
+            if (concurrencyObj instanceof String) {
+                concurrency = Integer.parseInt((String) concurrencyObj);
+            } else if (concurrencyObj instanceof Number) {
+                concurrency = ((Number) concurrencyObj).intValue();
+            } else {
+                throw new IllegalArgumentException(
+                    "Invalid " + field + " type. Expected numeric value or string, got: " + concurrencyObj.getClass().getSimpleName()
+                );
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + " value. Expected numeric value, got: " + concurrencyObj);
+        }
+
+        if (concurrency < 1 || concurrency > MAXIMUM_CONCURRENCY) {
+            throw new IllegalArgumentException(
+                String.format(Locale.ROOT, "%s must be between 1 and %d, got: %d", field, MAXIMUM_CONCURRENCY, concurrency)
+            );
+        }
+        return concurrency;
+    }
+
 }
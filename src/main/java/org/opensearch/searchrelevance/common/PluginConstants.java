@@ -30,6 +30,7 @@ public class PluginConstants {
     /** The URI PARAMS placeholders */
     public static final String DOCUMENT_ID = "id";
     public static final String QUERY_TEXT = "query_text";
+    public static final String FROM = "from";
 
     /** Use %SearchText% to represent wildcard in queryBody and also refer to the text in the search bar */
     public static final String WILDCARD_QUERY_TEXT = "%SearchText%";
@@ -51,6 +52,10 @@ public class PluginConstants {
     public static final String JUDGMENT_CACHE_INDEX_MAPPING = "mappings/judgment_cache.json";
     public static final String EXPERIMENT_VARIANT_INDEX = "search-relevance-experiment-variant";
     public static final String EXPERIMENT_VARIANT_INDEX_MAPPING = "mappings/experiment_variant.json";
+    public static final String EXPERIMENT_RESULT_INDEX = "search-relevance-experiment-result";
+    public static final String EXPERIMENT_RESULT_INDEX_MAPPING = "mappings/experiment_result.json";
+    public static final String CLICK_STATISTICS_INDEX = ".plugins-search-relevance-click-statistics";
+    public static final String CLICK_STATISTICS_INDEX_MAPPING = "mappings/click_statistics.json";
 
     /**
      * UBI
@@ -61,6 +66,13 @@ public class PluginConstants {
 
     public static final String CLICK_MODEL = "clickModel";
     public static final String NAX_RANK = "maxRank";
+    public static final String AGGREGATE_EVENTS = "aggregateEvents";
+    public static final String INCREMENTAL = "incremental";
+    public static final String WINDOW_DAYS = "windowDays";
+    public static final String UBI_FILTER = "filter";
+    // bounded pool the E-step of EM click models runs on, sized from the allocated processors of the node
+    public static final String CLICK_MODEL_THREAD_POOL = "search_relevance_click_model";
+    public static final int CLICK_MODEL_THREAD_POOL_QUEUE_SIZE = 1000;
 
     /**
      * Rest Input Field Names
@@ -78,10 +90,18 @@ public class PluginConstants {
     public static final String QUERYSET_ID = "querySetId";
     public static final String SEARCH_CONFIGURATION_LIST = "searchConfigurationList";
     public static final String JUDGMENT_LIST = "judgmentList";
+    public static final String POINT_IN_TIME = "pointInTime";
+    public static final String POINT_IN_TIME_KEEP_ALIVE = "pointInTimeKeepAlive";
+    public static final String PREFERENCE = "preference";
+    public static final String REQUEST_CACHE = "requestCache";
+    public static final String PROFILE_SAMPLE_RATE = "profileSampleRate";
 
     public static final String JUDGMENT_RATINGS = "judgmentRatings";
     public static final String CONTEXT_FIELDS = "contextFields";
     public static final String IGNORE_FAILURE = "ignoreFailure";
+    public static final String SEARCH_CONCURRENCY = "searchConcurrency";
+    public static final String LLM_CONCURRENCY = "llmConcurrency";
+    public static final String MULTI_QUERY_PACKING = "multiQueryPacking";
 
     public static final int DEFAULTED_QUERY_SET_SIZE = 10;
     public static final String MANUAL = "manual";
@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.dao;
+
+import static org.opensearch.searchrelevance.indices.SearchRelevanceIndices.CLICK_STATISTICS;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.indices.SearchRelevanceIndicesManager;
+import org.opensearch.searchrelevance.model.ClickCounter;
+import org.opensearch.searchrelevance.utils.TimeUtils;
+
+/**
+ * Stores the incremental click statistics: one {@link ClickCounter} per user query, object, position and day,
+ * and a watermark document with the event timestamp up to which UBI events have been counted.
+ */
+public class ClickStatisticsDao {
+    private static final Logger LOGGER = LogManager.getLogger(ClickStatisticsDao.class);
+    public static final String WATERMARK_ID = "watermark";
+    public static final String WATERMARK = "watermark";
+    private final SearchRelevanceIndicesManager searchRelevanceIndicesManager;
+
+    @Inject
+    public ClickStatisticsDao(SearchRelevanceIndicesManager searchRelevanceIndicesManager) {
+        this.searchRelevanceIndicesManager = searchRelevanceIndicesManager;
+    }
+
+    /**
+     * Create click statistics index if not exists
+     * @param stepListener - step lister for async operation
+     */
+    public void createIndexIfAbsent(final StepListener<Void> stepListener) {
+        searchRelevanceIndicesManager.createIndexIfAbsent(CLICK_STATISTICS, stepListener);
+    }
+
+    /**
+     * Get the timestamp up to which events have been counted
+     * @param listener - responds with the watermark in epoch millis, or null when no events have been counted yet
+     */
+    public void getWatermark(final ActionListener<Long> listener) {
+        searchRelevanceIndicesManager.multiGetDocs(List.of(WATERMARK_ID), CLICK_STATISTICS, ActionListener.wrap(response -> {
+            MultiGetItemResponse item = response.getResponses()[0];
+            if (item.isFailed()) {
+                listener.onFailure(
+                    new SearchRelevanceException(
+                        "Failed to get click statistics watermark",
+                        item.getFailure().getFailure(),
+                        RestStatus.INTERNAL_SERVER_ERROR
+                    )
+                );
+                return;
+            }
+            GetResponse getResponse = item.getResponse();
+            if (getResponse == null || getResponse.isExists() == false) {
+                listener.onResponse(null);
+                return;
+            }
+            Object watermark = getResponse.getSourceAsMap().get(WATERMARK);
+            listener.onResponse(watermark == null ? null : Long.parseLong(watermark.toString()));
+        }, listener::onFailure));
+    }
+
+    /**
+     * Stores a batch of counters with a single bulk request, replacing the counters with the same ids. No refresh is forced,
+     * the counters become visible with the watermark.
+     * @param counters - counters to be stored
+     * @param listener - action listener for async operation
+     */
+    public void putClickCounters(final List<ClickCounter> counters, final ActionListener<BulkResponse> listener) {
+        if (counters == null || counters.isEmpty()) {
+            listener.onFailure(new SearchRelevanceException("counters cannot be null or empty", RestStatus.BAD_REQUEST));
+            return;
+        }
+        try {
+            Map<String, XContentBuilder> docs = new LinkedHashMap<>();
+            for (ClickCounter counter : counters) {
+                docs.put(counter.id(), counter.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS));
+            }
+            searchRelevanceIndicesManager.bulkPutDocs(docs, CLICK_STATISTICS, WriteRequest.RefreshPolicy.NONE, listener);
+        } catch (IOException e) {
+            listener.onFailure(new SearchRelevanceException("Failed to prepare click counters", e, RestStatus.INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    /**
+     * Stores the watermark once all counters up to it are stored, and refreshes the index so that they can be searched
+     * @param watermark - event timestamp in epoch millis up to which events have been counted
+     * @param listener - action listener for async operation
+     */
+    public void putWatermark(final long watermark, final ActionListener<BulkResponse> listener) {
+        try {
+            XContentBuilder doc = XContentFactory.jsonBuilder()
+                .startObject()
+                .field(ClickCounter.ID, WATERMARK_ID)
+                .field(ClickCounter.TIME_STAMP, TimeUtils.getTimestamp())
+                .field(WATERMARK, watermark)
+                .endObject();
+            LOGGER.debug("Advancing click statistics watermark to {}", watermark);
+            searchRelevanceIndicesManager.bulkPutDocs(
+                Map.of(WATERMARK_ID, doc),
+                CLICK_STATISTICS,
+                WriteRequest.RefreshPolicy.IMMEDIATE,
+                listener
+            );
+        } catch (IOException e) {
+            listener.onFailure(new SearchRelevanceException("Failed to prepare watermark", e, RestStatus.INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    /**
+     * Search the counters, usually with aggregations
+     * @param searchSourceBuilder - search source to be executed
+     * @param listener - async operation
+     */
+    public void searchClickCounters(final SearchSourceBuilder searchSourceBuilder, final ActionListener<SearchResponse> listener) {
+        searchRelevanceIndicesManager.listDocsBySearchRequest(searchSourceBuilder, CLICK_STATISTICS, listener);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.dao;
+
+import static org.opensearch.searchrelevance.indices.SearchRelevanceIndices.EXPERIMENT_RESULT;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.reindex.BulkByScrollResponse;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.indices.SearchRelevanceIndicesManager;
+import org.opensearch.searchrelevance.model.ExperimentResult;
+
+public class ExperimentResultDao {
+    private static final Logger LOGGER = LogManager.getLogger(ExperimentResultDao.class);
+    private final SearchRelevanceIndicesManager searchRelevanceIndicesManager;
+
+    public ExperimentResultDao(SearchRelevanceIndicesManager searchRelevanceIndicesManager) {
+        this.searchRelevanceIndicesManager = searchRelevanceIndicesManager;
+    }
+
+    /**
+     * Create experiment result index if not exists
+     * @param stepListener - step lister for async operation
+     */
+    public void createIndexIfAbsent(final StepListener<Void> stepListener) {
+        searchRelevanceIndicesManager.createIndexIfAbsent(EXPERIMENT_RESULT, stepListener);
+    }
+
+    /**
+     * Stores a batch of experiment results to the system index with a single bulk request.
+     * The listener is only called once the results are visible to search, without forcing a refresh per batch.
+     * @param experimentResults - ExperimentResult batch to be stored
+     * @param listener - action lister for async operation
+     */
+    public void putExperimentResults(final List<ExperimentResult> experimentResults, final ActionListener<BulkResponse> listener) {
+        if (experimentResults == null || experimentResults.isEmpty()) {
+            listener.onFailure(new SearchRelevanceException("ExperimentResults cannot be null or empty", RestStatus.BAD_REQUEST));
+            return;
+        }
+        try {
+            Map<String, XContentBuilder> docs = new LinkedHashMap<>();
+            for (ExperimentResult experimentResult : experimentResults) {
+                docs.put(experimentResult.id(), experimentResult.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS));
+            }
+            searchRelevanceIndicesManager.bulkPutDocs(docs, EXPERIMENT_RESULT, WriteRequest.RefreshPolicy.WAIT_UNTIL, listener);
+        } catch (IOException e) {
+            throw new SearchRelevanceException("Failed to store experimentResults", e, RestStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Delete all experiment results of an experiment
+     * @param experimentId - id of the experiment whose results are deleted
+     * @param listener - action lister for async operation
+     */
+    public void deleteExperimentResults(final String experimentId, final ActionListener<BulkByScrollResponse> listener) {
+        searchRelevanceIndicesManager.deleteDocsByQuery(
+            QueryBuilders.termQuery(ExperimentResult.EXPERIMENT_ID, experimentId),
+            EXPERIMENT_RESULT,
+            listener
+        );
+    }
+
+    /**
+     * List experiment results by source builder
+     * @param sourceBuilder - source builder to be searched
+     * @param listener - action lister for async operation
+     */
+    public SearchResponse listExperimentResults(SearchSourceBuilder sourceBuilder, ActionListener<SearchResponse> listener) {
+        // Apply default values if not set
+        if (sourceBuilder == null) {
+            sourceBuilder = new SearchSourceBuilder();
+        }
+
+        // Ensure we have a query
+        if (sourceBuilder.query() == null) {
+            sourceBuilder.query(QueryBuilders.matchAllQuery());
+        }
+
+        return searchRelevanceIndicesManager.listDocsBySearchRequest(sourceBuilder, EXPERIMENT_RESULT, listener);
+    }
+}
@@ -14,12 +14,18 @@ import static org.opensearch.searchrelevance.model.JudgmentCache.QUERY_TEXT;
 import static org.opensearch.searchrelevance.utils.ParserUtils.convertListToSortedStr;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.StepListener;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.WriteRequest;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.core.action.ActionListener;
@@ -112,6 +118,43 @@ public class JudgmentCacheDao {
         }
     }
 
+    /**
+     * Stores a batch of judgment caches with a single bulk request.
+     * Entries are written under their deterministic ids, so an existing entry is replaced, and no refresh is forced.
+     * @param judgmentCaches - judgment cache batch to be stored
+     * @param listener - action listener for async operation
+     */
+    public void putJudgmentCaches(final List<JudgmentCache> judgmentCaches, final ActionListener<BulkResponse> listener) {
+        if (judgmentCaches == null || judgmentCaches.isEmpty()) {
+            listener.onFailure(new SearchRelevanceException("judgmentCaches cannot be null or empty", RestStatus.BAD_REQUEST));
+            return;
+        }
+        try {
+            Map<String, XContentBuilder> docs = new LinkedHashMap<>();
+            for (JudgmentCache judgmentCache : judgmentCaches) {
+                docs.put(judgmentCache.id(), judgmentCache.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS));
+            }
+            searchRelevanceIndicesManager.bulkPutDocs(docs, JUDGMENT_CACHE, WriteRequest.RefreshPolicy.NONE, listener);
+        } catch (IOException e) {
+            listener.onFailure(
+                new SearchRelevanceException("Failed to prepare judgment cache documents", e, RestStatus.INTERNAL_SERVER_ERROR)
+            );
+        }
+    }
+
+    /**
+     * Get judgment caches by their deterministic ids with a single multi-get request
+     * @param ids - judgment cache ids, see {@link org.opensearch.searchrelevance.utils.ParserUtils#generateUniqueId}
+     * @param listener - async operation
+     */
+    public void getJudgmentCachesByIds(final Collection<String> ids, final ActionListener<MultiGetResponse> listener) {
+        if (ids == null || ids.isEmpty()) {
+            listener.onFailure(new SearchRelevanceException("ids cannot be null or empty", RestStatus.BAD_REQUEST));
+            return;
+        }
+        searchRelevanceIndicesManager.multiGetDocs(ids, JUDGMENT_CACHE, listener);
+    }
+
     /**
      * Get judgment cache by queryText and documentId
      * @param queryText - queryText to be searched
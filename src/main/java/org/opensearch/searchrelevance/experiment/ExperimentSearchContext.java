@@ -0,0 +1,137 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.experiment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.common.Randomness;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.search.builder.PointInTimeBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.searchrelevance.metrics.SearchLatencyStats;
+
+/**
+ * Search settings shared by every search issued within one experiment run.
+ * When point-in-time ids are present, each search configuration index is searched through its point-in-time,
+ * so all queries of the run see the same index state. Otherwise the optional preference pins shard copies instead.
+ * Searches of the run are recorded to its latency stats, and a sampled fraction of them is profiled.
+ */
+public class ExperimentSearchContext {
+    public static final TimeValue DEFAULT_KEEP_ALIVE = TimeValue.timeValueMinutes(10);
+    public static final ExperimentSearchContext NONE = new ExperimentSearchContext(Map.of(), DEFAULT_KEEP_ALIVE, null, null);
+
+    private final Map<String, String> indexToPitId;
+    private final TimeValue keepAlive;
+    private final String preference;
+    private final Boolean requestCache;
+    private final double profileSampleRate;
+    private final SearchLatencyStats latencyStats;
+
+    public ExperimentSearchContext(Map<String, String> indexToPitId, TimeValue keepAlive, String preference, Boolean requestCache) {
+        this(indexToPitId, keepAlive, preference, requestCache, 0.0, null);
+    }
+
+    public ExperimentSearchContext(
+        Map<String, String> indexToPitId,
+        TimeValue keepAlive,
+        String preference,
+        Boolean requestCache,
+        double profileSampleRate,
+        SearchLatencyStats latencyStats
+    ) {
+        this.indexToPitId = Collections.unmodifiableMap(new HashMap<>(indexToPitId));
+        this.keepAlive = Objects.requireNonNull(keepAlive);
+        this.preference = preference;
+        this.requestCache = requestCache;
+        this.profileSampleRate = profileSampleRate;
+        this.latencyStats = latencyStats;
+    }
+
+    /**
+     * Applies the run-wide settings to a search request built from a search configuration.
+     * Point-in-time searches resolve their indices from the pit id, and the pit already pins shard copies,
+     * so indices and preference are not set on those requests.
+     * @param searchRequest - search request targeting the search configuration index
+     * @param index - index of the search configuration, used to look up its point-in-time
+     * @return SearchRequest
+     */
+    public SearchRequest apply(SearchRequest searchRequest, String index) {
+        if (requestCache != null) {
+            searchRequest.requestCache(requestCache);
+        }
+        if (profileSampleRate > 0 && Randomness.get().nextDouble() < profileSampleRate) {
+            sourceBuilder(searchRequest).profile(true);
+        }
+
+        String pitId = indexToPitId.get(index);
+        if (pitId == null) {
+            if (preference != null && !preference.isEmpty()) {
+                searchRequest.preference(preference);
+            }
+            return searchRequest;
+        }
+
+        sourceBuilder(searchRequest).pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(keepAlive));
+        searchRequest.indices(new String[0]);
+        return searchRequest;
+    }
+
+    /**
+     * Records took time and shard count of a search issued within this run
+     * @param searchConfigurationId - search configuration the search was built from
+     * @param variant - experiment variant key, null when the search does not belong to a variant
+     * @param response - search response
+     */
+    public void recordSearch(String searchConfigurationId, String variant, SearchResponse response) {
+        if (latencyStats != null) {
+            latencyStats.record(searchConfigurationId, variant, response);
+        }
+    }
+
+    private static SearchSourceBuilder sourceBuilder(SearchRequest searchRequest) {
+        if (searchRequest.source() == null) {
+            searchRequest.source(new SearchSourceBuilder());
+        }
+        return searchRequest.source();
+    }
+
+    public boolean hasPointInTime() {
+        return !indexToPitId.isEmpty();
+    }
+
+    public List<String> getPitIds() {
+        return new ArrayList<>(indexToPitId.values());
+    }
+
+    public TimeValue getKeepAlive() {
+        return keepAlive;
+    }
+
+    public String getPreference() {
+        return preference;
+    }
+
+    public Boolean getRequestCache() {
+        return requestCache;
+    }
+
+    public double getProfileSampleRate() {
+        return profileSampleRate;
+    }
+
+    public SearchLatencyStats getLatencyStats() {
+        return latencyStats;
+    }
+}
@@ -10,6 +10,8 @@ package org.opensearch.searchrelevance.indices;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 
@@ -19,7 +21,11 @@ import org.opensearch.action.DocWriteRequest.OpType;
 import org.opensearch.action.StepListener;
 import org.opensearch.action.admin.indices.create.CreateIndexRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
+import org.opensearch.action.bulk.BulkRequestBuilder;
+import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.delete.DeleteResponse;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
@@ -31,7 +37,11 @@ import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.reindex.BulkByScrollResponse;
+import org.opensearch.index.reindex.DeleteByQueryAction;
+import org.opensearch.index.reindex.DeleteByQueryRequest;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.search.internal.InternalSearchResponse;
 import org.opensearch.searchrelevance.exception.SearchRelevanceException;
@@ -185,6 +195,113 @@ public class SearchRelevanceIndicesManager {
         executeAction(listener, searchOperationContext, action);
     }
 
+    /**
+     * Put a batch of docs to the system index with a single bulk request
+     * @param docs - document id to content of the docs need to be executed
+     * @param index - system index
+     * @param refreshPolicy - refresh policy of the bulk request
+     * @param listener - action lister for async action
+     */
+    public void bulkPutDocs(
+        final Map<String, XContentBuilder> docs,
+        final SearchRelevanceIndices index,
+        final WriteRequest.RefreshPolicy refreshPolicy,
+        final ActionListener<BulkResponse> listener
+    ) {
+        SearchOperationContext searchOperationContext = SearchOperationContext.builder().index(index).build();
+        BiConsumer<SearchOperationContext, ActionListener<?>> action = (context, actionListener) -> StashedThreadContext.run(client, () -> {
+            try {
+                @SuppressWarnings("unchecked")
+                ActionListener<BulkResponse> typedListener = (ActionListener<BulkResponse>) actionListener;
+                BulkRequestBuilder bulkRequestBuilder = client.prepareBulk().setRefreshPolicy(refreshPolicy);
+                docs.forEach(
+                    (docId, xContentBuilder) -> bulkRequestBuilder.add(
+                        new IndexRequest(context.getIndex().getIndexName()).id(docId).opType(OpType.INDEX).source(xContentBuilder)
+                    )
+                );
+                bulkRequestBuilder.execute(ActionListener.wrap(bulkResponse -> {
+                    if (bulkResponse.hasFailures()) {
+                        typedListener.onFailure(
+                            new SearchRelevanceException(
+                                "Failed to store docs: " + bulkResponse.buildFailureMessage(),
+                                RestStatus.INTERNAL_SERVER_ERROR
+                            )
+                        );
+                        return;
+                    }
+                    typedListener.onResponse(bulkResponse);
+                }, typedListener::onFailure));
+            } catch (Exception e) {
+                actionListener.onFailure(new SearchRelevanceException("Failed to store docs", e, RestStatus.INTERNAL_SERVER_ERROR));
+            }
+        });
+        executeAction(listener, searchOperationContext, action);
+    }
+
+    /**
+     * Get a batch of docs by doc id with a single multi-get request.
+     * Docs that do not exist are returned as not found items, and per item failures are kept in the response.
+     * @param docIds - document ids need to be fetched
+     * @param index - system index
+     * @param listener - action lister for async action
+     */
+    public void multiGetDocs(
+        final Collection<String> docIds,
+        final SearchRelevanceIndices index,
+        final ActionListener<MultiGetResponse> listener
+    ) {
+        SearchOperationContext searchOperationContext = SearchOperationContext.builder().index(index).build();
+        BiConsumer<SearchOperationContext, ActionListener<?>> action = (context, actionListener) -> StashedThreadContext.run(client, () -> {
+            try {
+                @SuppressWarnings("unchecked")
+                ActionListener<MultiGetResponse> typedListener = (ActionListener<MultiGetResponse>) actionListener;
+                client.prepareMultiGet()
+                    .add(context.getIndex().getIndexName(), docIds)
+                    .execute(
+                        ActionListener.wrap(
+                            typedListener::onResponse,
+                            e -> typedListener.onFailure(
+                                new SearchRelevanceException("Failed to get docs", e, RestStatus.INTERNAL_SERVER_ERROR)
+                            )
+                        )
+                    );
+            } catch (Exception e) {
+                actionListener.onFailure(new SearchRelevanceException("Failed to get docs", e, RestStatus.INTERNAL_SERVER_ERROR));
+            }
+        });
+        executeAction(listener, searchOperationContext, action);
+    }
+
+    /**
+     * Delete all docs matching a query
+     * @param queryBuilder - query selecting the docs to be deleted
+     * @param index - system index
+     * @param listener - action lister for async action
+     */
+    public void deleteDocsByQuery(
+        final QueryBuilder queryBuilder,
+        final SearchRelevanceIndices index,
+        final ActionListener<BulkByScrollResponse> listener
+    ) {
+        if (clusterService.state().metadata().hasIndex(index.getIndexName()) == false) {
+            listener.onResponse(null);
+            return;
+        }
+        DeleteByQueryRequest deleteByQueryRequest = new DeleteByQueryRequest(index.getIndexName()).setQuery(queryBuilder)
+            .setRefresh(true);
+        StashedThreadContext.run(
+            client,
+            () -> client.execute(
+                DeleteByQueryAction.INSTANCE,
+                deleteByQueryRequest,
+                ActionListener.wrap(
+                    listener::onResponse,
+                    e -> listener.onFailure(new SearchRelevanceException("Failed to delete docs", e, RestStatus.INTERNAL_SERVER_ERROR))
+                )
+            )
+        );
+    }
+
     /**
      * Delete a doc by doc id
      * @param docId - document id need to be executed
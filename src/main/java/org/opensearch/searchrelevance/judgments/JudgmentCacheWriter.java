@@ -0,0 +1,106 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.searchrelevance.dao.JudgmentCacheDao;
+import org.opensearch.searchrelevance.model.JudgmentCache;
+
+/**
+ * Buffers the LLM ratings of one judgment job and writes them to the judgment cache index in bulk batches, without a refresh per batch.
+ * A failed batch is only logged, since a missing cache entry costs another LLM call but never a wrong rating.
+ */
+class JudgmentCacheWriter {
+    private static final Logger LOGGER = LogManager.getLogger(JudgmentCacheWriter.class);
+    static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final JudgmentCacheDao judgmentCacheDao;
+    private final int batchSize;
+
+    private final List<JudgmentCache> buffer = new ArrayList<>();
+    private int pendingWrites;
+    private ActionListener<Void> flushListener;
+
+    JudgmentCacheWriter(JudgmentCacheDao judgmentCacheDao, int batchSize) {
+        this.judgmentCacheDao = judgmentCacheDao;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds a judgment cache entry, writing the buffer once it is full
+     */
+    void add(JudgmentCache judgmentCache) {
+        List<JudgmentCache> batch = null;
+        synchronized (this) {
+            buffer.add(judgmentCache);
+            if (buffer.size() >= batchSize) {
+                batch = takeBuffer();
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Writes the remaining buffer, the listener is called once every batch of the job was written or has failed
+     */
+    void flush(ActionListener<Void> listener) {
+        List<JudgmentCache> batch = null;
+        synchronized (this) {
+            flushListener = listener;
+            if (buffer.isEmpty() == false) {
+                batch = takeBuffer();
+            } else if (pendingWrites > 0) {
+                return;
+            } else {
+                flushListener = null;
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        } else {
+            listener.onResponse(null);
+        }
+    }
+
+    private List<JudgmentCache> takeBuffer() {
+        List<JudgmentCache> batch = new ArrayList<>(buffer);
+        buffer.clear();
+        pendingWrites++;
+        return batch;
+    }
+
+    private void write(List<JudgmentCache> batch) {
+        judgmentCacheDao.putJudgmentCaches(batch, ActionListener.wrap(response -> {
+            LOGGER.debug("Stored {} judgment cache entries", batch.size());
+            onWriteCompleted();
+        }, e -> {
+            LOGGER.error("Failed to store {} judgment cache entries", batch.size(), e);
+            onWriteCompleted();
+        }));
+    }
+
+    private void onWriteCompleted() {
+        ActionListener<Void> listener;
+        synchronized (this) {
+            pendingWrites--;
+            if (pendingWrites > 0 || flushListener == null) {
+                return;
+            }
+            listener = flushListener;
+            flushListener = null;
+        }
+        listener.onResponse(null);
+    }
+}
@@ -8,6 +8,8 @@
 package org.opensearch.searchrelevance.judgments;
 
 import org.opensearch.common.inject.Inject;
+import org.opensearch.env.Environment;
+import org.opensearch.searchrelevance.dao.ClickStatisticsDao;
 import org.opensearch.searchrelevance.dao.JudgmentCacheDao;
 import org.opensearch.searchrelevance.dao.QuerySetDao;
 import org.opensearch.searchrelevance.dao.SearchConfigurationDao;
@@ -20,6 +22,9 @@ public class JudgmentsProcessorFactory {
     private final QuerySetDao querySetDao;
     private final SearchConfigurationDao searchConfigurationDao;
     private final JudgmentCacheDao judgmentCacheDao;
+    private final LocalJudgmentCache localJudgmentCache;
+    private final ClickStatisticsDao clickStatisticsDao;
+    private final Environment environment;
 
     private final Client client;
 
@@ -29,19 +34,32 @@ public class JudgmentsProcessorFactory {
         QuerySetDao querySetDao,
         SearchConfigurationDao searchConfigurationDao,
         JudgmentCacheDao judgmentCacheDao,
+        LocalJudgmentCache localJudgmentCache,
+        ClickStatisticsDao clickStatisticsDao,
+        Environment environment,
         Client client
     ) {
         this.mlAccessor = mlAccessor;
         this.querySetDao = querySetDao;
         this.searchConfigurationDao = searchConfigurationDao;
         this.judgmentCacheDao = judgmentCacheDao;
+        this.localJudgmentCache = localJudgmentCache;
+        this.clickStatisticsDao = clickStatisticsDao;
+        this.environment = environment;
         this.client = client;
     }
 
     public BaseJudgmentsProcessor getProcessor(JudgmentType type) {
         return switch (type) {
-            case LLM_JUDGMENT -> new LlmJudgmentsProcessor(mlAccessor, querySetDao, searchConfigurationDao, judgmentCacheDao, client);
-            case UBI_JUDGMENT -> new UbiJudgmentsProcessor(client);
+            case LLM_JUDGMENT -> new LlmJudgmentsProcessor(
+                mlAccessor,
+                querySetDao,
+                searchConfigurationDao,
+                judgmentCacheDao,
+                localJudgmentCache,
+                client
+            );
+            case UBI_JUDGMENT -> new UbiJudgmentsProcessor(client, clickStatisticsDao, environment);
             case IMPORT_JUDGMENT -> new ImportJudgmentsProcessor(client);
             default -> throw new IllegalArgumentException("Unsupported judgment type: " + type);
         };
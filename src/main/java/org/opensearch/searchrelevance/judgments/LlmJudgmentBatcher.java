@@ -0,0 +1,205 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.ml.ChunkResult;
+import org.opensearch.searchrelevance.ml.LlmRating;
+import org.opensearch.searchrelevance.ml.MLAccessor;
+import org.opensearch.searchrelevance.utils.ConcurrencyLimiter;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * Collects the uncached hits of several query texts of one judgment job and judges them with shared LLM calls.
+ * A batch is sent once it holds {@link #DEFAULT_MAX_QUERIES} query texts, or once its first query text has waited for the linger time,
+ * so a job with few query texts left does not wait for a full batch. Every batch takes one slot of the LLM stage.
+ * The ratings of a batch are returned to each query text as composite key to rating.
+ */
+class LlmJudgmentBatcher {
+    private static final Logger LOGGER = LogManager.getLogger(LlmJudgmentBatcher.class);
+    static final int DEFAULT_MAX_QUERIES = 10;
+    static final TimeValue DEFAULT_LINGER = TimeValue.timeValueMillis(100);
+
+    private final MLAccessor mlAccessor;
+    private final String modelId;
+    private final String jobId;
+    private final int tokenLimit;
+    private final boolean ignoreFailure;
+    private final ConcurrencyLimiter llmLimiter;
+    private final Scheduler scheduler;
+    private final int maxQueries;
+    private final TimeValue linger;
+
+    private List<PendingQuery> pending = new ArrayList<>();
+    private Scheduler.ScheduledCancellable lingerTimer;
+
+    LlmJudgmentBatcher(
+        MLAccessor mlAccessor,
+        String modelId,
+        String jobId,
+        int tokenLimit,
+        boolean ignoreFailure,
+        ConcurrencyLimiter llmLimiter,
+        Scheduler scheduler,
+        int maxQueries,
+        TimeValue linger
+    ) {
+        this.mlAccessor = mlAccessor;
+        this.modelId = modelId;
+        this.jobId = jobId;
+        this.tokenLimit = tokenLimit;
+        this.ignoreFailure = ignoreFailure;
+        this.llmLimiter = llmLimiter;
+        this.scheduler = scheduler;
+        this.maxQueries = maxQueries;
+        this.linger = linger;
+    }
+
+    /**
+     * Add the uncached hits of a query text to the next batch
+     * @param searchText - query text the hits are judged against
+     * @param reference - reference answer of the query text, null when there is none
+     * @param hits - hits pending judged, keyed by composite key
+     * @param listener - receives the ratings of the query text keyed by composite key
+     */
+    void submit(String searchText, String reference, Map<String, String> hits, ActionListener<Map<String, String>> listener) {
+        List<PendingQuery> batch = null;
+        synchronized (this) {
+            pending.add(new PendingQuery(new MLAccessor.QueryHits(searchText, reference, hits), listener));
+            if (pending.size() >= maxQueries) {
+                batch = takePending();
+            } else if (pending.size() == 1) {
+                lingerTimer = scheduler.schedule(this::flushPending, linger, ThreadPool.Names.GENERIC);
+            }
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    private void flushPending() {
+        List<PendingQuery> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        send(batch);
+    }
+
+    private List<PendingQuery> takePending() {
+        if (lingerTimer != null) {
+            lingerTimer.cancel();
+            lingerTimer = null;
+        }
+        List<PendingQuery> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<PendingQuery> batch) {
+        List<MLAccessor.QueryHits> queries = new ArrayList<>();
+        for (PendingQuery query : batch) {
+            queries.add(query.queryHits());
+        }
+        LOGGER.info("Judging {} query texts with shared LLM calls", batch.size());
+        List<Map<String, String>> ratings = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            ratings.add(new HashMap<>());
+        }
+        AtomicBoolean completed = new AtomicBoolean(false);
+        llmLimiter.execute(
+            releaseLlm -> mlAccessor.predictMultiQuery(modelId, jobId, tokenLimit, queries, ignoreFailure, new ActionListener<>() {
+                @Override
+                public void onResponse(ChunkResult chunkResult) {
+                    if (chunkResult.isFailed()) {
+                        LOGGER.warn("Chunk {} failed: {}", chunkResult.getChunkIndex(), chunkResult.getError());
+                    }
+                    demultiplex(chunkResult, batch, ratings);
+                    if (chunkResult.isLastChunk() && completed.compareAndSet(false, true)) {
+                        releaseLlm.run();
+                        for (int i = 0; i < batch.size(); i++) {
+                            complete(batch.get(i), ratings.get(i));
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    if (completed.compareAndSet(false, true)) {
+                        releaseLlm.run();
+                        failAll(batch, e);
+                    }
+                }
+            }),
+            e -> {
+                if (completed.compareAndSet(false, true)) {
+                    failAll(batch, e);
+                }
+            }
+        );
+    }
+
+    /**
+     * Split the ratings of a chunk by the query text their tagged ids refer to.
+     * A rating is only kept for a hit that was sent with that query text, the model may mix up or make up ids.
+     */
+    private void demultiplex(ChunkResult chunkResult, List<PendingQuery> batch, List<Map<String, String>> ratings) {
+        for (LlmRating rating : chunkResult.getRatings()) {
+            int queryIndex = MLAccessor.queryIndexOfTaggedHitId(rating.id());
+            String compositeKey = MLAccessor.compositeKeyOfTaggedHitId(rating.id());
+            if (queryIndex < 0
+                || queryIndex >= batch.size()
+                || batch.get(queryIndex).queryHits().hits().containsKey(compositeKey) == false) {
+                LOGGER.warn("Dropping rating with unknown id {} from chunk {}", rating.id(), chunkResult.getChunkIndex());
+                continue;
+            }
+            ratings.get(queryIndex).put(compositeKey, Double.toString(rating.score()));
+        }
+    }
+
+    /**
+     * Return the ratings of a query text. Hits the model left unrated are left out, as they are when a query text is
+     * judged on its own: a failed chunk already failed the batch unless failures are ignored.
+     */
+    private void complete(PendingQuery query, Map<String, String> ratings) {
+        int missing = query.queryHits().hits().size() - ratings.size();
+        if (missing > 0) {
+            LOGGER.warn("The model did not rate {} hits of query text {}", missing, query.queryHits().searchText());
+        }
+        query.listener().onResponse(ratings);
+    }
+
+    private void failAll(List<PendingQuery> batch, Exception e) {
+        LOGGER.error("Failed to judge {} query texts with shared LLM calls", batch.size(), e);
+        SearchRelevanceException failure = new SearchRelevanceException(
+            "Failed to process chunk response",
+            e,
+            RestStatus.INTERNAL_SERVER_ERROR
+        );
+        for (PendingQuery query : batch) {
+            query.listener().onFailure(failure);
+        }
+    }
+
+    private record PendingQuery(MLAccessor.QueryHits queryHits, ActionListener<Map<String, String>> listener) {
+    }
+}
@@ -7,10 +7,15 @@
  */
 package org.opensearch.searchrelevance.judgments;
 
-import static org.opensearch.searchrelevance.common.MLConstants.sanitizeLLMResponse;
+import static org.opensearch.searchrelevance.common.MLConstants.DEFAULTED_LLM_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.MLConstants.DEFAULTED_SEARCH_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.PluginConstants.LLM_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.PluginConstants.MULTI_QUERY_PACKING;
+import static org.opensearch.searchrelevance.common.PluginConstants.SEARCH_CONCURRENCY;
 import static org.opensearch.searchrelevance.model.JudgmentCache.CONTEXT_FIELDS_STR;
 import static org.opensearch.searchrelevance.model.JudgmentCache.RATING;
 import static org.opensearch.searchrelevance.model.QueryWithReference.DELIMITER;
+import static org.opensearch.searchrelevance.model.builder.SearchRequestBuilder.applyLeanRetrieval;
 import static org.opensearch.searchrelevance.model.builder.SearchRequestBuilder.buildSearchRequest;
 import static org.opensearch.searchrelevance.utils.ParserUtils.combinedIndexAndDocId;
 import static org.opensearch.searchrelevance.utils.ParserUtils.generateUniqueId;
@@ -22,17 +27,22 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.StepListener;
+import org.opensearch.action.get.MultiGetItemResponse;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
-import org.opensearch.action.support.PlainActionFuture;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
@@ -42,6 +52,7 @@ import org.opensearch.searchrelevance.dao.QuerySetDao;
 import org.opensearch.searchrelevance.dao.SearchConfigurationDao;
 import org.opensearch.searchrelevance.exception.SearchRelevanceException;
 import org.opensearch.searchrelevance.ml.ChunkResult;
+import org.opensearch.searchrelevance.ml.LlmRating;
 import org.opensearch.searchrelevance.ml.MLAccessor;
 import org.opensearch.searchrelevance.model.JudgmentCache;
 import org.opensearch.searchrelevance.model.JudgmentType;
@@ -49,11 +60,11 @@ import org.opensearch.searchrelevance.model.QuerySet;
 import org.opensearch.searchrelevance.model.SearchConfiguration;
 import org.opensearch.searchrelevance.stats.events.EventStatName;
 import org.opensearch.searchrelevance.stats.events.EventStatsManager;
+import org.opensearch.searchrelevance.utils.ConcurrencyLimiter;
 import org.opensearch.searchrelevance.utils.TimeUtils;
 import org.opensearch.transport.client.Client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
@@ -63,6 +74,7 @@ public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
     private final QuerySetDao querySetDao;
     private final SearchConfigurationDao searchConfigurationDao;
     private final JudgmentCacheDao judgmentCacheDao;
+    private final LocalJudgmentCache localJudgmentCache;
     private final Client client;
 
     @Inject
@@ -71,12 +83,14 @@ public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
         QuerySetDao querySetDao,
         SearchConfigurationDao searchConfigurationDao,
         JudgmentCacheDao judgmentCacheDao,
+        LocalJudgmentCache localJudgmentCache,
         Client client
     ) {
         this.mlAccessor = mlAccessor;
         this.querySetDao = querySetDao;
         this.searchConfigurationDao = searchConfigurationDao;
         this.judgmentCacheDao = judgmentCacheDao;
+        this.localJudgmentCache = localJudgmentCache;
         this.client = client;
     }
 
@@ -97,188 +111,399 @@ public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
             int tokenLimit = (int) metadata.get("tokenLimit");
             List<String> contextFields = (List<String>) metadata.get("contextFields");
             boolean ignoreFailure = (boolean) metadata.get("ignoreFailure");
+            int searchConcurrency = (int) metadata.getOrDefault(SEARCH_CONCURRENCY, DEFAULTED_SEARCH_CONCURRENCY);
+            int llmConcurrency = (int) metadata.getOrDefault(LLM_CONCURRENCY, DEFAULTED_LLM_CONCURRENCY);
+            boolean multiQueryPacking = (boolean) metadata.getOrDefault(MULTI_QUERY_PACKING, false);
 
             QuerySet querySet = querySetDao.getQuerySetSync(querySetId);
             List<SearchConfiguration> searchConfigurations = searchConfigurationList.stream()
                 .map(id -> searchConfigurationDao.getSearchConfigurationSync(id))
                 .collect(Collectors.toList());
 
-            List<Map<String, Object>> judgments = generateLLMJudgments(
+            generateLLMJudgments(
                 modelId,
                 size,
                 tokenLimit,
                 contextFields,
                 querySet,
                 searchConfigurations,
-                ignoreFailure
+                ignoreFailure,
+                searchConcurrency,
+                llmConcurrency,
+                multiQueryPacking,
+                ActionListener.wrap(listener::onResponse, e -> {
+                    LOGGER.error("Failed to generate LLM judgments", e);
+                    listener.onFailure(
+                        new SearchRelevanceException("Failed to generate LLM judgments", e, RestStatus.INTERNAL_SERVER_ERROR)
+                    );
+                })
             );
-
-            listener.onResponse(judgments);
         } catch (Exception e) {
             LOGGER.error("Failed to generate LLM judgments", e);
             listener.onFailure(new SearchRelevanceException("Failed to generate LLM judgments", e, RestStatus.INTERNAL_SERVER_ERROR));
         }
     }
 
-    private List<Map<String, Object>> generateLLMJudgments(
+    /**
+     * Generate judgments for all query texts through a two-stage pipeline: searches and cache lookups,
+     * then LLM calls, each with its own concurrency bound. Searches for upcoming query texts run while
+     * earlier query texts wait on the model, up to searchConcurrency + llmConcurrency query texts in flight.
+     * With multiQueryPacking, the uncached hits of several query texts are judged with shared LLM calls, and every LLM slot
+     * can hold a batch of query texts.
+     */
+    private void generateLLMJudgments(
         String modelId,
         int size,
         int tokenLimit,
         List<String> contextFields,
         QuerySet querySet,
         List<SearchConfiguration> searchConfigurations,
-        boolean ignoreFailure
+        boolean ignoreFailure,
+        int searchConcurrency,
+        int llmConcurrency,
+        boolean multiQueryPacking,
+        ActionListener<List<Map<String, Object>>> listener
     ) {
         List<String> queryTextWithReferences = querySet.querySetQueries().stream().map(e -> e.queryText()).collect(Collectors.toList());
+        if (queryTextWithReferences.isEmpty()) {
+            listener.onResponse(new ArrayList<>());
+            return;
+        }
 
-        List<Map<String, Object>> allJudgments = new ArrayList<>();
+        // calls of the job take turns with the calls of other jobs of the model at the rate limiter
+        String jobId = UUID.randomUUID().toString();
+        // the cache index is checked once per job, ratings are buffered and written in bulk
+        JudgmentCacheWriter judgmentCacheWriter = new JudgmentCacheWriter(judgmentCacheDao, JudgmentCacheWriter.DEFAULT_BATCH_SIZE);
+        ActionListener<List<Map<String, Object>>> flushingListener = ActionListener.wrap(
+            allJudgments -> judgmentCacheWriter.flush(ActionListener.wrap(v -> listener.onResponse(allJudgments), listener::onFailure)),
+            e -> judgmentCacheWriter.flush(ActionListener.wrap(v -> listener.onFailure(e), listener::onFailure))
+        );
+        Runnable processAll = () -> processQueryTexts(
+            modelId,
+            jobId,
+            size,
+            tokenLimit,
+            contextFields,
+            queryTextWithReferences,
+            searchConfigurations,
+            ignoreFailure,
+            searchConcurrency,
+            llmConcurrency,
+            multiQueryPacking,
+            judgmentCacheWriter,
+            flushingListener
+        );
+        StepListener<Void> createIndexStep = new StepListener<>();
+        judgmentCacheDao.createIndexIfAbsent(createIndexStep);
+        createIndexStep.whenComplete(v -> processAll.run(), e -> {
+            // judgments are still generated without the cache, the lookups and writes log their own failures
+            LOGGER.error("Failed to create judgment cache index", e);
+            processAll.run();
+        });
+    }
 
-        for (String queryTextWithReference : queryTextWithReferences) {
-            try {
-                Map<String, String> docIdToScore = processQueryText(
+    private void processQueryTexts(
+        String modelId,
+        String jobId,
+        int size,
+        int tokenLimit,
+        List<String> contextFields,
+        List<String> queryTextWithReferences,
+        List<SearchConfiguration> searchConfigurations,
+        boolean ignoreFailure,
+        int searchConcurrency,
+        int llmConcurrency,
+        boolean multiQueryPacking,
+        JudgmentCacheWriter judgmentCacheWriter,
+        ActionListener<List<Map<String, Object>>> listener
+    ) {
+        Executor executor = client.threadPool().generic();
+        int queriesPerLlmSlot = multiQueryPacking ? LlmJudgmentBatcher.DEFAULT_MAX_QUERIES : 1;
+        ConcurrencyLimiter inFlightLimiter = new ConcurrencyLimiter(searchConcurrency + llmConcurrency * queriesPerLlmSlot, executor);
+        ConcurrencyLimiter searchLimiter = new ConcurrencyLimiter(searchConcurrency, executor);
+        ConcurrencyLimiter llmLimiter = new ConcurrencyLimiter(llmConcurrency, executor);
+        LlmJudgmentBatcher batcher = multiQueryPacking
+            ? new LlmJudgmentBatcher(
+                mlAccessor,
+                modelId,
+                jobId,
+                tokenLimit,
+                ignoreFailure,
+                llmLimiter,
+                client.threadPool(),
+                LlmJudgmentBatcher.DEFAULT_MAX_QUERIES,
+                LlmJudgmentBatcher.DEFAULT_LINGER
+            )
+            : null;
+
+        // keep judgments in query set order, whatever order the query texts complete in
+        AtomicReferenceArray<Map<String, Object>> judgments = new AtomicReferenceArray<>(queryTextWithReferences.size());
+        AtomicInteger pendingQueries = new AtomicInteger(queryTextWithReferences.size());
+        AtomicBoolean hasFailure = new AtomicBoolean(false);
+
+        for (int i = 0; i < queryTextWithReferences.size(); i++) {
+            int position = i;
+            String queryTextWithReference = queryTextWithReferences.get(i);
+            Consumer<Exception> onQueryFailure = e -> {
+                LOGGER.error("Failed to process query: {}", queryTextWithReference, e);
+                if (!ignoreFailure) {
+                    if (hasFailure.compareAndSet(false, true)) {
+                        listener.onFailure(e);
+                    }
+                    return;
+                }
+                onQueryTextCompleted(judgments, pendingQueries, hasFailure, listener);
+            };
+            inFlightLimiter.execute(releaseInFlight -> {
+                if (hasFailure.get()) {
+                    releaseInFlight.run();
+                    return;
+                }
+                processQueryText(
                     modelId,
+                    jobId,
                     size,
                     tokenLimit,
                     contextFields,
                     searchConfigurations,
                     queryTextWithReference,
-                    ignoreFailure
+                    ignoreFailure,
+                    searchLimiter,
+                    llmLimiter,
+                    batcher,
+                    judgmentCacheWriter,
+                    ActionListener.runAfter(ActionListener.wrap(docIdToScore -> {
+                        Map<String, Object> judgmentForQuery = new HashMap<>();
+                        judgmentForQuery.put("query", queryTextWithReference);
+                        List<Map<String, String>> docIdRatings = docIdToScore.entrySet()
+                            .stream()
+                            .map(entry -> Map.of("docId", entry.getKey(), "rating", entry.getValue()))
+                            .collect(Collectors.toList());
+                        judgmentForQuery.put("ratings", docIdRatings);
+                        judgments.set(position, judgmentForQuery);
+
+                        LOGGER.debug("Processed query: {} with {} ratings", queryTextWithReference, docIdRatings.size());
+                        onQueryTextCompleted(judgments, pendingQueries, hasFailure, listener);
+                    }, onQueryFailure::accept), releaseInFlight)
                 );
+            }, onQueryFailure);
+        }
+    }
 
-                Map<String, Object> judgmentForQuery = new HashMap<>();
-                judgmentForQuery.put("query", queryTextWithReference);
-                List<Map<String, String>> docIdRatings = docIdToScore.entrySet()
-                    .stream()
-                    .map(entry -> Map.of("docId", entry.getKey(), "rating", entry.getValue()))
-                    .collect(Collectors.toList());
-                judgmentForQuery.put("ratings", docIdRatings);
-                allJudgments.add(judgmentForQuery);
-
-                LOGGER.debug("Processed query: {} with {} ratings", queryTextWithReference, docIdRatings.size());
-            } catch (Exception e) {
-                LOGGER.error("Failed to process query: {}", queryTextWithReference, e);
-                if (!ignoreFailure) {
-                    throw new SearchRelevanceException("Failed to generate LLM judgments", e, RestStatus.INTERNAL_SERVER_ERROR);
-                }
+    private void onQueryTextCompleted(
+        AtomicReferenceArray<Map<String, Object>> judgments,
+        AtomicInteger pendingQueries,
+        AtomicBoolean hasFailure,
+        ActionListener<List<Map<String, Object>>> listener
+    ) {
+        if (pendingQueries.decrementAndGet() != 0 || hasFailure.get()) {
+            return;
+        }
+        List<Map<String, Object>> allJudgments = new ArrayList<>();
+        for (int i = 0; i < judgments.length(); i++) {
+            if (judgments.get(i) != null) {
+                allJudgments.add(judgments.get(i));
             }
         }
-
-        LOGGER.info("Completed processing {} queries", queryTextWithReferences.size());
-        return allJudgments;
+        LOGGER.info("Completed processing {} queries", judgments.length());
+        listener.onResponse(allJudgments);
     }
 
-    private Map<String, String> processQueryText(
+    private void processQueryText(
         String modelId,
+        String jobId,
         int size,
         int tokenLimit,
         List<String> contextFields,
         List<SearchConfiguration> searchConfigurations,
         String queryTextWithReference,
-        boolean ignoreFailure
+        boolean ignoreFailure,
+        ConcurrencyLimiter searchLimiter,
+        ConcurrencyLimiter llmLimiter,
+        LlmJudgmentBatcher batcher,
+        JudgmentCacheWriter judgmentCacheWriter,
+        ActionListener<Map<String, String>> listener
     ) {
-        Map<String, String> unionHits = new HashMap<>();
         ConcurrentMap<String, String> docIdToScore = new ConcurrentHashMap<>();
-        Map<String, SearchHit> allHits = new HashMap<>();
-
         String queryText = queryTextWithReference.split(DELIMITER, 2)[0];
+        String index = searchConfigurations.get(0).index(); // All configs use same index
+
+        Consumer<Exception> onHitsFailure = e -> {
+            LOGGER.error("Failed to process hits for query: {}", queryText, e);
+            if (ignoreFailure) {
+                listener.onResponse(docIdToScore);
+            } else {
+                listener.onFailure(new SearchRelevanceException("Failed to process hits", e, RestStatus.INTERNAL_SERVER_ERROR));
+            }
+        };
+
+        // the search slot covers the searches and the cache lookups, the LLM stage has its own slots
+        searchLimiter.execute(
+            releaseSearch -> collectHits(
+                queryText,
+                size,
+                contextFields,
+                searchConfigurations,
+                ignoreFailure,
+                ActionListener.wrap(
+                    allHits -> deduplicateFromProcessedDocs(
+                        index,
+                        queryTextWithReference,
+                        new ArrayList<>(allHits.keySet()),
+                        contextFields,
+                        modelId,
+                        docIdToScore,
+                        ActionListener.wrap(unprocessedDocIds -> {
+                            releaseSearch.run();
+                            LOGGER.info("Cached docIds: {}", docIdToScore.keySet());
+                            LOGGER.info("Unprocessed docIds: {}", unprocessedDocIds);
+
+                            // Add unprocessed hits to unionHits
+                            Map<String, String> unionHits = new HashMap<>();
+                            for (String docId : unprocessedDocIds) {
+                                SearchHit hit = allHits.get(docId);
+                                String compositeKey = combinedIndexAndDocId(index, docId);
+                                String contextSource = getContextSource(hit, contextFields);
+                                unionHits.put(compositeKey, contextSource);
+                            }
+                            LOGGER.info("UnionHits size: {}", unionHits.size());
+
+                            if (unionHits.isEmpty()) {
+                                listener.onResponse(docIdToScore);
+                                return;
+                            }
+                            LOGGER.info("Processing {} uncached docs with LLM for query: {}", unionHits.size(), queryText);
+                            if (batcher != null) {
+                                String[] queryTextRefArr = queryTextWithReference.split(DELIMITER, 2);
+                                String referenceAnswer = queryTextRefArr.length > 1 ? queryTextRefArr[1] : null;
+                                batcher.submit(queryText, referenceAnswer, unionHits, ActionListener.wrap(llmRatings -> {
+                                    for (Map.Entry<String, String> rating : llmRatings.entrySet()) {
+                                        docIdToScore.put(getDocIdFromCompositeKey(rating.getKey()), rating.getValue());
+                                        updateJudgmentCache(
+                                            judgmentCacheWriter,
+                                            rating.getKey(),
+                                            queryTextWithReference,
+                                            contextFields,
+                                            rating.getValue(),
+                                            modelId
+                                        );
+                                    }
+                                    listener.onResponse(docIdToScore);
+                                }, onHitsFailure::accept));
+                                return;
+                            }
+                            llmLimiter.execute(
+                                releaseLlm -> generateLLMJudgmentForQueryText(
+                                    modelId,
+                                    jobId,
+                                    queryTextWithReference,
+                                    tokenLimit,
+                                    contextFields,
+                                    unionHits,
+                                    docIdToScore,
+                                    ignoreFailure,
+                                    judgmentCacheWriter,
+                                    ActionListener.runAfter(ActionListener.wrap(llmRatings -> {
+                                        LOGGER.info("LLM returned ratings: {}", llmRatings);
+                                        docIdToScore.putAll(llmRatings);
+                                        LOGGER.info("Final docIdToScore size: {}, contents: {}", docIdToScore.size(), docIdToScore);
+                                        listener.onResponse(docIdToScore);
+                                    }, onHitsFailure), releaseLlm)
+                                ),
+                                onHitsFailure
+                            );
+                        }, e -> {
+                            releaseSearch.run();
+                            onHitsFailure.accept(e);
+                        })
+                    ),
+                    e -> {
+                        // search failures only reach here when failures are not ignored
+                        releaseSearch.run();
+                        listener.onFailure(e);
+                    }
+                )
+            ),
+            onHitsFailure
+        );
+    }
+
+    /**
+     * Run the search of every search configuration for a query text, and collect the union of their hits.
+     */
+    private void collectHits(
+        String queryText,
+        int size,
+        List<String> contextFields,
+        List<SearchConfiguration> searchConfigurations,
+        boolean ignoreFailure,
+        ActionListener<Map<String, SearchHit>> listener
+    ) {
+        Map<String, SearchHit> allHits = new ConcurrentHashMap<>();
+        AtomicInteger pendingSearches = new AtomicInteger(searchConfigurations.size());
+        AtomicBoolean hasFailure = new AtomicBoolean(false);
 
-        // Collect all hits
         for (SearchConfiguration searchConfiguration : searchConfigurations) {
             String index = searchConfiguration.index();
             String query = searchConfiguration.query();
             String searchPipeline = searchConfiguration.searchPipeline();
 
-            try {
-                SearchRequest searchRequest = buildSearchRequest(index, query, queryText, searchPipeline, size);
-                SearchResponse response = client.search(searchRequest).actionGet();
-
+            ActionListener<SearchResponse> searchListener = ActionListener.wrap(response -> {
                 for (SearchHit hit : response.getHits().getHits()) {
                     allHits.put(hit.getId(), hit);
                 }
-            } catch (Exception e) {
+                if (pendingSearches.decrementAndGet() == 0 && !hasFailure.get()) {
+                    listener.onResponse(allHits);
+                }
+            }, e -> {
                 LOGGER.error("Search failed for index: {}", index, e);
                 if (!ignoreFailure) {
-                    throw new SearchRelevanceException("Search failed", e, RestStatus.INTERNAL_SERVER_ERROR);
+                    if (hasFailure.compareAndSet(false, true)) {
+                        listener.onFailure(new SearchRelevanceException("Search failed", e, RestStatus.INTERNAL_SERVER_ERROR));
+                    }
+                    return;
                 }
-            }
-        }
-
-        // Process all collected hits
-        try {
-            String index = searchConfigurations.get(0).index(); // All configs use same index
-            List<String> docIds = new ArrayList<>(allHits.keySet());
-
-            // Deduplicate against cache
-            List<String> unprocessedDocIds = deduplicateFromProcessedDocs(
-                index,
-                queryTextWithReference,
-                docIds,
-                contextFields,
-                docIdToScore
-            );
-
-            LOGGER.info("Cached docIds: {}", docIdToScore.keySet());
-            LOGGER.info("Unprocessed docIds: {}", unprocessedDocIds);
-
-            // Add unprocessed hits to unionHits
-            for (String docId : unprocessedDocIds) {
-                SearchHit hit = allHits.get(docId);
-                String compositeKey = combinedIndexAndDocId(index, docId);
-                String contextSource = getContextSource(hit, contextFields);
-                unionHits.put(compositeKey, contextSource);
-            }
-
-            LOGGER.info("UnionHits size: {}", unionHits.size());
+                if (pendingSearches.decrementAndGet() == 0 && !hasFailure.get()) {
+                    listener.onResponse(allHits);
+                }
+            });
 
-            // Process unprocessed hits with LLM
-            if (!unionHits.isEmpty()) {
-                LOGGER.info("Processing {} uncached docs with LLM for query: {}", unionHits.size(), queryText);
-                Map<String, String> llmRatings;
-                PlainActionFuture<Map<String, String>> llmFuture = PlainActionFuture.newFuture();
-                generateLLMJudgmentForQueryText(
-                    modelId,
-                    queryTextWithReference,
-                    tokenLimit,
-                    contextFields,
-                    unionHits,
-                    docIdToScore,
-                    ignoreFailure,
-                    llmFuture
+            try {
+                // only contextFields are sent to the LLM, so there is no need to ship the rest of the source back
+                SearchRequest searchRequest = applyLeanRetrieval(
+                    buildSearchRequest(index, query, queryText, searchPipeline, size),
+                    true,
+                    contextFields
                 );
-                llmRatings = llmFuture.actionGet();
-                LOGGER.info("LLM returned ratings: {}", llmRatings);
-                docIdToScore.putAll(llmRatings);
-            }
-
-        } catch (Exception e) {
-            LOGGER.error("Failed to process hits for query: {}", queryText, e);
-            if (!ignoreFailure) {
-                throw new SearchRelevanceException("Failed to process hits", e, RestStatus.INTERNAL_SERVER_ERROR);
+                client.search(searchRequest, searchListener);
+            } catch (Exception e) {
+                searchListener.onFailure(e);
             }
         }
-
-        LOGGER.info("Final docIdToScore size: {}, contents: {}", docIdToScore.size(), docIdToScore);
-        return docIdToScore;
     }
 
     /**
      * Generate LLM judgment for each queryText.
      * @param modelId - modelId to be used for the judgment generation
+     * @param jobId - judgment job the LLM calls belong to
      * @param queryTextWithReference - queryText with its referenceAnswer
      * @param tokenLimit - llm model token limit
      * @param contextFields - filters on specific context fields
      * @param unprocessedUnionHits - hits pending judged
      * @param docIdToRating - map to store the judgment ratings
      * @param ignoreFailure - boolean to determine how to error handling
+     * @param judgmentCacheWriter - buffers the new ratings for the judgment cache index
      */
     private void generateLLMJudgmentForQueryText(
         String modelId,
+        String jobId,
         String queryTextWithReference,
         int tokenLimit,
         List<String> contextFields,
         Map<String, String> unprocessedUnionHits,
         Map<String, String> docIdToRating,
         boolean ignoreFailure,
+        JudgmentCacheWriter judgmentCacheWriter,
         ActionListener<Map<String, String>> listener
     ) {
         LOGGER.debug("calculating LLM evaluation with modelId: {} and unprocessed unionHits: {}", modelId, unprocessedUnionHits);
@@ -296,11 +521,11 @@ public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
         String referenceAnswer = queryTextRefArr.length > 1 ? queryTextWithReference.split(DELIMITER, 2)[1] : null;
 
         ConcurrentMap<String, String> processedRatings = new ConcurrentHashMap<>(docIdToRating);
-        ConcurrentMap<Integer, List<Map<String, Object>>> combinedResponses = new ConcurrentHashMap<>();
         AtomicBoolean hasFailure = new AtomicBoolean(false); // Add flag to track if any failure has occurred
 
         mlAccessor.predict(
             modelId,
+            jobId,
             tokenLimit,
             queryText,
             referenceAnswer,
@@ -309,83 +534,35 @@ public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
             new ActionListener<ChunkResult>() {
                 @Override
                 public void onResponse(ChunkResult chunkResult) {
-                    try {
-                        // If not ignoring failures and there are failed chunks, fail immediately
-                        if (shouldFailImmediately(ignoreFailure, chunkResult)) {
-                            String firstError = chunkResult.getFailedChunks().values().iterator().next();
-                            handleProcessingError(new Exception(firstError), true);
-                            return;
-                        }
-
-                        // Process succeeded chunks
-                        Map<Integer, String> succeededChunks = chunkResult.getSucceededChunks();
-                        for (Map.Entry<Integer, String> entry : succeededChunks.entrySet()) {
-                            Integer chunkIndex = entry.getKey();
-                            if (combinedResponses.containsKey(chunkIndex)) {
-                                continue;
-                            }
-
-                            LOGGER.debug("response before sanitization: {}", entry.getValue());
-                            String sanitizedResponse = sanitizeLLMResponse(entry.getValue());
-                            LOGGER.debug("response after sanitization: {}", sanitizedResponse);
-                            List<Map<String, Object>> scores = OBJECT_MAPPER.readValue(
-                                sanitizedResponse,
-                                new TypeReference<List<Map<String, Object>>>() {
-                                }
-                            );
-                            combinedResponses.put(chunkIndex, scores);
-                        }
-
-                        logFailedChunks(ignoreFailure, chunkResult);
-
-                        // Process final results only if we haven't failed and this is the last chunk
-                        if (chunkResult.isLastChunk() && !hasFailure.get()) {
-                            LOGGER.info(
-                                "Processing final results for query: {}. Successful chunks: {}, Failed chunks: {}",
-                                queryTextWithReference,
-                                chunkResult.getSuccessfulChunksCount(),
-                                chunkResult.getFailedChunksCount()
-                            );
-
-                            // Process combined responses
-                            for (List<Map<String, Object>> ratings : combinedResponses.values()) {
-                                for (Map<String, Object> rating : ratings) {
-                                    String compositeKey = (String) rating.get("id");
-                                    Double ratingScore = ((Number) rating.get("rating_score")).doubleValue();
-                                    String docId = getDocIdFromCompositeKey(compositeKey);
-                                    processedRatings.put(docId, ratingScore.toString());
-                                    updateJudgmentCache(
-                                        compositeKey,
-                                        queryTextWithReference,
-                                        contextFields,
-                                        ratingScore.toString(),
-                                        modelId
-                                    );
-                                }
-                            }
+                    // every chunk is delivered once, so its ratings are applied as they arrive
+                    if (chunkResult.isFailed()) {
+                        LOGGER.warn("Chunk {} failed: {}", chunkResult.getChunkIndex(), chunkResult.getError());
+                    }
+                    for (LlmRating rating : chunkResult.getRatings()) {
+                        String compositeKey = rating.id();
+                        String ratingScore = Double.toString(rating.score());
+                        processedRatings.put(getDocIdFromCompositeKey(compositeKey), ratingScore);
+                        updateJudgmentCache(judgmentCacheWriter, compositeKey, queryTextWithReference, contextFields, ratingScore, modelId);
+                    }
 
-                            listener.onResponse(processedRatings);
-                        }
-                    } catch (Exception e) {
-                        handleProcessingError(e, chunkResult.isLastChunk());
+                    if (chunkResult.isLastChunk() && !hasFailure.get()) {
+                        LOGGER.info(
+                            "Processing final results for query: {}. Successful chunks: {}, Failed chunks: {}",
+                            queryTextWithReference,
+                            chunkResult.getSuccessfulChunksCount(),
+                            chunkResult.getFailedChunksCount()
+                        );
+                        listener.onResponse(processedRatings);
                     }
                 }
 
                 @Override
                 public void onFailure(Exception e) {
-                    handleProcessingError(e, true);
-                }
-
-                private void handleProcessingError(Exception e, boolean isLastChunk) {
-                    if (!ignoreFailure || isLastChunk) {
-                        if (!hasFailure.getAndSet(true)) {  // Only fail once
-                            LOGGER.error("Failed to process chunk response", e);
-                            listener.onFailure(
-                                new SearchRelevanceException("Failed to process chunk response", e, RestStatus.INTERNAL_SERVER_ERROR)
-                            );
-                        }
-                    } else {
-                        LOGGER.warn("Error processing chunk, continuing due to ignoreFailure=true", e);
+                    if (!hasFailure.getAndSet(true)) {  // Only fail once
+                        LOGGER.error("Failed to process chunk response", e);
+                        listener.onFailure(
+                            new SearchRelevanceException("Failed to process chunk response", e, RestStatus.INTERNAL_SERVER_ERROR)
+                        );
                     }
                 }
             }
@@ -393,63 +570,109 @@ public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
     }
 
     /**
-     * Filter out processed queryText+docId+contextFields tuple from judgment
+     * Filter out processed queryText+docId+contextFields tuple from judgment.
+     * The node-local tier is checked first, the remaining docs are resolved from the judgment cache index.
      * @param targetIndex - index to be searched
      * @param queryTextWithReference - queryTextWithReference to be deduplicated
-     * @param contextFields - contextFields to be deduplicated
      * @param docIds - overall docIds from search
+     * @param contextFields - contextFields to be deduplicated
+     * @param modelId - model the judgments are generated with
      * @param docIdToRating - add processed docIds and ratings to global docIdToRating map
+     * @param listener - receives the docIds that have no cached judgment
      */
-    private List<String> deduplicateFromProcessedDocs(
+    private void deduplicateFromProcessedDocs(
         String targetIndex,
         String queryTextWithReference,
         List<String> docIds,
         List<String> contextFields,
-        ConcurrentMap<String, String> docIdToRating
+        String modelId,
+        ConcurrentMap<String, String> docIdToRating,
+        ActionListener<List<String>> listener
     ) {
-        Set<String> unprocessedDocIds = new HashSet<>(docIds);
-
+        // cache entries are stored under deterministic ids, so all docs missing locally resolve with one multi-get
+        Map<String, String> cacheIdToDocId = new HashMap<>();
         for (String docId : docIds) {
             String compositeKey = combinedIndexAndDocId(targetIndex, docId);
+            String rating = localJudgmentCache.get(queryTextWithReference, compositeKey, contextFields, modelId);
+            if (rating != null) {
+                docIdToRating.put(docId, rating);
+                continue;
+            }
+            cacheIdToDocId.put(generateUniqueId(queryTextWithReference, compositeKey, contextFields), docId);
+        }
+        if (cacheIdToDocId.isEmpty()) {
+            listener.onResponse(new ArrayList<>());
+            return;
+        }
+        LOGGER.debug(
+            "Found {} judgments in the local cache for queryTextWithReference: {}",
+            docIds.size() - cacheIdToDocId.size(),
+            queryTextWithReference
+        );
 
-            try {
-                PlainActionFuture<SearchResponse> future = PlainActionFuture.newFuture();
-                judgmentCacheDao.getJudgmentCache(queryTextWithReference, compositeKey, contextFields, future);
-                SearchResponse response = future.actionGet();
-
-                if (response.getHits().getTotalHits().value() > 0) {
-                    SearchHit hit = response.getHits().getHits()[0];
-                    Map<String, Object> source = hit.getSourceAsMap();
-                    String rating = (String) source.get(RATING);
-                    String storedContextFields = (String) source.get(CONTEXT_FIELDS_STR);
-
-                    LOGGER.info(
-                        "Found existing judgment for docId: {}, rating: {}, storedContextFields: {}",
-                        docId,
-                        rating,
-                        storedContextFields
-                    );
-
-                    docIdToRating.put(docId, rating);
-                    unprocessedDocIds.remove(docId);
+        judgmentCacheDao.getJudgmentCachesByIds(cacheIdToDocId.keySet(), ActionListener.wrap(response -> {
+            Set<String> unprocessedDocIds = new HashSet<>(cacheIdToDocId.values());
+            for (MultiGetItemResponse item : response.getResponses()) {
+                String docId = cacheIdToDocId.get(item.getId());
+                if (item.isFailed()) {
+                    logCacheLookupFailure(queryTextWithReference, docId, item.getFailure().getFailure());
+                    continue;
                 }
-            } catch (Exception e) {
-                LOGGER.error(
-                    "Failed to check judgment cache for queryTextWithReference: {} and docId: {}",
-                    queryTextWithReference,
+                if (item.getResponse().isExists() == false) {
+                    continue;
+                }
+                Map<String, Object> source = item.getResponse().getSourceAsMap();
+                String rating = (String) source.get(RATING);
+                String storedContextFields = (String) source.get(CONTEXT_FIELDS_STR);
+                String storedModelId = (String) source.get(JudgmentCache.MODEL_ID);
+                if (isRatedByModel(storedModelId, modelId) == false) {
+                    // cache ids do not include the model, an entry rated by another model is judged again
+                    LOGGER.debug("Skipping cached judgment for docId: {} rated by model: {}", docId, storedModelId);
+                    continue;
+                }
+
+                LOGGER.info(
+                    "Found existing judgment for docId: {}, rating: {}, storedContextFields: {}",
                     docId,
-                    e
+                    rating,
+                    storedContextFields
                 );
+
+                String compositeKey = combinedIndexAndDocId(targetIndex, docId);
+                localJudgmentCache.put(queryTextWithReference, compositeKey, contextFields, modelId, rating);
+                docIdToRating.put(docId, rating);
+                unprocessedDocIds.remove(docId);
             }
-        }
+            listener.onResponse(new ArrayList<>(unprocessedDocIds));
+        }, e -> {
+            // a failed lookup only costs extra LLM calls, so all docs missing locally are treated as unprocessed
+            LOGGER.error("Failed to check judgment cache for queryTextWithReference: {}", queryTextWithReference, e);
+            listener.onResponse(new ArrayList<>(cacheIdToDocId.values()));
+        }));
+    }
+
+    /**
+     * Whether a judgment cache entry was rated by the model of the job
+     */
+    static boolean isRatedByModel(String storedModelId, String modelId) {
+        return storedModelId != null && modelId != null && storedModelId.trim().equals(modelId.trim());
+    }
 
-        return new ArrayList<>(unprocessedDocIds);
+    private void logCacheLookupFailure(String queryTextWithReference, String docId, Exception e) {
+        LOGGER.error("Failed to check judgment cache for queryTextWithReference: {} and docId: {}", queryTextWithReference, docId, e);
     }
 
     /**
-     * Add new judgment cache entry with llm judgment rating
+     * Add new judgment cache entry with llm judgment rating, writing through the node-local tier to the job's bulk writer
      */
-    private void updateJudgmentCache(String compositeKey, String queryText, List<String> contextFields, String rating, String modelId) {
+    private void updateJudgmentCache(
+        JudgmentCacheWriter judgmentCacheWriter,
+        String compositeKey,
+        String queryText,
+        List<String> contextFields,
+        String rating,
+        String modelId
+    ) {
         JudgmentCache judgmentCache = new JudgmentCache(
             generateUniqueId(queryText, compositeKey, contextFields),
             TimeUtils.getTimestamp(),
@@ -459,47 +682,8 @@ public class LlmJudgmentsProcessor implements BaseJudgmentsProcessor {
             rating,
             modelId
         );
-        StepListener<Void> createIndexStep = new StepListener<>();
-        judgmentCacheDao.createIndexIfAbsent(createIndexStep);
-
-        createIndexStep.whenComplete(v -> {
-            judgmentCacheDao.upsertJudgmentCache(
-                judgmentCache,
-                ActionListener.wrap(
-                    response -> LOGGER.debug(
-                        "Successfully processed judgment cache for queryText: {} and compositeKey: {}, contextFields: {}",
-                        queryText,
-                        compositeKey,
-                        contextFields
-                    ),
-                    e -> LOGGER.error(
-                        "Failed to process judgment cache for queryText: {} and compositeKey: {}, contextFields: {}",
-                        queryText,
-                        compositeKey,
-                        contextFields,
-                        e
-                    )
-                )
-            );
-        }, e -> {
-            LOGGER.error(
-                "Failed to create judgment cache index for queryText: {} and compositeKey: {}, contextFields: {}",
-                queryText,
-                compositeKey,
-                contextFields,
-                e
-            );
-        });
-    }
-
-    private boolean shouldFailImmediately(boolean ignoreFailure, ChunkResult chunkResult) {
-        return !ignoreFailure && !chunkResult.getFailedChunks().isEmpty();
-    }
-
-    private void logFailedChunks(boolean ignoreFailure, ChunkResult chunkResult) {
-        if (ignoreFailure) {
-            chunkResult.getFailedChunks().forEach((index, error) -> LOGGER.warn("Chunk {} failed: {}", index, error));
-        }
+        localJudgmentCache.put(queryText, compositeKey, contextFields, modelId, rating);
+        judgmentCacheWriter.add(judgmentCache);
     }
 
     private String getContextSource(SearchHit hit, List<String> contextFields) {
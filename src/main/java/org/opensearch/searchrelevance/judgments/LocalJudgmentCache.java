@@ -0,0 +1,120 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import static org.opensearch.searchrelevance.utils.ParserUtils.convertListToSortedStr;
+
+import java.util.List;
+
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.cache.RemovalNotification;
+import org.opensearch.common.cache.RemovalReason;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.searchrelevance.stats.events.EventStatName;
+import org.opensearch.searchrelevance.stats.events.EventStatsManager;
+
+/**
+ * Node-local LRU tier in front of the judgment cache index, so repeated LLM judgments of the same
+ * query text, document, context fields and model do not need a round trip to the index.
+ * The tier is bounded by the estimated heap used by its entries and evicts the least recently used entries first.
+ * Hits, misses and evictions are counted as judgment event stats, while the memory usage, the number of entries
+ * and the hit ratio are gauges read from the cache itself, see {@link #registerStats()}.
+ */
+public class LocalJudgmentCache {
+    // rough per entry overhead of the key record, the strings and the cache entry itself
+    private static final long ENTRY_OVERHEAD_IN_BYTES = 128;
+
+    private final Cache<Key, String> cache;
+
+    public LocalJudgmentCache(ByteSizeValue maxSize) {
+        this.cache = maxSize.getBytes() > 0
+            ? CacheBuilder.<Key, String>builder()
+                .setMaximumWeight(maxSize.getBytes())
+                .weigher(LocalJudgmentCache::weigh)
+                .removalListener(this::onRemoval)
+                .build()
+            : null;
+    }
+
+    /**
+     * Get the cached rating of a document
+     * @param queryTextWithReference - query text with its reference answer
+     * @param compositeKey - index and docId, see {@link org.opensearch.searchrelevance.utils.ParserUtils#combinedIndexAndDocId}
+     * @param contextFields - context fields the rating was generated with
+     * @param modelId - model the rating was generated with
+     * @return the rating, null when it is not cached on this node
+     */
+    public String get(String queryTextWithReference, String compositeKey, List<String> contextFields, String modelId) {
+        if (cache == null) {
+            return null;
+        }
+        String rating = cache.get(new Key(queryTextWithReference, compositeKey, toContextFieldsStr(contextFields), modelId));
+        EventStatsManager.increment(rating != null ? EventStatName.LLM_JUDGMENT_CACHE_HITS : EventStatName.LLM_JUDGMENT_CACHE_MISSES);
+        return rating;
+    }
+
+    /**
+     * Cache the rating of a document, replacing any previous rating of the same key
+     */
+    public void put(String queryTextWithReference, String compositeKey, List<String> contextFields, String modelId, String rating) {
+        if (cache == null || rating == null) {
+            return;
+        }
+        cache.put(new Key(queryTextWithReference, compositeKey, toContextFieldsStr(contextFields), modelId), rating);
+    }
+
+    /**
+     * Back the memory, entries and hit ratio gauges of the judgment stats with this cache
+     */
+    public void registerStats() {
+        EventStatsManager.registerGauge(EventStatName.LLM_JUDGMENT_CACHE_MEMORY_BYTES, this::memoryUsageInBytes);
+        EventStatsManager.registerGauge(EventStatName.LLM_JUDGMENT_CACHE_ENTRIES, this::count);
+        EventStatsManager.registerGauge(EventStatName.LLM_JUDGMENT_CACHE_HIT_RATIO_PERCENT, this::hitRatioPercent);
+    }
+
+    public long count() {
+        return cache == null ? 0 : cache.count();
+    }
+
+    public long memoryUsageInBytes() {
+        return cache == null ? 0 : cache.weight();
+    }
+
+    /**
+     * @return percentage of lookups answered by this node since it started, 0 before the first lookup
+     */
+    public long hitRatioPercent() {
+        if (cache == null) {
+            return 0;
+        }
+        Cache.CacheStats stats = cache.stats();
+        long lookups = stats.getHits() + stats.getMisses();
+        return lookups == 0 ? 0 : stats.getHits() * 100 / lookups;
+    }
+
+    private void onRemoval(RemovalNotification<Key, String> notification) {
+        if (notification.getRemovalReason() == RemovalReason.EVICTED) {
+            EventStatsManager.increment(EventStatName.LLM_JUDGMENT_CACHE_EVICTIONS);
+        }
+    }
+
+    private static String toContextFieldsStr(List<String> contextFields) {
+        return contextFields != null ? convertListToSortedStr(contextFields) : "";
+    }
+
+    private static long weigh(Key key, String rating) {
+        long chars = key.queryTextWithReference().length() + key.compositeKey().length() + key.contextFieldsStr().length();
+        chars += rating.length() + (key.modelId() != null ? key.modelId().length() : 0);
+        // strings hold up to two bytes per char
+        return ENTRY_OVERHEAD_IN_BYTES + 2 * chars;
+    }
+
+    private record Key(String queryTextWithReference, String compositeKey, String contextFieldsStr, String modelId) {
+    }
+}
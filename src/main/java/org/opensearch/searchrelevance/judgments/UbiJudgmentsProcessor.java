@@ -7,32 +7,62 @@
  */
 package org.opensearch.searchrelevance.judgments;
 
+import static org.opensearch.searchrelevance.common.PluginConstants.AGGREGATE_EVENTS;
+import static org.opensearch.searchrelevance.common.PluginConstants.INCREMENTAL;
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_FILTER;
+import static org.opensearch.searchrelevance.common.PluginConstants.WINDOW_DAYS;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_DISTRIBUTED_CLICK_STATISTICS;
+
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.opensearch.action.StepListener;
 import org.opensearch.common.inject.Inject;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
+import org.opensearch.env.Environment;
+import org.opensearch.searchrelevance.dao.ClickStatisticsDao;
 import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickModelParameters;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModelParameters;
+import org.opensearch.searchrelevance.judgments.clickmodel.cascade.CascadeClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.coec.ClickStatisticsStore;
 import org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel;
 import org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModelParameters;
+import org.opensearch.searchrelevance.judgments.clickmodel.dbn.DbnClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.pbm.PbmClickModel;
+import org.opensearch.searchrelevance.judgments.queryhash.UserQueryDictionary;
 import org.opensearch.searchrelevance.model.JudgmentType;
 import org.opensearch.searchrelevance.stats.events.EventStatName;
 import org.opensearch.searchrelevance.stats.events.EventStatsManager;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
 import org.opensearch.transport.client.Client;
 
 public class UbiJudgmentsProcessor implements BaseJudgmentsProcessor {
     private static final Logger LOGGER = LogManager.getLogger(UbiJudgmentsProcessor.class);
     private final Client client;
+    private final ClickStatisticsDao clickStatisticsDao;
+    private final long clickStatisticsMemoryBudget;
+    private final boolean distributedClickStatistics;
+    private final int clickModelParallelism;
+    private final Path spillDirectory;
 
     @Inject
-    public UbiJudgmentsProcessor(Client client) {
+    public UbiJudgmentsProcessor(Client client, ClickStatisticsDao clickStatisticsDao, Environment environment) {
         this.client = client;
+        this.clickStatisticsDao = clickStatisticsDao;
+        this.clickStatisticsMemoryBudget = SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET.get(environment.settings()).getBytes();
+        this.distributedClickStatistics = SEARCH_RELEVANCE_DISTRIBUTED_CLICK_STATISTICS.get(environment.settings());
+        this.clickModelParallelism = OpenSearchExecutors.allocatedProcessors(environment.settings());
+        this.spillDirectory = environment.tmpDir();
     }
 
     @Override
@@ -45,16 +75,24 @@ public class UbiJudgmentsProcessor implements BaseJudgmentsProcessor {
         EventStatsManager.increment(EventStatName.UBI_JUDGMENT_RATING_GENERATIONS);
         String clickModel = (String) metadata.get("clickModel");
         int maxRank = (int) metadata.get("maxRank");
-
-        if (CoecClickModel.CLICK_MODEL_NAME.equalsIgnoreCase(clickModel)) {
-            final CoecClickModelParameters coecClickModelParameters = new CoecClickModelParameters(maxRank);
-            final CoecClickModel coecClickModel = new CoecClickModel(client, coecClickModelParameters);
-
-            // Create StepListener for the click model calculation
-            StepListener<Map<String, Map<String, String>>> clickModelStep = new StepListener<>();
-
+        boolean aggregateEvents = (boolean) metadata.getOrDefault(AGGREGATE_EVENTS, false);
+        boolean incremental = (boolean) metadata.getOrDefault(INCREMENTAL, false);
+        int windowDays = (int) metadata.getOrDefault(WINDOW_DAYS, 0);
+
+        final ClickModel model;
+        try {
+            UbiFilter filter = UbiFilter.parse(metadata.get(UBI_FILTER));
+            model = createClickModel(clickModel, maxRank, aggregateEvents, incremental, windowDays, filter);
+        } catch (SearchRelevanceException e) {
+            listener.onFailure(e);
+            return;
+        } catch (IllegalArgumentException e) {
+            listener.onFailure(new SearchRelevanceException(e.getMessage(), e, RestStatus.BAD_REQUEST));
+            return;
+        }
+        if (model != null) {
             try {
-                coecClickModel.calculateJudgments(new ActionListener<>() {
+                model.calculateJudgments(new ActionListener<>() {
                     @Override
                     public void onResponse(List<Map<String, Object>> judgments) {
                         // Create the result map in the expected format
@@ -133,7 +171,8 @@ public class UbiJudgmentsProcessor implements BaseJudgmentsProcessor {
 
                             // Add the formatted ratings for this query
                             Map<String, Object> queryRatings = new HashMap<>();
-                            queryRatings.put("query", queryText);
+                            // UBI judgments are stored under the normalized user query, the form UBI query sets are sampled in
+                            queryRatings.put("query", queryText == null ? null : UserQueryDictionary.normalize(queryText));
                             queryRatings.put("ratings", docIdScoreList);
                             formattedRatings.add(queryRatings);
                         }
@@ -142,10 +181,10 @@ public class UbiJudgmentsProcessor implements BaseJudgmentsProcessor {
 
                     @Override
                     public void onFailure(Exception e) {
-                        LOGGER.error("Failed to calculate COEC click model judgments", e);
+                        LOGGER.error("Failed to calculate {} click model judgments", clickModel, e);
                         listener.onFailure(
                             new SearchRelevanceException(
-                                "Failed to calculate COEC click model judgments",
+                                "Failed to calculate " + clickModel + " click model judgments",
                                 e,
                                 RestStatus.INTERNAL_SERVER_ERROR
                             )
@@ -153,13 +192,61 @@ public class UbiJudgmentsProcessor implements BaseJudgmentsProcessor {
                     }
                 });
             } catch (Exception e) {
-                LOGGER.error("Error initiating COEC click model calculation", e);
+                LOGGER.error("Error initiating {} click model calculation", clickModel, e);
                 listener.onFailure(
-                    new SearchRelevanceException("Error initiating COEC click model calculation", e, RestStatus.INTERNAL_SERVER_ERROR)
+                    new SearchRelevanceException(
+                        "Error initiating " + clickModel + " click model calculation",
+                        e,
+                        RestStatus.INTERNAL_SERVER_ERROR
+                    )
                 );
             }
         } else {
             listener.onFailure(new SearchRelevanceException("Unsupported click model: " + clickModel, RestStatus.BAD_REQUEST));
         }
     }
+
+    private ClickModel createClickModel(
+        String clickModel,
+        int maxRank,
+        boolean aggregateEvents,
+        boolean incremental,
+        int windowDays,
+        UbiFilter filter
+    ) {
+        if (clickModel == null) {
+            return null;
+        }
+        return switch (clickModel.toLowerCase(Locale.ROOT)) {
+            case CoecClickModel.CLICK_MODEL_NAME -> {
+                CoecClickModelParameters parameters = new CoecClickModelParameters(maxRank, aggregateEvents, incremental, windowDays);
+                parameters.setMemoryBudget(clickStatisticsMemoryBudget);
+                parameters.setSpillDirectory(spillDirectory);
+                parameters.setDistributed(distributedClickStatistics);
+                yield new CoecClickModel(client, withFilter(parameters, filter), new ClickStatisticsStore(client, clickStatisticsDao));
+            }
+            case PbmClickModel.CLICK_MODEL_NAME -> new PbmClickModel(client, emParameters(maxRank, aggregateEvents, incremental, filter));
+            case DbnClickModel.CLICK_MODEL_NAME -> new DbnClickModel(client, emParameters(maxRank, aggregateEvents, incremental, filter));
+            case CascadeClickModel.CLICK_MODEL_NAME -> new CascadeClickModel(
+                client,
+                emParameters(maxRank, aggregateEvents, incremental, filter)
+            );
+            default -> null;
+        };
+    }
+
+    private EmClickModelParameters emParameters(int maxRank, boolean aggregateEvents, boolean incremental, UbiFilter filter) {
+        if (aggregateEvents || incremental) {
+            throw new SearchRelevanceException(
+                "aggregateEvents and incremental are only supported by the coec click model",
+                RestStatus.BAD_REQUEST
+            );
+        }
+        return withFilter(new EmClickModelParameters(maxRank, clickModelParallelism), filter);
+    }
+
+    private static <P extends ClickModelParameters> P withFilter(P parameters, UbiFilter filter) {
+        parameters.setFilter(filter);
+        return parameters;
+    }
 }
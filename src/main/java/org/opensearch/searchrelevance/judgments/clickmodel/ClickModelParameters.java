@@ -7,6 +7,27 @@
  */
 package org.opensearch.searchrelevance.judgments.clickmodel;
 
+import java.util.Objects;
+
+import org.opensearch.searchrelevance.ubi.UbiFilter;
+
 public abstract class ClickModelParameters {
 
+    private UbiFilter filter = UbiFilter.NONE;
+
+    /**
+     * Gets the filter restricting the UBI events the judgments are calculated from.
+     * @return The filter, {@link UbiFilter#NONE} to use all events.
+     */
+    public UbiFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Sets the filter restricting the UBI events the judgments are calculated from.
+     * @param filter The filter.
+     */
+    public void setFilter(final UbiFilter filter) {
+        this.filter = Objects.requireNonNull(filter, "filter cannot be null.");
+    }
 }
@@ -0,0 +1,222 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_EVENTS_INDEX;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.filter.Filter;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.ubi.UserQueryResolver;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Reads the sessions of the UBI events into {@link ClickSessions}.
+ * Events are counted with a composite aggregation keyed by query id first, so the results of one session arrive
+ * as consecutive buckets in rank order, also across pages, and sessions are built while paging without grouping events in memory.
+ * Events logged with a query id only are joined to their user query by a {@link UserQueryResolver}, one page at a time,
+ * so every click model reads the same events as the COEC model.
+ */
+public class ClickSessionLoader {
+    private static final Logger LOGGER = LogManager.getLogger(ClickSessionLoader.class);
+    static final int COMPOSITE_PAGE_SIZE = 10000;
+    static final String QUERY_ID_FIELD = "query_id";
+    static final String USER_QUERY_FIELD = "user_query";
+    static final String OBJECT_ID_FIELD = "event_attributes.object.object_id";
+    static final String ACTION_NAME_FIELD = "action_name";
+    static final String POSITION_FIELD = "event_attributes.position.ordinal";
+    static final String SESSIONS_AGGREGATION = "sessions";
+    static final String QUERY_ID_SOURCE = "query_id";
+    static final String USER_QUERY_SOURCE = "user_query";
+    static final String POSITION_SOURCE = "position";
+    static final String OBJECT_ID_SOURCE = "object_id";
+    static final String CLICKS = "clicks";
+    static final String IMPRESSIONS = "impressions";
+    private static final TimeValue SEARCH_TIMEOUT = TimeValue.timeValueMinutes(5);
+
+    private final Client client;
+    private final EmClickModelParameters parameters;
+    private final UserQueryResolver userQueryResolver;
+    private String currentQueryId;
+    private String currentUserQuery;
+
+    public ClickSessionLoader(Client client, EmClickModelParameters parameters) {
+        this.client = client;
+        this.parameters = parameters;
+        this.userQueryResolver = new UserQueryResolver(client);
+    }
+
+    /**
+     * Load the sessions
+     * @param listener - responds with the sessions, which the caller closes
+     */
+    public void load(ActionListener<ClickSessions> listener) {
+        LOGGER.info("Loading click sessions");
+        searchSessions(null, new ClickSessions(), listener);
+    }
+
+    private void searchSessions(Map<String, Object> afterKey, ClickSessions sessions, ActionListener<ClickSessions> listener) {
+        client.search(buildSessionAggregationRequest(afterKey), ActionListener.wrap(response -> {
+            CompositeAggregation aggregation = response.getAggregations().get(SESSIONS_AGGREGATION);
+            List<? extends CompositeAggregation.Bucket> buckets = aggregation.getBuckets();
+            Set<String> unjoinedQueryIds = new HashSet<>();
+            for (CompositeAggregation.Bucket bucket : buckets) {
+                if (bucket.getKey().get(USER_QUERY_SOURCE) == null) {
+                    unjoinedQueryIds.add(String.valueOf(bucket.getKey().get(QUERY_ID_SOURCE)));
+                }
+            }
+            if (unjoinedQueryIds.isEmpty()) {
+                foldSessionPage(aggregation, Map.of(), sessions, listener);
+                return;
+            }
+            LOGGER.debug("Joining page of {} session buckets with {} query ids", buckets.size(), unjoinedQueryIds.size());
+            userQueryResolver.resolve(
+                unjoinedQueryIds,
+                ActionListener.wrap(userQueries -> foldSessionPage(aggregation, userQueries, sessions, listener), e -> {
+                    sessions.close();
+                    listener.onFailure(e);
+                })
+            );
+        }, e -> {
+            LOGGER.error("Failed to load click sessions", e);
+            sessions.close();
+            listener.onFailure(e);
+        }));
+    }
+
+    private void foldSessionPage(
+        CompositeAggregation aggregation,
+        Map<String, String> userQueries,
+        ClickSessions sessions,
+        ActionListener<ClickSessions> listener
+    ) {
+        try {
+            foldSessionBuckets(aggregation.getBuckets(), userQueries, sessions);
+            if (sessions.size() > parameters.getMaxSessions()) {
+                sessions.close();
+                listener.onFailure(
+                    new SearchRelevanceException(
+                        "UBI events hold more than " + parameters.getMaxSessions() + " distinct sessions",
+                        RestStatus.BAD_REQUEST
+                    )
+                );
+                return;
+            }
+            Map<String, Object> nextAfterKey = aggregation.afterKey();
+            if (aggregation.getBuckets().isEmpty() || nextAfterKey == null) {
+                finish(sessions);
+                LOGGER.info("Loaded {} distinct click sessions with {} query-object pairs", sessions.size(), sessions.pairCount());
+                listener.onResponse(sessions);
+            } else {
+                searchSessions(nextAfterKey, sessions, listener);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to load click sessions", e);
+            sessions.close();
+            listener.onFailure(e);
+        }
+    }
+
+    SearchRequest buildSessionAggregationRequest(Map<String, Object> afterKey) {
+        List<CompositeValuesSourceBuilder<?>> sources = List.of(
+            new TermsValuesSourceBuilder(QUERY_ID_SOURCE).field(QUERY_ID_FIELD),
+            new TermsValuesSourceBuilder(USER_QUERY_SOURCE).field(USER_QUERY_FIELD).missingBucket(true),
+            new TermsValuesSourceBuilder(POSITION_SOURCE).field(POSITION_FIELD),
+            new TermsValuesSourceBuilder(OBJECT_ID_SOURCE).field(OBJECT_ID_FIELD)
+        );
+        CompositeAggregationBuilder sessionAgg = AggregationBuilders.composite(SESSIONS_AGGREGATION, sources)
+            .size(COMPOSITE_PAGE_SIZE)
+            .subAggregation(AggregationBuilders.filter(CLICKS, parameters.getFilter().clickQuery()))
+            .subAggregation(
+                AggregationBuilders.filter(IMPRESSIONS, QueryBuilders.termQuery(ACTION_NAME_FIELD, "impression").caseInsensitive(true))
+            );
+        if (afterKey != null) {
+            sessionAgg.aggregateAfter(afterKey);
+        }
+
+        BoolQueryBuilder queryBuilder = parameters.getFilter()
+            .filterEvents(QueryBuilders.boolQuery())
+            .filter(QueryBuilders.rangeQuery(POSITION_FIELD).gte(0).lt(parameters.getMaxRank()))
+            .filter(
+                parameters.getFilter()
+                    .clickQuery()
+                    .should(QueryBuilders.termQuery(ACTION_NAME_FIELD, "impression").caseInsensitive(true))
+            );
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder)
+            .size(0)
+            .trackTotalHits(false)
+            .timeout(SEARCH_TIMEOUT)
+            .aggregation(sessionAgg);
+        return new SearchRequest(UBI_EVENTS_INDEX).source(searchSourceBuilder);
+    }
+
+    /**
+     * Add the results of a page of buckets to the sessions, a session stays open until a bucket of another query id arrives
+     */
+    void foldSessionBuckets(List<? extends CompositeAggregation.Bucket> buckets, ClickSessions sessions) {
+        foldSessionBuckets(buckets, Map.of(), sessions);
+    }
+
+    /**
+     * Add the results of a page of buckets to the sessions, buckets without a user query take the user query of their
+     * query id, and are skipped when their query id has none
+     * @param userQueries - user query of each query id of the buckets without a user query
+     */
+    void foldSessionBuckets(List<? extends CompositeAggregation.Bucket> buckets, Map<String, String> userQueries, ClickSessions sessions) {
+        for (CompositeAggregation.Bucket bucket : buckets) {
+            Map<String, Object> key = bucket.getKey();
+            String queryId = String.valueOf(key.get(QUERY_ID_SOURCE));
+            Object loggedUserQuery = key.get(USER_QUERY_SOURCE);
+            String userQuery = loggedUserQuery == null ? userQueries.get(queryId) : loggedUserQuery.toString();
+            if (userQuery == null) {
+                continue;
+            }
+            if (!queryId.equals(currentQueryId) || !userQuery.equals(currentUserQuery)) {
+                finish(sessions);
+                sessions.startSession(userQuery);
+                currentQueryId = queryId;
+                currentUserQuery = userQuery;
+            }
+            long clicks = ((Filter) bucket.getAggregations().get(CLICKS)).getDocCount();
+            long impressions = ((Filter) bucket.getAggregations().get(IMPRESSIONS)).getDocCount();
+            if (clicks > 0 || impressions > 0) {
+                sessions.addResult(String.valueOf(key.get(OBJECT_ID_SOURCE)), ((Number) key.get(POSITION_SOURCE)).intValue(), clicks > 0);
+            }
+        }
+    }
+
+    /**
+     * End the open session, if any
+     */
+    void finish(ClickSessions sessions) {
+        if (Objects.nonNull(currentQueryId)) {
+            sessions.endSession();
+            currentQueryId = null;
+            currentUserQuery = null;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+import java.util.Arrays;
+
+import org.opensearch.common.lease.Releasable;
+
+/**
+ * Search sessions for click models that look at the results of a session together, such as PBM, DBN and cascade.
+ * A session is the ranked list of results shown for one query, with a click flag per result. Results are stored as
+ * entries in flat primitive arrays: the query-object pair, from a {@link ClickStatisticsTable}, with the click in the lowest bit,
+ * and the rank. Identical sessions are stored once with a weight, so memory grows with the number of distinct sessions.
+ * The sessions are not thread safe while being added, and can be read from many threads once complete.
+ */
+public class ClickSessions implements Releasable {
+
+    /**
+     * Highest rank a session entry can hold.
+     */
+    public static final int MAX_RANK = Byte.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ClickStatisticsTable pairs = new ClickStatisticsTable();
+
+    private int[] entries = new int[INITIAL_CAPACITY];
+    private byte[] ranks = new byte[INITIAL_CAPACITY];
+    private int entryCount;
+
+    private int[] sessionStarts = new int[INITIAL_CAPACITY + 1];
+    private int[] sessionQueries = new int[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int sessionCount;
+
+    // open addressing table of session numbers plus one, 0 marks an empty slot
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    private String currentQuery;
+    private int currentQueryNumber = -1;
+
+    /**
+     * Start a new session, the previous session must have been ended.
+     * @param userQuery The user query of the session.
+     */
+    public void startSession(final String userQuery) {
+        currentQuery = userQuery;
+        currentQueryNumber = -1;
+    }
+
+    /**
+     * Add a result to the current session. Results are expected in rank order.
+     * @param objectId The ID of the object.
+     * @param rank The rank of the result, between 0 and {@link #MAX_RANK}.
+     * @param clicked Whether the result was clicked.
+     */
+    public void addResult(final String objectId, final int rank, final boolean clicked) {
+        if (rank < 0 || rank > MAX_RANK) {
+            throw new IllegalArgumentException("rank must be between 0 and " + MAX_RANK + ", got " + rank);
+        }
+        int pair = pairs.pairIndex(currentQuery, objectId);
+        currentQueryNumber = pairs.queryNumber(pair);
+        if (clicked) {
+            pairs.logClicks(pair, 1);
+        }
+        pairs.logImpressions(pair, 1);
+        pairs.logRank(pair, rank);
+        if (entryCount == entries.length) {
+            int capacity = entries.length << 1;
+            entries = Arrays.copyOf(entries, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+        }
+        entries[entryCount] = (pair << 1) | (clicked ? 1 : 0);
+        ranks[entryCount] = (byte) rank;
+        entryCount++;
+    }
+
+    /**
+     * End the current session. A session without results is dropped, a session equal to a previous one adds to its weight.
+     */
+    public void endSession() {
+        int start = sessionStarts[sessionCount];
+        if (entryCount == start) {
+            return;
+        }
+        int hash = hash(currentQueryNumber, start, entryCount);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int session = slots[slot] - 1;
+            if (equalsSession(session, currentQueryNumber, start, entryCount)) {
+                weights[session]++;
+                entryCount = start;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (sessionCount == weights.length) {
+            int capacity = weights.length << 1;
+            sessionQueries = Arrays.copyOf(sessionQueries, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            sessionStarts = Arrays.copyOf(sessionStarts, capacity + 1);
+        }
+        sessionQueries[sessionCount] = currentQueryNumber;
+        weights[sessionCount] = 1;
+        slots[slot] = sessionCount + 1;
+        sessionCount++;
+        sessionStarts[sessionCount] = entryCount;
+        if (sessionCount * 2 > slots.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Gets the number of distinct sessions.
+     * @return The number of sessions.
+     */
+    public int size() {
+        return sessionCount;
+    }
+
+    /**
+     * Gets the number of times a session was seen.
+     * @param session The number of the session.
+     * @return The weight of the session.
+     */
+    public int weight(final int session) {
+        return weights[session];
+    }
+
+    /**
+     * Gets the first entry of a session.
+     * @param session The number of the session.
+     * @return The index of the first entry.
+     */
+    public int start(final int session) {
+        return sessionStarts[session];
+    }
+
+    /**
+     * Gets the end of the entries of a session.
+     * @param session The number of the session.
+     * @return The index after the last entry.
+     */
+    public int end(final int session) {
+        return sessionStarts[session + 1];
+    }
+
+    /**
+     * Gets the query-object pair of an entry.
+     * @param entry The index of the entry.
+     * @return The index of the pair, between 0 and {@link #pairCount()}.
+     */
+    public int pair(final int entry) {
+        return entries[entry] >>> 1;
+    }
+
+    /**
+     * Gets whether the result of an entry was clicked.
+     * @param entry The index of the entry.
+     * @return True if the result was clicked.
+     */
+    public boolean clicked(final int entry) {
+        return (entries[entry] & 1) == 1;
+    }
+
+    /**
+     * Gets the rank of an entry.
+     * @param entry The index of the entry.
+     * @return The rank.
+     */
+    public int rank(final int entry) {
+        return ranks[entry];
+    }
+
+    /**
+     * Gets the number of query-object pairs.
+     * @return The number of pairs.
+     */
+    public int pairCount() {
+        return pairs.size();
+    }
+
+    /**
+     * Gets the query-object pairs, with their click and impression counts over all sessions.
+     * @return The pairs.
+     */
+    public ClickStatisticsTable pairs() {
+        return pairs;
+    }
+
+    @Override
+    public void close() {
+        pairs.close();
+    }
+
+    private int hash(final int query, final int from, final int to) {
+        int hash = 31 + query;
+        for (int entry = from; entry < to; entry++) {
+            hash = 31 * (31 * hash + entries[entry]) + ranks[entry];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean equalsSession(final int session, final int query, final int from, final int to) {
+        int start = sessionStarts[session];
+        int end = sessionStarts[session + 1];
+        return sessionQueries[session] == query
+            && Arrays.equals(entries, start, end, entries, from, to)
+            && Arrays.equals(ranks, start, end, ranks, from, to);
+    }
+
+    private void rehash() {
+        slots = new int[slots.length << 1];
+        int mask = slots.length - 1;
+        for (int session = 0; session < sessionCount; session++) {
+            int slot = hash(sessionQueries[session], sessionStarts[session], sessionStarts[session + 1]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = session + 1;
+        }
+    }
+}
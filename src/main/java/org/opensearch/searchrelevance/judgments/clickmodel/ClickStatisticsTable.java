@@ -0,0 +1,508 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.IntroSorter;
+import org.opensearch.common.lease.Releasable;
+import org.opensearch.common.util.BigArrays;
+import org.opensearch.common.util.LongHash;
+import org.opensearch.core.common.io.stream.InputStreamStreamInput;
+import org.opensearch.core.common.io.stream.OutputStreamStreamOutput;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.searchrelevance.judgments.queryhash.UserQueryDictionary;
+
+/**
+ * Click statistics per user query and object, for click models that count events.
+ * User queries are normalized and numbered by a {@link UserQueryDictionary} of the table, and object ids are each stored
+ * once and numbered. A pair of query number and object number is looked up
+ * in a primitive hash, which gives the pair a dense index into parallel arrays of clicks, impressions and lowest rank.
+ * Updates are O(1) and a pair costs a few ints instead of a counter object in a set.
+ * <p>
+ * A table created with a memory budget estimates the heap its pairs and strings hold. Once the estimate passes the budget,
+ * the pairs are sorted by user query and object, written to a temporary file as a run and the table starts over empty,
+ * with an empty dictionary, so the queries it held are released with their pairs.
+ * {@link #forEachPair(PairConsumer)} then merges the runs, summing the counts of a pair across runs, so the heap held
+ * stays near the budget however many pairs the events have. The runs are deleted when the table is closed.
+ * The table is not thread safe, events must be logged from one thread at a time.
+ */
+public class ClickStatisticsTable implements Releasable {
+
+    private static final Logger LOGGER = LogManager.getLogger(ClickStatisticsTable.class);
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Estimated heap of a pair: the parallel arrays at up to twice their size, and the key and slot of the hash.
+     */
+    static final long PAIR_BYTES = 2 * 5 * Integer.BYTES + 3 * Long.BYTES;
+    /**
+     * Estimated heap of a user query or object id besides its characters: the string, its map entry, number and list slot.
+     */
+    static final long STRING_BYTES = 96;
+    /**
+     * Most runs merged at once, more runs are first merged into fewer, larger runs.
+     */
+    static final int MAX_MERGE_WIDTH = 64;
+    private static final String RUN_PREFIX = "click-statistics-";
+    private static final String RUN_SUFFIX = ".run";
+
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final List<Path> runs = new ArrayList<>();
+    private long memoryUsed;
+
+    private UserQueryDictionary dictionary;
+    private Map<String, Integer> objectNumbers = new HashMap<>();
+    private List<String> objects = new ArrayList<>();
+    private LongHash pairs;
+
+    private int[] pairQuery;
+    private int[] pairObject;
+    private int[] clicks;
+    private int[] impressions;
+    private int[] rank;
+
+    /**
+     * Callback for the merged statistics of one query-object pair.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        /**
+         * Accepts the statistics of a pair.
+         * @param userQuery The user query.
+         * @param objectId The ID of the object.
+         * @param clicks The count of clicks.
+         * @param impressions The count of impressions.
+         * @param rank The lowest rank, {@link Integer#MAX_VALUE} when no rank was logged.
+         * @throws IOException If the pair cannot be consumed.
+         */
+        void accept(String userQuery, String objectId, long clicks, long impressions, int rank) throws IOException;
+    }
+
+    /**
+     * Creates an empty table that holds all pairs in memory.
+     */
+    public ClickStatisticsTable() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates an empty table that spills its pairs to the temporary directory past a memory budget.
+     * @param memoryBudget The estimated heap in bytes the pairs may hold before they are spilled.
+     */
+    public ClickStatisticsTable(final long memoryBudget) {
+        this(memoryBudget, null);
+    }
+
+    /**
+     * Creates an empty table that spills its pairs past a memory budget.
+     * @param memoryBudget The estimated heap in bytes the pairs may hold before they are spilled.
+     * @param spillDirectory The directory of the runs, null for the temporary directory.
+     */
+    public ClickStatisticsTable(final long memoryBudget, final Path spillDirectory) {
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        reset();
+    }
+
+    /**
+     * Gets the index of a query-object pair, adding the pair if it is not in the table yet.
+     * If the table is over its memory budget, the pairs in memory are spilled first and earlier indices are no longer valid.
+     * @param userQuery The user query.
+     * @param objectId The ID of the object.
+     * @return The index of the pair, between 0 and {@link #size()}.
+     * @throws UncheckedIOException If the pairs cannot be spilled.
+     */
+    public int pairIndex(final String userQuery, final String objectId) {
+        if (memoryUsed >= memoryBudget && pairs.size() > 0) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to spill click statistics", e);
+            }
+        }
+        int knownQueries = dictionary.size();
+        int query = dictionary.getHash(userQuery);
+        if (query >= knownQueries) {
+            memoryUsed += STRING_BYTES + (long) Character.BYTES * userQuery.length();
+        }
+        int object = number(objectNumbers, objects, objectId);
+        long id = pairs.add(((long) query << 32) | (object & 0xFFFFFFFFL));
+        if (id < 0) {
+            return (int) (-1 - id);
+        }
+        int pair = Math.toIntExact(id);
+        if (pair == clicks.length) {
+            grow();
+        }
+        memoryUsed += PAIR_BYTES;
+        pairQuery[pair] = query;
+        pairObject[pair] = object;
+        rank[pair] = Integer.MAX_VALUE;
+        return pair;
+    }
+
+    /**
+     * Log clicks to a pair.
+     * @param pair The index of the pair.
+     * @param count The number of clicks.
+     */
+    public void logClicks(final int pair, final int count) {
+        clicks[pair] += count;
+    }
+
+    /**
+     * Log impressions to a pair.
+     * @param pair The index of the pair.
+     * @param count The number of impressions.
+     */
+    public void logImpressions(final int pair, final int count) {
+        impressions[pair] += count;
+    }
+
+    /**
+     * Log the rank of an event of a pair, the lowest rank is kept.
+     * @param pair The index of the pair.
+     * @param eventRank The rank of the event.
+     */
+    public void logRank(final int pair, final int eventRank) {
+        if (eventRank < rank[pair]) {
+            rank[pair] = eventRank;
+        }
+    }
+
+    /**
+     * Gets the number of query-object pairs in memory, which is all pairs unless the table spilled.
+     * @return The number of pairs.
+     */
+    public int size() {
+        return Math.toIntExact(pairs.size());
+    }
+
+    /**
+     * Gets the number of distinct user queries in memory.
+     * @return The number of user queries.
+     */
+    public int queryCount() {
+        return dictionary.size();
+    }
+
+    /**
+     * Gets the number of the user query of a pair, between 0 and {@link #queryCount()}.
+     * @param pair The index of the pair.
+     * @return The number of the user query.
+     */
+    public int queryNumber(final int pair) {
+        return pairQuery[pair];
+    }
+
+    /**
+     * Gets a normalized user query by its number.
+     * @param queryNumber The number of the user query.
+     * @return The normalized user query.
+     */
+    public String userQuery(final int queryNumber) {
+        return dictionary.userQuery(queryNumber);
+    }
+
+    /**
+     * Gets the object ID of a pair.
+     * @param pair The index of the pair.
+     * @return The object ID.
+     */
+    public String objectId(final int pair) {
+        return objects.get(pairObject[pair]);
+    }
+
+    /**
+     * Gets the count of clicks of a pair.
+     * @param pair The index of the pair.
+     * @return The count of clicks.
+     */
+    public int clicks(final int pair) {
+        return clicks[pair];
+    }
+
+    /**
+     * Gets the count of impressions of a pair.
+     * @param pair The index of the pair.
+     * @return The count of impressions.
+     */
+    public int impressions(final int pair) {
+        return impressions[pair];
+    }
+
+    /**
+     * Gets the lowest rank of a pair.
+     * @param pair The index of the pair.
+     * @return The lowest rank, {@link Integer#MAX_VALUE} when no rank was logged.
+     */
+    public int rank(final int pair) {
+        return rank[pair];
+    }
+
+    /**
+     * Gets the number of runs the table spilled to disk.
+     * @return The number of runs.
+     */
+    public int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * Visits the statistics of every pair once. Without runs, the pairs in memory are visited in index order.
+     * Otherwise the pairs in memory are spilled as well and the runs are merged, so the pairs are visited
+     * ordered by user query and object and the table is empty afterwards.
+     * @param consumer The consumer of the pairs.
+     * @throws IOException If the runs cannot be written or read.
+     */
+    public void forEachPair(final PairConsumer consumer) throws IOException {
+        if (runs.isEmpty()) {
+            for (int pair = 0; pair < size(); pair++) {
+                consumer.accept(dictionary.userQuery(pairQuery[pair]), objectId(pair), clicks[pair], impressions[pair], rank[pair]);
+            }
+            return;
+        }
+        if (pairs.size() > 0) {
+            spill();
+        }
+        while (runs.size() > MAX_MERGE_WIDTH) {
+            List<Path> merged = new ArrayList<>(runs.subList(0, MAX_MERGE_WIDTH));
+            Path run = createRun();
+            try (RunWriter writer = new RunWriter(run)) {
+                merge(merged, writer::write);
+            }
+            runs.removeAll(merged);
+            IOUtils.deleteFilesIgnoringExceptions(merged);
+        }
+        merge(runs, consumer);
+    }
+
+    @Override
+    public void close() {
+        pairs.close();
+        IOUtils.deleteFilesIgnoringExceptions(runs);
+        runs.clear();
+    }
+
+    /**
+     * Write the pairs in memory to a new run, sorted by user query and object, and empty the table.
+     */
+    private void spill() throws IOException {
+        int size = size();
+        int[] order = new int[size];
+        for (int pair = 0; pair < size; pair++) {
+            order[pair] = pair;
+        }
+        new IntroSorter() {
+            private int pivot;
+
+            @Override
+            protected void swap(int i, int j) {
+                int pair = order[i];
+                order[i] = order[j];
+                order[j] = pair;
+            }
+
+            @Override
+            protected int compare(int i, int j) {
+                return comparePairs(order[i], order[j]);
+            }
+
+            @Override
+            protected void setPivot(int i) {
+                pivot = order[i];
+            }
+
+            @Override
+            protected int comparePivot(int j) {
+                return comparePairs(pivot, order[j]);
+            }
+        }.sort(0, size);
+
+        Path run = createRun();
+        try (RunWriter writer = new RunWriter(run)) {
+            for (int pair : order) {
+                writer.write(dictionary.userQuery(pairQuery[pair]), objectId(pair), clicks[pair], impressions[pair], rank[pair]);
+            }
+        }
+        LOGGER.debug("Spilled {} click statistics pairs of about {} bytes to run {}", size, memoryUsed, runs.size());
+        pairs.close();
+        reset();
+    }
+
+    private Path createRun() throws IOException {
+        Path run = spillDirectory == null
+            ? Files.createTempFile(RUN_PREFIX, RUN_SUFFIX)
+            : Files.createTempFile(spillDirectory, RUN_PREFIX, RUN_SUFFIX);
+        runs.add(run);
+        return run;
+    }
+
+    private int comparePairs(final int left, final int right) {
+        if (pairQuery[left] != pairQuery[right]) {
+            int query = dictionary.userQuery(pairQuery[left]).compareTo(dictionary.userQuery(pairQuery[right]));
+            if (query != 0) {
+                return query;
+            }
+        }
+        return objects.get(pairObject[left]).compareTo(objects.get(pairObject[right]));
+    }
+
+    private void reset() {
+        dictionary = new UserQueryDictionary();
+        objectNumbers = new HashMap<>();
+        objects = new ArrayList<>();
+        pairs = new LongHash(INITIAL_CAPACITY, BigArrays.NON_RECYCLING_INSTANCE);
+        pairQuery = new int[INITIAL_CAPACITY];
+        pairObject = new int[INITIAL_CAPACITY];
+        clicks = new int[INITIAL_CAPACITY];
+        impressions = new int[INITIAL_CAPACITY];
+        rank = new int[INITIAL_CAPACITY];
+        memoryUsed = 0;
+    }
+
+    /**
+     * K-way merge of sorted runs, the counts of a pair are summed and its lowest rank is kept.
+     */
+    private static void merge(final List<Path> runs, final PairConsumer consumer) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(
+            Comparator.comparing((RunReader reader) -> reader.userQuery).thenComparing(reader -> reader.objectId)
+        );
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunReader head = queue.poll();
+                String userQuery = head.userQuery;
+                String objectId = head.objectId;
+                long clicks = head.clicks;
+                long impressions = head.impressions;
+                int rank = head.rank;
+                if (head.next()) {
+                    queue.add(head);
+                }
+                while (!queue.isEmpty() && queue.peek().userQuery.equals(userQuery) && queue.peek().objectId.equals(objectId)) {
+                    RunReader same = queue.poll();
+                    clicks += same.clicks;
+                    impressions += same.impressions;
+                    rank = Math.min(rank, same.rank);
+                    if (same.next()) {
+                        queue.add(same);
+                    }
+                }
+                consumer.accept(userQuery, objectId, clicks, impressions, rank);
+            }
+        } finally {
+            IOUtils.close(readers);
+        }
+    }
+
+    private void grow() {
+        int capacity = clicks.length << 1;
+        pairQuery = Arrays.copyOf(pairQuery, capacity);
+        pairObject = Arrays.copyOf(pairObject, capacity);
+        clicks = Arrays.copyOf(clicks, capacity);
+        impressions = Arrays.copyOf(impressions, capacity);
+        rank = Arrays.copyOf(rank, capacity);
+    }
+
+    private int number(final Map<String, Integer> numbers, final List<String> values, final String value) {
+        Integer number = numbers.get(value);
+        if (number == null) {
+            number = values.size();
+            numbers.put(value, number);
+            values.add(value);
+            memoryUsed += STRING_BYTES + (long) Character.BYTES * value.length();
+        }
+        return number;
+    }
+
+    /**
+     * Writes the pairs of a run, each one preceded by a marker so the run can be written without knowing its size.
+     */
+    private static final class RunWriter implements Closeable {
+        private final StreamOutput out;
+
+        RunWriter(final Path run) throws IOException {
+            this.out = new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(run)));
+        }
+
+        void write(final String userQuery, final String objectId, final long clicks, final long impressions, final int rank)
+            throws IOException {
+            out.writeBoolean(true);
+            out.writeString(userQuery);
+            out.writeString(objectId);
+            out.writeVLong(clicks);
+            out.writeVLong(impressions);
+            out.writeInt(rank);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeBoolean(false);
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the pairs of a run in order, the current pair is held in its fields.
+     */
+    private static final class RunReader implements Closeable {
+        private final StreamInput in;
+        private String userQuery;
+        private String objectId;
+        private long clicks;
+        private long impressions;
+        private int rank;
+
+        RunReader(final Path run) throws IOException {
+            this.in = new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(run)));
+        }
+
+        boolean next() throws IOException {
+            if (!in.readBoolean()) {
+                return false;
+            }
+            userQuery = in.readString();
+            objectId = in.readString();
+            clicks = in.readVLong();
+            impressions = in.readVLong();
+            rank = in.readInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
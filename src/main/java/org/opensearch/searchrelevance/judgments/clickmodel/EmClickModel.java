@@ -0,0 +1,209 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL_THREAD_POOL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.common.util.concurrent.FutureUtils;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Base class for click models whose parameters are fitted on {@link ClickSessions} with expectation-maximization.
+ * Each iteration runs the E-step over partitions of the sessions on the bounded click model thread pool, each partition
+ * summing its expected counts into its own statistics array, and the M-step on the merged statistics. Fitting stops once
+ * no parameter changes by more than the tolerance, or after the maximum number of iterations.
+ * Sessions are loaded and fitted on the generic thread pool, which also runs the partitions the click model pool has not
+ * picked up yet.
+ */
+public abstract class EmClickModel extends ClickModel {
+    private static final Logger LOGGER = LogManager.getLogger(EmClickModel.class);
+    /**
+     * Parameters are kept away from 0 and 1, so that no posterior divides by zero.
+     */
+    protected static final double MIN_PROBABILITY = 1e-6;
+
+    protected final Client client;
+    protected final EmClickModelParameters parameters;
+
+    protected EmClickModel(final Client client, final EmClickModelParameters parameters) {
+        this.client = client;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public void calculateJudgments(ActionListener<List<Map<String, Object>>> listener) {
+        new ClickSessionLoader(client, parameters).load(ActionListener.wrap(sessions -> {
+            client.threadPool().generic().execute(() -> {
+                try (sessions) {
+                    fit(sessions, client.threadPool().executor(CLICK_MODEL_THREAD_POOL));
+                    listener.onResponse(judgments(sessions));
+                } catch (Exception e) {
+                    LOGGER.error("Failed to fit click model", e);
+                    listener.onFailure(e);
+                }
+            });
+        }, listener::onFailure));
+    }
+
+    /**
+     * Fit the parameters of the model on the sessions.
+     * @param sessions The sessions.
+     * @param executor The executor the partitions of the E-step run on.
+     * @return The number of iterations run.
+     */
+    public int fit(final ClickSessions sessions, final Executor executor) {
+        initialize(sessions);
+        int partitions = Math.max(1, Math.min(parameters.getParallelism(), sessions.size()));
+        for (int iteration = 1; iteration <= parameters.getMaxIterations(); iteration++) {
+            double[] statistics = expect(sessions, partitions, executor);
+            double change = maximize(statistics);
+            LOGGER.debug("EM iteration {} changed parameters by at most {}", iteration, change);
+            if (change <= parameters.getTolerance()) {
+                LOGGER.info("Click model converged after {} iterations", iteration);
+                return iteration;
+            }
+        }
+        LOGGER.info("Click model stopped after {} iterations without converging", parameters.getMaxIterations());
+        return parameters.getMaxIterations();
+    }
+
+    /**
+     * Build the judgments of the fitted model, one rating per query and object.
+     * @param sessions The sessions the model was fitted on.
+     * @return The ratings per query.
+     */
+    public List<Map<String, Object>> judgments(final ClickSessions sessions) {
+        ClickStatisticsTable pairs = sessions.pairs();
+        List<Map<String, String>> docScoresByQuery = new ArrayList<>(pairs.queryCount());
+        for (int query = 0; query < pairs.queryCount(); query++) {
+            docScoresByQuery.add(new HashMap<>());
+        }
+        for (int pair = 0; pair < pairs.size(); pair++) {
+            docScoresByQuery.get(pairs.queryNumber(pair)).put(pairs.objectId(pair), String.format(Locale.ROOT, "%.3f", rating(pair)));
+        }
+
+        List<Map<String, Object>> judgmentRatings = new ArrayList<>();
+        for (int query = 0; query < pairs.queryCount(); query++) {
+            Map<String, String> docScores = docScoresByQuery.get(query);
+            if (!docScores.isEmpty()) {
+                Map<String, Object> queryRating = new HashMap<>();
+                queryRating.put("query", pairs.userQuery(query));
+                queryRating.put("ratings", docScores);
+                judgmentRatings.add(queryRating);
+            }
+        }
+        return judgmentRatings;
+    }
+
+    /**
+     * Set the starting parameters.
+     * @param sessions The sessions to fit.
+     */
+    protected abstract void initialize(ClickSessions sessions);
+
+    /**
+     * Gets the length of the statistics array the E-step sums into.
+     * @return The number of statistics.
+     */
+    protected abstract int statisticsSize();
+
+    /**
+     * E-step: add the weighted expected counts of a range of sessions to the statistics, using the current parameters.
+     * Called concurrently for disjoint ranges, each with its own statistics array.
+     * @param sessions The sessions.
+     * @param from The first session of the range.
+     * @param to The session after the range.
+     * @param statistics The statistics to add to.
+     */
+    protected abstract void expect(ClickSessions sessions, int from, int to, double[] statistics);
+
+    /**
+     * M-step: set the parameters from the summed statistics.
+     * @param statistics The statistics of all sessions.
+     * @return The largest change of a parameter.
+     */
+    protected abstract double maximize(double[] statistics);
+
+    /**
+     * Gets the rating of a query-object pair from the fitted parameters.
+     * @param pair The index of the pair.
+     * @return The rating.
+     */
+    protected abstract double rating(int pair);
+
+    /**
+     * Clamp a probability to the range the model works in.
+     */
+    protected static double clamp(final double probability) {
+        return Math.min(1 - MIN_PROBABILITY, Math.max(MIN_PROBABILITY, probability));
+    }
+
+    /**
+     * Set estimates from summed numerators and denominators, keeping estimates without observations.
+     * @return The largest change of an estimate.
+     */
+    protected static double update(final double[] estimates, final double[] statistics, final int numerators, final int denominators) {
+        double change = 0;
+        for (int i = 0; i < estimates.length; i++) {
+            double denominator = statistics[denominators + i];
+            if (denominator > 0) {
+                double estimate = clamp(statistics[numerators + i] / denominator);
+                change = Math.max(change, Math.abs(estimate - estimates[i]));
+                estimates[i] = estimate;
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Run the E-step over the partitions of the sessions and sum their statistics. All but the first partition are handed
+     * to the executor, the calling thread runs every partition that has not been started by then, so a busy or rejecting
+     * executor slows the fit down instead of stalling it.
+     */
+    private double[] expect(final ClickSessions sessions, final int partitions, final Executor executor) {
+        List<FutureTask<double[]>> tasks = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            int from = (int) ((long) sessions.size() * partition / partitions);
+            int to = (int) ((long) sessions.size() * (partition + 1) / partitions);
+            tasks.add(new FutureTask<>(() -> {
+                double[] statistics = new double[statisticsSize()];
+                expect(sessions, from, to, statistics);
+                return statistics;
+            }));
+        }
+        for (int partition = 1; partition < partitions; partition++) {
+            try {
+                executor.execute(tasks.get(partition));
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Click model pool rejected an E-step partition, running it on the calling thread");
+            }
+        }
+        double[] statistics = new double[statisticsSize()];
+        for (FutureTask<double[]> task : tasks) {
+            // a no-op when the executor already ran or is running the task
+            task.run();
+            double[] partial = FutureUtils.get(task);
+            for (int i = 0; i < statistics.length; i++) {
+                statistics[i] += partial[i];
+            }
+        }
+        return statistics;
+    }
+}
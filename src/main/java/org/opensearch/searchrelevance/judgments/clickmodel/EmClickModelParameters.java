@@ -0,0 +1,110 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+/**
+ * The parameters for click models fitted with expectation-maximization, see {@link EmClickModel}.
+ */
+public class EmClickModelParameters extends ClickModelParameters {
+
+    public static final int DEFAULT_MAX_ITERATIONS = 50;
+    public static final double DEFAULT_TOLERANCE = 1e-4;
+    public static final int DEFAULT_MAX_SESSIONS = 5_000_000;
+
+    private final int maxRank;
+    private final int maxIterations;
+    private final double tolerance;
+    private final int parallelism;
+    private final int maxSessions;
+
+    /**
+     * Creates new parameters with the default iterations, tolerance and session limit, running the E-step in one partition.
+     * @param maxRank The max rank to use when calculating the judgments.
+     */
+    public EmClickModelParameters(final int maxRank) {
+        this(maxRank, 1);
+    }
+
+    /**
+     * Creates new parameters with the default iterations, tolerance and session limit.
+     * @param maxRank The max rank to use when calculating the judgments.
+     * @param parallelism The number of partitions the sessions are split into for the E-step.
+     */
+    public EmClickModelParameters(final int maxRank, final int parallelism) {
+        this(maxRank, DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE, parallelism, DEFAULT_MAX_SESSIONS);
+    }
+
+    /**
+     * Creates new parameters.
+     * @param maxRank The max rank to use when calculating the judgments.
+     * @param maxIterations The maximum number of EM iterations.
+     * @param tolerance The largest parameter change at which the model is considered converged.
+     * @param parallelism The number of partitions the sessions are split into for the E-step.
+     * @param maxSessions The maximum number of distinct sessions to hold in memory.
+     */
+    public EmClickModelParameters(
+        final int maxRank,
+        final int maxIterations,
+        final double tolerance,
+        final int parallelism,
+        final int maxSessions
+    ) {
+        if (maxRank < 1 || maxRank > ClickSessions.MAX_RANK + 1) {
+            throw new IllegalArgumentException("maxRank must be between 1 and " + (ClickSessions.MAX_RANK + 1));
+        }
+        if (maxIterations < 1 || parallelism < 1 || maxSessions < 1) {
+            throw new IllegalArgumentException("maxIterations, parallelism and maxSessions must be at least 1");
+        }
+        this.maxRank = maxRank;
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+        this.parallelism = parallelism;
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Gets the max rank, results at this rank and below are not used.
+     * @return The max rank.
+     */
+    public int getMaxRank() {
+        return maxRank;
+    }
+
+    /**
+     * Gets the maximum number of EM iterations.
+     * @return The maximum number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Gets the largest parameter change at which the model is considered converged.
+     * @return The tolerance.
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Gets the number of partitions the sessions are split into for the E-step.
+     * @return The parallelism.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the maximum number of distinct sessions to hold in memory.
+     * @return The maximum number of sessions.
+     */
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.cascade;
+
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickSessions;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModelParameters;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Cascade click model: results are examined top down until the first click, which ends the session.
+ * Every result up to and including the first click was examined, so the attractiveness has a closed form estimate,
+ * clicks over examinations, and fitting converges after a single pass. Results after the first click are ignored.
+ * The rating is the attractiveness.
+ */
+public class CascadeClickModel extends EmClickModel {
+
+    public static final String CLICK_MODEL_NAME = "cascade";
+
+    private double[] attractiveness;
+
+    public CascadeClickModel(final Client client, final EmClickModelParameters parameters) {
+        super(client, parameters);
+    }
+
+    @Override
+    protected void initialize(ClickSessions sessions) {
+        attractiveness = new double[sessions.pairCount()];
+    }
+
+    @Override
+    protected int statisticsSize() {
+        return 2 * attractiveness.length;
+    }
+
+    @Override
+    protected void expect(ClickSessions sessions, int from, int to, double[] statistics) {
+        int pairs = attractiveness.length;
+        for (int session = from; session < to; session++) {
+            int weight = sessions.weight(session);
+            for (int entry = sessions.start(session); entry < sessions.end(session); entry++) {
+                int pair = sessions.pair(entry);
+                statistics[pairs + pair] += weight;
+                if (sessions.clicked(entry)) {
+                    statistics[pair] += weight;
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected double maximize(double[] statistics) {
+        update(attractiveness, statistics, 0, attractiveness.length);
+        return 0;
+    }
+
+    @Override
+    protected double rating(int pair) {
+        return attractiveness[pair];
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.coec;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_EVENTS_INDEX;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.ACTION_NAME_FIELD;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.OBJECT_ID_FIELD;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.OBJECT_ID_SOURCE;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.POSITION_FIELD;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.POSITION_SOURCE;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.QUERY_ID_FIELD;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.QUERY_ID_SOURCE;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.USER_QUERY_FIELD;
+import static org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel.USER_QUERY_SOURCE;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.composite.DateHistogramValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.filter.Filter;
+import org.opensearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.aggregations.metrics.Sum;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.searchrelevance.dao.ClickStatisticsDao;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
+import org.opensearch.searchrelevance.model.ClickCounter;
+import org.opensearch.searchrelevance.ubi.UserQueryResolver;
+import org.opensearch.searchrelevance.utils.TimeUtils;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Click statistics persisted in the click statistics index, so that COEC judgments do not recount the full history of UBI events.
+ * Events are counted per user query, object, position and UTC day. Events logged with a query id only are counted per query id,
+ * and joined to their user query by a {@link UserQueryResolver} when the judgments are read.
+ * {@link #advance} counts the events between the stored watermark and now, minus {@link #LATENESS} for events that are still
+ * being indexed, and then moves the watermark.
+ * The day of the watermark is counted again from its start and its counters are replaced, so advancing is idempotent
+ * and a daily refresh only reads the events of the new day.
+ * Judgments are then read from the counters, optionally restricted to a window of the most recent days.
+ */
+public class ClickStatisticsStore {
+    private static final Logger LOGGER = LogManager.getLogger(ClickStatisticsStore.class);
+    static final TimeValue LATENESS = TimeValue.timeValueMinutes(5);
+    static final String TIMESTAMP_FIELD = "timestamp";
+    static final String EVENT_COUNTS_AGGREGATION = "event_counts";
+    static final String COUNTERS_AGGREGATION = "counters";
+    static final String POSITIONS_AGGREGATION = "positions";
+    static final String DAY_SOURCE = "day";
+    static final String CLICKS = "clicks";
+    static final String IMPRESSIONS = "impressions";
+    private static final long DAY_MILLIS = TimeValue.timeValueDays(1).millis();
+    private static final TimeValue SEARCH_TIMEOUT = TimeValue.timeValueMinutes(5);
+
+    private final Client client;
+    private final ClickStatisticsDao clickStatisticsDao;
+    private final UserQueryResolver userQueryResolver;
+    private final LongSupplier clock;
+
+    public ClickStatisticsStore(Client client, ClickStatisticsDao clickStatisticsDao) {
+        this(client, clickStatisticsDao, System::currentTimeMillis);
+    }
+
+    ClickStatisticsStore(Client client, ClickStatisticsDao clickStatisticsDao, LongSupplier clock) {
+        this.client = client;
+        this.clickStatisticsDao = clickStatisticsDao;
+        this.userQueryResolver = new UserQueryResolver(client);
+        this.clock = clock;
+    }
+
+    /**
+     * Count the events since the watermark into the store and move the watermark
+     * @param listener - responds with the new watermark in epoch millis
+     */
+    public void advance(ActionListener<Long> listener) {
+        StepListener<Void> createIndexStep = new StepListener<>();
+        clickStatisticsDao.createIndexIfAbsent(createIndexStep);
+        createIndexStep.whenComplete(created -> clickStatisticsDao.getWatermark(ActionListener.wrap(watermark -> {
+            long to = clock.getAsLong() - LATENESS.millis();
+            if (watermark != null && watermark >= to) {
+                listener.onResponse(watermark);
+                return;
+            }
+            long from = watermark == null ? 0L : startOfDay(watermark);
+            LOGGER.info("Advancing click statistics from {} to {}", from, to);
+            StepListener<Void> userQueryStep = new StepListener<>();
+            countEvents(USER_QUERY_SOURCE, from, to, null, userQueryStep);
+            userQueryStep.whenComplete(counted -> countEvents(QUERY_ID_SOURCE, from, to, null, ActionListener.wrap(unjoined -> {
+                clickStatisticsDao.putWatermark(to, ActionListener.wrap(stored -> listener.onResponse(to), listener::onFailure));
+            }, listener::onFailure)), listener::onFailure);
+        }, listener::onFailure)), listener::onFailure);
+    }
+
+    private void countEvents(String querySource, long from, long to, Map<String, Object> afterKey, ActionListener<Void> listener) {
+        client.search(buildEventCountRequest(querySource, from, to, afterKey), ActionListener.wrap(response -> {
+            CompositeAggregation eventCounts = response.getAggregations().get(EVENT_COUNTS_AGGREGATION);
+            List<ClickCounter> counters = countersOf(eventCounts.getBuckets(), querySource, TimeUtils.getTimestamp());
+            Map<String, Object> nextAfterKey = eventCounts.afterKey();
+            boolean last = eventCounts.getBuckets().isEmpty() || nextAfterKey == null;
+            ActionListener<Void> next = ActionListener.wrap(stored -> {
+                if (last) {
+                    listener.onResponse(null);
+                } else {
+                    countEvents(querySource, from, to, nextAfterKey, listener);
+                }
+            }, listener::onFailure);
+            if (counters.isEmpty()) {
+                next.onResponse(null);
+            } else {
+                LOGGER.debug("Storing {} click counters", counters.size());
+                clickStatisticsDao.putClickCounters(counters, ActionListener.wrap(r -> next.onResponse(null), next::onFailure));
+            }
+        }, e -> {
+            LOGGER.error("Failed to count UBI events", e);
+            listener.onFailure(e);
+        }));
+    }
+
+    SearchRequest buildEventCountRequest(long from, long to, Map<String, Object> afterKey) {
+        return buildEventCountRequest(USER_QUERY_SOURCE, from, to, afterKey);
+    }
+
+    /**
+     * Builds the aggregation over the events of the user query source, or over the events without a user query keyed by
+     * their query id for the query id source
+     */
+    SearchRequest buildEventCountRequest(String querySource, long from, long to, Map<String, Object> afterKey) {
+        boolean unjoined = QUERY_ID_SOURCE.equals(querySource);
+        List<CompositeValuesSourceBuilder<?>> sources = List.of(
+            new TermsValuesSourceBuilder(querySource).field(unjoined ? QUERY_ID_FIELD : USER_QUERY_FIELD),
+            new TermsValuesSourceBuilder(OBJECT_ID_SOURCE).field(OBJECT_ID_FIELD),
+            new TermsValuesSourceBuilder(POSITION_SOURCE).field(POSITION_FIELD),
+            new DateHistogramValuesSourceBuilder(DAY_SOURCE).field(TIMESTAMP_FIELD).calendarInterval(DateHistogramInterval.DAY)
+        );
+        CompositeAggregationBuilder eventCounts = AggregationBuilders.composite(EVENT_COUNTS_AGGREGATION, sources)
+            .size(CoecClickModel.COMPOSITE_PAGE_SIZE)
+            .subAggregation(AggregationBuilders.filter(CLICKS, QueryBuilders.termQuery(ACTION_NAME_FIELD, "click").caseInsensitive(true)))
+            .subAggregation(
+                AggregationBuilders.filter(IMPRESSIONS, QueryBuilders.termQuery(ACTION_NAME_FIELD, "impression").caseInsensitive(true))
+            );
+        if (afterKey != null) {
+            eventCounts.aggregateAfter(afterKey);
+        }
+
+        BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery()
+            .filter(QueryBuilders.rangeQuery(TIMESTAMP_FIELD).gte(from).lt(to).format("epoch_millis"))
+            .should(QueryBuilders.termQuery(ACTION_NAME_FIELD, "click").caseInsensitive(true))
+            .should(QueryBuilders.termQuery(ACTION_NAME_FIELD, "impression").caseInsensitive(true))
+            .minimumShouldMatch(1);
+        if (unjoined) {
+            queryBuilder.mustNot(QueryBuilders.existsQuery(USER_QUERY_FIELD));
+        }
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder)
+            .size(0)
+            .trackTotalHits(false)
+            .timeout(SEARCH_TIMEOUT)
+            .aggregation(eventCounts);
+        return new SearchRequest(UBI_EVENTS_INDEX).source(searchSourceBuilder);
+    }
+
+    /**
+     * Turn the event count buckets of one user query, object, position and day into counters
+     */
+    static List<ClickCounter> countersOf(List<? extends CompositeAggregation.Bucket> buckets, String timestamp) {
+        return countersOf(buckets, USER_QUERY_SOURCE, timestamp);
+    }
+
+    /**
+     * Turn the event count buckets of one user query or query id, object, position and day into counters
+     */
+    static List<ClickCounter> countersOf(List<? extends CompositeAggregation.Bucket> buckets, String querySource, String timestamp) {
+        List<ClickCounter> counters = new ArrayList<>(buckets.size());
+        for (CompositeAggregation.Bucket bucket : buckets) {
+            Map<String, Object> key = bucket.getKey();
+            Filter clicks = bucket.getAggregations().get(CLICKS);
+            Filter impressions = bucket.getAggregations().get(IMPRESSIONS);
+            if (clicks.getDocCount() == 0 && impressions.getDocCount() == 0) {
+                continue;
+            }
+            String query = String.valueOf(key.get(querySource));
+            String objectId = String.valueOf(key.get(OBJECT_ID_SOURCE));
+            int position = ((Number) key.get(POSITION_SOURCE)).intValue();
+            long day = ((Number) key.get(DAY_SOURCE)).longValue();
+            counters.add(
+                QUERY_ID_SOURCE.equals(querySource)
+                    ? ClickCounter.ofQueryId(timestamp, query, objectId, position, day, clicks.getDocCount(), impressions.getDocCount())
+                    : new ClickCounter(timestamp, query, objectId, position, day, clicks.getDocCount(), impressions.getDocCount())
+            );
+        }
+        return counters;
+    }
+
+    /**
+     * Read the clicks and impressions per user query and object from the counters
+     * @param maxRank - highest position to count
+     * @param windowDays - number of most recent days to count, 0 for all days
+     * @param memoryBudget - estimated heap in bytes the statistics may hold before they are spilled to temporary files
+     * @param spillDirectory - directory the statistics are spilled to, the temporary directory of the node
+     * @param listener - responds with the statistics, which the caller closes
+     */
+    public void loadClickStatistics(
+        int maxRank,
+        int windowDays,
+        long memoryBudget,
+        Path spillDirectory,
+        ActionListener<ClickStatisticsTable> listener
+    ) {
+        ClickStatisticsTable statistics = new ClickStatisticsTable(memoryBudget, spillDirectory);
+        ActionListener<ClickStatisticsTable> closingListener = ActionListener.wrap(listener::onResponse, e -> {
+            statistics.close();
+            listener.onFailure(e);
+        });
+        StepListener<ClickStatisticsTable> userQueryStep = new StepListener<>();
+        searchCounters(USER_QUERY_SOURCE, maxRank, windowDays, null, statistics, userQueryStep);
+        userQueryStep.whenComplete(
+            counted -> searchCounters(QUERY_ID_SOURCE, maxRank, windowDays, null, statistics, ActionListener.wrap(joined -> {
+                LOGGER.info("Loaded click statistics with {} queries", statistics.queryCount());
+                closingListener.onResponse(joined);
+            }, closingListener::onFailure)),
+            closingListener::onFailure
+        );
+    }
+
+    private void searchCounters(
+        String querySource,
+        int maxRank,
+        int windowDays,
+        Map<String, Object> afterKey,
+        ClickStatisticsTable statistics,
+        ActionListener<ClickStatisticsTable> listener
+    ) {
+        SearchSourceBuilder request = buildCounterAggregation(querySource, maxRank, windowDays, afterKey);
+        clickStatisticsDao.searchClickCounters(request, ActionListener.wrap(response -> {
+            CompositeAggregation counters = response.getAggregations() == null
+                ? null
+                : response.getAggregations().get(COUNTERS_AGGREGATION);
+            if (counters == null || counters.getBuckets().isEmpty()) {
+                listener.onResponse(statistics);
+                return;
+            }
+            List<? extends CompositeAggregation.Bucket> buckets = counters.getBuckets();
+            Map<String, Object> nextAfterKey = counters.afterKey();
+            ActionListener<Void> next = ActionListener.wrap(folded -> {
+                if (nextAfterKey == null) {
+                    listener.onResponse(statistics);
+                } else {
+                    searchCounters(querySource, maxRank, windowDays, nextAfterKey, statistics, listener);
+                }
+            }, listener::onFailure);
+            if (!QUERY_ID_SOURCE.equals(querySource)) {
+                foldCounterBuckets(buckets, statistics);
+                next.onResponse(null);
+                return;
+            }
+            Set<String> queryIds = new HashSet<>();
+            for (CompositeAggregation.Bucket bucket : buckets) {
+                queryIds.add(String.valueOf(bucket.getKey().get(QUERY_ID_SOURCE)));
+            }
+            LOGGER.debug("Joining page of {} counters with {} query ids", buckets.size(), queryIds.size());
+            userQueryResolver.resolve(queryIds, ActionListener.wrap(userQueries -> {
+                foldCounterBuckets(buckets, key -> userQueries.get(String.valueOf(key.get(QUERY_ID_SOURCE))), statistics);
+                next.onResponse(null);
+            }, listener::onFailure));
+        }, listener::onFailure));
+    }
+
+    SearchSourceBuilder buildCounterAggregation(int maxRank, int windowDays, Map<String, Object> afterKey) {
+        return buildCounterAggregation(USER_QUERY_SOURCE, maxRank, windowDays, afterKey);
+    }
+
+    /**
+     * Builds the aggregation over the counters of user queries, or over the counters of query ids for the query id source
+     */
+    SearchSourceBuilder buildCounterAggregation(String querySource, int maxRank, int windowDays, Map<String, Object> afterKey) {
+        String queryField = QUERY_ID_SOURCE.equals(querySource) ? ClickCounter.QUERY_ID : ClickCounter.USER_QUERY;
+        List<CompositeValuesSourceBuilder<?>> sources = List.of(
+            new TermsValuesSourceBuilder(querySource).field(queryField),
+            new TermsValuesSourceBuilder(OBJECT_ID_SOURCE).field(ClickCounter.OBJECT_ID),
+            new TermsValuesSourceBuilder(POSITION_SOURCE).field(ClickCounter.POSITION)
+        );
+        CompositeAggregationBuilder counters = AggregationBuilders.composite(COUNTERS_AGGREGATION, sources)
+            .size(CoecClickModel.COMPOSITE_PAGE_SIZE)
+            .subAggregation(AggregationBuilders.sum(CLICKS).field(ClickCounter.CLICKS))
+            .subAggregation(AggregationBuilders.sum(IMPRESSIONS).field(ClickCounter.IMPRESSIONS));
+        if (afterKey != null) {
+            counters.aggregateAfter(afterKey);
+        }
+        return new SearchSourceBuilder().query(counterQuery(QueryBuilders.existsQuery(queryField), maxRank, windowDays))
+            .size(0)
+            .trackTotalHits(false)
+            .timeout(SEARCH_TIMEOUT)
+            .aggregation(counters);
+    }
+
+    /**
+     * Add the summed counters of composite buckets to the statistics of their user query and object
+     */
+    static void foldCounterBuckets(List<? extends CompositeAggregation.Bucket> buckets, ClickStatisticsTable statistics) {
+        foldCounterBuckets(buckets, key -> String.valueOf(key.get(USER_QUERY_SOURCE)), statistics);
+    }
+
+    /**
+     * Add the summed counters of composite buckets to the statistics of their object and the user query read from their key,
+     * buckets without a user query are skipped
+     */
+    static void foldCounterBuckets(
+        List<? extends CompositeAggregation.Bucket> buckets,
+        Function<Map<String, Object>, String> userQueryOfKey,
+        ClickStatisticsTable statistics
+    ) {
+        for (CompositeAggregation.Bucket bucket : buckets) {
+            Map<String, Object> key = bucket.getKey();
+            String userQuery = userQueryOfKey.apply(key);
+            if (userQuery == null) {
+                continue;
+            }
+            Sum clicks = bucket.getAggregations().get(CLICKS);
+            Sum impressions = bucket.getAggregations().get(IMPRESSIONS);
+            int pair = statistics.pairIndex(userQuery, String.valueOf(key.get(OBJECT_ID_SOURCE)));
+            statistics.logClicks(pair, Math.toIntExact(Math.round(clicks.getValue())));
+            statistics.logImpressions(pair, Math.toIntExact(Math.round(impressions.getValue())));
+            statistics.logRank(pair, ((Number) key.get(POSITION_SOURCE)).intValue());
+        }
+    }
+
+    /**
+     * Read the click-through rate per position from the counters
+     * @param maxRank - number of positions
+     * @param windowDays - number of most recent days to count, 0 for all days
+     * @param listener - responds with the click-through rate per position, 0 for positions without impressions
+     */
+    public void loadRankAggregatedClickThrough(int maxRank, int windowDays, ActionListener<Map<Integer, Double>> listener) {
+        // the watermark document has neither a user query nor a query id
+        BoolQueryBuilder anyCounter = QueryBuilders.boolQuery()
+            .should(QueryBuilders.existsQuery(ClickCounter.USER_QUERY))
+            .should(QueryBuilders.existsQuery(ClickCounter.QUERY_ID))
+            .minimumShouldMatch(1);
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(counterQuery(anyCounter, maxRank, windowDays))
+            .size(0)
+            .trackTotalHits(false)
+            .timeout(SEARCH_TIMEOUT)
+            .aggregation(
+                AggregationBuilders.terms(POSITIONS_AGGREGATION)
+                    .field(ClickCounter.POSITION)
+                    .size(maxRank + 1)
+                    .subAggregation(AggregationBuilders.sum(CLICKS).field(ClickCounter.CLICKS))
+                    .subAggregation(AggregationBuilders.sum(IMPRESSIONS).field(ClickCounter.IMPRESSIONS))
+            );
+        clickStatisticsDao.searchClickCounters(searchSourceBuilder, ActionListener.wrap(response -> {
+            Map<Integer, Double> rankAggregatedClickThrough = new HashMap<>();
+            for (int rank = 0; rank < maxRank; rank++) {
+                rankAggregatedClickThrough.put(rank, 0.0);
+            }
+            Terms positions = response.getAggregations() == null ? null : response.getAggregations().get(POSITIONS_AGGREGATION);
+            if (positions != null) {
+                for (Terms.Bucket bucket : positions.getBuckets()) {
+                    int rank = bucket.getKeyAsNumber().intValue();
+                    double impressions = ((Sum) bucket.getAggregations().get(IMPRESSIONS)).getValue();
+                    if (rank < maxRank && impressions > 0) {
+                        rankAggregatedClickThrough.put(rank, ((Sum) bucket.getAggregations().get(CLICKS)).getValue() / impressions);
+                    }
+                }
+            }
+            LOGGER.debug("Rank aggregated clickthrough from click statistics: {}", rankAggregatedClickThrough);
+            listener.onResponse(rankAggregatedClickThrough);
+        }, listener::onFailure));
+    }
+
+    private BoolQueryBuilder counterQuery(QueryBuilder counterFilter, int maxRank, int windowDays) {
+        BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery()
+            .filter(counterFilter)
+            .filter(QueryBuilders.rangeQuery(ClickCounter.POSITION).lte(maxRank));
+        if (windowDays > 0) {
+            long firstDay = startOfDay(clock.getAsLong()) - (windowDays - 1) * DAY_MILLIS;
+            queryBuilder.filter(QueryBuilders.rangeQuery(ClickCounter.DAY).gte(firstDay).format("epoch_millis"));
+        }
+        return queryBuilder;
+    }
+
+    static long startOfDay(long epochMillis) {
+        return Math.floorDiv(epochMillis, DAY_MILLIS) * DAY_MILLIS;
+    }
+}
@@ -7,37 +7,58 @@
  */
 package org.opensearch.searchrelevance.judgments.clickmodel.coec;
 
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL_THREAD_POOL;
 import static org.opensearch.searchrelevance.common.PluginConstants.UBI_EVENTS_INDEX;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.action.ActionRunnable;
+import org.opensearch.action.NoShardAvailableActionException;
 import org.opensearch.action.search.ClearScrollRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.search.SearchScrollRequest;
+import org.opensearch.common.UUIDs;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
 import org.opensearch.search.aggregations.bucket.terms.Terms;
 import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
 import org.opensearch.searchrelevance.judgments.clickmodel.ClickModel;
-import org.opensearch.searchrelevance.model.ClickthroughRate;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
 import org.opensearch.searchrelevance.model.ubi.event.UbiEvent;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchRequest;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchResponse;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapNodeResponse;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapRequest;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
+import org.opensearch.searchrelevance.ubi.UbiScanner;
+import org.opensearch.searchrelevance.ubi.UserQueryResolver;
 import org.opensearch.searchrelevance.utils.JsonUtils;
 import org.opensearch.transport.client.Client;
 
@@ -47,26 +68,58 @@ public class CoecClickModel extends ClickModel {
     private static final TimeValue SEARCH_TIMEOUT = TimeValue.timeValueMinutes(5);
     private static final int SCROLL_SIZE = 1000;
     private static final TimeValue SCROLL_TIMEOUT = TimeValue.timeValueMinutes(10);
+    static final int COMPOSITE_PAGE_SIZE = 10000;
+    /**
+     * Attempts of the distributed counting, which is resolved and sent again when shards moved while it ran
+     */
+    static final int MAX_DISTRIBUTED_ATTEMPTS = 3;
+    static final String USER_QUERY_FIELD = "user_query";
+    static final String QUERY_ID_FIELD = "query_id";
+    static final String OBJECT_ID_FIELD = "event_attributes.object.object_id";
+    static final String ACTION_NAME_FIELD = "action_name";
+    static final String POSITION_FIELD = "event_attributes.position.ordinal";
+    static final String CLICKTHROUGH_AGGREGATION = "clickthrough";
+    static final String USER_QUERY_SOURCE = "user_query";
+    static final String QUERY_ID_SOURCE = "query_id";
+    static final String OBJECT_ID_SOURCE = "object_id";
+    static final String ACTION_SOURCE = "action_name";
+    static final String POSITION_SOURCE = "position";
 
     private final CoecClickModelParameters parameters;
     private final Client client;
+    private final ClickStatisticsStore clickStatisticsStore;
+    private final UserQueryResolver userQueryResolver;
 
     private static final Logger LOGGER = LogManager.getLogger(CoecClickModel.class.getName());
 
     public CoecClickModel(final Client client, final CoecClickModelParameters parameters) {
+        this(client, parameters, null);
+    }
+
+    public CoecClickModel(final Client client, final CoecClickModelParameters parameters, final ClickStatisticsStore clickStatisticsStore) {
         this.parameters = parameters;
         this.client = client;
+        this.clickStatisticsStore = clickStatisticsStore;
+        this.userQueryResolver = new UserQueryResolver(client);
     }
 
     @Override
     public void calculateJudgments(ActionListener<List<Map<String, Object>>> listener) {
+        if (parameters.isIncremental()) {
+            calculateIncrementalJudgments(listener);
+            return;
+        }
         // Step 1: Calculate rank-aggregated click-through
         getRankAggregatedClickThrough(ActionListener.wrap(rankAggregatedClickThrough -> {
+            if (parameters.isDistributed()) {
+                calculateDistributedJudgments(rankAggregatedClickThrough, 1, listener);
+                return;
+            }
             // Step 2: Get clickthrough rates
-            getClickthroughRate(ActionListener.wrap(clickthroughRates -> {
-                try {
+            getClickthroughRate(ActionListener.wrap(statistics -> {
+                try (statistics) {
                     // Step 3: Calculate final judgments
-                    calculateCoecJudgments(rankAggregatedClickThrough, clickthroughRates, listener);
+                    listener.onResponse(calculateCoecJudgments(rankAggregatedClickThrough, statistics));
                 } catch (Exception e) {
                     listener.onFailure(e);
                 }
@@ -74,13 +127,175 @@ public class CoecClickModel extends ClickModel {
         }, listener::onFailure));
     }
 
+    /**
+     * Map: the data nodes count the clicks and impressions on their local shards and write them to partition files by
+     * user query hash. Reduce: one partition at a time, its chunks are fetched from every node and merged into a table
+     * under the memory budget, which spills past it, and its pairs are rated on the click model thread pool.
+     * A user query falls in the same partition on every node, so each partition holds complete counts for its queries.
+     * When nodes fail because shards moved off them, the shards are resolved again and the counting is retried.
+     */
+    private void calculateDistributedJudgments(
+        Map<Integer, Double> rankAggregatedClickThrough,
+        int attempt,
+        ActionListener<List<Map<String, Object>>> listener
+    ) {
+        int partitions = parameters.getPartitions();
+        String jobId = UUIDs.randomBase64UUID();
+        ClickthroughMapRequest request = new ClickthroughMapRequest(jobId, parameters.getMaxRank(), parameters.getFilter(), partitions);
+        client.execute(ClickthroughMapAction.INSTANCE, request, ActionListener.wrap(response -> {
+            if (response.hasFailures()) {
+                boolean shardsMoved = response.failures()
+                    .stream()
+                    .allMatch(failure -> ExceptionsHelper.unwrap(failure, NoShardAvailableActionException.class) != null);
+                if (shardsMoved && attempt < MAX_DISTRIBUTED_ATTEMPTS) {
+                    LOGGER.warn("Counting clicks missed shards on {} nodes, retrying attempt {}", response.failures().size(), attempt);
+                    calculateDistributedJudgments(rankAggregatedClickThrough, attempt + 1, listener);
+                    return;
+                }
+                LOGGER.error("Counting clicks failed on {} nodes", response.failures().size());
+                listener.onFailure(response.failures().get(0));
+                return;
+            }
+            LOGGER.info("Reducing click statistics of {} nodes in {} partitions", response.getNodes().size(), partitions);
+            reducePartitions(rankAggregatedClickThrough, jobId, response.getNodes(), 0, new ArrayList<>(), listener);
+        }, listener::onFailure));
+    }
+
+    /**
+     * Reduce the partitions from the given one on, each one after the previous one is rated and its table closed
+     */
+    private void reducePartitions(
+        Map<Integer, Double> rankAggregatedClickThrough,
+        String jobId,
+        List<ClickthroughMapNodeResponse> nodes,
+        int partition,
+        List<Map<String, Object>> judgments,
+        ActionListener<List<Map<String, Object>>> listener
+    ) {
+        if (partition == parameters.getPartitions()) {
+            listener.onResponse(judgments);
+            return;
+        }
+        ClickStatisticsTable statistics = newClickStatisticsTable(parameters.getMemoryBudget());
+        ActionListener<List<Map<String, Object>>> rated = ActionListener.runBefore(ActionListener.wrap(partitionJudgments -> {
+            judgments.addAll(partitionJudgments);
+            reducePartitions(rankAggregatedClickThrough, jobId, nodes, partition + 1, judgments, listener);
+        }, listener::onFailure), statistics::close);
+        Executor executor = client.threadPool().executor(CLICK_MODEL_THREAD_POOL);
+        fetchPartition(
+            jobId,
+            nodes,
+            0,
+            partition,
+            0,
+            0,
+            statistics,
+            ActionListener.wrap(fetched -> executor.execute(ActionRunnable.supply(rated, () -> {
+                LOGGER.debug("Rating partition {} of {} queries", partition, fetched.queryCount());
+                return calculateCoecJudgments(rankAggregatedClickThrough, fetched);
+            })), rated::onFailure)
+        );
+    }
+
+    /**
+     * Fetch the chunks of one partition from the nodes, from the given node and pair on, and merge them into the table
+     * on the click model thread pool
+     */
+    private void fetchPartition(
+        String jobId,
+        List<ClickthroughMapNodeResponse> nodes,
+        int node,
+        int partition,
+        int fromPair,
+        long offset,
+        ClickStatisticsTable statistics,
+        ActionListener<ClickStatisticsTable> listener
+    ) {
+        if (node == nodes.size()) {
+            listener.onResponse(statistics);
+            return;
+        }
+        ClickthroughMapNodeResponse nodeResponse = nodes.get(node);
+        if (fromPair == nodeResponse.getPairCount(partition)) {
+            fetchPartition(jobId, nodes, node + 1, partition, 0, 0, statistics, listener);
+            return;
+        }
+        ClickthroughFetchRequest request = new ClickthroughFetchRequest(nodeResponse.getNode().getId(), jobId, partition, fromPair, offset);
+        Executor executor = client.threadPool().executor(CLICK_MODEL_THREAD_POOL);
+        ActionListener<ClickthroughFetchResponse> chunkListener = ActionListener.wrap(
+            chunk -> executor.execute(ActionRunnable.wrap(listener, merged -> {
+                mergeChunk(chunk, statistics);
+                fetchPartition(jobId, nodes, node, partition, fromPair + chunk.getPairCount(), chunk.getNextOffset(), statistics, merged);
+            })),
+            listener::onFailure
+        );
+        client.execute(ClickthroughFetchAction.INSTANCE, request, chunkListener);
+    }
+
+    /**
+     * Merge the pairs of a chunk into the table, adding up the counts of pairs fetched from several nodes
+     */
+    static void mergeChunk(ClickthroughFetchResponse chunk, ClickStatisticsTable statistics) throws IOException {
+        chunk.forEachPair((userQuery, objectId, clicks, impressions, rank) -> {
+            int pair = statistics.pairIndex(userQuery, objectId);
+            statistics.logClicks(pair, Math.toIntExact(clicks));
+            statistics.logImpressions(pair, Math.toIntExact(impressions));
+            statistics.logRank(pair, rank);
+        });
+    }
+
+    /**
+     * Advance the persisted click statistics with the events since the last run, then calculate the judgments from them
+     */
+    private void calculateIncrementalJudgments(ActionListener<List<Map<String, Object>>> listener) {
+        if (clickStatisticsStore == null) {
+            listener.onFailure(new IllegalStateException("Incremental judgments require a click statistics store"));
+            return;
+        }
+        if (!parameters.getFilter().isEmpty()) {
+            listener.onFailure(new IllegalArgumentException("Incremental judgments are calculated from all events and cannot be filtered"));
+            return;
+        }
+        int maxRank = parameters.getMaxRank();
+        int windowDays = parameters.getWindowDays();
+        long memoryBudget = parameters.getMemoryBudget();
+        Path spillDirectory = parameters.getSpillDirectory();
+        clickStatisticsStore.advance(ActionListener.wrap(watermark -> {
+            LOGGER.info("Calculating judgments from click statistics up to {}", watermark);
+            clickStatisticsStore.loadRankAggregatedClickThrough(maxRank, windowDays, ActionListener.wrap(rankAggregatedClickThrough -> {
+                ActionListener<ClickStatisticsTable> judgeStatistics = ActionListener.wrap(statistics -> {
+                    try (statistics) {
+                        listener.onResponse(calculateCoecJudgments(rankAggregatedClickThrough, statistics));
+                    } catch (Exception e) {
+                        listener.onFailure(e);
+                    }
+                }, listener::onFailure);
+                clickStatisticsStore.loadClickStatistics(maxRank, windowDays, memoryBudget, spillDirectory, judgeStatistics);
+            }, listener::onFailure));
+        }, listener::onFailure));
+    }
+
+    /**
+     * Creates a table for the click statistics that spills past the given budget to the spill directory of the parameters
+     */
+    private ClickStatisticsTable newClickStatisticsTable(long memoryBudget) {
+        return new ClickStatisticsTable(memoryBudget, parameters.getSpillDirectory());
+    }
+
+    /**
+     * Starts a query on the events the judgments are calculated from, restricted by the filter of the parameters
+     */
+    private BoolQueryBuilder eventQuery() {
+        return parameters.getFilter().filterEvents(QueryBuilders.boolQuery());
+    }
+
     private void getRankAggregatedClickThrough(ActionListener<Map<Integer, Double>> listener) {
         LOGGER.info("Starting rank aggregated clickthrough calculation");
 
-        BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery()
+        BoolQueryBuilder queryBuilder = eventQuery()
             .must(QueryBuilders.rangeQuery("event_attributes.position.ordinal").lte(parameters.getMaxRank()));
 
-        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder).size(SCROLL_SIZE).timeout(SEARCH_TIMEOUT);
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder).size(0).timeout(SEARCH_TIMEOUT);
 
         // Add aggregations to see distribution
         TermsAggregationBuilder actionAgg = AggregationBuilders.terms("actions")
@@ -114,8 +329,8 @@ public class CoecClickModel extends ClickModel {
                         int position = Integer.parseInt(positionBucket.getKeyAsString());
                         long count = positionBucket.getDocCount();
 
-                        if ("click".equalsIgnoreCase(action)) {
-                            clickCounts.put(position, count);
+                        if (parameters.getFilter().isClick(action)) {
+                            clickCounts.merge(position, count, Long::sum);
                             LOGGER.debug("Position {} clicks: {}", position, count);
                         } else if ("impression".equalsIgnoreCase(action)) {
                             impressionCounts.put(position, count);
@@ -152,103 +367,289 @@ public class CoecClickModel extends ClickModel {
         }));
     }
 
-    private void getClickthroughRate(ActionListener<Map<String, Set<ClickthroughRate>>> listener) {
+    /**
+     * Count the clicks and impressions per user query and object of the events
+     * @param listener - responds with the statistics, which the caller closes
+     */
+    public void getClickthroughRate(ActionListener<ClickStatisticsTable> listener) {
+        if (parameters.isAggregateEvents()) {
+            aggregateClickthroughRate(listener);
+            return;
+        }
         LOGGER.info("Starting clickthrough rate calculation");
-        Map<String, Set<ClickthroughRate>> queriesToClickthroughRates = new ConcurrentHashMap<>();
+        ClickStatisticsTable statistics = newClickStatisticsTable(parameters.getMemoryBudget());
+
+        BoolQueryBuilder queryBuilder = eventQuery()
+            .must(QueryBuilders.rangeQuery(POSITION_FIELD).lte(parameters.getMaxRank()));
+        Executor executor = client.threadPool().generic();
+        UbiScanner scanner = new UbiScanner(
+            client,
+            executor,
+            UBI_EVENTS_INDEX,
+            queryBuilder,
+            List.of(USER_QUERY_FIELD, QUERY_ID_FIELD, OBJECT_ID_FIELD, ACTION_NAME_FIELD, POSITION_FIELD)
+        );
+        UbiFilter filter = parameters.getFilter();
+        UbiScanner.PageConsumer consumer = (hits, page) -> logClickthroughEvents(
+            hits,
+            statistics,
+            filter,
+            userQueryResolver,
+            executor,
+            page
+        );
+        scanner.scan(consumer, ActionListener.wrap(scanned -> {
+            LOGGER.debug(
+                "Completed clickthrough statistics with {} queries and {} docs in memory and {} spilled runs",
+                statistics.queryCount(),
+                statistics.size(),
+                statistics.runCount()
+            );
+            listener.onResponse(statistics);
+        }, e -> {
+            LOGGER.error("Search failed", e);
+            statistics.close();
+            listener.onFailure(e);
+        }));
+    }
 
-        BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery()
-            .must(QueryBuilders.rangeQuery("event_attributes.position.ordinal").lte(parameters.getMaxRank()));
+    /**
+     * Log the clicks and impressions of a page of scanned events, read from doc values.
+     * Events that carry their user query are logged directly, the user queries of the other events are looked up
+     * by query id, all ids of the page at once, and logged on the executor once the lookup responds.
+     * Events of the click actions of the filter are counted as clicks.
+     */
+    static void logClickthroughEvents(
+        SearchHit[] hits,
+        ClickStatisticsTable statistics,
+        UbiFilter filter,
+        UserQueryResolver userQueryResolver,
+        Executor executor,
+        ActionListener<Void> listener
+    ) {
+        LOGGER.debug("Processing batch of {} hits", hits.length);
+        List<SearchHit> unjoined = new ArrayList<>();
+        Set<String> queryIds = new HashSet<>();
+        for (SearchHit hit : hits) {
+            Object userQuery = UbiScanner.docValue(hit, USER_QUERY_FIELD);
+            if (userQuery != null) {
+                logClickthroughEvent(hit, userQuery.toString(), filter, statistics);
+                continue;
+            }
+            Object queryId = UbiScanner.docValue(hit, QUERY_ID_FIELD);
+            if (queryId == null) {
+                LOGGER.debug("Skipping event {} without user query and query id", hit.getId());
+                continue;
+            }
+            unjoined.add(hit);
+            queryIds.add(queryId.toString());
+        }
+        if (unjoined.isEmpty()) {
+            listener.onResponse(null);
+            return;
+        }
 
-        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder)
-            .size(SCROLL_SIZE)
-            .timeout(SEARCH_TIMEOUT)
-            .fetchSource(
-                new String[] {
-                    "query_id",
-                    "action_name",
-                    "user_query",
-                    "event_attributes.object.object_id",
-                    "event_attributes.position.ordinal" },
-                null
-            );
+        userQueryResolver.resolve(queryIds, ActionListener.wrap(userQueryById -> executor.execute(ActionRunnable.run(listener, () -> {
+            for (SearchHit hit : unjoined) {
+                String userQuery = userQueryById.get(UbiScanner.docValue(hit, QUERY_ID_FIELD).toString());
+                if (userQuery == null) {
+                    LOGGER.debug("Skipping event {} without a query", hit.getId());
+                    continue;
+                }
+                logClickthroughEvent(hit, userQuery, filter, statistics);
+            }
+        })), listener::onFailure));
+    }
 
-        SearchRequest searchRequest = new SearchRequest(UBI_EVENTS_INDEX).source(searchSourceBuilder).scroll(SCROLL_TIMEOUT);
+    private static void logClickthroughEvent(SearchHit hit, String userQuery, UbiFilter filter, ClickStatisticsTable statistics) {
+        Object objectId = UbiScanner.docValue(hit, OBJECT_ID_FIELD);
+        Object action = UbiScanner.docValue(hit, ACTION_NAME_FIELD);
+        Object rank = UbiScanner.docValue(hit, POSITION_FIELD);
+        if (objectId == null || action == null || rank == null) {
+            LOGGER.debug("Skipping event {} with missing fields", hit.getId());
+            return;
+        }
 
-        processClickthroughSearch(searchRequest, queriesToClickthroughRates, listener);
+        boolean click = filter.isClick(action.toString());
+        if (click || "impression".equalsIgnoreCase(action.toString())) {
+            int pair = statistics.pairIndex(userQuery, objectId.toString());
+            if (click) {
+                statistics.logClicks(pair, 1);
+            } else {
+                statistics.logImpressions(pair, 1);
+            }
+            statistics.logRank(pair, ((Number) rank).intValue());
+        }
+    }
+
+    /**
+     * Count clicks and impressions per user query and object in the cluster, a page of composite buckets at a time,
+     * instead of fetching and parsing every event. Each bucket holds the events of one user query, object, action and position.
+     * Events without a user query are then counted per query id, and each page of those buckets is joined to the user queries
+     * of its query ids at once.
+     */
+    private void aggregateClickthroughRate(ActionListener<ClickStatisticsTable> listener) {
+        LOGGER.info("Starting clickthrough rate calculation with composite aggregations");
+        ClickStatisticsTable statistics = newClickStatisticsTable(parameters.getMemoryBudget());
+        ActionListener<ClickStatisticsTable> closingListener = ActionListener.wrap(listener::onResponse, e -> {
+            statistics.close();
+            listener.onFailure(e);
+        });
+        searchClickthroughBuckets(null, statistics, ActionListener.wrap(joined -> {
+            searchUnjoinedClickthroughBuckets(null, statistics, closingListener);
+        }, closingListener::onFailure));
     }
 
-    private void processClickthroughSearch(
-        SearchRequest searchRequest,
-        Map<String, Set<ClickthroughRate>> queriesToClickthroughRates,
-        ActionListener<Map<String, Set<ClickthroughRate>>> listener
+    private void searchClickthroughBuckets(
+        Map<String, Object> afterKey,
+        ClickStatisticsTable statistics,
+        ActionListener<ClickStatisticsTable> listener
     ) {
-        client.search(searchRequest, new ActionListener<SearchResponse>() {
-            @Override
-            public void onResponse(SearchResponse response) {
-                SearchHit[] hits = response.getHits().getHits();
-                LOGGER.info("Processing batch of {} hits", hits.length);
-
-                for (SearchHit hit : hits) {
-                    try {
-                        UbiEvent event = JsonUtils.fromJson(hit.getSourceAsString(), UbiEvent.class);
-                        String userQuery = event.getUserQuery();
-                        String objectId = event.getEventAttributes().getObject().getObjectId();
-                        String action = event.getActionName();
-                        int rank = event.getEventAttributes().getPosition().getOrdinal();
-
-                        Set<ClickthroughRate> rates = queriesToClickthroughRates.computeIfAbsent(
-                            userQuery,
-                            k -> ConcurrentHashMap.newKeySet()
-                        );
-
-                        ClickthroughRate rate = rates.stream().filter(r -> r.getObjectId().equals(objectId)).findFirst().orElseGet(() -> {
-                            ClickthroughRate newRate = new ClickthroughRate(objectId);
-                            rates.add(newRate);
-                            return newRate;
-                        });
-
-                        if ("click".equalsIgnoreCase(action)) {
-                            rate.logClick();
-                            rate.logRank(rank);
-                            LOGGER.debug("Logged click for query: {} doc: {} rank: {}", userQuery, objectId, rank);
-                        } else if ("impression".equalsIgnoreCase(action)) {
-                            rate.logImpression();
-                            rate.logRank(rank);
-                            LOGGER.debug("Logged impression for query: {} doc: {} rank: {}", userQuery, objectId, rank);
-                        }
-                    } catch (Exception e) {
-                        LOGGER.warn("Error processing hit: " + hit.getId(), e);
-                    }
-                }
+        client.search(buildClickthroughAggregationRequest(afterKey), ActionListener.wrap(response -> {
+            ensureAllShardsCounted(response);
+            CompositeAggregation clickthrough = response.getAggregations().get(CLICKTHROUGH_AGGREGATION);
+            LOGGER.debug("Processing page of {} clickthrough buckets", clickthrough.getBuckets().size());
+            Function<Map<String, Object>, String> userQueryOfKey = key -> String.valueOf(key.get(USER_QUERY_SOURCE));
+            foldClickthroughBuckets(clickthrough.getBuckets(), userQueryOfKey, parameters.getFilter(), statistics);
+
+            Map<String, Object> nextAfterKey = clickthrough.afterKey();
+            if (clickthrough.getBuckets().isEmpty() || nextAfterKey == null) {
+                LOGGER.debug("Completed clickthrough buckets of events with a user query");
+                listener.onResponse(statistics);
+            } else {
+                searchClickthroughBuckets(nextAfterKey, statistics, listener);
+            }
+        }, e -> {
+            LOGGER.error("Clickthrough aggregation failed", e);
+            listener.onFailure(e);
+        }));
+    }
 
-                if (hits.length == 0) {
-                    // Print final statistics
-                    for (Map.Entry<String, Set<ClickthroughRate>> entry : queriesToClickthroughRates.entrySet()) {
-                        LOGGER.debug("Query: {} - Number of docs: {}", entry.getKey(), entry.getValue().size());
-                        for (ClickthroughRate rate : entry.getValue()) {
-                            LOGGER.debug(
-                                "Doc: {} - Clicks: {} Impressions: {}",
-                                rate.getObjectId(),
-                                rate.getClicks(),
-                                rate.getImpressions()
-                            );
-                        }
-                    }
+    private void searchUnjoinedClickthroughBuckets(
+        Map<String, Object> afterKey,
+        ClickStatisticsTable statistics,
+        ActionListener<ClickStatisticsTable> listener
+    ) {
+        client.search(buildUnjoinedClickthroughAggregationRequest(afterKey), ActionListener.wrap(response -> {
+            ensureAllShardsCounted(response);
+            CompositeAggregation clickthrough = response.getAggregations().get(CLICKTHROUGH_AGGREGATION);
+            List<? extends CompositeAggregation.Bucket> buckets = clickthrough.getBuckets();
+            Map<String, Object> nextAfterKey = clickthrough.afterKey();
+            if (buckets.isEmpty()) {
+                LOGGER.info("Completed clickthrough rate calculation with {} queries", statistics.queryCount());
+                listener.onResponse(statistics);
+                return;
+            }
 
-                    listener.onResponse(queriesToClickthroughRates);
+            Set<String> queryIds = new HashSet<>();
+            for (CompositeAggregation.Bucket bucket : buckets) {
+                queryIds.add(String.valueOf(bucket.getKey().get(QUERY_ID_SOURCE)));
+            }
+            LOGGER.debug("Joining page of {} clickthrough buckets with {} query ids", buckets.size(), queryIds.size());
+            userQueryResolver.resolve(queryIds, ActionListener.wrap(userQueries -> {
+                Function<Map<String, Object>, String> userQueryOfKey = key -> userQueries.get(String.valueOf(key.get(QUERY_ID_SOURCE)));
+                foldClickthroughBuckets(buckets, userQueryOfKey, parameters.getFilter(), statistics);
+                if (nextAfterKey == null) {
+                    LOGGER.info("Completed clickthrough rate calculation with {} queries", statistics.queryCount());
+                    listener.onResponse(statistics);
                 } else {
-                    // Continue scrolling
-                    SearchScrollRequest scrollRequest = new SearchScrollRequest(response.getScrollId()).scroll(SCROLL_TIMEOUT);
-                    client.searchScroll(scrollRequest, this);
+                    searchUnjoinedClickthroughBuckets(nextAfterKey, statistics, listener);
                 }
+            }, listener::onFailure));
+        }, e -> {
+            LOGGER.error("Clickthrough aggregation failed", e);
+            listener.onFailure(e);
+        }));
+    }
+
+    /**
+     * Fail a page of counts that misses shards, counts of later pages would not add up with it.
+     * A shard that moved off this node since its shards were resolved fails under the local shards preference, and fails
+     * the counting here instead of silently dropping its events.
+     * @throws SearchRelevanceException if a shard failed or was skipped, or the search timed out
+     */
+    static void ensureAllShardsCounted(SearchResponse response) {
+        UbiScanner.ensureAllShardsRead(response, "Counting clicks", UBI_EVENTS_INDEX);
+    }
+
+    SearchRequest buildClickthroughAggregationRequest(Map<String, Object> afterKey) {
+        return buildClickthroughAggregationRequest(USER_QUERY_SOURCE, USER_QUERY_FIELD, afterKey);
+    }
+
+    /**
+     * Builds the aggregation over the events without a user query, keyed by their query id instead
+     */
+    SearchRequest buildUnjoinedClickthroughAggregationRequest(Map<String, Object> afterKey) {
+        return buildClickthroughAggregationRequest(QUERY_ID_SOURCE, QUERY_ID_FIELD, afterKey);
+    }
+
+    private SearchRequest buildClickthroughAggregationRequest(String querySource, String queryField, Map<String, Object> afterKey) {
+        List<CompositeValuesSourceBuilder<?>> sources = List.of(
+            new TermsValuesSourceBuilder(querySource).field(queryField),
+            new TermsValuesSourceBuilder(OBJECT_ID_SOURCE).field(OBJECT_ID_FIELD),
+            new TermsValuesSourceBuilder(ACTION_SOURCE).field(ACTION_NAME_FIELD),
+            new TermsValuesSourceBuilder(POSITION_SOURCE).field(POSITION_FIELD)
+        );
+        CompositeAggregationBuilder clickthroughAgg = AggregationBuilders.composite(CLICKTHROUGH_AGGREGATION, sources)
+            .size(COMPOSITE_PAGE_SIZE);
+        if (afterKey != null) {
+            clickthroughAgg.aggregateAfter(afterKey);
+        }
+
+        BoolQueryBuilder queryBuilder = eventQuery()
+            .must(QueryBuilders.rangeQuery("event_attributes.position.ordinal").lte(parameters.getMaxRank()));
+        if (QUERY_ID_FIELD.equals(queryField)) {
+            queryBuilder.mustNot(QueryBuilders.existsQuery(USER_QUERY_FIELD));
+        }
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder)
+            .size(0)
+            .trackTotalHits(false)
+            .timeout(SEARCH_TIMEOUT)
+            .aggregation(clickthroughAgg);
+        return new SearchRequest(UBI_EVENTS_INDEX).source(searchSourceBuilder).preference(parameters.getShardPreference());
+    }
+
+    /**
+     * Add the event counts of composite buckets to the clickthrough rate of their user query and object
+     */
+    static void foldClickthroughBuckets(List<? extends CompositeAggregation.Bucket> buckets, ClickStatisticsTable statistics) {
+        foldClickthroughBuckets(buckets, key -> String.valueOf(key.get(USER_QUERY_SOURCE)), UbiFilter.NONE, statistics);
+    }
+
+    /**
+     * Add the event counts of composite buckets to the clickthrough rate of their object and the user query read from their key,
+     * buckets without a user query are skipped
+     * @param filter - the filter whose actions are counted as clicks
+     */
+    static void foldClickthroughBuckets(
+        List<? extends CompositeAggregation.Bucket> buckets,
+        Function<Map<String, Object>, String> userQueryOfKey,
+        UbiFilter filter,
+        ClickStatisticsTable statistics
+    ) {
+        for (CompositeAggregation.Bucket bucket : buckets) {
+            Map<String, Object> key = bucket.getKey();
+            String action = String.valueOf(key.get(ACTION_SOURCE));
+            boolean click = filter.isClick(action);
+            if (!click && !"impression".equalsIgnoreCase(action)) {
+                continue;
+            }
+            String userQuery = userQueryOfKey.apply(key);
+            if (userQuery == null) {
+                continue;
             }
+            String objectId = String.valueOf(key.get(OBJECT_ID_SOURCE));
+            int rank = ((Number) key.get(POSITION_SOURCE)).intValue();
+            int count = Math.toIntExact(bucket.getDocCount());
 
-            @Override
-            public void onFailure(Exception e) {
-                LOGGER.error("Search failed", e);
-                listener.onFailure(e);
+            int pair = statistics.pairIndex(userQuery, objectId);
+            if (click) {
+                statistics.logClicks(pair, count);
+            } else {
+                statistics.logImpressions(pair, count);
             }
-        });
+            statistics.logRank(pair, rank);
+        }
     }
 
     private void processClickEvents(Map<Integer, Long> clickCounts, ActionListener<Map<Integer, Long>> listener) {
@@ -500,151 +901,6 @@ public class CoecClickModel extends ClickModel {
         scrollRankAggregatedData(null, response.getScrollId(), clickCounts, impressionCounts, listener);
     }
 
-    private void scrollClickthroughRates(
-        SearchRequest initialRequest,
-        String scrollId,
-        Map<String, Set<ClickthroughRate>> queriesToClickthroughRates,
-        ActionListener<Map<String, Set<ClickthroughRate>>> listener
-    ) {
-        if (scrollId == null) {
-            client.search(initialRequest, new ActionListener<SearchResponse>() {
-                @Override
-                public void onResponse(SearchResponse response) {
-                    processClickthroughBatch(response, queriesToClickthroughRates, listener);
-                }
-
-                @Override
-                public void onFailure(Exception e) {
-                    LOGGER.error("Initial clickthrough search failed", e);
-                    listener.onFailure(e);
-                }
-            });
-        } else {
-            SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(SCROLL_TIMEOUT);
-
-            client.searchScroll(scrollRequest, new ActionListener<SearchResponse>() {
-                @Override
-                public void onResponse(SearchResponse response) {
-                    processClickthroughBatch(response, queriesToClickthroughRates, listener);
-                }
-
-                @Override
-                public void onFailure(Exception e) {
-                    LOGGER.error("Clickthrough scroll request failed", e);
-                    listener.onFailure(e);
-                }
-            });
-        }
-    }
-
-    private void processClickthroughBatch(
-        SearchResponse response,
-        Map<String, Set<ClickthroughRate>> queriesToClickthroughRates,
-        ActionListener<Map<String, Set<ClickthroughRate>>> listener
-    ) {
-        SearchHit[] hits = response.getHits().getHits();
-        LOGGER.debug("Processing {} hits for clickthrough rates", hits.length);
-
-        if (hits.length == 0) {
-            if (response.getScrollId() != null) {
-                ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
-                clearScrollRequest.addScrollId(response.getScrollId());
-                client.clearScroll(clearScrollRequest, ActionListener.wrap(clearResponse -> {
-                    LOGGER.info("Completed clickthrough rate calculation with {} queries", queriesToClickthroughRates.size());
-                    listener.onResponse(queriesToClickthroughRates);
-                }, e -> {
-                    LOGGER.warn("Failed to clear scroll", e);
-                    listener.onResponse(queriesToClickthroughRates);
-                }));
-            } else {
-                listener.onResponse(queriesToClickthroughRates);
-            }
-            return;
-        }
-
-        AtomicInteger pendingHits = new AtomicInteger(hits.length);
-        AtomicBoolean hasError = new AtomicBoolean(false);
-
-        for (SearchHit hit : hits) {
-            try {
-                UbiEvent ubiEvent = JsonUtils.fromJson(hit.getSourceAsString(), UbiEvent.class);
-                String queryId = ubiEvent.getQueryId();
-
-                getUserQuery(queryId, ActionListener.wrap(userQuery -> {
-                    if (userQuery != null) {
-                        synchronized (queriesToClickthroughRates) {
-                            Set<ClickthroughRate> clickthroughRates = queriesToClickthroughRates.computeIfAbsent(
-                                userQuery,
-                                k -> new HashSet<>()
-                            );
-
-                            ClickthroughRate clickthroughRate = clickthroughRates.stream()
-                                .filter(ctr -> ctr.getObjectId().equals(ubiEvent.getEventAttributes().getObject().getObjectId()))
-                                .findFirst()
-                                .orElseGet(() -> new ClickthroughRate(ubiEvent.getEventAttributes().getObject().getObjectId()));
-
-                            if ("click".equalsIgnoreCase(ubiEvent.getActionName())) {
-                                clickthroughRate.logClick();
-                            } else if ("impression".equalsIgnoreCase(ubiEvent.getActionName())) {
-                                clickthroughRate.logImpression();
-                            }
-
-                            clickthroughRates.add(clickthroughRate);
-                        }
-                    }
-                    checkBatchCompletion(pendingHits, hasError, response.getScrollId(), queriesToClickthroughRates, listener);
-                }, e -> {
-                    LOGGER.warn("Error processing user query for hit: " + hit.getId(), e);
-                    hasError.set(true);
-                    checkBatchCompletion(pendingHits, hasError, response.getScrollId(), queriesToClickthroughRates, listener);
-                }));
-            } catch (Exception e) {
-                LOGGER.warn("Error processing hit: " + hit.getId(), e);
-                hasError.set(true);
-                checkBatchCompletion(pendingHits, hasError, response.getScrollId(), queriesToClickthroughRates, listener);
-            }
-        }
-    }
-
-    private void checkBatchCompletion(
-        AtomicInteger pendingHits,
-        AtomicBoolean hasError,
-        String scrollId,
-        Map<String, Set<ClickthroughRate>> queriesToClickthroughRates,
-        ActionListener<Map<String, Set<ClickthroughRate>>> listener
-    ) {
-        if (pendingHits.decrementAndGet() == 0) {
-            if (hasError.get()) {
-                listener.onFailure(new IllegalStateException("Error processing some hits in batch"));
-            } else {
-                // Continue scrolling
-                scrollClickthroughRates(null, scrollId, queriesToClickthroughRates, listener);
-            }
-        }
-    }
-
-    private void getUserQuery(String queryId, ActionListener<String> listener) {
-        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder().query(QueryBuilders.termQuery("query_id.keyword", queryId))
-            .size(1)
-            // Specify only the fields we need
-            .fetchSource(new String[] { "user_query" }, null);
-
-        SearchRequest searchRequest = new SearchRequest("ubi_queries").source(sourceBuilder);
-
-        client.search(searchRequest, ActionListener.wrap(response -> {
-            if (response.getHits().getHits().length > 0) {
-                SearchHit hit = response.getHits().getHits()[0];
-                Map<String, Object> source = hit.getSourceAsMap();
-                listener.onResponse((String) source.get("user_query"));
-            } else {
-                listener.onResponse(null);
-            }
-        }, e -> {
-            LOGGER.warn("Failed to get user query for queryId: " + queryId, e);
-            listener.onResponse(null);
-        }));
-    }
-
     private void getQueryCount(String userQuery, String objectId, int rank, ActionListener<Long> listener) {
         BoolQueryBuilder queryBuilder = QueryBuilders.boolQuery()
             .must(QueryBuilders.termQuery("action_name", "impression"))
@@ -661,50 +917,46 @@ public class CoecClickModel extends ClickModel {
         );
     }
 
-    private void calculateCoecJudgments(
+    /**
+     * Rate every query-object pair by its clicks over the clicks expected at its rank. The pairs are visited once,
+     * merged from the spilled runs when the statistics were over their memory budget.
+     */
+    static List<Map<String, Object>> calculateCoecJudgments(
         Map<Integer, Double> rankAggregatedClickThrough,
-        Map<String, Set<ClickthroughRate>> clickthroughRates,
-        ActionListener<List<Map<String, Object>>> listener
-    ) {
+        ClickStatisticsTable statistics
+    ) throws IOException {
         LOGGER.debug("Starting COEC calculation with rank CTR: {}", rankAggregatedClickThrough);
-        List<Map<String, Object>> judgmentRatings = new ArrayList<>();
-
-        for (Map.Entry<String, Set<ClickthroughRate>> entry : clickthroughRates.entrySet()) {
-            String userQuery = entry.getKey();
-            Map<String, String> docScores = new HashMap<>();
-
-            for (ClickthroughRate ctr : entry.getValue()) {
-                // Get the lowest rank at which this query-document pair was interacted with
-                int observedRank = ctr.getRank();
-                double expectedCtrForThisRank = rankAggregatedClickThrough.getOrDefault(observedRank, 0.0);
-                // Calculate expected clicks for *this* document at its observed rank
-                double expectedClicksForDocAtRank = expectedCtrForThisRank * ctr.getImpressions();
-
-                // Calculate COEC rating
-                double rating;
-                if (expectedClicksForDocAtRank > 0) {
-                    rating = ctr.getClicks() / expectedClicksForDocAtRank;
-                } else {
-                    // if there are neither impressions nor a rank-aggregated CTR the COEC rating is 0
-                    rating = 0.0;
-                }
-                LOGGER.debug("judgment rating: {}, query: {}, doc: {}, rank: {}", rating, userQuery, ctr.getObjectId(), observedRank);
-                docScores.put(ctr.getObjectId(), String.format(Locale.ROOT, "%.3f", rating));
+        Map<String, Map<String, String>> docScoresByQuery = new LinkedHashMap<>();
+        long[] pairs = new long[1];
+
+        statistics.forEachPair((userQuery, objectId, clicks, impressions, observedRank) -> {
+            // observedRank is the lowest rank at which this query-document pair was interacted with
+            double expectedCtrForThisRank = rankAggregatedClickThrough.getOrDefault(observedRank, 0.0);
+            // Calculate expected clicks for *this* document at its observed rank
+            double expectedClicksForDocAtRank = expectedCtrForThisRank * impressions;
+
+            // Calculate COEC rating
+            double rating;
+            if (expectedClicksForDocAtRank > 0) {
+                rating = clicks / expectedClicksForDocAtRank;
+            } else {
+                // if there are neither impressions nor a rank-aggregated CTR the COEC rating is 0
+                rating = 0.0;
             }
+            LOGGER.debug("judgment rating: {}, query: {}, doc: {}, rank: {}", rating, userQuery, objectId, observedRank);
+            docScoresByQuery.computeIfAbsent(userQuery, query -> new HashMap<>()).put(objectId, String.format(Locale.ROOT, "%.3f", rating));
+            pairs[0]++;
+        });
 
-            if (!docScores.isEmpty()) {
-                Map<String, Object> queryRating = new HashMap<>();
-                queryRating.put("query", userQuery);
-                queryRating.put("ratings", docScores);
-                judgmentRatings.add(queryRating);
-            }
-            LOGGER.debug(
-                "Final judgment ratings size - Queries: {}, Total Documents: {}",
-                judgmentRatings.size(),
-                judgmentRatings.stream().mapToInt(item -> ((Map<String, Object>) item.get("ratings")).size()).sum()
-            );
-            listener.onResponse(judgmentRatings);
+        List<Map<String, Object>> judgmentRatings = new ArrayList<>(docScoresByQuery.size());
+        for (Map.Entry<String, Map<String, String>> docScores : docScoresByQuery.entrySet()) {
+            Map<String, Object> queryRating = new HashMap<>();
+            queryRating.put("query", docScores.getKey());
+            queryRating.put("ratings", docScores.getValue());
+            judgmentRatings.add(queryRating);
         }
+        LOGGER.debug("Final judgment ratings size - Queries: {}, Total Documents: {}", judgmentRatings.size(), pairs[0]);
+        return judgmentRatings;
     }
 
 }
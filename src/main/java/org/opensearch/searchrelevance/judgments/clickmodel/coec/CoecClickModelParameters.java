@@ -7,6 +7,8 @@
  */
 package org.opensearch.searchrelevance.judgments.clickmodel.coec;
 
+import java.nio.file.Path;
+
 import org.opensearch.searchrelevance.judgments.clickmodel.ClickModelParameters;
 
 /**
@@ -16,6 +18,14 @@ public class CoecClickModelParameters extends ClickModelParameters {
 
     private final int maxRank;
     private int roundingDigits = 3;
+    private boolean aggregateEvents;
+    private boolean incremental;
+    private int windowDays;
+    private long memoryBudget = Long.MAX_VALUE;
+    private Path spillDirectory;
+    private boolean distributed;
+    private int partitions = Runtime.getRuntime().availableProcessors();
+    private String shardPreference;
 
     /**
      * Creates new parameters.
@@ -35,6 +45,30 @@ public class CoecClickModelParameters extends ClickModelParameters {
         this.roundingDigits = roundingDigits;
     }
 
+    /**
+     * Creates new parameters.
+     * @param maxRank The max rank to use when calculating the judgments.
+     * @param aggregateEvents Whether to count clicks and impressions with composite aggregations instead of scrolling the events.
+     */
+    public CoecClickModelParameters(final int maxRank, final boolean aggregateEvents) {
+        this.maxRank = maxRank;
+        this.aggregateEvents = aggregateEvents;
+    }
+
+    /**
+     * Creates new parameters.
+     * @param maxRank The max rank to use when calculating the judgments.
+     * @param aggregateEvents Whether to count clicks and impressions with composite aggregations instead of scrolling the events.
+     * @param incremental Whether to calculate the judgments from the persisted click statistics, advanced with the new events only.
+     * @param windowDays The number of most recent days of click statistics to use, 0 for all days.
+     */
+    public CoecClickModelParameters(final int maxRank, final boolean aggregateEvents, final boolean incremental, final int windowDays) {
+        this.maxRank = maxRank;
+        this.aggregateEvents = aggregateEvents;
+        this.incremental = incremental;
+        this.windowDays = windowDays;
+    }
+
     /**
      * Gets the max rank for the implicit judgments calculation.
      * @return The max rank for the implicit judgments calculation.
@@ -51,4 +85,111 @@ public class CoecClickModelParameters extends ClickModelParameters {
         return roundingDigits;
     }
 
+    /**
+     * Gets whether clicks and impressions are counted in the cluster with composite aggregations.
+     * @return True if the events are aggregated, false if they are scrolled.
+     */
+    public boolean isAggregateEvents() {
+        return aggregateEvents;
+    }
+
+    /**
+     * Gets whether the judgments are calculated from the persisted click statistics.
+     * @return True if the click statistics are advanced and read, false if all events are counted.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Gets the number of most recent days of click statistics to use.
+     * @return The number of days, 0 for all days.
+     */
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    /**
+     * Gets the estimated heap the click statistics may hold before they are spilled to temporary files.
+     * @return The memory budget in bytes, {@link Long#MAX_VALUE} to never spill.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the estimated heap the click statistics may hold before they are spilled to temporary files.
+     * @param memoryBudget The memory budget in bytes.
+     */
+    public void setMemoryBudget(final long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Gets the directory the click statistics are spilled to.
+     * @return The directory, null for the temporary directory of the JVM.
+     */
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * Sets the directory the click statistics are spilled to, the temporary directory of the node.
+     * @param spillDirectory The directory.
+     */
+    public void setSpillDirectory(final Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Gets whether the clicks and impressions are counted by the data nodes on their local shards and reduced in partitions.
+     * @return True if the counting is distributed, false if it runs on this node.
+     */
+    public boolean isDistributed() {
+        return distributed;
+    }
+
+    /**
+     * Sets whether the clicks and impressions are counted by the data nodes on their local shards and reduced in partitions.
+     * @param distributed True to distribute the counting.
+     */
+    public void setDistributed(final boolean distributed) {
+        this.distributed = distributed;
+    }
+
+    /**
+     * Gets the number of partitions, by user query hash, the distributed counts are reduced in.
+     * @return The number of partitions.
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Sets the number of partitions, by user query hash, the distributed counts are reduced in.
+     * @param partitions The number of partitions, at least 1.
+     */
+    public void setPartitions(final int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be at least 1");
+        }
+        this.partitions = partitions;
+    }
+
+    /**
+     * Gets the search preference of the event aggregations.
+     * @return The preference, null to search any copy of every shard.
+     */
+    public String getShardPreference() {
+        return shardPreference;
+    }
+
+    /**
+     * Sets the search preference of the event aggregations, restricting the shards they count.
+     * @param shardPreference The preference.
+     */
+    public void setShardPreference(final String shardPreference) {
+        this.shardPreference = shardPreference;
+    }
+
 }
@@ -0,0 +1,148 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.dbn;
+
+import java.util.Arrays;
+
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickSessions;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModelParameters;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Dynamic Bayesian network click model. Results are examined top down. An examined result is clicked when it is attractive,
+ * a clicked result satisfies the user with the satisfaction probability of its query and object, and a user who is not
+ * satisfied examines the next result with the continuation probability. The E-step runs forward-backward over the
+ * examination of each session. The rating is attractiveness * satisfaction.
+ */
+public class DbnClickModel extends EmClickModel {
+
+    public static final String CLICK_MODEL_NAME = "dbn";
+    private static final double INITIAL_PROBABILITY = 0.5;
+
+    private double[] attractiveness;
+    private double[] satisfaction;
+    private final double[] continuation = new double[] { INITIAL_PROBABILITY };
+
+    public DbnClickModel(final Client client, final EmClickModelParameters parameters) {
+        super(client, parameters);
+    }
+
+    @Override
+    protected void initialize(ClickSessions sessions) {
+        attractiveness = new double[sessions.pairCount()];
+        Arrays.fill(attractiveness, INITIAL_PROBABILITY);
+        satisfaction = new double[sessions.pairCount()];
+        Arrays.fill(satisfaction, INITIAL_PROBABILITY);
+        continuation[0] = INITIAL_PROBABILITY;
+    }
+
+    @Override
+    protected int statisticsSize() {
+        return 4 * attractiveness.length + 2;
+    }
+
+    @Override
+    protected void expect(ClickSessions sessions, int from, int to, double[] statistics) {
+        int pairs = attractiveness.length;
+        double gamma = continuation[0];
+        double[] examined = new double[0];
+        double[] notExamined = new double[0];
+        double[] fromExamined = new double[0];
+        double[] fromNotExamined = new double[0];
+        for (int session = from; session < to; session++) {
+            int start = sessions.start(session);
+            int length = sessions.end(session) - start;
+            if (examined.length < length + 1) {
+                examined = new double[length + 1];
+                notExamined = new double[length + 1];
+                fromExamined = new double[length + 1];
+                fromNotExamined = new double[length + 1];
+            }
+
+            // forward: probability of the clicks above each rank and its examination
+            examined[0] = 1;
+            notExamined[0] = 0;
+            for (int r = 0; r < length; r++) {
+                int entry = start + r;
+                int pair = sessions.pair(entry);
+                boolean clicked = sessions.clicked(entry);
+                double clickIfExamined = clicked ? attractiveness[pair] : 1 - attractiveness[pair];
+                double clickIfNotExamined = clicked ? 0 : 1;
+                double next = clicked ? (1 - satisfaction[pair]) * gamma : gamma;
+                examined[r + 1] = examined[r] * clickIfExamined * next;
+                notExamined[r + 1] = notExamined[r] * clickIfNotExamined + examined[r] * clickIfExamined * (1 - next);
+            }
+
+            // backward: probability of the clicks from each rank on, given its examination
+            fromExamined[length] = 1;
+            fromNotExamined[length] = 1;
+            for (int r = length - 1; r >= 0; r--) {
+                int entry = start + r;
+                int pair = sessions.pair(entry);
+                boolean clicked = sessions.clicked(entry);
+                double clickIfExamined = clicked ? attractiveness[pair] : 1 - attractiveness[pair];
+                double clickIfNotExamined = clicked ? 0 : 1;
+                double next = clicked ? (1 - satisfaction[pair]) * gamma : gamma;
+                fromNotExamined[r] = clickIfNotExamined * fromNotExamined[r + 1];
+                fromExamined[r] = clickIfExamined * (next * fromExamined[r + 1] + (1 - next) * fromNotExamined[r + 1]);
+            }
+
+            double likelihood = fromExamined[0];
+            if (likelihood <= 0) {
+                continue;
+            }
+            int weight = sessions.weight(session);
+            for (int r = 0; r < length; r++) {
+                int entry = start + r;
+                int pair = sessions.pair(entry);
+                boolean clicked = sessions.clicked(entry);
+                double alpha = attractiveness[pair];
+                double sigma = satisfaction[pair];
+
+                double attractive = clicked ? 1 : alpha * notExamined[r] * fromNotExamined[r] / likelihood;
+                statistics[pair] += weight * attractive;
+                statistics[pairs + pair] += weight;
+
+                if (clicked) {
+                    double satisfied = examined[r] * alpha * sigma * fromNotExamined[r + 1] / likelihood;
+                    statistics[2 * pairs + pair] += weight * satisfied;
+                    statistics[3 * pairs + pair] += weight;
+                }
+
+                if (r < length - 1) {
+                    double clickIfExamined = clicked ? alpha : 1 - alpha;
+                    double unsatisfied = weight * examined[r] * clickIfExamined * (clicked ? 1 - sigma : 1) / likelihood;
+                    double continued = gamma * fromExamined[r + 1];
+                    statistics[4 * pairs] += unsatisfied * continued;
+                    statistics[4 * pairs + 1] += unsatisfied * (continued + (1 - gamma) * fromNotExamined[r + 1]);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected double maximize(double[] statistics) {
+        int pairs = attractiveness.length;
+        double change = update(attractiveness, statistics, 0, pairs);
+        change = Math.max(change, update(satisfaction, statistics, 2 * pairs, 3 * pairs));
+        return Math.max(change, update(continuation, statistics, 4 * pairs, 4 * pairs + 1));
+    }
+
+    @Override
+    protected double rating(int pair) {
+        return attractiveness[pair] * satisfaction[pair];
+    }
+
+    /**
+     * Gets the fitted probability that a user who is not satisfied examines the next result.
+     */
+    double continuation() {
+        return continuation[0];
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.pbm;
+
+import java.util.Arrays;
+
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickSessions;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModelParameters;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Position-based click model: a result is clicked when its rank is examined and the result is attractive,
+ * P(click) = attractiveness(query, object) * examination(rank). The rating is the attractiveness.
+ */
+public class PbmClickModel extends EmClickModel {
+
+    public static final String CLICK_MODEL_NAME = "pbm";
+    private static final double INITIAL_PROBABILITY = 0.5;
+
+    private double[] attractiveness;
+    private double[] examination;
+
+    public PbmClickModel(final Client client, final EmClickModelParameters parameters) {
+        super(client, parameters);
+    }
+
+    @Override
+    protected void initialize(ClickSessions sessions) {
+        attractiveness = new double[sessions.pairCount()];
+        Arrays.fill(attractiveness, INITIAL_PROBABILITY);
+        examination = new double[parameters.getMaxRank()];
+        Arrays.fill(examination, INITIAL_PROBABILITY);
+    }
+
+    @Override
+    protected int statisticsSize() {
+        return 2 * (attractiveness.length + examination.length);
+    }
+
+    @Override
+    protected void expect(ClickSessions sessions, int from, int to, double[] statistics) {
+        int pairs = attractiveness.length;
+        int ranks = examination.length;
+        for (int session = from; session < to; session++) {
+            int weight = sessions.weight(session);
+            for (int entry = sessions.start(session); entry < sessions.end(session); entry++) {
+                int pair = sessions.pair(entry);
+                int rank = sessions.rank(entry);
+                double alpha = attractiveness[pair];
+                double gamma = examination[rank];
+                double attractive = 1;
+                double examined = 1;
+                if (!sessions.clicked(entry)) {
+                    double notClicked = 1 - alpha * gamma;
+                    attractive = alpha * (1 - gamma) / notClicked;
+                    examined = gamma * (1 - alpha) / notClicked;
+                }
+                statistics[pair] += weight * attractive;
+                statistics[pairs + pair] += weight;
+                statistics[2 * pairs + rank] += weight * examined;
+                statistics[2 * pairs + ranks + rank] += weight;
+            }
+        }
+    }
+
+    @Override
+    protected double maximize(double[] statistics) {
+        int pairs = attractiveness.length;
+        double change = update(attractiveness, statistics, 0, pairs);
+        return Math.max(change, update(examination, statistics, 2 * pairs, 2 * pairs + examination.length));
+    }
+
+    @Override
+    protected double rating(int pair) {
+        return attractiveness[pair];
+    }
+
+    /**
+     * Gets the fitted probability that a rank is examined.
+     */
+    double examination(int rank) {
+        return examination[rank];
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.queryhash;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of normalized user queries of a click statistics table or a query sampler. A user query is normalized by
+ * lower casing it, trimming it and collapsing runs of whitespace, so case and whitespace variants of a query are one query.
+ * Each normalized query is stored once and numbered densely from 0 in the order queries are first seen, so tables can
+ * key by the number and hand out the one interned string.
+ * The dictionary is thread safe: lookups of known queries do not lock, numbering a new query does.
+ */
+public class UserQueryDictionary implements UserQueryHash {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> numbers = new ConcurrentHashMap<>();
+    /**
+     * Written under the lock before the number is published in {@link #numbers}, so a reader that got a number sees its query.
+     */
+    private volatile String[] queries = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Normalize a user query: lower case, trimmed, with every run of whitespace replaced by a single space.
+     * @param userQuery The user query.
+     * @return The normalized user query, the same instance if it is normalized already.
+     */
+    public static String normalize(final String userQuery) {
+        if (isNormalized(userQuery)) {
+            return userQuery;
+        }
+        StringBuilder normalized = new StringBuilder(userQuery.length());
+        boolean space = false;
+        for (int i = 0; i < userQuery.length(); i++) {
+            char c = userQuery.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the number of a user query, numbering its normalized form if it is new.
+     * @param userQuery The user query.
+     * @return The number of the normalized user query, between 0 and {@link #size()}.
+     */
+    @Override
+    public int getHash(final String userQuery) {
+        String normalized = normalize(userQuery);
+        Integer number = numbers.get(normalized);
+        if (number != null) {
+            return number;
+        }
+        synchronized (this) {
+            number = numbers.get(normalized);
+            if (number == null) {
+                number = size;
+                if (size == queries.length) {
+                    queries = Arrays.copyOf(queries, size << 1);
+                }
+                queries[size++] = normalized;
+                numbers.put(normalized, number);
+            }
+            return number;
+        }
+    }
+
+    /**
+     * Gets the interned, normalized form of a user query, adding it to the dictionary if it is new.
+     * @param userQuery The user query.
+     * @return The normalized user query, the same instance for all variants of the query.
+     */
+    public String intern(final String userQuery) {
+        return userQuery(getHash(userQuery));
+    }
+
+    /**
+     * Gets a normalized user query by its number.
+     * @param number The number of the user query.
+     * @return The normalized user query.
+     */
+    public String userQuery(final int number) {
+        return queries[number];
+    }
+
+    /**
+     * Gets the number of distinct normalized user queries.
+     * @return The number of user queries.
+     */
+    public int size() {
+        return numbers.size();
+    }
+
+    private static boolean isNormalized(final String userQuery) {
+        int length = userQuery.length();
+        if (length > 0 && (Character.isWhitespace(userQuery.charAt(0)) || Character.isWhitespace(userQuery.charAt(length - 1)))) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = userQuery.charAt(i);
+            if (Character.isSurrogate(c) || Character.toLowerCase(c) != c) {
+                return false;
+            }
+            if (Character.isWhitespace(c) && (c != ' ' || userQuery.charAt(i - 1) == ' ')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
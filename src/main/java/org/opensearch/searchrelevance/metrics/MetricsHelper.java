@@ -20,6 +20,7 @@ import static org.opensearch.searchrelevance.common.MetricsConstants.POINTWISE_F
 import static org.opensearch.searchrelevance.experiment.QuerySourceUtil.createDefinitionOfTemporarySearchPipeline;
 import static org.opensearch.searchrelevance.metrics.EvaluationMetrics.calculateEvaluationMetrics;
 import static org.opensearch.searchrelevance.metrics.PairwiseComparisonMetrics.calculatePairwiseMetrics;
+import static org.opensearch.searchrelevance.model.builder.SearchRequestBuilder.applyLeanRetrieval;
 import static org.opensearch.searchrelevance.model.builder.SearchRequestBuilder.buildSearchRequest;
 
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -45,10 +47,15 @@ import org.opensearch.search.SearchHit;
 import org.opensearch.searchrelevance.dao.EvaluationResultDao;
 import org.opensearch.searchrelevance.dao.ExperimentVariantDao;
 import org.opensearch.searchrelevance.dao.JudgmentDao;
+import org.opensearch.searchrelevance.experiment.ExperimentSearchContext;
+import org.opensearch.searchrelevance.judgments.queryhash.UserQueryDictionary;
 import org.opensearch.searchrelevance.model.AsyncStatus;
 import org.opensearch.searchrelevance.model.EvaluationResult;
 import org.opensearch.searchrelevance.model.ExperimentVariant;
+import org.opensearch.searchrelevance.model.Judgment;
+import org.opensearch.searchrelevance.model.JudgmentType;
 import org.opensearch.searchrelevance.model.builder.SearchRequestBuilder;
+import org.opensearch.searchrelevance.utils.RankingFingerprintUtils;
 import org.opensearch.searchrelevance.utils.TimeUtils;
 import org.opensearch.transport.client.Client;
 
@@ -90,6 +97,7 @@ public class MetricsHelper {
         String queryText,
         Map<String, List<String>> indexAndQueries,
         int size,
+        ExperimentSearchContext searchContext,
         ActionListener<Map<String, Object>> listener
     ) {
         Map<String, List<String>> searchConfigToDocIds = Collections.synchronizedMap(new HashMap<>());
@@ -101,7 +109,11 @@ public class MetricsHelper {
             String index = entry.getValue().get(0);
             String query = entry.getValue().get(1);
 
-            SearchRequest searchRequest = buildSearchRequest(index, query, queryText, null, size);
+            // pairwise comparison only reads doc ids from the hits
+            SearchRequest searchRequest = searchContext.apply(
+                applyLeanRetrieval(buildSearchRequest(index, query, queryText, null, size), false, null),
+                index
+            );
 
             client.search(searchRequest, new ActionListener<SearchResponse>() {
                 @Override
@@ -109,6 +121,7 @@ public class MetricsHelper {
                     if (hasFailure.get()) return;
 
                     try {
+                        searchContext.recordSearch(searchConfigId, null, response);
                         List<String> docIds = Arrays.stream(response.getHits().getHits())
                             .map(SearchHit::getId)
                             .distinct()
@@ -174,6 +187,19 @@ public class MetricsHelper {
         }
     }
 
+    /**
+     * Gets the query text as a judgment holds it. UBI judgments hold normalized user queries, so the query text is normalized
+     * the same way to match them whatever its case and whitespace, other judgments hold the query text as it was judged.
+     * @param queryText - query text of the query set entry
+     * @param judgmentSource - source of the judgment
+     */
+    static String judgedQueryOf(String queryText, Map<String, Object> judgmentSource) {
+        if (JudgmentType.UBI_JUDGMENT.name().equals(judgmentSource.get(Judgment.TYPE))) {
+            return UserQueryDictionary.normalize(queryText);
+        }
+        return queryText;
+    }
+
     /**
      * Create evaluation results for provided queryText
      * @param queryText - queryText to be evaluated against
@@ -190,9 +216,10 @@ public class MetricsHelper {
         Map<String, List<String>> indexAndQueries,
         int size,
         List<String> judgmentIds,
+        ExperimentSearchContext searchContext,
         ActionListener<Map<String, Object>> listener
     ) {
-        processEvaluationMetrics(queryText, indexAndQueries, size, judgmentIds, listener, List.of());
+        processEvaluationMetrics(queryText, indexAndQueries, size, judgmentIds, searchContext, listener, List.of());
     }
 
     public void processEvaluationMetrics(
@@ -200,6 +227,7 @@ public class MetricsHelper {
         Map<String, List<String>> indexAndQueries,
         int size,
         List<String> judgmentIds,
+        ExperimentSearchContext searchContext,
         ActionListener<Map<String, Object>> listener,
         List<ExperimentVariant> experimentVariants
     ) {
@@ -226,9 +254,10 @@ public class MetricsHelper {
                                     "judgmentRatings",
                                     Collections.emptyList()
                                 );
+                                String judgedQuery = judgedQueryOf(queryText, sourceAsMap);
                                 // TODO change this to more efficient approach, this is O(n) because we need to scan all list to find query
                                 for (Map<String, Object> rating : judgmentRatings) {
-                                    if (queryText.equals(rating.get("query"))) {
+                                    if (judgedQuery.equals(rating.get("query"))) {
                                         List<Map<String, String>> docScoreRatings = (List<Map<String, String>>) rating.get("ratings");
                                         docScoreRatings.forEach(
                                             docScoreRating -> docIdToRatings.put(docScoreRating.get("docId"), docScoreRating.get("rating"))
@@ -251,6 +280,7 @@ public class MetricsHelper {
                                     judgmentIds,
                                     docIdToRatings,
                                     configToEvalIds,
+                                    searchContext,
                                     listener,
                                     experimentVariants
                                 );
@@ -275,6 +305,7 @@ public class MetricsHelper {
                                     judgmentIds,
                                     docIdToRatings,
                                     configToEvalIds,
+                                    searchContext,
                                     listener,
                                     experimentVariants
                                 );
@@ -296,6 +327,7 @@ public class MetricsHelper {
         List<String> judgmentIds,
         Map<String, String> docIdToScores,
         Map<String, Object> configToEvalIds,
+        ExperimentSearchContext searchContext,
         ActionListener<Map<String, Object>> listener,
         List<ExperimentVariant> experimentVariants
     ) {
@@ -322,6 +354,7 @@ public class MetricsHelper {
                     judgmentIds,
                     docIdToScores,
                     configToEvalIds,
+                    searchContext,
                     listener,
                     searchConfigurationId,
                     index,
@@ -337,6 +370,7 @@ public class MetricsHelper {
                     judgmentIds,
                     docIdToScores,
                     configToEvalIds,
+                    searchContext,
                     listener,
                     searchConfigurationId,
                     index,
@@ -370,6 +404,7 @@ public class MetricsHelper {
         List<String> judgmentIds,
         Map<String, String> docIdToScores,
         Map<String, Object> configToEvalIds,
+        ExperimentSearchContext searchContext,
         ActionListener<Map<String, Object>> listener,
         String searchConfigurationId,
         String index,
@@ -378,7 +413,12 @@ public class MetricsHelper {
         AtomicBoolean hasFailure,
         AtomicInteger pendingConfigurations
     ) {
-        SearchRequest searchRequest = buildSearchRequest(index, query, queryText, searchPipeline, size);
+        // metrics only read doc ids; a named pipeline may run response processors that read _source, so keep it there
+        boolean hasSearchPipeline = searchPipeline != null && !searchPipeline.isEmpty();
+        SearchRequest searchRequest = searchContext.apply(
+            applyLeanRetrieval(buildSearchRequest(index, query, queryText, searchPipeline, size), hasSearchPipeline, null),
+            index
+        );
         final String evaluationId = UUID.randomUUID().toString();
         log.debug(
             "Configuration {}: index: {}, query: {}, searchPipeline: {}, evaluationId: {}",
@@ -394,7 +434,8 @@ public class MetricsHelper {
                 if (hasFailure.get()) return;
 
                 try {
-                    if (response.getHits().getTotalHits().value() == 0) {
+                    searchContext.recordSearch(searchConfigurationId, null, response);
+                    if (response.getHits().getHits().length == 0) {
                         log.warn("No hits found for search config: {}", searchConfigurationId);
                         if (pendingConfigurations.decrementAndGet() == 0) {
                             listener.onResponse(configToEvalIds);
@@ -413,7 +454,8 @@ public class MetricsHelper {
                         queryText,
                         judgmentIds,
                         docIds,
-                        metrics
+                        metrics,
+                        SearchLatencyStats.toSearchStats(response)
                     );
 
                     evaluationResultDao.putEvaluationResult(evaluationResult, ActionListener.wrap(success -> {
@@ -446,6 +488,7 @@ public class MetricsHelper {
         List<String> judgmentIds,
         Map<String, String> docIdToScores,
         Map<String, Object> configToExperimentVariants,
+        ExperimentSearchContext searchContext,
         ActionListener<Map<String, Object>> listener,
         String searchConfigurationId,
         String index,
@@ -462,6 +505,8 @@ public class MetricsHelper {
                 configToExperimentVariants.put(searchConfigurationId, new HashMap<String, Object>());
             }
         }
+        // completes with the evaluation id once the first variant with a ranking has stored its evaluation result
+        Map<String, StepListener<String>> fingerprintToEvaluation = new ConcurrentHashMap<>();
         for (ExperimentVariant experimentVariant : experimentVariants) {
             Map<String, Object> temporarySearchPipeline = createDefinitionOfTemporarySearchPipeline(experimentVariant);
             SearchRequest searchRequest = SearchRequestBuilder.buildRequestForHybridSearch(
@@ -471,6 +516,9 @@ public class MetricsHelper {
                 queryText,
                 size
             );
+            // temporary pipelines only hold normalization and combination, which never read _source
+            applyLeanRetrieval(searchRequest, false, null);
+            searchContext.apply(searchRequest, index);
             final String evaluationId = UUID.randomUUID().toString();
             log.debug(
                 "Processing hybrid search sub-experiment: {} configuration: {} index: {}, query: {}, evaluationId: {}",
@@ -485,8 +533,14 @@ public class MetricsHelper {
                 public void onResponse(SearchResponse response) {
                     if (hasFailure.get()) return;
 
+                    StepListener<String> evaluationStored = new StepListener<>();
                     try {
-                        if (response.getHits().getTotalHits().value() == 0) {
+                        searchContext.recordSearch(
+                            searchConfigurationId,
+                            SearchLatencyStats.variantKey(experimentVariant.getParameters()),
+                            response
+                        );
+                        if (response.getHits().getHits().length == 0) {
                             log.warn("No hits found for search config: {}", searchConfigurationId);
                             if (pendingConfigurations.decrementAndGet() == 0) {
                                 listener.onResponse(configToExperimentVariants);
@@ -497,6 +551,33 @@ public class MetricsHelper {
                         SearchHit[] hits = response.getHits().getHits();
                         List<String> docIds = Arrays.stream(hits).map(SearchHit::getId).collect(Collectors.toList());
 
+                        // variants returning the same ranking share one evaluation result instead of storing and scoring it again
+                        String rankingFingerprint = RankingFingerprintUtils.fingerprint(docIds);
+                        StepListener<String> sharedEvaluation = fingerprintToEvaluation.putIfAbsent(rankingFingerprint, evaluationStored);
+                        if (sharedEvaluation != null) {
+                            // the variant only points at the shared evaluation result once it is stored
+                            sharedEvaluation.whenComplete(sharedEvaluationId -> {
+                                log.debug(
+                                    "Variant {} returned the same ranking as evaluation {}, reusing it",
+                                    experimentVariant.getId(),
+                                    sharedEvaluationId
+                                );
+                                completeHybridExperimentVariant(
+                                    experimentVariant,
+                                    sharedEvaluationId,
+                                    searchConfigurationId,
+                                    configToExperimentVariants,
+                                    pendingConfigurations,
+                                    listener
+                                );
+                            }, e -> {
+                                if (hasFailure.compareAndSet(false, true)) {
+                                    listener.onFailure(e);
+                                }
+                            });
+                            return;
+                        }
+
                         List<Map<String, Object>> metrics = calculateEvaluationMetrics(docIds, docIdToScores, size);
                         EvaluationResult evaluationResult = new EvaluationResult(
                             evaluationId,
@@ -505,55 +586,35 @@ public class MetricsHelper {
                             queryText,
                             judgmentIds,
                             docIds,
-                            metrics
+                            metrics,
+                            SearchLatencyStats.toSearchStats(response)
                         );
 
-                        evaluationResultDao.putEvaluationResult(evaluationResult, ActionListener.wrap(success -> {
-                            ExperimentVariant experimentVariantResult = new ExperimentVariant(
-                                experimentVariant.getId(),
-                                TimeUtils.getTimestamp(),
-                                experimentVariant.getType(),
-                                AsyncStatus.COMPLETED,
-                                experimentVariant.getExperimentId(),
-                                experimentVariant.getParameters(),
-                                Map.of("evaluationResultId", evaluationId)
-                            );
-                            StepListener<IndexResponse> voidStepListener = new StepListener<>();
-                            experimentVariantDao.updateExperimentVariant(experimentVariantResult, voidStepListener);
-                            voidStepListener.whenComplete(indexResponse -> {
-                                synchronized (configToExperimentVariants) {
-                                    Map<String, Object> map = (Map<String, Object>) configToExperimentVariants.get(searchConfigurationId);
-                                    map.put(experimentVariant.getId(), evaluationId);
-                                }
-                                if (pendingConfigurations.decrementAndGet() == 0) {
-                                    Map<String, Object> transformedConfigToExperimentVariants = new HashMap<>();
-                                    transformedConfigToExperimentVariants.put(
-                                        POINTWISE_FIELD_NAME_SEARCH_CONFIGURATION_ID,
-                                        searchConfigurationId
-                                    );
-
-                                    List<Map<String, Object>> evaluationResults = new ArrayList<>();
-                                    Map<String, Object> configMap = (Map<String, Object>) configToExperimentVariants.get(
-                                        searchConfigurationId
-                                    );
-                                    configMap.forEach((variantId, evalId) -> {
-                                        Map<String, Object> result = new HashMap<>();
-                                        result.put(POINTWISE_FIELD_NAME_EVALUATION_ID, evalId);
-                                        result.put(POINTWISE_FIELD_NAME_EXPERIMENT_VARIANT_ID, variantId);
-                                        evaluationResults.add(result);
-                                    });
-                                    transformedConfigToExperimentVariants.put(POINTWISE_FIELD_NAME_EVALUATION_RESULTS, evaluationResults);
-
-                                    listener.onResponse(transformedConfigToExperimentVariants);
+                        evaluationResultDao.putEvaluationResult(
+                            evaluationResult,
+                            ActionListener.wrap(success -> {
+                                evaluationStored.onResponse(evaluationId);
+                                completeHybridExperimentVariant(
+                                    experimentVariant,
+                                    evaluationId,
+                                    searchConfigurationId,
+                                    configToExperimentVariants,
+                                    pendingConfigurations,
+                                    listener
+                                );
+                            }, error -> {
+                                evaluationStored.onFailure(error);
+                                if (hasFailure.compareAndSet(false, true)) {
+                                    listener.onFailure(error);
                                 }
-                            }, listener::onFailure);
-                        }, error -> {
-                            hasFailure.set(true);
-                            listener.onFailure(error);
-                        }));
+                            })
+                        );
                     } catch (Exception e) {
-                        hasFailure.set(true);
-                        listener.onFailure(e);
+                        // variants waiting on this ranking must not hang
+                        evaluationStored.onFailure(e);
+                        if (hasFailure.compareAndSet(false, true)) {
+                            listener.onFailure(e);
+                        }
                     }
                 }
 
@@ -579,4 +640,47 @@ public class MetricsHelper {
             });
         }
     }
+
+    private void completeHybridExperimentVariant(
+        ExperimentVariant experimentVariant,
+        String evaluationId,
+        String searchConfigurationId,
+        Map<String, Object> configToExperimentVariants,
+        AtomicInteger pendingConfigurations,
+        ActionListener<Map<String, Object>> listener
+    ) {
+        ExperimentVariant experimentVariantResult = new ExperimentVariant(
+            experimentVariant.getId(),
+            TimeUtils.getTimestamp(),
+            experimentVariant.getType(),
+            AsyncStatus.COMPLETED,
+            experimentVariant.getExperimentId(),
+            experimentVariant.getParameters(),
+            Map.of("evaluationResultId", evaluationId)
+        );
+        StepListener<IndexResponse> voidStepListener = new StepListener<>();
+        experimentVariantDao.updateExperimentVariant(experimentVariantResult, voidStepListener);
+        voidStepListener.whenComplete(indexResponse -> {
+            synchronized (configToExperimentVariants) {
+                Map<String, Object> map = (Map<String, Object>) configToExperimentVariants.get(searchConfigurationId);
+                map.put(experimentVariant.getId(), evaluationId);
+            }
+            if (pendingConfigurations.decrementAndGet() == 0) {
+                Map<String, Object> transformedConfigToExperimentVariants = new HashMap<>();
+                transformedConfigToExperimentVariants.put(POINTWISE_FIELD_NAME_SEARCH_CONFIGURATION_ID, searchConfigurationId);
+
+                List<Map<String, Object>> evaluationResults = new ArrayList<>();
+                Map<String, Object> configMap = (Map<String, Object>) configToExperimentVariants.get(searchConfigurationId);
+                configMap.forEach((variantId, evalId) -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put(POINTWISE_FIELD_NAME_EVALUATION_ID, evalId);
+                    result.put(POINTWISE_FIELD_NAME_EXPERIMENT_VARIANT_ID, variantId);
+                    evaluationResults.add(result);
+                });
+                transformedConfigToExperimentVariants.put(POINTWISE_FIELD_NAME_EVALUATION_RESULTS, evaluationResults);
+
+                listener.onResponse(transformedConfigToExperimentVariants);
+            }
+        }, listener::onFailure);
+    }
 }
@@ -0,0 +1,250 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.search.profile.ProfileResult;
+import org.opensearch.search.profile.ProfileShardResult;
+import org.opensearch.search.profile.query.QueryProfileShardResult;
+
+/**
+ * Collects server-side search statistics of one experiment run, and aggregates took time
+ * into latency percentiles per search configuration and experiment variant.
+ * Took times are counted in a fixed-size log-linear histogram, exact below {@value #EXACT_MILLIS} ms and within
+ * 1/{@value #SUB_BUCKETS} of the value above, so memory does not grow with the number of searches.
+ */
+public class SearchLatencyStats {
+    public static final String SEARCH_STATS = "searchStats";
+    public static final String TOOK_IN_MILLIS = "tookInMillis";
+    public static final String TOTAL_SHARDS = "totalShards";
+    public static final String SUCCESSFUL_SHARDS = "successfulShards";
+    public static final String SKIPPED_SHARDS = "skippedShards";
+    public static final String FAILED_SHARDS = "failedShards";
+    public static final String PROFILE = "profile";
+    public static final String SHARD = "shard";
+    public static final String QUERY_TIME_IN_NANOS = "queryTimeInNanos";
+    public static final String REWRITE_TIME_IN_NANOS = "rewriteTimeInNanos";
+    public static final String COLLECT_TIME_IN_NANOS = "collectTimeInNanos";
+
+    public static final String LATENCY = "latency";
+    public static final String SEARCH_CONFIGURATION_ID = "searchConfigurationId";
+    public static final String VARIANT = "variant";
+    public static final String COUNT = "count";
+    public static final String P50_IN_MILLIS = "p50InMillis";
+    public static final String P95_IN_MILLIS = "p95InMillis";
+    public static final String P99_IN_MILLIS = "p99InMillis";
+    public static final String MAX_IN_MILLIS = "maxInMillis";
+    public static final String AVG_TOTAL_SHARDS = "avgTotalShards";
+
+    static final int EXACT_MILLIS = 64;
+    static final int SUB_BUCKETS = EXACT_MILLIS / 2;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    /**
+     * Highest power of two with its own buckets, larger took times are counted in its buckets.
+     */
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = bucket((1L << (MAX_EXPONENT + 1)) - 1) + 1;
+
+    private final Map<String, Samples> samplesByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Record the took time and shard count of one search
+     * @param searchConfigurationId - search configuration the search was built from
+     * @param variant - experiment variant key, null when the search does not belong to a variant
+     * @param response - search response
+     */
+    public void record(String searchConfigurationId, String variant, SearchResponse response) {
+        String key = variant == null ? searchConfigurationId : searchConfigurationId + "|" + variant;
+        samplesByKey.computeIfAbsent(key, k -> new Samples(searchConfigurationId, variant))
+            .add(response.getTook().millis(), response.getTotalShards());
+    }
+
+    /**
+     * Aggregate the recorded searches, one entry per search configuration and variant, ordered by both.
+     * @return latency percentiles in milliseconds with the number of searches and the average shards hit
+     */
+    public List<Map<String, Object>> summarize() {
+        List<Samples> allSamples = new ArrayList<>(samplesByKey.values());
+        allSamples.sort(
+            Comparator.comparing((Samples samples) -> samples.searchConfigurationId)
+                .thenComparing(samples -> samples.variant, Comparator.nullsFirst(Comparator.naturalOrder()))
+        );
+
+        List<Map<String, Object>> summary = new ArrayList<>();
+        for (Samples samples : allSamples) {
+            summary.add(samples.summarize());
+        }
+        return summary;
+    }
+
+    /**
+     * Per search statistics to be stored with an evaluation result.
+     * Profile breakdowns are only included when the search was profiled.
+     * @param response - search response
+     * @return took time, shard counts and optional per shard profile timings
+     */
+    public static Map<String, Object> toSearchStats(SearchResponse response) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(TOOK_IN_MILLIS, response.getTook().millis());
+        stats.put(TOTAL_SHARDS, response.getTotalShards());
+        stats.put(SUCCESSFUL_SHARDS, response.getSuccessfulShards());
+        stats.put(SKIPPED_SHARDS, response.getSkippedShards());
+        stats.put(FAILED_SHARDS, response.getFailedShards());
+
+        Map<String, ProfileShardResult> profileResults = response.getProfileResults();
+        if (profileResults != null && !profileResults.isEmpty()) {
+            List<Map<String, Object>> profile = new ArrayList<>();
+            new TreeMap<>(profileResults).forEach((shard, shardResult) -> profile.add(toProfileBreakdown(shard, shardResult)));
+            stats.put(PROFILE, profile);
+        }
+        return stats;
+    }
+
+    /**
+     * Stable key of an experiment variant built from its parameters, so variants with the same parameters
+     * created for different query texts are aggregated together.
+     * @param parameters - experiment variant parameters
+     * @return variant key
+     */
+    public static String variantKey(Map<String, Object> parameters) {
+        StringBuilder key = new StringBuilder();
+        new TreeMap<>(parameters).forEach((name, value) -> {
+            if (key.length() > 0) {
+                key.append(',');
+            }
+            key.append(name).append('=').append(value instanceof float[] floats ? Arrays.toString(floats) : String.valueOf(value));
+        });
+        return key.toString();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    static long percentile(long[] sortedValues, double percentile) {
+        if (sortedValues.length == 0) {
+            return 0L;
+        }
+        return sortedValues[(int) nearestRank(sortedValues.length, percentile) - 1];
+    }
+
+    /**
+     * One-based nearest rank of a percentile among count values
+     */
+    static long nearestRank(long count, double percentile) {
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        return Math.min(Math.max(rank, 1), count);
+    }
+
+    /**
+     * Histogram bucket of a took time: one bucket per millisecond below {@link #EXACT_MILLIS}, then
+     * {@link #SUB_BUCKETS} buckets per power of two.
+     */
+    static int bucket(long tookInMillis) {
+        long value = Math.max(tookInMillis, 0L);
+        if (value < EXACT_MILLIS) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        int shift = exponent - SUB_BUCKET_BITS;
+        long subBucket = Math.min(value >> shift, (long) SUB_BUCKETS * 2 - 1);
+        return shift * SUB_BUCKETS + (int) subBucket;
+    }
+
+    /**
+     * Highest took time counted in a bucket
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < EXACT_MILLIS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static Map<String, Object> toProfileBreakdown(String shard, ProfileShardResult shardResult) {
+        long queryTime = 0;
+        long rewriteTime = 0;
+        long collectTime = 0;
+        for (QueryProfileShardResult queryProfile : shardResult.getQueryProfileResults()) {
+            for (ProfileResult queryResult : queryProfile.getQueryResults()) {
+                queryTime += queryResult.getTime();
+            }
+            rewriteTime += queryProfile.getRewriteTime();
+            if (queryProfile.getCollectorResult() != null) {
+                collectTime += queryProfile.getCollectorResult().getTime();
+            }
+        }
+        Map<String, Object> breakdown = new HashMap<>();
+        breakdown.put(SHARD, shard);
+        breakdown.put(QUERY_TIME_IN_NANOS, queryTime);
+        breakdown.put(REWRITE_TIME_IN_NANOS, rewriteTime);
+        breakdown.put(COLLECT_TIME_IN_NANOS, collectTime);
+        return breakdown;
+    }
+
+    private static class Samples {
+        private final String searchConfigurationId;
+        private final String variant;
+        private final long[] buckets = new long[BUCKETS];
+        private long count;
+        private long maxTookInMillis;
+        private long totalShards;
+
+        Samples(String searchConfigurationId, String variant) {
+            this.searchConfigurationId = searchConfigurationId;
+            this.variant = variant;
+        }
+
+        synchronized void add(long took, int shards) {
+            buckets[bucket(took)]++;
+            count++;
+            maxTookInMillis = Math.max(maxTookInMillis, took);
+            totalShards += shards;
+        }
+
+        synchronized Map<String, Object> summarize() {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put(SEARCH_CONFIGURATION_ID, searchConfigurationId);
+            if (variant != null) {
+                summary.put(VARIANT, variant);
+            }
+            summary.put(COUNT, Math.toIntExact(count));
+            summary.put(P50_IN_MILLIS, percentile(50));
+            summary.put(P95_IN_MILLIS, percentile(95));
+            summary.put(P99_IN_MILLIS, percentile(99));
+            summary.put(MAX_IN_MILLIS, maxTookInMillis);
+            summary.put(AVG_TOTAL_SHARDS, count == 0 ? 0.0 : (double) totalShards / count);
+            return summary;
+        }
+
+        private long percentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = nearestRank(count, percentile);
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(bucket), maxTookInMillis);
+                }
+            }
+            return maxTookInMillis;
+        }
+    }
+}
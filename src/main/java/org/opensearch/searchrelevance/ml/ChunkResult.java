@@ -7,62 +7,63 @@
  */
 package org.opensearch.searchrelevance.ml;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
-// Helper class to carry chunk result information
+/**
+ * Result of one completed chunk. Every chunk is delivered once, in completion order, and the last delivered chunk is marked
+ * as the last chunk. A succeeded chunk carries its parsed ratings, a failed chunk its error.
+ * The counts cover all chunks delivered so far, including this one.
+ */
 public class ChunkResult {
     private final int chunkIndex;
     private final int totalChunks;
     private final boolean isLastChunk;
 
-    private final Map<Integer, String> succeededChunks;
-    private final Map<Integer, String> failedChunks;
+    private final List<LlmRating> ratings;
+    private final String error;
+    private final int succeededChunksCount;
+    private final int failedChunksCount;
 
-    // constructor for individual chunk result
-    public ChunkResult(int chunkIndex, String response, String error, int totalChunks, boolean isLastChunk) {
-        this.chunkIndex = chunkIndex;
-        this.totalChunks = totalChunks;
-        this.isLastChunk = isLastChunk;
-        this.succeededChunks = new HashMap<>();
-        this.failedChunks = new HashMap<>();
-        if (error != null) {
-            this.failedChunks.put(chunkIndex, error);
-        } else {
-            this.succeededChunks.put(chunkIndex, response);
-        }
-    }
-
-    // Constructor for aggregated results
     public ChunkResult(
         int chunkIndex,
         int totalChunks,
         boolean isLastChunk,
-        Map<Integer, String> succeededChunks,
-        Map<Integer, String> failedChunks
+        List<LlmRating> ratings,
+        String error,
+        int succeededChunksCount,
+        int failedChunksCount
     ) {
         this.chunkIndex = chunkIndex;
         this.totalChunks = totalChunks;
         this.isLastChunk = isLastChunk;
-        this.succeededChunks = new HashMap<>(succeededChunks);
-        this.failedChunks = new HashMap<>(failedChunks);
+        this.ratings = ratings == null ? List.of() : ratings;
+        this.error = error;
+        this.succeededChunksCount = succeededChunksCount;
+        this.failedChunksCount = failedChunksCount;
     }
 
-    public int getSuccessfulChunksCount() {
-        return succeededChunks.size();
+    public int getChunkIndex() {
+        return chunkIndex;
     }
 
-    public int getFailedChunksCount() {
-        return failedChunks.size();
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    public List<LlmRating> getRatings() {
+        return ratings;
     }
 
-    public Map<Integer, String> getSucceededChunks() {
-        return Collections.unmodifiableMap(succeededChunks);
+    public String getError() {
+        return error;
     }
 
-    public Map<Integer, String> getFailedChunks() {
-        return Collections.unmodifiableMap(failedChunks);
+    public int getSuccessfulChunksCount() {
+        return succeededChunksCount;
+    }
+
+    public int getFailedChunksCount() {
+        return failedChunksCount;
     }
 
     public boolean isLastChunk() {
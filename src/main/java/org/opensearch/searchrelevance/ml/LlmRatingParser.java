@@ -0,0 +1,74 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ml;
+
+import static org.opensearch.core.xcontent.XContentParserUtils.ensureExpectedToken;
+import static org.opensearch.searchrelevance.common.MLConstants.sanitizeLLMResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.common.ParsingException;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentParser;
+
+/**
+ * Parses the rating array of an LLM response token by token into {@link LlmRating} records,
+ * without building an intermediate map per rating. Fields other than id and rating_score are skipped.
+ */
+public final class LlmRatingParser {
+    private static final String ID_FIELD = "id";
+    private static final String RATING_SCORE_FIELD = "rating_score";
+
+    private LlmRatingParser() {}
+
+    /**
+     * @param response - LLM response content, code fences are removed before parsing
+     * @return ratings in the order of the response
+     * @throws ParsingException when the response is not a JSON array of ratings
+     */
+    public static List<LlmRating> parse(String response) throws IOException {
+        List<LlmRating> ratings = new ArrayList<>();
+        try (
+            XContentParser parser = JsonXContent.jsonXContent.createParser(
+                NamedXContentRegistry.EMPTY,
+                DeprecationHandler.IGNORE_DEPRECATIONS,
+                sanitizeLLMResponse(response)
+            )
+        ) {
+            ensureExpectedToken(XContentParser.Token.START_ARRAY, parser.nextToken(), parser);
+            while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
+                ratings.add(parseRating(parser));
+            }
+        }
+        return ratings;
+    }
+
+    private static LlmRating parseRating(XContentParser parser) throws IOException {
+        String id = null;
+        Double score = null;
+        while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+            ensureExpectedToken(XContentParser.Token.FIELD_NAME, parser.currentToken(), parser);
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case ID_FIELD -> id = parser.text();
+                case RATING_SCORE_FIELD -> score = parser.doubleValue();
+                default -> parser.skipChildren();
+            }
+        }
+        if (id == null || score == null) {
+            throw new ParsingException(parser.getTokenLocation(), "LLM rating must have both id and rating_score fields");
+        }
+        return new LlmRating(id, score);
+    }
+}
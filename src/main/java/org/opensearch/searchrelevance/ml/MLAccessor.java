@@ -7,10 +7,12 @@
  */
 package org.opensearch.searchrelevance.ml;
 
+import static org.opensearch.searchrelevance.common.MLConstants.INPUT_FORMAT_MULTI_QUERY_SEARCH;
 import static org.opensearch.searchrelevance.common.MLConstants.INPUT_FORMAT_SEARCH;
 import static org.opensearch.searchrelevance.common.MLConstants.INPUT_FORMAT_SEARCH_WITH_REFERENCE;
 import static org.opensearch.searchrelevance.common.MLConstants.PARAM_MESSAGES_FIELD;
 import static org.opensearch.searchrelevance.common.MLConstants.PROMPT_JSON_MESSAGES_SHELL;
+import static org.opensearch.searchrelevance.common.MLConstants.PROMPT_MULTI_QUERY_SEARCH_RELEVANCE;
 import static org.opensearch.searchrelevance.common.MLConstants.PROMPT_SEARCH_RELEVANCE;
 import static org.opensearch.searchrelevance.common.MLConstants.RESPONSE_CHOICES_FIELD;
 import static org.opensearch.searchrelevance.common.MLConstants.RESPONSE_CONTENT_FIELD;
@@ -19,19 +21,26 @@ import static org.opensearch.searchrelevance.common.MLConstants.escapeJson;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.opensearch.OpenSearchTimeoutException;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.common.util.CollectionUtils;
@@ -44,23 +53,49 @@ import org.opensearch.ml.common.output.MLOutput;
 import org.opensearch.ml.common.output.model.ModelTensor;
 import org.opensearch.ml.common.output.model.ModelTensorOutput;
 import org.opensearch.ml.common.output.model.ModelTensors;
+import org.opensearch.searchrelevance.stats.events.EventStatName;
+import org.opensearch.searchrelevance.stats.events.EventStatsManager;
+import org.opensearch.threadpool.Scheduler;
 
 /**
  * This is a ml-commons accessor that will call predict API and process ml input/output.
  */
 public class MLAccessor {
     private MachineLearningNodeClient mlClient;
+    private final ModelRateLimiter rateLimiter;
+    private final TimeValue chunkTimeout;
+    private final double hedgePercentile;
+    private final ModelLatencyTracker latencyTracker = new ModelLatencyTracker();
 
     private static final Logger LOGGER = LogManager.getLogger(MLAccessor.class);
     private static final int MAX_RETRY_NUMBER = 3;
+    private static final int MAX_THROTTLED_RETRY_NUMBER = 10;
     private static final long RETRY_DELAY_MS = 1000;
+    private static final String QUERY_TAG_PREFIX = "q";
+    private static final String QUERY_TAG_DELIMITER = "::";
 
-    public MLAccessor(MachineLearningNodeClient mlClient) {
+    public MLAccessor(MachineLearningNodeClient mlClient, ModelRateLimiter rateLimiter) {
+        this(mlClient, rateLimiter, TimeValue.ZERO, 0);
+    }
+
+    /**
+     * @param chunkTimeout - deadline of one predict call, a call that misses it is retried like a failed call, 0 disables the deadline
+     * @param hedgePercentile - latency percentile of the model after which a duplicate of a pending call is sent, 0 disables hedging
+     */
+    public MLAccessor(MachineLearningNodeClient mlClient, ModelRateLimiter rateLimiter, TimeValue chunkTimeout, double hedgePercentile) {
         this.mlClient = mlClient;
+        this.rateLimiter = rateLimiter;
+        this.chunkTimeout = chunkTimeout;
+        this.hedgePercentile = hedgePercentile;
     }
 
+    /**
+     * Judge the hits of one query text
+     * @param jobId - judgment job the calls belong to, jobs of a model take turns at the rate limiter
+     */
     public void predict(
         String modelId,
+        String jobId,
         int tokenLimit,
         String searchText,
         String reference,
@@ -68,60 +103,92 @@ public class MLAccessor {
         boolean ignoreFailure,
         ActionListener<ChunkResult> progressListener  // For individual chunk
     ) {
-        List<MLInput> mlInputs = getMLInputs(tokenLimit, searchText, reference, hits);
+        List<PromptChunk> chunks = packHits(tokenLimit, searchText, reference, hits);
+        List<MLInput> mlInputs = new ArrayList<>();
+        for (PromptChunk chunk : chunks) {
+            mlInputs.add(createMLInput(formatMessages(searchText, reference, chunk.hits())));
+        }
         LOGGER.info("Number of chunks: {}", mlInputs.size());
+        predictChunks(modelId, jobId, chunks, mlInputs, ignoreFailure, progressListener);
+    }
 
-        ConcurrentMap<Integer, String> succeededChunks = new ConcurrentHashMap<>();
-        ConcurrentHashMap<Integer, String> failedChunks = new ConcurrentHashMap<>();
-        AtomicInteger processedChunks = new AtomicInteger(0);
+    /**
+     * Judge the hits of several query texts with as few LLM calls as possible. Hits of different query texts share a chunk
+     * as long as it stays within the token limit, and every hit is sent with a tagged id that names its query text,
+     * see {@link #taggedHitId(int, String)}. The ids in the responses are the tagged ids, so ratings can be returned per query text.
+     * @param jobId - judgment job the calls belong to, jobs of a model take turns at the rate limiter
+     * @param queries - query texts with their references and hits pending judged, a query is referenced by its position in the list
+     */
+    public void predictMultiQuery(
+        String modelId,
+        String jobId,
+        int tokenLimit,
+        List<QueryHits> queries,
+        boolean ignoreFailure,
+        ActionListener<ChunkResult> progressListener
+    ) {
+        List<PromptChunk> chunks = packMultiQueryHits(tokenLimit, queries);
+        List<MLInput> mlInputs = new ArrayList<>();
+        for (PromptChunk chunk : chunks) {
+            mlInputs.add(createMLInput(formatMultiQueryMessages(queries, chunk.hits())));
+        }
+        LOGGER.info("Number of chunks: {} for {} query texts", mlInputs.size(), queries.size());
+        predictChunks(modelId, jobId, chunks, mlInputs, ignoreFailure, progressListener);
+    }
 
+    private void predictChunks(
+        String modelId,
+        String jobId,
+        List<PromptChunk> chunks,
+        List<MLInput> mlInputs,
+        boolean ignoreFailure,
+        ActionListener<ChunkResult> progressListener
+    ) {
+        ChunkProgress progress = new ChunkProgress(mlInputs.size(), ignoreFailure, progressListener);
         for (int i = 0; i < mlInputs.size(); i++) {
             final int chunkIndex = i;
-            predictSingleChunkWithRetry(modelId, mlInputs.get(chunkIndex), chunkIndex, 0, new ActionListener<String>() {
+            int tokens = chunks.get(chunkIndex).tokens();
+            MLInput mlInput = mlInputs.get(chunkIndex);
+            predictSingleChunkWithRetry(modelId, jobId, mlInput, tokens, chunkIndex, 0, 0, new ActionListener<String>() {
                 @Override
                 public void onResponse(String response) {
+                    List<LlmRating> ratings;
+                    try {
+                        ratings = LlmRatingParser.parse(response);
+                    } catch (Exception e) {
+                        LOGGER.error("Failed to parse response of chunk {}", chunkIndex, e);
+                        progress.onChunkCompleted(chunkIndex, null, e);
+                        return;
+                    }
                     LOGGER.info("Chunk {} processed successfully", chunkIndex);
-                    String processedResponse = response.substring(1, response.length() - 1); // remove brackets
-                    handleChunkCompletion(
-                        chunkIndex,
-                        processedResponse,
-                        null,
-                        mlInputs.size(),
-                        succeededChunks,
-                        failedChunks,
-                        ignoreFailure,
-                        processedChunks,
-                        progressListener
-                    );
+                    progress.onChunkCompleted(chunkIndex, ratings, null);
                 }
 
                 @Override
                 public void onFailure(Exception e) {
                     LOGGER.error("Chunk {} failed after all retries", chunkIndex, e);
-                    handleChunkCompletion(
-                        chunkIndex,
-                        null,
-                        e,
-                        mlInputs.size(),
-                        succeededChunks,
-                        failedChunks,
-                        ignoreFailure,
-                        processedChunks,
-                        progressListener
-                    );
+                    progress.onChunkCompleted(chunkIndex, null, e);
                 }
             });
         }
     }
 
+    /**
+     * Send one chunk through the rate limiter of its model. A throttled call pauses the model and is queued again,
+     * a call that missed its deadline is sent again right away, and other failures are retried with exponential back-off.
+     * Timeouts and other failures share the retry budget of the chunk.
+     */
     private void predictSingleChunkWithRetry(
         String modelId,
+        String jobId,
         MLInput mlInput,
+        int tokens,
         int chunkIndex,
         int retryCount,
+        int throttledCount,
         ActionListener<String> chunkListener
     ) {
-        predictSingleChunk(modelId, mlInput, new ActionListener<String>() {
+        predictWithDeadline(modelId, jobId, mlInput, tokens, chunkIndex, new ActionListener<String>() {
             @Override
             public void onResponse(String response) {
                 chunkListener.onResponse(response);
@@ -129,11 +196,56 @@ public class MLAccessor {
 
             @Override
             public void onFailure(Exception e) {
-                if (retryCount < MAX_RETRY_NUMBER) {
+                if (e instanceof OpenSearchTimeoutException && retryCount < MAX_RETRY_NUMBER) {
+                    // the deadline already spaced the attempts out, so there is no back-off
+                    LOGGER.warn("Chunk {} timed out, attempt {}/{}. Retrying...", chunkIndex, retryCount + 1, MAX_RETRY_NUMBER);
+                    predictSingleChunkWithRetry(
+                        modelId,
+                        jobId,
+                        mlInput,
+                        tokens,
+                        chunkIndex,
+                        retryCount + 1,
+                        throttledCount,
+                        chunkListener
+                    );
+                    return;
+                }
+                long retryAfterMs = rateLimiter.throttledRetryAfterMillis(e);
+                if (retryAfterMs >= 0 && throttledCount < MAX_THROTTLED_RETRY_NUMBER) {
+                    LOGGER.warn(
+                        "Chunk {} was throttled, attempt {}/{}. Requeueing...",
+                        chunkIndex,
+                        throttledCount + 1,
+                        MAX_THROTTLED_RETRY_NUMBER
+                    );
+                    rateLimiter.onThrottled(modelId, retryAfterMs);
+                    predictSingleChunkWithRetry(
+                        modelId,
+                        jobId,
+                        mlInput,
+                        tokens,
+                        chunkIndex,
+                        retryCount,
+                        throttledCount + 1,
+                        chunkListener
+                    );
+                } else if (retryAfterMs < 0 && retryCount < MAX_RETRY_NUMBER) {
                     LOGGER.warn("Chunk {} failed, attempt {}/{}. Retrying...", chunkIndex, retryCount + 1, MAX_RETRY_NUMBER);
 
                     long delay = RETRY_DELAY_MS * (long) Math.pow(2, retryCount);
-                    scheduleRetry(() -> predictSingleChunkWithRetry(modelId, mlInput, chunkIndex, retryCount + 1, chunkListener), delay);
+                    rateLimiter.schedule(() -> {
+                        predictSingleChunkWithRetry(
+                            modelId,
+                            jobId,
+                            mlInput,
+                            tokens,
+                            chunkIndex,
+                            retryCount + 1,
+                            throttledCount,
+                            chunkListener
+                        );
+                    }, delay);
                 } else {
                     chunkListener.onFailure(e);
                 }
@@ -141,8 +253,66 @@ public class MLAccessor {
         });
     }
 
-    private void scheduleRetry(Runnable runnable, long delayMs) {
-        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(runnable);
+    /**
+     * Send one attempt of a chunk once the rate limiter admits it. The attempt fails when it misses the chunk deadline,
+     * and once it is slower than the hedge percentile of the model a duplicate request is sent. The first response wins,
+     * the other request cannot be aborted on the remote model, so its response is dropped.
+     * The latency of the winning request, from when it was sent, is recorded for the hedge percentile.
+     * The attempt only fails once every request has failed or the deadline has passed.
+     */
+    private void predictWithDeadline(
+        String modelId,
+        String jobId,
+        MLInput mlInput,
+        int tokens,
+        int chunkIndex,
+        ActionListener<String> listener
+    ) {
+        rateLimiter.acquire(modelId, jobId, tokens, () -> {
+            AtomicBoolean completed = new AtomicBoolean(false);
+            AtomicInteger pendingRequests = new AtomicInteger(1);
+            List<Scheduler.Cancellable> timers = new CopyOnWriteArrayList<>();
+
+            LongFunction<ActionListener<String>> requestListener = sentNanos -> ActionListener.wrap(response -> {
+                if (completed.compareAndSet(false, true)) {
+                    timers.forEach(Scheduler.Cancellable::cancel);
+                    latencyTracker.record(modelId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentNanos));
+                    listener.onResponse(response);
+                }
+            }, e -> {
+                if (pendingRequests.decrementAndGet() == 0 && completed.compareAndSet(false, true)) {
+                    timers.forEach(Scheduler.Cancellable::cancel);
+                    listener.onFailure(e);
+                }
+            });
+
+            if (chunkTimeout.millis() > 0) {
+                timers.add(rateLimiter.schedule(() -> {
+                    if (completed.compareAndSet(false, true)) {
+                        timers.forEach(Scheduler.Cancellable::cancel);
+                        LOGGER.warn("Chunk {} missed its deadline of {}", chunkIndex, chunkTimeout);
+                        EventStatsManager.increment(EventStatName.LLM_JUDGMENT_CHUNK_TIMEOUTS);
+                        listener.onFailure(new OpenSearchTimeoutException("Chunk {} missed its deadline of {}", chunkIndex, chunkTimeout));
+                    }
+                }, chunkTimeout.millis()));
+            }
+            long hedgeDelayMillis = hedgePercentile > 0 ? latencyTracker.percentile(modelId, hedgePercentile) : -1;
+            if (hedgeDelayMillis >= 0 && (chunkTimeout.millis() == 0 || hedgeDelayMillis < chunkTimeout.millis())) {
+                timers.add(rateLimiter.schedule(() -> {
+                    if (completed.get() == false) {
+                        LOGGER.info("Chunk {} is slower than {} ms, sending a hedged request", chunkIndex, hedgeDelayMillis);
+                        EventStatsManager.increment(EventStatName.LLM_JUDGMENT_HEDGED_REQUESTS);
+                        pendingRequests.incrementAndGet();
+                        rateLimiter.acquire(modelId, jobId, tokens, () -> {
+                            if (completed.get() == false) {
+                                predictSingleChunk(modelId, mlInput, requestListener.apply(System.nanoTime()));
+                            }
+                        });
+                    }
+                }, hedgeDelayMillis));
+            }
+            predictSingleChunk(modelId, mlInput, requestListener.apply(System.nanoTime()));
+        });
     }
 
     public void predictSingleChunk(String modelId, MLInput mlInput, ActionListener<String> listener) {
@@ -153,54 +323,287 @@ public class MLAccessor {
         );
     }
 
-    private List<MLInput> getMLInputs(int tokenLimit, String searchText, String reference, Map<String, String> hits) {
-        List<MLInput> mlInputs = new ArrayList<>();
-        Map<String, String> currentChunk = new HashMap<>();
+    /**
+     * Pack hits into as few chunks as possible that stay within the token limit, using first-fit-decreasing.
+     * The prompt without hits and every hit are tokenized once, and a chunk only keeps a running sum of its hit costs,
+     * so packing does not re-render or re-tokenize the prompt per candidate hit.
+     * A hit that does not fit into an empty chunk is truncated into a chunk of its own.
+     */
+    static List<PromptChunk> packHits(int tokenLimit, String searchText, String reference, Map<String, String> hits) {
+        int overheadTokens = TokenizerUtil.countTokens(formatMessages(searchText, reference, Map.of()));
+        int capacity = tokenLimit - overheadTokens;
+
+        List<Map.Entry<String, String>> entries = new ArrayList<>(hits.entrySet());
+        int[] costs = new int[entries.size()];
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            costs[i] = countHitTokens(entries.get(i).getKey(), entries.get(i).getValue());
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(costs[b], costs[a]));
+
+        List<Map<String, String>> chunks = new ArrayList<>();
+        List<Integer> remainingTokens = new ArrayList<>();
+        for (int i : order) {
+            Map.Entry<String, String> entry = entries.get(i);
+            if (costs[i] > capacity) {
+                LOGGER.warn("Entry with key {} causes total tokens to exceed limit of {}", entry.getKey(), tokenLimit);
+                int excessTokens = costs[i] - capacity;
+                int currentTokens = TokenizerUtil.countTokens(entry.getValue());
+                String truncatedValue = TokenizerUtil.truncateString(entry.getValue(), Math.max(1, currentTokens - excessTokens));
+                Map<String, String> singleEntryChunk = new LinkedHashMap<>();
+                singleEntryChunk.put(entry.getKey(), truncatedValue);
+                chunks.add(singleEntryChunk);
+                remainingTokens.add(0);
+                continue;
+            }
+            int target = 0;
+            while (target < chunks.size() && remainingTokens.get(target) < costs[i]) {
+                target++;
+            }
+            if (target == chunks.size()) {
+                chunks.add(new LinkedHashMap<>());
+                remainingTokens.add(capacity);
+            }
+            chunks.get(target).put(entry.getKey(), entry.getValue());
+            remainingTokens.set(target, remainingTokens.get(target) - costs[i]);
+        }
 
-        for (Map.Entry<String, String> entry : hits.entrySet()) {
-            Map<String, String> tempChunk = new HashMap<>(currentChunk);
-            tempChunk.put(entry.getKey(), entry.getValue());
+        List<PromptChunk> promptChunks = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            promptChunks.add(new PromptChunk(chunks.get(i), tokenLimit - remainingTokens.get(i)));
+        }
+        return promptChunks;
+    }
 
-            String messages = formatMessages(searchText, reference, tempChunk);
-            int totalTokens = TokenizerUtil.countTokens(messages);
+    /**
+     * Pack hits of several query texts into as few chunks as possible that stay within the token limit.
+     * A chunk pays for the prompt once and for every query text it carries once, so query texts are packed whole in
+     * decreasing order of their cost, and a query text whose hits do not fit into one chunk is spread over as few chunks as possible.
+     * Hits are keyed by their tagged ids in the returned chunks. A hit that does not fit into an empty chunk is truncated
+     * into a chunk of its own.
+     */
+    static List<PromptChunk> packMultiQueryHits(int tokenLimit, List<QueryHits> queries) {
+        int overheadTokens = TokenizerUtil.countTokens(formatMultiQueryMessages(queries, Map.of()));
+        int capacity = tokenLimit - overheadTokens;
+
+        int[] queryCosts = new int[queries.size()];
+        List<List<Map.Entry<String, String>>> queryEntries = new ArrayList<>();
+        List<int[]> hitCosts = new ArrayList<>();
+        int[] totalCosts = new int[queries.size()];
+        Integer[] queryOrder = new Integer[queries.size()];
+        for (int q = 0; q < queries.size(); q++) {
+            queryCosts[q] = countQueryTokens(q, queries.get(q));
+            List<Map.Entry<String, String>> entries = new ArrayList<>(queries.get(q).hits().entrySet());
+            int[] costs = new int[entries.size()];
+            totalCosts[q] = queryCosts[q];
+            for (int i = 0; i < entries.size(); i++) {
+                costs[i] = countHitTokens(taggedHitId(q, entries.get(i).getKey()), entries.get(i).getValue());
+                totalCosts[q] += costs[i];
+            }
+            queryEntries.add(entries);
+            hitCosts.add(costs);
+            queryOrder[q] = q;
+        }
+        Arrays.sort(queryOrder, (a, b) -> Integer.compare(totalCosts[b], totalCosts[a]));
+
+        List<MultiQueryBin> bins = new ArrayList<>();
+        for (int q : queryOrder) {
+            List<Map.Entry<String, String>> entries = queryEntries.get(q);
+            int[] costs = hitCosts.get(q);
+            Integer[] hitOrder = new Integer[entries.size()];
+            for (int i = 0; i < hitOrder.length; i++) {
+                hitOrder[i] = i;
+            }
+            Arrays.sort(hitOrder, (a, b) -> Integer.compare(costs[b], costs[a]));
 
-            if (totalTokens > tokenLimit) {
-                if (currentChunk.isEmpty()) {
-                    // Single entry exceeds token limit
+            for (int i : hitOrder) {
+                Map.Entry<String, String> entry = entries.get(i);
+                String taggedId = taggedHitId(q, entry.getKey());
+                if (queryCosts[q] + costs[i] > capacity) {
                     LOGGER.warn("Entry with key {} causes total tokens to exceed limit of {}", entry.getKey(), tokenLimit);
-                    Map<String, String> singleEntryChunk = new HashMap<>();
-
-                    // Calculate tokens for the message with just this entry
-                    Map<String, String> testChunk = new HashMap<>();
-                    testChunk.put(entry.getKey(), entry.getValue());
-                    String testMessages = formatMessages(searchText, reference, testChunk);
-                    int excessTokens = TokenizerUtil.countTokens(testMessages) - tokenLimit;
-
-                    // Truncate the entry value
+                    int excessTokens = queryCosts[q] + costs[i] - capacity;
                     int currentTokens = TokenizerUtil.countTokens(entry.getValue());
                     String truncatedValue = TokenizerUtil.truncateString(entry.getValue(), Math.max(1, currentTokens - excessTokens));
-                    singleEntryChunk.put(entry.getKey(), truncatedValue);
-                    mlInputs.add(createMLInput(searchText, reference, singleEntryChunk));
-                } else {
-                    // Current chunk is full, add it and start new chunk
-                    mlInputs.add(createMLInput(searchText, reference, currentChunk));
-                    currentChunk = new HashMap<>();
-                    currentChunk.put(entry.getKey(), entry.getValue());
+                    MultiQueryBin singleEntryBin = new MultiQueryBin(0);
+                    singleEntryBin.hits.put(taggedId, truncatedValue);
+                    singleEntryBin.queries.add(q);
+                    bins.add(singleEntryBin);
+                    continue;
                 }
-            } else {
-                // Can add entry to current chunk
-                currentChunk.put(entry.getKey(), entry.getValue());
+                MultiQueryBin target = firstFit(bins, q, costs[i], queryCosts[q]);
+                if (target == null) {
+                    target = new MultiQueryBin(capacity);
+                    bins.add(target);
+                }
+                if (target.queries.add(q)) {
+                    target.remainingTokens -= queryCosts[q];
+                }
+                target.hits.put(taggedId, entry.getValue());
+                target.remainingTokens -= costs[i];
             }
         }
 
-        if (!currentChunk.isEmpty()) {
-            mlInputs.add(createMLInput(searchText, reference, currentChunk));
+        List<PromptChunk> promptChunks = new ArrayList<>();
+        for (MultiQueryBin bin : bins) {
+            promptChunks.add(new PromptChunk(bin.hits, tokenLimit - bin.remainingTokens));
         }
+        return promptChunks;
+    }
+
+    /**
+     * First chunk that already carries the query text and has room for the hit, otherwise the first chunk with room
+     * for both the query text and the hit
+     */
+    private static MultiQueryBin firstFit(List<MultiQueryBin> bins, int queryIndex, int hitCost, int queryCost) {
+        for (MultiQueryBin bin : bins) {
+            if (bin.queries.contains(queryIndex) && bin.remainingTokens >= hitCost) {
+                return bin;
+            }
+        }
+        for (MultiQueryBin bin : bins) {
+            if (bin.queries.contains(queryIndex) == false && bin.remainingTokens >= hitCost + queryCost) {
+                return bin;
+            }
+        }
+        return null;
+    }
+
+    private static class MultiQueryBin {
+        private final Map<String, String> hits = new LinkedHashMap<>();
+        private final Set<Integer> queries = new HashSet<>();
+        private int remainingTokens;
+
+        MultiQueryBin(int remainingTokens) {
+            this.remainingTokens = remainingTokens;
+        }
+    }
 
-        return mlInputs;
+    /**
+     * Hits of one LLM call with the estimated prompt tokens of the call
+     */
+    record PromptChunk(Map<String, String> hits, int tokens) {
     }
 
-    private String formatMessages(String searchText, String reference, Map<String, String> hits) {
+    /**
+     * A query text with its reference and the hits pending judged for it, keyed by composite key
+     */
+    public record QueryHits(String searchText, String reference, Map<String, String> hits) {
+    }
+
+    /**
+     * Id of a hit in a multi-query prompt, the composite key prefixed with the position of its query text
+     */
+    public static String taggedHitId(int queryIndex, String compositeKey) {
+        return QUERY_TAG_PREFIX + queryIndex + QUERY_TAG_DELIMITER + compositeKey;
+    }
+
+    /**
+     * Position of the query text of a tagged hit id
+     * @return the query position, -1 when the id is not a tagged hit id
+     */
+    public static int queryIndexOfTaggedHitId(String taggedHitId) {
+        if (taggedHitId == null || taggedHitId.startsWith(QUERY_TAG_PREFIX) == false) {
+            return -1;
+        }
+        int delimiter = taggedHitId.indexOf(QUERY_TAG_DELIMITER);
+        if (delimiter < 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(taggedHitId.substring(QUERY_TAG_PREFIX.length(), delimiter));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Composite key of a tagged hit id
+     */
+    public static String compositeKeyOfTaggedHitId(String taggedHitId) {
+        return taggedHitId.substring(taggedHitId.indexOf(QUERY_TAG_DELIMITER) + QUERY_TAG_DELIMITER.length());
+    }
+
+    /**
+     * Token cost of one hit as rendered into the escaped user content, plus one token for the separator between hits
+     */
+    private static int countHitTokens(String id, String source) {
+        try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+            builder.startObject();
+            builder.field("id", id);
+            builder.field("source", source);
+            builder.endObject();
+            return TokenizerUtil.countTokens(escapeJson(builder.toString())) + 1;
+        } catch (IOException e) {
+            LOGGER.error("Error converting hit to JSON string", e);
+            throw new IllegalArgumentException("Failed to process hits", e);
+        }
+    }
+
+    /**
+     * Token cost of one query text as rendered into the escaped user content, plus one token for the separator between queries
+     */
+    private static int countQueryTokens(int queryIndex, QueryHits query) {
+        try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+            writeQuery(builder, queryIndex, query);
+            return TokenizerUtil.countTokens(escapeJson(builder.toString())) + 1;
+        } catch (IOException e) {
+            LOGGER.error("Error converting query to JSON string", e);
+            throw new IllegalArgumentException("Failed to process queries", e);
+        }
+    }
+
+    private static void writeQuery(XContentBuilder builder, int queryIndex, QueryHits query) throws IOException {
+        builder.startObject();
+        builder.field("queryId", QUERY_TAG_PREFIX + queryIndex);
+        builder.field("searchText", query.searchText());
+        if (Objects.nonNull(query.reference()) && query.reference().isEmpty() == false) {
+            builder.field("reference", query.reference());
+        }
+        builder.endObject();
+    }
+
+    /**
+     * Render a multi-query prompt, with only the query texts that the given hits refer to
+     * @param queries - all query texts of the batch
+     * @param taggedHits - hits keyed by their tagged ids
+     */
+    static String formatMultiQueryMessages(List<QueryHits> queries, Map<String, String> taggedHits) {
+        try {
+            Set<Integer> queryIndexes = new TreeSet<>();
+            for (String taggedId : taggedHits.keySet()) {
+                queryIndexes.add(queryIndexOfTaggedHitId(taggedId));
+            }
+            String queriesJson;
+            try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+                builder.startArray();
+                for (int queryIndex : queryIndexes) {
+                    writeQuery(builder, queryIndex, queries.get(queryIndex));
+                }
+                builder.endArray();
+                queriesJson = builder.toString();
+            }
+            String hitsJson;
+            try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+                builder.startArray();
+                for (Map.Entry<String, String> hit : taggedHits.entrySet()) {
+                    builder.startObject();
+                    builder.field("id", hit.getKey());
+                    builder.field("source", hit.getValue());
+                    builder.endObject();
+                }
+                builder.endArray();
+                hitsJson = builder.toString();
+            }
+            String userContent = String.format(Locale.ROOT, INPUT_FORMAT_MULTI_QUERY_SEARCH, queriesJson, hitsJson);
+            return String.format(Locale.ROOT, PROMPT_JSON_MESSAGES_SHELL, PROMPT_MULTI_QUERY_SEARCH_RELEVANCE, escapeJson(userContent));
+        } catch (IOException e) {
+            LOGGER.error("Error converting queries and hits to JSON string", e);
+            throw new IllegalArgumentException("Failed to process hits", e);
+        }
+    }
+
+    static String formatMessages(String searchText, String reference, Map<String, String> hits) {
         try {
             String hitsJson;
             try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
@@ -227,9 +630,9 @@ public class MLAccessor {
         }
     }
 
-    private MLInput createMLInput(String searchText, String reference, Map<String, String> hits) {
+    private MLInput createMLInput(String messages) {
         Map<String, String> parameters = new HashMap<>();
-        parameters.put(PARAM_MESSAGES_FIELD, formatMessages(searchText, reference, hits));
+        parameters.put(PARAM_MESSAGES_FIELD, messages);
         return MLInput.builder().algorithm(FunctionName.REMOTE).inputDataset(new RemoteInferenceInputDataSet(parameters)).build();
     }
 
@@ -256,65 +659,53 @@ public class MLAccessor {
         return content;
     }
 
-    private void handleChunkCompletion(
-        int chunkIndex,
-        String response,
-        Exception error,
-        int totalChunks,
-        ConcurrentMap<Integer, String> succeededChunks,
-        ConcurrentMap<Integer, String> failedChunks,
-        boolean ignoreFailure,
-        AtomicInteger processedChunks,
-        ActionListener<ChunkResult> progressListener
-    ) {
-        try {
+    /**
+     * Delivers every completed chunk of one predict call to its listener, one at a time, so the chunk marked as last
+     * is only delivered once all other chunks were handled. A failed chunk fails the whole call unless failures are ignored,
+     * in which case it is delivered with its error.
+     */
+    private static class ChunkProgress {
+        private final int totalChunks;
+        private final boolean ignoreFailure;
+        private final ActionListener<ChunkResult> progressListener;
+        private int succeededChunks;
+        private int failedChunks;
+        private boolean failed;
+
+        ChunkProgress(int totalChunks, boolean ignoreFailure, ActionListener<ChunkResult> progressListener) {
+            this.totalChunks = totalChunks;
+            this.ignoreFailure = ignoreFailure;
+            this.progressListener = progressListener;
+        }
+
+        synchronized void onChunkCompleted(int chunkIndex, List<LlmRating> ratings, Exception error) {
+            if (failed) {
+                return;
+            }
             if (error != null) {
-                String errorMessage = error.getMessage();
-                failedChunks.put(chunkIndex, errorMessage);
+                failedChunks++;
                 if (!ignoreFailure) {
+                    failed = true;
                     progressListener.onFailure(error);
                     return;
                 }
             } else {
-                succeededChunks.put(chunkIndex, response);
-            }
-
-            int processed = processedChunks.incrementAndGet();
-            boolean isLastChunk = processed == totalChunks;
-
-            ChunkResult result = new ChunkResult(
-                chunkIndex,
-                totalChunks,
-                isLastChunk,
-                new HashMap<>(succeededChunks),
-                new HashMap<>(failedChunks)
-            );
-
-            progressListener.onResponse(result);
-
-            if (isLastChunk) {
-                handleFinalStatus(result, ignoreFailure, progressListener);
+                succeededChunks++;
             }
-        } catch (Exception e) {
-            LOGGER.error("Error handling chunk completion for chunk {}", chunkIndex, e);
-            if (!ignoreFailure) {
-                progressListener.onFailure(e);
+            boolean isLastChunk = succeededChunks + failedChunks == totalChunks;
+            String errorMessage = error == null ? null : Objects.toString(error.getMessage(), error.getClass().getSimpleName());
+            try {
+                progressListener.onResponse(
+                    new ChunkResult(chunkIndex, totalChunks, isLastChunk, ratings, errorMessage, succeededChunks, failedChunks)
+                );
+            } catch (Exception e) {
+                LOGGER.error("Error handling chunk completion for chunk {}", chunkIndex, e);
+                if (!ignoreFailure) {
+                    failed = true;
+                    progressListener.onFailure(e);
+                }
             }
         }
     }
 
-    private void handleFinalStatus(ChunkResult finalResult, boolean ignoreFailure, ActionListener<ChunkResult> progressListener) {
-        if (finalResult.getFailedChunksCount() > 0 && !ignoreFailure) {
-            String errorMessage = String.format(
-                Locale.ROOT,
-                "Failed to process %d out of %d chunks",
-                finalResult.getFailedChunksCount(),
-                finalResult.getTotalChunks()
-            );
-            progressListener.onFailure(new RuntimeException(errorMessage));
-        } else {
-            progressListener.onResponse(finalResult);
-        }
-    }
-
 }
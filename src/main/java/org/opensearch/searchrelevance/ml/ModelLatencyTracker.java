@@ -0,0 +1,58 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ml;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the latencies of the most recent successful predict calls of each model,
+ * used to decide when a slow call is worth a hedged duplicate.
+ */
+class ModelLatencyTracker {
+    static final int WINDOW_SIZE = 200;
+    static final int MIN_SAMPLES = 20;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    void record(String modelId, long latencyMillis) {
+        windows.computeIfAbsent(modelId, id -> new Window()).add(latencyMillis);
+    }
+
+    /**
+     * Nearest-rank percentile of the recent latencies of a model
+     * @return the latency in milliseconds, -1 while fewer than {@link #MIN_SAMPLES} calls were recorded
+     */
+    long percentile(String modelId, double percentile) {
+        Window window = windows.get(modelId);
+        return window == null ? -1 : window.percentile(percentile);
+    }
+
+    private static class Window {
+        private final long[] latencies = new long[WINDOW_SIZE];
+        private int next;
+        private int size;
+
+        synchronized void add(long latencyMillis) {
+            latencies[next] = latencyMillis;
+            next = (next + 1) % WINDOW_SIZE;
+            size = Math.min(size + 1, WINDOW_SIZE);
+        }
+
+        synchronized long percentile(double percentile) {
+            if (size < MIN_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * size);
+            return sorted[Math.min(Math.max(rank, 1), size) - 1];
+        }
+    }
+}
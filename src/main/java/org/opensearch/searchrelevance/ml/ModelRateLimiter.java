@@ -0,0 +1,280 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ml;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.OpenSearchException;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * Node wide limiter of ML predict calls, with a requests per minute and a tokens per minute budget for each model id.
+ * Calls wait in a FIFO queue per judgment job, and the queues of a model take turns round-robin, so a job with many
+ * queued calls cannot starve the other jobs of the model. Nothing blocks while waiting:
+ * queued calls are started from a scheduled task once the budget has refilled.
+ * A throttled response pauses the model for its Retry-After time and empties the budget, so calls resume at the configured rate.
+ * The Retry-After time is read from the headers of the remote exception. Remote connectors do not always forward the
+ * provider headers, so a throttled call without one pauses the model for the configured throttle back-off instead.
+ * A budget of 0 is not limited.
+ */
+public class ModelRateLimiter {
+    private static final Logger LOGGER = LogManager.getLogger(ModelRateLimiter.class);
+    static final long DEFAULT_THROTTLE_BACKOFF_MS = 5000;
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final long MIN_DRAIN_DELAY_MS = 1;
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final int requestsPerMinute;
+    private final int tokensPerMinute;
+    private final long throttleBackoffMillis;
+    private final Scheduler scheduler;
+    private final LongSupplier nanoClock;
+    private final Map<String, ModelBudget> budgets = new ConcurrentHashMap<>();
+
+    public ModelRateLimiter(int requestsPerMinute, int tokensPerMinute, ThreadPool threadPool) {
+        this(requestsPerMinute, tokensPerMinute, TimeValue.timeValueMillis(DEFAULT_THROTTLE_BACKOFF_MS), threadPool);
+    }
+
+    public ModelRateLimiter(int requestsPerMinute, int tokensPerMinute, TimeValue throttleBackoff, ThreadPool threadPool) {
+        this(requestsPerMinute, tokensPerMinute, throttleBackoff.millis(), threadPool, System::nanoTime);
+    }
+
+    ModelRateLimiter(int requestsPerMinute, int tokensPerMinute, Scheduler scheduler, LongSupplier nanoClock) {
+        this(requestsPerMinute, tokensPerMinute, DEFAULT_THROTTLE_BACKOFF_MS, scheduler, nanoClock);
+    }
+
+    ModelRateLimiter(int requestsPerMinute, int tokensPerMinute, long throttleBackoffMillis, Scheduler scheduler, LongSupplier nanoClock) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.throttleBackoffMillis = throttleBackoffMillis;
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Start the call once the model has budget for one more request with the given tokens and it is the turn of the job
+     * @param modelId - model the call is sent to
+     * @param jobId - judgment job the call belongs to, calls of one job start in order
+     * @param tokens - prompt tokens of the call, as counted by the chunker
+     * @param call - the predict call
+     */
+    public void acquire(String modelId, String jobId, int tokens, Runnable call) {
+        runAll(budget(modelId).enqueue(jobId, tokens, call));
+    }
+
+    /**
+     * Pause a model after the provider throttled a call
+     * @param modelId - throttled model
+     * @param retryAfterMillis - time to wait before the next call
+     */
+    public void onThrottled(String modelId, long retryAfterMillis) {
+        LOGGER.warn("Model {} is throttled, pausing calls for {} ms", modelId, retryAfterMillis);
+        budget(modelId).pause(TimeUnit.MILLISECONDS.toNanos(retryAfterMillis));
+    }
+
+    /**
+     * Run a task on the generic thread pool after a delay
+     * @return handle to cancel the task before it runs
+     */
+    public Scheduler.ScheduledCancellable schedule(Runnable task, long delayMillis) {
+        return scheduler.schedule(task, TimeValue.timeValueMillis(delayMillis), ThreadPool.Names.GENERIC);
+    }
+
+    public int getPendingCalls(String modelId) {
+        ModelBudget budget = budgets.get(modelId);
+        return budget == null ? 0 : budget.pendingCalls();
+    }
+
+    /**
+     * Time to wait before retrying a throttled call
+     * @param e - failure of a predict call
+     * @return the Retry-After time of the remote exception when it carries the header, the configured throttle back-off
+     * for other throttled calls, and -1 when the failure is not a throttled call
+     */
+    public long throttledRetryAfterMillis(Exception e) {
+        return throttledRetryAfterMillis(e, System.currentTimeMillis());
+    }
+
+    long throttledRetryAfterMillis(Exception e, long nowMillis) {
+        // remote models report the status code of the provider, see RestStatus#TOO_MANY_REQUESTS
+        Throwable cause = ExceptionsHelper.unwrapCause(e);
+        boolean throttled = ExceptionsHelper.status(e) == RestStatus.TOO_MANY_REQUESTS
+            || (cause instanceof Exception && ExceptionsHelper.status((Exception) cause) == RestStatus.TOO_MANY_REQUESTS);
+        if (throttled == false) {
+            return -1;
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OpenSearchException remoteException) {
+                List<String> retryAfter = remoteException.getHeader(RETRY_AFTER_HEADER);
+                if (retryAfter != null && retryAfter.isEmpty() == false) {
+                    long retryAfterMillis = parseRetryAfterMillis(retryAfter.get(0), nowMillis);
+                    if (retryAfterMillis >= 0) {
+                        return retryAfterMillis;
+                    }
+                }
+            }
+        }
+        return throttleBackoffMillis;
+    }
+
+    /**
+     * Parse a Retry-After value, which is either a number of seconds or an HTTP-date
+     * @return the time to wait, or -1 when the value is malformed
+     */
+    static long parseRetryAfterMillis(String retryAfter, long nowMillis) {
+        String value = retryAfter.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            // not a number of seconds, try an HTTP-date
+        }
+        try {
+            long retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, retryAt - nowMillis);
+        } catch (DateTimeParseException e) {
+            LOGGER.debug("Ignoring malformed Retry-After value {}", value, e);
+            return -1;
+        }
+    }
+
+    private ModelBudget budget(String modelId) {
+        return budgets.computeIfAbsent(modelId, id -> new ModelBudget(nanoClock.getAsLong()));
+    }
+
+    private static void runAll(List<Runnable> calls) {
+        for (Runnable call : calls) {
+            call.run();
+        }
+    }
+
+    private record PendingCall(int tokens, Runnable call) {
+    }
+
+    private class ModelBudget {
+        // the job in front of the iteration order has the next turn
+        private final LinkedHashMap<String, Deque<PendingCall>> jobQueues = new LinkedHashMap<>();
+        private int pendingCalls;
+        private double availableRequests;
+        private double availableTokens;
+        private long lastRefillNanos;
+        private long pausedUntilNanos;
+        private boolean drainScheduled;
+
+        ModelBudget(long nowNanos) {
+            this.availableRequests = requestsPerMinute;
+            this.availableTokens = tokensPerMinute;
+            this.lastRefillNanos = nowNanos;
+            this.pausedUntilNanos = nowNanos;
+        }
+
+        synchronized List<Runnable> enqueue(String jobId, int tokens, Runnable call) {
+            // a call larger than the whole budget runs once the budget is full
+            int cost = tokensPerMinute > 0 ? Math.min(tokens, tokensPerMinute) : tokens;
+            jobQueues.computeIfAbsent(jobId, id -> new ArrayDeque<>()).add(new PendingCall(cost, call));
+            pendingCalls++;
+            return drain();
+        }
+
+        synchronized void pause(long nanos) {
+            long now = nanoClock.getAsLong();
+            pausedUntilNanos = Math.max(pausedUntilNanos, now + nanos);
+            availableRequests = 0;
+            availableTokens = 0;
+            lastRefillNanos = pausedUntilNanos;
+        }
+
+        synchronized int pendingCalls() {
+            return pendingCalls;
+        }
+
+        /**
+         * Take every queued call the budget allows now, one call per job in turn,
+         * and schedule the next drain when calls are left waiting
+         */
+        private List<Runnable> drain() {
+            long now = nanoClock.getAsLong();
+            refill(now);
+            List<Runnable> ready = new ArrayList<>();
+            while (jobQueues.isEmpty() == false) {
+                Iterator<Map.Entry<String, Deque<PendingCall>>> turn = jobQueues.entrySet().iterator();
+                Map.Entry<String, Deque<PendingCall>> job = turn.next();
+                long waitNanos = Math.max(pausedUntilNanos - now, waitNanos(job.getValue().peek().tokens()));
+                if (waitNanos > 0) {
+                    scheduleDrain(waitNanos);
+                    break;
+                }
+                PendingCall next = job.getValue().poll();
+                pendingCalls--;
+                // the job moves behind the other jobs of the model, or leaves when it has no calls left
+                turn.remove();
+                if (job.getValue().isEmpty() == false) {
+                    jobQueues.put(job.getKey(), job.getValue());
+                }
+                availableRequests -= 1;
+                availableTokens -= next.tokens();
+                ready.add(next.call());
+            }
+            return ready;
+        }
+
+        private void refill(long now) {
+            if (now <= lastRefillNanos) {
+                return;
+            }
+            long elapsed = now - lastRefillNanos;
+            availableRequests = Math.min(requestsPerMinute, availableRequests + elapsed * requestsPerMinute / NANOS_PER_MINUTE);
+            availableTokens = Math.min(tokensPerMinute, availableTokens + elapsed * tokensPerMinute / NANOS_PER_MINUTE);
+            lastRefillNanos = now;
+        }
+
+        private long waitNanos(int tokens) {
+            long wait = 0;
+            if (requestsPerMinute > 0 && availableRequests < 1) {
+                wait = (long) Math.ceil((1 - availableRequests) * NANOS_PER_MINUTE / requestsPerMinute);
+            }
+            if (tokensPerMinute > 0 && availableTokens < tokens) {
+                wait = Math.max(wait, (long) Math.ceil((tokens - availableTokens) * NANOS_PER_MINUTE / tokensPerMinute));
+            }
+            return wait;
+        }
+
+        private void scheduleDrain(long waitNanos) {
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+            long delayMillis = Math.max(MIN_DRAIN_DELAY_MS, TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+            schedule(() -> {
+                List<Runnable> ready;
+                synchronized (this) {
+                    drainScheduled = false;
+                    ready = drain();
+                }
+                runAll(ready);
+            }, delayMillis);
+        }
+    }
+}
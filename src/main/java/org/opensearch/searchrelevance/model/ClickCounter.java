@@ -0,0 +1,158 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.model;
+
+import java.io.IOException;
+
+import org.opensearch.core.xcontent.ToXContentObject;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.searchrelevance.utils.Sha256Digest;
+
+/**
+ * Clicks and impressions of one user query, object and position on one day, as kept in the click statistics index.
+ * Events logged with a query id only are counted under their query id, which is joined to its user query when the counters are read.
+ * A counter is written under a deterministic id, so counting a day again replaces its counter instead of adding to it.
+ */
+public class ClickCounter implements ToXContentObject {
+    public static final String ID = "id";
+    public static final String TIME_STAMP = "timestamp";
+    public static final String USER_QUERY = "userQuery";
+    public static final String QUERY_ID = "queryId";
+    public static final String OBJECT_ID = "objectId";
+    public static final String POSITION = "position";
+    public static final String DAY = "day";
+    public static final String CLICKS = "clicks";
+    public static final String IMPRESSIONS = "impressions";
+
+    private final String id;
+    private final String timestamp;
+    private final String userQuery;
+    private final String queryId;
+    private final String objectId;
+    private final int position;
+    private final long day;
+    private final long clicks;
+    private final long impressions;
+
+    public ClickCounter(String timestamp, String userQuery, String objectId, int position, long day, long clicks, long impressions) {
+        this(generateId(userQuery, objectId, position, day), timestamp, userQuery, null, objectId, position, day, clicks, impressions);
+    }
+
+    private ClickCounter(
+        String id,
+        String timestamp,
+        String userQuery,
+        String queryId,
+        String objectId,
+        int position,
+        long day,
+        long clicks,
+        long impressions
+    ) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.userQuery = userQuery;
+        this.queryId = queryId;
+        this.objectId = objectId;
+        this.position = position;
+        this.day = day;
+        this.clicks = clicks;
+        this.impressions = impressions;
+    }
+
+    /**
+     * Counter of the events logged with a query id but without a user query
+     */
+    public static ClickCounter ofQueryId(
+        String timestamp,
+        String queryId,
+        String objectId,
+        int position,
+        long day,
+        long clicks,
+        long impressions
+    ) {
+        String id = generateQueryIdCounterId(queryId, objectId, position, day);
+        return new ClickCounter(id, timestamp, null, queryId, objectId, position, day, clicks, impressions);
+    }
+
+    /**
+     * Generate the id of a counter. User queries and object ids can be of any length, so the id is a digest of the key.
+     * @param day - start of the day in epoch millis
+     * @return Base64 encoded SHA-256 digest of the counter key
+     */
+    public static String generateId(String userQuery, String objectId, int position, long day) {
+        return generateId(USER_QUERY, userQuery, objectId, position, day);
+    }
+
+    /**
+     * Generate the id of a counter of events without a user query, which never equals the id of a user query counter
+     */
+    public static String generateQueryIdCounterId(String queryId, String objectId, int position, long day) {
+        return generateId(QUERY_ID, queryId, objectId, position, day);
+    }
+
+    private static String generateId(String queryField, String query, String objectId, int position, long day) {
+        return new Sha256Digest().putString(queryField).putString(query).putString(objectId).putInt(position).putLong(day).toBase64();
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        XContentBuilder xContentBuilder = builder.startObject();
+        xContentBuilder.field(ID, this.id);
+        xContentBuilder.field(TIME_STAMP, this.timestamp);
+        if (this.userQuery != null) {
+            xContentBuilder.field(USER_QUERY, this.userQuery);
+        }
+        if (this.queryId != null) {
+            xContentBuilder.field(QUERY_ID, this.queryId);
+        }
+        xContentBuilder.field(OBJECT_ID, this.objectId);
+        xContentBuilder.field(POSITION, this.position);
+        xContentBuilder.field(DAY, this.day);
+        xContentBuilder.field(CLICKS, this.clicks);
+        xContentBuilder.field(IMPRESSIONS, this.impressions);
+        return xContentBuilder.endObject();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String timestamp() {
+        return timestamp;
+    }
+
+    public String userQuery() {
+        return userQuery;
+    }
+
+    public String queryId() {
+        return queryId;
+    }
+
+    public String objectId() {
+        return objectId;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public long day() {
+        return day;
+    }
+
+    public long clicks() {
+        return clicks;
+    }
+
+    public long impressions() {
+        return impressions;
+    }
+}
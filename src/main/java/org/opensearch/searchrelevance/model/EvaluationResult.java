@@ -26,6 +26,7 @@ public class EvaluationResult implements ToXContentObject {
     public static final String JUDGMENT_IDS = "judgmentIds";
     public static final String DOCUMENT_IDS = "documentIds";
     public static final String METRICS = "metrics";
+    public static final String SEARCH_STATS = "searchStats";
 
     /**
      * Identifier of the system index
@@ -37,6 +38,7 @@ public class EvaluationResult implements ToXContentObject {
     private final List<String> judgmentIds;
     private final List<String> documentIds;
     private final List<Map<String, Object>> metrics;
+    private final Map<String, Object> searchStats;
 
     public EvaluationResult(
         String id,
@@ -46,6 +48,19 @@ public class EvaluationResult implements ToXContentObject {
         List<String> judgmentIds,
         List<String> documentIds,
         List<Map<String, Object>> metrics
+    ) {
+        this(id, timestamp, searchConfigurationId, searchText, judgmentIds, documentIds, metrics, null);
+    }
+
+    public EvaluationResult(
+        String id,
+        String timestamp,
+        String searchConfigurationId,
+        String searchText,
+        List<String> judgmentIds,
+        List<String> documentIds,
+        List<Map<String, Object>> metrics,
+        Map<String, Object> searchStats
     ) {
         this.id = id;
         this.timestamp = timestamp;
@@ -54,6 +69,7 @@ public class EvaluationResult implements ToXContentObject {
         this.judgmentIds = judgmentIds;
         this.documentIds = documentIds;
         this.metrics = metrics;
+        this.searchStats = searchStats;
     }
 
     @Override
@@ -66,6 +82,9 @@ public class EvaluationResult implements ToXContentObject {
         xContentBuilder.field(JUDGMENT_IDS, this.judgmentIds == null ? new ArrayList<>() : this.judgmentIds);
         xContentBuilder.field(DOCUMENT_IDS, this.documentIds == null ? new ArrayList<>() : this.documentIds);
         xContentBuilder.field(METRICS, this.metrics);
+        if (this.searchStats != null) {
+            xContentBuilder.field(SEARCH_STATS, this.searchStats);
+        }
         return xContentBuilder.endObject();
     }
 
@@ -96,4 +115,8 @@ public class EvaluationResult implements ToXContentObject {
     public List<Map<String, Object>> metrics() {
         return metrics;
     }
+
+    public Map<String, Object> searchStats() {
+        return searchStats;
+    }
 }
@@ -29,6 +29,8 @@ public class Experiment implements ToXContentObject {
     public static final String JUDGMENT_LIST = "judgmentList";
     public static final String SIZE = "size";
     public static final String RESULTS = "results";
+    public static final String SUMMARY = "summary";
+    public static final String SUMMARY_RESULT_COUNT = "resultCount";
     private static final int DEFAULTED_SIZE = 10;
 
     /**
@@ -43,6 +45,7 @@ public class Experiment implements ToXContentObject {
     private final List<String> judgmentList;
     private final int size;
     private final List<Map<String, Object>> results;
+    private final Map<String, Object> summary;
 
     public Experiment(
         String id,
@@ -54,6 +57,21 @@ public class Experiment implements ToXContentObject {
         List<String> judgmentList,
         int size,
         List<Map<String, Object>> results
+    ) {
+        this(id, timestamp, type, status, querySetId, searchConfigurationList, judgmentList, size, results, null);
+    }
+
+    public Experiment(
+        String id,
+        String timestamp,
+        ExperimentType type,
+        AsyncStatus status,
+        String querySetId,
+        List<String> searchConfigurationList,
+        List<String> judgmentList,
+        int size,
+        List<Map<String, Object>> results,
+        Map<String, Object> summary
     ) {
         this.id = id;
         this.timestamp = timestamp;
@@ -64,6 +82,7 @@ public class Experiment implements ToXContentObject {
         this.judgmentList = judgmentList;
         this.size = size;
         this.results = results;
+        this.summary = summary;
     }
 
     @Override
@@ -81,6 +100,9 @@ public class Experiment implements ToXContentObject {
         xContentBuilder.field(JUDGMENT_LIST, this.judgmentList == null ? new ArrayList<>() : this.judgmentList);
         xContentBuilder.field(SIZE, Optional.of(this.size).orElse(DEFAULTED_SIZE));
         xContentBuilder.field(RESULTS, this.results);
+        if (this.summary != null) {
+            xContentBuilder.field(SUMMARY, this.summary);
+        }
         return xContentBuilder.endObject();
     }
 
@@ -120,4 +142,8 @@ public class Experiment implements ToXContentObject {
         return results;
     }
 
+    public Map<String, Object> summary() {
+        return summary;
+    }
+
 }
@@ -0,0 +1,73 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.model;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.opensearch.core.xcontent.ToXContentObject;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * ExperimentResult is a system index object that stores the results of a single queryText within an experiment.
+ */
+public class ExperimentResult implements ToXContentObject {
+    public static final String ID = "id";
+    public static final String TIMESTAMP = "timestamp";
+    public static final String EXPERIMENT_ID = "experimentId";
+    public static final String QUERY_TEXT = "queryText";
+    public static final String RESULTS = "results";
+
+    /**
+     * Identifier of the system index
+     */
+    private final String id;
+    private final String timestamp;
+    private final String experimentId;
+    private final String queryText;
+    private final Map<String, Object> results;
+
+    public ExperimentResult(String id, String timestamp, String experimentId, String queryText, Map<String, Object> results) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.experimentId = experimentId;
+        this.queryText = queryText;
+        this.results = results;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        XContentBuilder xContentBuilder = builder.startObject();
+        xContentBuilder.field(ID, this.id.trim());
+        xContentBuilder.field(TIMESTAMP, this.timestamp.trim());
+        xContentBuilder.field(EXPERIMENT_ID, this.experimentId.trim());
+        xContentBuilder.field(QUERY_TEXT, this.queryText);
+        xContentBuilder.field(RESULTS, this.results);
+        return xContentBuilder.endObject();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String timestamp() {
+        return timestamp;
+    }
+
+    public String experimentId() {
+        return experimentId;
+    }
+
+    public String queryText() {
+        return queryText;
+    }
+
+    public Map<String, Object> results() {
+        return results;
+    }
+}
@@ -12,6 +12,7 @@ import static org.opensearch.searchrelevance.experiment.QuerySourceUtil.validate
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -203,4 +204,31 @@ public class SearchRequestBuilder {
             throw new IllegalArgumentException("Failed to build search request", ex);
         }
     }
+
+    /**
+     * Trims a search request down to what the caller actually reads from the response.
+     * Total hit tracking is always disabled; _source and stored fields are dropped or limited to the includes.
+     * @param searchRequest - search request built from a search configuration
+     * @param fetchSource - whether the caller reads _source from the hits at all
+     * @param sourceIncludes - source fields to keep when fetchSource is true, null or empty keeps the configured source
+     * @return SearchRequest
+     */
+    public static SearchRequest applyLeanRetrieval(SearchRequest searchRequest, boolean fetchSource, List<String> sourceIncludes) {
+        SearchSourceBuilder sourceBuilder = searchRequest.source();
+        if (sourceBuilder == null) {
+            sourceBuilder = new SearchSourceBuilder();
+            searchRequest.source(sourceBuilder);
+        }
+
+        sourceBuilder.trackTotalHits(false);
+        if (fetchSource == false) {
+            sourceBuilder.fetchSource(false);
+            sourceBuilder.storedFields(Collections.emptyList());
+        } else if (sourceIncludes != null && !sourceIncludes.isEmpty()) {
+            // stored fields can only be dropped alongside an explicit source context, otherwise _source is not loaded either
+            sourceBuilder.fetchSource(sourceIncludes.toArray(new String[0]), null);
+            sourceBuilder.storedFields(Collections.emptyList());
+        }
+        return searchRequest;
+    }
 }
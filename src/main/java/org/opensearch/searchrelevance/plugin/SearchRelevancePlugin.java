@@ -7,8 +7,19 @@
  */
 package org.opensearch.searchrelevance.plugin;
 
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL_THREAD_POOL;
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL_THREAD_POOL_QUEUE_SIZE;
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_STATISTICS_INDEX;
 import static org.opensearch.searchrelevance.common.PluginConstants.EXPERIMENT_INDEX;
 import static org.opensearch.searchrelevance.common.PluginConstants.JUDGMENT_CACHE_INDEX;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_DISTRIBUTED_CLICK_STATISTICS;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_JUDGMENT_CACHE_LOCAL_SIZE;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_LLM_CHUNK_TIMEOUT;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_LLM_HEDGE_PERCENTILE;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_LLM_REQUESTS_PER_MINUTE;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_LLM_THROTTLE_BACKOFF;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_LLM_TOKENS_PER_MINUTE;
 import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_QUERY_SET_MAX_LIMIT;
 import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_STATS_ENABLED;
 import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_WORKBENCH_ENABLED;
@@ -26,6 +37,7 @@ import org.opensearch.common.settings.IndexScopedSettings;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.core.action.ActionResponse;
 import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
@@ -42,22 +54,27 @@ import org.opensearch.repositories.RepositoriesService;
 import org.opensearch.rest.RestController;
 import org.opensearch.rest.RestHandler;
 import org.opensearch.script.ScriptService;
+import org.opensearch.searchrelevance.dao.ClickStatisticsDao;
 import org.opensearch.searchrelevance.dao.EvaluationResultDao;
 import org.opensearch.searchrelevance.dao.ExperimentDao;
+import org.opensearch.searchrelevance.dao.ExperimentResultDao;
 import org.opensearch.searchrelevance.dao.ExperimentVariantDao;
 import org.opensearch.searchrelevance.dao.JudgmentCacheDao;
 import org.opensearch.searchrelevance.dao.JudgmentDao;
 import org.opensearch.searchrelevance.dao.QuerySetDao;
 import org.opensearch.searchrelevance.dao.SearchConfigurationDao;
 import org.opensearch.searchrelevance.indices.SearchRelevanceIndicesManager;
+import org.opensearch.searchrelevance.judgments.LocalJudgmentCache;
 import org.opensearch.searchrelevance.metrics.MetricsHelper;
 import org.opensearch.searchrelevance.ml.MLAccessor;
+import org.opensearch.searchrelevance.ml.ModelRateLimiter;
 import org.opensearch.searchrelevance.rest.RestCreateQuerySetAction;
 import org.opensearch.searchrelevance.rest.RestDeleteExperimentAction;
 import org.opensearch.searchrelevance.rest.RestDeleteJudgmentAction;
 import org.opensearch.searchrelevance.rest.RestDeleteQuerySetAction;
 import org.opensearch.searchrelevance.rest.RestDeleteSearchConfigurationAction;
 import org.opensearch.searchrelevance.rest.RestGetExperimentAction;
+import org.opensearch.searchrelevance.rest.RestGetExperimentResultsAction;
 import org.opensearch.searchrelevance.rest.RestGetJudgmentAction;
 import org.opensearch.searchrelevance.rest.RestGetQuerySetAction;
 import org.opensearch.searchrelevance.rest.RestGetSearchConfigurationAction;
@@ -72,9 +89,16 @@ import org.opensearch.searchrelevance.stats.info.InfoStatsManager;
 import org.opensearch.searchrelevance.transport.experiment.DeleteExperimentAction;
 import org.opensearch.searchrelevance.transport.experiment.DeleteExperimentTransportAction;
 import org.opensearch.searchrelevance.transport.experiment.GetExperimentAction;
+import org.opensearch.searchrelevance.transport.experiment.GetExperimentResultsAction;
+import org.opensearch.searchrelevance.transport.experiment.GetExperimentResultsTransportAction;
 import org.opensearch.searchrelevance.transport.experiment.GetExperimentTransportAction;
 import org.opensearch.searchrelevance.transport.experiment.PutExperimentAction;
 import org.opensearch.searchrelevance.transport.experiment.PutExperimentTransportAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchTransportAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapTransportAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughPartitionStore;
 import org.opensearch.searchrelevance.transport.judgment.DeleteJudgmentAction;
 import org.opensearch.searchrelevance.transport.judgment.DeleteJudgmentTransportAction;
 import org.opensearch.searchrelevance.transport.judgment.GetJudgmentAction;
@@ -98,6 +122,8 @@ import org.opensearch.searchrelevance.transport.searchConfiguration.PutSearchCon
 import org.opensearch.searchrelevance.transport.stats.SearchRelevanceStatsAction;
 import org.opensearch.searchrelevance.transport.stats.SearchRelevanceStatsTransportAction;
 import org.opensearch.searchrelevance.utils.ClusterUtil;
+import org.opensearch.threadpool.ExecutorBuilder;
+import org.opensearch.threadpool.FixedExecutorBuilder;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.client.Client;
 import org.opensearch.watcher.ResourceWatcherService;
@@ -114,9 +140,13 @@ public class SearchRelevancePlugin extends Plugin implements ActionPlugin, Syste
     private SearchConfigurationDao searchConfigurationDao;
     private ExperimentDao experimentDao;
     private ExperimentVariantDao experimentVariantDao;
+    private ExperimentResultDao experimentResultDao;
     private JudgmentDao judgmentDao;
     private EvaluationResultDao evaluationResultDao;
     private JudgmentCacheDao judgmentCacheDao;
+    private ClickStatisticsDao clickStatisticsDao;
+    private ClickthroughPartitionStore clickthroughPartitionStore;
+    private LocalJudgmentCache localJudgmentCache;
     private MLAccessor mlAccessor;
     private MetricsHelper metricsHelper;
     private SearchRelevanceSettingsAccessor settingsAccessor;
@@ -127,7 +157,8 @@ public class SearchRelevancePlugin extends Plugin implements ActionPlugin, Syste
     public Collection<SystemIndexDescriptor> getSystemIndexDescriptors(Settings settings) {
         return List.of(
             new SystemIndexDescriptor(EXPERIMENT_INDEX, "System index used for experiment data"),
-            new SystemIndexDescriptor(JUDGMENT_CACHE_INDEX, "System index used for judgment cache data")
+            new SystemIndexDescriptor(JUDGMENT_CACHE_INDEX, "System index used for judgment cache data"),
+            new SystemIndexDescriptor(CLICK_STATISTICS_INDEX, "System index used for incremental click statistics")
         );
     }
 
@@ -150,13 +181,29 @@ public class SearchRelevancePlugin extends Plugin implements ActionPlugin, Syste
         this.searchRelevanceIndicesManager = new SearchRelevanceIndicesManager(clusterService, client);
         this.experimentDao = new ExperimentDao(searchRelevanceIndicesManager);
         this.experimentVariantDao = new ExperimentVariantDao(searchRelevanceIndicesManager);
+        this.experimentResultDao = new ExperimentResultDao(searchRelevanceIndicesManager);
         this.querySetDao = new QuerySetDao(searchRelevanceIndicesManager);
         this.searchConfigurationDao = new SearchConfigurationDao(searchRelevanceIndicesManager);
         this.judgmentDao = new JudgmentDao(searchRelevanceIndicesManager);
         this.evaluationResultDao = new EvaluationResultDao(searchRelevanceIndicesManager);
         this.judgmentCacheDao = new JudgmentCacheDao(searchRelevanceIndicesManager);
+        this.clickStatisticsDao = new ClickStatisticsDao(searchRelevanceIndicesManager);
+        this.clickthroughPartitionStore = new ClickthroughPartitionStore(threadPool);
+        this.localJudgmentCache = new LocalJudgmentCache(SEARCH_RELEVANCE_JUDGMENT_CACHE_LOCAL_SIZE.get(environment.settings()));
+        this.localJudgmentCache.registerStats();
         MachineLearningNodeClient mlClient = new MachineLearningNodeClient(client);
-        this.mlAccessor = new MLAccessor(mlClient);
+        ModelRateLimiter modelRateLimiter = new ModelRateLimiter(
+            SEARCH_RELEVANCE_LLM_REQUESTS_PER_MINUTE.get(environment.settings()),
+            SEARCH_RELEVANCE_LLM_TOKENS_PER_MINUTE.get(environment.settings()),
+            SEARCH_RELEVANCE_LLM_THROTTLE_BACKOFF.get(environment.settings()),
+            threadPool
+        );
+        this.mlAccessor = new MLAccessor(
+            mlClient,
+            modelRateLimiter,
+            SEARCH_RELEVANCE_LLM_CHUNK_TIMEOUT.get(environment.settings()),
+            SEARCH_RELEVANCE_LLM_HEDGE_PERCENTILE.get(environment.settings())
+        );
         this.metricsHelper = new MetricsHelper(clusterService, client, judgmentDao, evaluationResultDao, experimentVariantDao);
         this.settingsAccessor = new SearchRelevanceSettingsAccessor(clusterService, environment.settings());
         this.clusterUtil = new ClusterUtil(clusterService);
@@ -169,9 +216,13 @@ public class SearchRelevancePlugin extends Plugin implements ActionPlugin, Syste
             searchConfigurationDao,
             experimentDao,
             experimentVariantDao,
+            experimentResultDao,
             judgmentDao,
             evaluationResultDao,
             judgmentCacheDao,
+            clickStatisticsDao,
+            clickthroughPartitionStore,
+            localJudgmentCache,
             mlAccessor,
             metricsHelper,
             infoStatsManager
@@ -201,6 +252,7 @@ public class SearchRelevancePlugin extends Plugin implements ActionPlugin, Syste
             new RestGetSearchConfigurationAction(settingsAccessor),
             new RestPutExperimentAction(settingsAccessor),
             new RestGetExperimentAction(settingsAccessor),
+            new RestGetExperimentResultsAction(settingsAccessor),
             new RestDeleteExperimentAction(settingsAccessor),
             new RestSearchRelevanceStatsAction(settingsAccessor, clusterUtil)
         );
@@ -216,18 +268,46 @@ public class SearchRelevancePlugin extends Plugin implements ActionPlugin, Syste
             new ActionHandler<>(PutJudgmentAction.INSTANCE, PutJudgmentTransportAction.class),
             new ActionHandler<>(DeleteJudgmentAction.INSTANCE, DeleteJudgmentTransportAction.class),
             new ActionHandler<>(GetJudgmentAction.INSTANCE, GetJudgmentTransportAction.class),
+            new ActionHandler<>(ClickthroughMapAction.INSTANCE, ClickthroughMapTransportAction.class),
+            new ActionHandler<>(ClickthroughFetchAction.INSTANCE, ClickthroughFetchTransportAction.class),
             new ActionHandler<>(PutSearchConfigurationAction.INSTANCE, PutSearchConfigurationTransportAction.class),
             new ActionHandler<>(DeleteSearchConfigurationAction.INSTANCE, DeleteSearchConfigurationTransportAction.class),
             new ActionHandler<>(GetSearchConfigurationAction.INSTANCE, GetSearchConfigurationTransportAction.class),
             new ActionHandler<>(PutExperimentAction.INSTANCE, PutExperimentTransportAction.class),
             new ActionHandler<>(DeleteExperimentAction.INSTANCE, DeleteExperimentTransportAction.class),
             new ActionHandler<>(GetExperimentAction.INSTANCE, GetExperimentTransportAction.class),
+            new ActionHandler<>(GetExperimentResultsAction.INSTANCE, GetExperimentResultsTransportAction.class),
             new ActionHandler<>(SearchRelevanceStatsAction.INSTANCE, SearchRelevanceStatsTransportAction.class)
         );
     }
 
     @Override
     public List<Setting<?>> getSettings() {
-        return List.of(SEARCH_RELEVANCE_WORKBENCH_ENABLED, SEARCH_RELEVANCE_STATS_ENABLED, SEARCH_RELEVANCE_QUERY_SET_MAX_LIMIT);
+        return List.of(
+            SEARCH_RELEVANCE_WORKBENCH_ENABLED,
+            SEARCH_RELEVANCE_STATS_ENABLED,
+            SEARCH_RELEVANCE_QUERY_SET_MAX_LIMIT,
+            SEARCH_RELEVANCE_JUDGMENT_CACHE_LOCAL_SIZE,
+            SEARCH_RELEVANCE_LLM_REQUESTS_PER_MINUTE,
+            SEARCH_RELEVANCE_LLM_TOKENS_PER_MINUTE,
+            SEARCH_RELEVANCE_LLM_CHUNK_TIMEOUT,
+            SEARCH_RELEVANCE_LLM_HEDGE_PERCENTILE,
+            SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET,
+            SEARCH_RELEVANCE_DISTRIBUTED_CLICK_STATISTICS,
+            SEARCH_RELEVANCE_LLM_THROTTLE_BACKOFF
+        );
+    }
+
+    @Override
+    public List<ExecutorBuilder<?>> getExecutorBuilders(Settings settings) {
+        return List.of(
+            new FixedExecutorBuilder(
+                settings,
+                CLICK_MODEL_THREAD_POOL,
+                OpenSearchExecutors.allocatedProcessors(settings),
+                CLICK_MODEL_THREAD_POOL_QUEUE_SIZE,
+                "thread_pool." + CLICK_MODEL_THREAD_POOL
+            )
+        );
     }
 }
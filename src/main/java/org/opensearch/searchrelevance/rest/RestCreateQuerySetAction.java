@@ -15,6 +15,7 @@ import static org.opensearch.searchrelevance.common.PluginConstants.NAME;
 import static org.opensearch.searchrelevance.common.PluginConstants.QUERYSETS_URL;
 import static org.opensearch.searchrelevance.common.PluginConstants.QUERY_SET_SIZE;
 import static org.opensearch.searchrelevance.common.PluginConstants.SAMPLING;
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_FILTER;
 
 import java.io.IOException;
 import java.util.List;
@@ -34,6 +35,7 @@ import org.opensearch.searchrelevance.settings.SearchRelevanceSettingsAccessor;
 import org.opensearch.searchrelevance.transport.queryset.PostQuerySetAction;
 import org.opensearch.searchrelevance.transport.queryset.PostQuerySetRequest;
 import org.opensearch.searchrelevance.ubi.ProbabilityProportionalToSizeQuerySampler;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
 import org.opensearch.searchrelevance.utils.TextValidationUtil;
 import org.opensearch.transport.client.node.NodeClient;
 
@@ -91,7 +93,19 @@ public class RestCreateQuerySetAction extends BaseRestHandler {
             return channel -> channel.sendResponse(new BytesRestResponse(RestStatus.FORBIDDEN, "Query Set Limit Exceeded."));
         }
 
-        PostQuerySetRequest createRequest = new PostQuerySetRequest(name, description, sampling, querySetSize);
+        UbiFilter filter;
+        try {
+            filter = UbiFilter.parse(source.get(UBI_FILTER));
+        } catch (IllegalArgumentException e) {
+            return channel -> channel.sendResponse(new BytesRestResponse(RestStatus.BAD_REQUEST, e.getMessage()));
+        }
+        if (!filter.getActions().isEmpty()) {
+            return channel -> channel.sendResponse(
+                new BytesRestResponse(RestStatus.BAD_REQUEST, "Query sets are sampled from UBI queries, which cannot be filtered by action")
+            );
+        }
+
+        PostQuerySetRequest createRequest = new PostQuerySetRequest(name, description, sampling, querySetSize, filter);
 
         return channel -> client.execute(PostQuerySetAction.INSTANCE, createRequest, new ActionListener<IndexResponse>() {
             @Override
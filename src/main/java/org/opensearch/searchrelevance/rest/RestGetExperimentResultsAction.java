@@ -0,0 +1,109 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.rest;
+
+import static org.opensearch.rest.RestRequest.Method.GET;
+import static org.opensearch.searchrelevance.common.PluginConstants.DOCUMENT_ID;
+import static org.opensearch.searchrelevance.common.PluginConstants.EXPERIMENTS_URI;
+import static org.opensearch.searchrelevance.common.PluginConstants.FROM;
+import static org.opensearch.searchrelevance.common.PluginConstants.QUERY_TEXT;
+import static org.opensearch.searchrelevance.common.PluginConstants.SIZE;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.BytesRestResponse;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.SortOrder;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.model.ExperimentResult;
+import org.opensearch.searchrelevance.settings.SearchRelevanceSettingsAccessor;
+import org.opensearch.searchrelevance.transport.OpenSearchDocRequest;
+import org.opensearch.searchrelevance.transport.experiment.GetExperimentResultsAction;
+import org.opensearch.transport.client.node.NodeClient;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Rest Action to page through the per-query results of an experiment.
+ */
+@AllArgsConstructor
+public class RestGetExperimentResultsAction extends BaseRestHandler {
+    private static final String GET_EXPERIMENT_RESULTS_ACTION = "get_experiment_results_action";
+    private static final int DEFAULT_RESULTS_PAGE_SIZE = 100;
+    private SearchRelevanceSettingsAccessor settingsAccessor;
+
+    @Override
+    public String getName() {
+        return GET_EXPERIMENT_RESULTS_ACTION;
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(GET, String.format(Locale.ROOT, "%s/{%s}/results", EXPERIMENTS_URI, DOCUMENT_ID)));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        if (!settingsAccessor.isWorkbenchEnabled()) {
+            return channel -> channel.sendResponse(new BytesRestResponse(RestStatus.FORBIDDEN, "Search Relevance Workbench is disabled"));
+        }
+        final String experimentId = request.param(DOCUMENT_ID);
+        if (experimentId == null || experimentId.isEmpty()) {
+            throw new SearchRelevanceException("id cannot be null", RestStatus.BAD_REQUEST);
+        }
+        final String queryText = request.param(QUERY_TEXT);
+        final int from = request.paramAsInt(FROM, 0);
+        final int size = request.paramAsInt(SIZE, DEFAULT_RESULTS_PAGE_SIZE);
+        if (from < 0 || size <= 0) {
+            throw new SearchRelevanceException("from must not be negative and size must be positive", RestStatus.BAD_REQUEST);
+        }
+
+        BoolQueryBuilder query = QueryBuilders.boolQuery().filter(QueryBuilders.termQuery(ExperimentResult.EXPERIMENT_ID, experimentId));
+        if (queryText != null && !queryText.isEmpty()) {
+            query.filter(QueryBuilders.termQuery(ExperimentResult.QUERY_TEXT, queryText));
+        }
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(query)
+            .from(from)
+            .size(size)
+            .sort(ExperimentResult.QUERY_TEXT, SortOrder.ASC);
+
+        OpenSearchDocRequest getRequest = new OpenSearchDocRequest(searchSourceBuilder);
+        return channel -> client.execute(GetExperimentResultsAction.INSTANCE, getRequest, new ActionListener<SearchResponse>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                try {
+                    XContentBuilder builder = channel.newBuilder();
+                    response.toXContent(builder, ToXContent.EMPTY_PARAMS);
+                    channel.sendResponse(new BytesRestResponse(response.status(), builder));
+                } catch (IOException e) {
+                    onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                try {
+                    channel.sendResponse(new BytesRestResponse(channel, e));
+                } catch (IOException ex) {
+                    logger.error("Failed to send error response", ex);
+                }
+            }
+        });
+    }
+}
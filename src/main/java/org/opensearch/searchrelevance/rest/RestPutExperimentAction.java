@@ -11,16 +11,24 @@ import static java.util.Collections.singletonList;
 import static org.opensearch.rest.RestRequest.Method.PUT;
 import static org.opensearch.searchrelevance.common.PluginConstants.EXPERIMENTS_URI;
 import static org.opensearch.searchrelevance.common.PluginConstants.JUDGMENT_LIST;
+import static org.opensearch.searchrelevance.common.PluginConstants.POINT_IN_TIME;
+import static org.opensearch.searchrelevance.common.PluginConstants.POINT_IN_TIME_KEEP_ALIVE;
+import static org.opensearch.searchrelevance.common.PluginConstants.PREFERENCE;
+import static org.opensearch.searchrelevance.common.PluginConstants.PROFILE_SAMPLE_RATE;
 import static org.opensearch.searchrelevance.common.PluginConstants.QUERYSET_ID;
+import static org.opensearch.searchrelevance.common.PluginConstants.REQUEST_CACHE;
 import static org.opensearch.searchrelevance.common.PluginConstants.SEARCH_CONFIGURATION_LIST;
 import static org.opensearch.searchrelevance.common.PluginConstants.SIZE;
 import static org.opensearch.searchrelevance.common.PluginConstants.TYPE;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import org.opensearch.OpenSearchParseException;
 import org.opensearch.action.index.IndexResponse;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.core.xcontent.XContentBuilder;
@@ -70,6 +78,15 @@ public class RestPutExperimentAction extends BaseRestHandler {
         List<String> searchConfigurationList = ParserUtils.convertObjToList(source, SEARCH_CONFIGURATION_LIST);
         int size = (Integer) source.get(SIZE);
         List<String> judgmentList = ParserUtils.convertObjToList(source, JUDGMENT_LIST);
+        boolean pointInTime = Boolean.TRUE.equals(source.get(POINT_IN_TIME));
+        TimeValue pointInTimeKeepAlive = parsePointInTimeKeepAlive(source.get(POINT_IN_TIME_KEEP_ALIVE));
+        String preference = optionalField(source, PREFERENCE, String.class);
+        Boolean requestCache = optionalField(source, REQUEST_CACHE, Boolean.class);
+        Number profileSampleRateValue = optionalField(source, PROFILE_SAMPLE_RATE, Number.class);
+        double profileSampleRate = profileSampleRateValue == null ? 0.0 : profileSampleRateValue.doubleValue();
+        if (profileSampleRate < 0.0 || profileSampleRate > 1.0) {
+            throw new IllegalArgumentException(PROFILE_SAMPLE_RATE + " must be between 0 and 1");
+        }
 
         String typeString = (String) source.get(TYPE);
         ExperimentType experimentType;
@@ -124,7 +141,12 @@ public class RestPutExperimentAction extends BaseRestHandler {
             querySetId,
             searchConfigurationList,
             judgmentList,
-            size
+            size,
+            pointInTime,
+            pointInTimeKeepAlive,
+            preference,
+            requestCache,
+            profileSampleRate
         );
 
         return channel -> client.execute(PutExperimentAction.INSTANCE, createRequest, new ActionListener<IndexResponse>() {
@@ -152,4 +174,37 @@ public class RestPutExperimentAction extends BaseRestHandler {
             }
         });
     }
+
+    private static TimeValue parsePointInTimeKeepAlive(Object keepAlive) {
+        if (keepAlive == null) {
+            return null;
+        }
+        if (!(keepAlive instanceof String keepAliveString)) {
+            throw new IllegalArgumentException(POINT_IN_TIME_KEEP_ALIVE + " must be a time value such as 10m");
+        }
+        TimeValue parsed;
+        try {
+            parsed = TimeValue.parseTimeValue(keepAliveString, POINT_IN_TIME_KEEP_ALIVE);
+        } catch (OpenSearchParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(POINT_IN_TIME_KEEP_ALIVE + " must be a time value such as 10m", e);
+        }
+        if (parsed.millis() <= 0) {
+            throw new IllegalArgumentException(POINT_IN_TIME_KEEP_ALIVE + " must be positive");
+        }
+        return parsed;
+    }
+
+    /**
+     * Reads an optional field of the request, rejecting a value of another JSON type as a bad request
+     */
+    private static <T> T optionalField(Map<String, Object> source, String field, Class<T> type) {
+        Object value = source.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException(field + " must be a " + type.getSimpleName().toLowerCase(Locale.ROOT));
+        }
+        return type.cast(value);
+    }
 }
@@ -9,20 +9,30 @@ package org.opensearch.searchrelevance.rest;
 
 import static java.util.Collections.singletonList;
 import static org.opensearch.rest.RestRequest.Method.PUT;
+import static org.opensearch.searchrelevance.common.MLConstants.DEFAULTED_LLM_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.MLConstants.DEFAULTED_SEARCH_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.MLConstants.validateConcurrency;
 import static org.opensearch.searchrelevance.common.MLConstants.validateTokenLimit;
 import static org.opensearch.searchrelevance.common.MetricsConstants.MODEL_ID;
+import static org.opensearch.searchrelevance.common.PluginConstants.AGGREGATE_EVENTS;
 import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL;
 import static org.opensearch.searchrelevance.common.PluginConstants.CONTEXT_FIELDS;
 import static org.opensearch.searchrelevance.common.PluginConstants.DESCRIPTION;
 import static org.opensearch.searchrelevance.common.PluginConstants.IGNORE_FAILURE;
+import static org.opensearch.searchrelevance.common.PluginConstants.INCREMENTAL;
 import static org.opensearch.searchrelevance.common.PluginConstants.JUDGMENTS_URL;
 import static org.opensearch.searchrelevance.common.PluginConstants.JUDGMENT_RATINGS;
+import static org.opensearch.searchrelevance.common.PluginConstants.LLM_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.PluginConstants.MULTI_QUERY_PACKING;
 import static org.opensearch.searchrelevance.common.PluginConstants.NAME;
 import static org.opensearch.searchrelevance.common.PluginConstants.NAX_RANK;
 import static org.opensearch.searchrelevance.common.PluginConstants.QUERYSET_ID;
+import static org.opensearch.searchrelevance.common.PluginConstants.SEARCH_CONCURRENCY;
 import static org.opensearch.searchrelevance.common.PluginConstants.SEARCH_CONFIGURATION_LIST;
 import static org.opensearch.searchrelevance.common.PluginConstants.SIZE;
 import static org.opensearch.searchrelevance.common.PluginConstants.TYPE;
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_FILTER;
+import static org.opensearch.searchrelevance.common.PluginConstants.WINDOW_DAYS;
 
 import java.io.IOException;
 import java.util.List;
@@ -40,6 +50,9 @@ import org.opensearch.rest.BaseRestHandler;
 import org.opensearch.rest.BytesRestResponse;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.judgments.clickmodel.cascade.CascadeClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.dbn.DbnClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.pbm.PbmClickModel;
 import org.opensearch.searchrelevance.model.JudgmentType;
 import org.opensearch.searchrelevance.settings.SearchRelevanceSettingsAccessor;
 import org.opensearch.searchrelevance.transport.judgment.PutImportJudgmentRequest;
@@ -47,6 +60,7 @@ import org.opensearch.searchrelevance.transport.judgment.PutJudgmentAction;
 import org.opensearch.searchrelevance.transport.judgment.PutJudgmentRequest;
 import org.opensearch.searchrelevance.transport.judgment.PutLlmJudgmentRequest;
 import org.opensearch.searchrelevance.transport.judgment.PutUbiJudgmentRequest;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
 import org.opensearch.searchrelevance.utils.ParserUtils;
 import org.opensearch.searchrelevance.utils.TextValidationUtil;
 import org.opensearch.transport.client.node.NodeClient;
@@ -121,6 +135,9 @@ public class RestPutJudgmentAction extends BaseRestHandler {
 
                 int tokenLimit = validateTokenLimit(source);
                 List<String> contextFields = ParserUtils.convertObjToList(source, CONTEXT_FIELDS);
+                int searchConcurrency = validateConcurrency(source, SEARCH_CONCURRENCY, DEFAULTED_SEARCH_CONCURRENCY);
+                int llmConcurrency = validateConcurrency(source, LLM_CONCURRENCY, DEFAULTED_LLM_CONCURRENCY);
+                boolean multiQueryPacking = Optional.ofNullable((Boolean) source.get(MULTI_QUERY_PACKING)).orElse(Boolean.FALSE);
                 createRequest = new PutLlmJudgmentRequest(
                     type,
                     name,
@@ -131,13 +148,41 @@ public class RestPutJudgmentAction extends BaseRestHandler {
                     size,
                     tokenLimit,
                     contextFields,
-                    ignoreFailure
+                    ignoreFailure,
+                    searchConcurrency,
+                    llmConcurrency,
+                    multiQueryPacking
                 );
             }
             case UBI_JUDGMENT -> {
                 String clickModel = (String) source.get(CLICK_MODEL);
                 int maxRank = (int) source.get(NAX_RANK);
-                createRequest = new PutUbiJudgmentRequest(type, name, description, clickModel, maxRank);
+                boolean aggregateEvents = Optional.ofNullable((Boolean) source.get(AGGREGATE_EVENTS)).orElse(Boolean.FALSE);
+                boolean incremental = Optional.ofNullable((Boolean) source.get(INCREMENTAL)).orElse(Boolean.FALSE);
+                int windowDays = Optional.ofNullable((Integer) source.get(WINDOW_DAYS)).orElse(0);
+                if (windowDays < 0) {
+                    throw new SearchRelevanceException("windowDays must not be negative", RestStatus.BAD_REQUEST);
+                }
+                if ((aggregateEvents || incremental) && isEmClickModel(clickModel)) {
+                    throw new IllegalArgumentException("aggregateEvents and incremental are only supported by the coec click model");
+                }
+                UbiFilter filter = UbiFilter.parse(source.get(UBI_FILTER));
+                if (incremental && !filter.isEmpty()) {
+                    throw new IllegalArgumentException(
+                        "filter is not supported for incremental judgments, use windowDays to limit the time range"
+                    );
+                }
+                createRequest = new PutUbiJudgmentRequest(
+                    type,
+                    name,
+                    description,
+                    clickModel,
+                    maxRank,
+                    aggregateEvents,
+                    incremental,
+                    windowDays,
+                    filter
+                );
             }
             case IMPORT_JUDGMENT -> {
                 List<Map<String, Object>> judgmentRatings = (List<Map<String, Object>>) source.get(JUDGMENT_RATINGS);
@@ -172,4 +217,10 @@ public class RestPutJudgmentAction extends BaseRestHandler {
             }
         });
     }
+
+    private static boolean isEmClickModel(String clickModel) {
+        return PbmClickModel.CLICK_MODEL_NAME.equalsIgnoreCase(clickModel)
+            || DbnClickModel.CLICK_MODEL_NAME.equalsIgnoreCase(clickModel)
+            || CascadeClickModel.CLICK_MODEL_NAME.equalsIgnoreCase(clickModel);
+    }
 }
@@ -8,6 +8,8 @@
 package org.opensearch.searchrelevance.settings;
 
 import org.opensearch.common.settings.Setting;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.common.unit.ByteSizeValue;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -53,4 +55,100 @@ public class SearchRelevanceSettings {
         Setting.Property.NodeScope,
         Setting.Property.Dynamic
     );
+
+    /**
+     * Estimated heap the click statistics of a UBI judgment may hold before they are spilled to temporary files
+     * By defaulted, we set the value as 10% of the heap
+     */
+    public static final String SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET_KEY =
+        "plugins.search_relevance.judgment.click_statistics_memory_budget";
+    public static final Setting<ByteSizeValue> SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET = Setting.memorySizeSetting(
+        SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET_KEY,
+        "10%",
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Whether COEC judgments count clicks on the data nodes holding the UBI events shards and reduce the counts in partitions
+     * By defaulted, we disable it and count on the node generating the judgment
+     */
+    public static final String SEARCH_RELEVANCE_DISTRIBUTED_CLICK_STATISTICS_KEY =
+        "plugins.search_relevance.judgment.distributed_click_statistics";
+    public static final Setting<Boolean> SEARCH_RELEVANCE_DISTRIBUTED_CLICK_STATISTICS = Setting.boolSetting(
+        SEARCH_RELEVANCE_DISTRIBUTED_CLICK_STATISTICS_KEY,
+        false,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Maximum heap used by the node-local tier of the LLM judgment cache, in front of the judgment cache index
+     * By defaulted, we set the value as 16mb, 0 disables the local tier
+     */
+    public static final String SEARCH_RELEVANCE_JUDGMENT_CACHE_LOCAL_SIZE_KEY = "plugins.search_relevance.judgment_cache.local_size";
+    public static final Setting<ByteSizeValue> SEARCH_RELEVANCE_JUDGMENT_CACHE_LOCAL_SIZE = Setting.memorySizeSetting(
+        SEARCH_RELEVANCE_JUDGMENT_CACHE_LOCAL_SIZE_KEY,
+        "16mb",
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Maximum ML predict requests per minute sent to each model from this node, shared by all judgment jobs
+     * By defaulted, we set the value as 0, which does not limit requests
+     */
+    public static final String SEARCH_RELEVANCE_LLM_REQUESTS_PER_MINUTE_KEY = "plugins.search_relevance.llm.requests_per_minute";
+    public static final Setting<Integer> SEARCH_RELEVANCE_LLM_REQUESTS_PER_MINUTE = Setting.intSetting(
+        SEARCH_RELEVANCE_LLM_REQUESTS_PER_MINUTE_KEY,
+        0,
+        0,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Maximum prompt tokens per minute sent to each model from this node, shared by all judgment jobs
+     * By defaulted, we set the value as 0, which does not limit tokens
+     */
+    public static final String SEARCH_RELEVANCE_LLM_TOKENS_PER_MINUTE_KEY = "plugins.search_relevance.llm.tokens_per_minute";
+    public static final Setting<Integer> SEARCH_RELEVANCE_LLM_TOKENS_PER_MINUTE = Setting.intSetting(
+        SEARCH_RELEVANCE_LLM_TOKENS_PER_MINUTE_KEY,
+        0,
+        0,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Pause of a model after a throttled ML predict call whose remote exception carries no Retry-After header
+     * By defaulted, we set the value as 5s
+     */
+    public static final String SEARCH_RELEVANCE_LLM_THROTTLE_BACKOFF_KEY = "plugins.search_relevance.llm.throttle_backoff";
+    public static final Setting<TimeValue> SEARCH_RELEVANCE_LLM_THROTTLE_BACKOFF = Setting.timeSetting(
+        SEARCH_RELEVANCE_LLM_THROTTLE_BACKOFF_KEY,
+        TimeValue.timeValueSeconds(5),
+        TimeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Deadline of one ML predict call of an LLM judgment, a call that misses it fails its chunk without retry
+     * By defaulted, we set the value as 0, which disables the deadline
+     */
+    public static final String SEARCH_RELEVANCE_LLM_CHUNK_TIMEOUT_KEY = "plugins.search_relevance.llm.chunk_timeout";
+    public static final Setting<TimeValue> SEARCH_RELEVANCE_LLM_CHUNK_TIMEOUT = Setting.timeSetting(
+        SEARCH_RELEVANCE_LLM_CHUNK_TIMEOUT_KEY,
+        TimeValue.ZERO,
+        TimeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Latency percentile of a model after which a duplicate of a pending ML predict call is sent, the first response wins
+     * By defaulted, we set the value as 0, which disables hedged requests
+     */
+    public static final String SEARCH_RELEVANCE_LLM_HEDGE_PERCENTILE_KEY = "plugins.search_relevance.llm.hedge_percentile";
+    public static final Setting<Double> SEARCH_RELEVANCE_LLM_HEDGE_PERCENTILE = Setting.doubleSetting(
+        SEARCH_RELEVANCE_LLM_HEDGE_PERCENTILE_KEY,
+        0.0,
+        0.0,
+        100.0,
+        Setting.Property.NodeScope
+    );
 }
@@ -40,6 +40,19 @@ public enum EventStatName implements StatName {
         EventStatType.TIMESTAMPED_EVENT_COUNTER,
         Version.V_3_1_0
     ),
+    LLM_JUDGMENT_CACHE_HITS("llm_judgment_cache_hits", "judgments", EventStatType.TIMESTAMPED_EVENT_COUNTER, Version.V_3_1_0),
+    LLM_JUDGMENT_CACHE_MISSES("llm_judgment_cache_misses", "judgments", EventStatType.TIMESTAMPED_EVENT_COUNTER, Version.V_3_1_0),
+    LLM_JUDGMENT_CACHE_EVICTIONS("llm_judgment_cache_evictions", "judgments", EventStatType.TIMESTAMPED_EVENT_COUNTER, Version.V_3_1_0),
+    LLM_JUDGMENT_CACHE_MEMORY_BYTES("llm_judgment_cache_memory_bytes", "judgments", EventStatType.GAUGE, Version.V_3_1_0),
+    LLM_JUDGMENT_CACHE_ENTRIES("llm_judgment_cache_entries", "judgments", EventStatType.GAUGE, Version.V_3_1_0),
+    LLM_JUDGMENT_CACHE_HIT_RATIO_PERCENT(
+        "llm_judgment_cache_hit_ratio_percent",
+        "judgments",
+        EventStatType.RATIO_GAUGE,
+        Version.V_3_1_0
+    ),
+    LLM_JUDGMENT_CHUNK_TIMEOUTS("llm_judgment_chunk_timeouts", "judgments", EventStatType.TIMESTAMPED_EVENT_COUNTER, Version.V_3_1_0),
+    LLM_JUDGMENT_HEDGED_REQUESTS("llm_judgment_hedged_requests", "judgments", EventStatType.TIMESTAMPED_EVENT_COUNTER, Version.V_3_1_0),
     EXPERIMENT_EXECUTIONS("experiment_executions", "experiments", EventStatType.TIMESTAMPED_EVENT_COUNTER, Version.V_3_1_0),
     EXPERIMENT_PAIRWISE_COMPARISON_EXECUTIONS(
         "experiment_pairwise_comparison_executions",
@@ -88,6 +101,10 @@ public enum EventStatName implements StatName {
             case EventStatType.TIMESTAMPED_EVENT_COUNTER:
                 eventStat = new TimestampedEventStat(this);
                 break;
+            case EventStatType.GAUGE:
+            case EventStatType.RATIO_GAUGE:
+                eventStat = new GaugeEventStat(this);
+                break;
         }
 
         // Validates all event stats are instantiated correctly. This is covered by unit tests as well.
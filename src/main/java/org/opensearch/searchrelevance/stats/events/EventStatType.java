@@ -15,7 +15,11 @@ import org.opensearch.searchrelevance.stats.common.StatType;
  * Enum for different kinds of event stat types to track
  */
 public enum EventStatType implements StatType {
-    TIMESTAMPED_EVENT_COUNTER;
+    TIMESTAMPED_EVENT_COUNTER,
+    // current value of a component, summed across nodes
+    GAUGE,
+    // current ratio of a component, averaged across nodes
+    RATIO_GAUGE;
 
     /**
      * Gets the name of the stat type, the enum name in lowercase
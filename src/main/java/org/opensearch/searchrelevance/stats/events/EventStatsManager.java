@@ -10,6 +10,7 @@ package org.opensearch.searchrelevance.stats.events;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 import org.opensearch.searchrelevance.settings.SearchRelevanceSettingsAccessor;
 import org.opensearch.searchrelevance.stats.common.StatSnapshot;
@@ -66,6 +67,20 @@ public class EventStatsManager {
         }
     }
 
+    /**
+     * Static helper to back a gauge stat with a source of its current value on the singleton
+     *
+     * @param eventStatName The name of the gauge stat
+     * @param value Reads the current value of the gauge
+     */
+    public static void registerGauge(EventStatName eventStatName, LongSupplier value) {
+        if (eventStatName.getEventStat() instanceof GaugeEventStat gauge) {
+            gauge.setValueSupplier(value);
+        } else {
+            throw new IllegalArgumentException("Event stat " + eventStatName + " is not a gauge");
+        }
+    }
+
     /**
      * Retrieves snapshots of specified event statistics.
      *
@@ -76,12 +91,11 @@ public class EventStatsManager {
         // Filter stats based on passed in collection
         Map<EventStatName, TimestampedEventStatSnapshot> eventStatsDataMap = new HashMap<>();
         for (EventStatName statName : statsToRetrieve) {
-            if (statName.getStatType() == EventStatType.TIMESTAMPED_EVENT_COUNTER) {
-                StatSnapshot<?> snapshot = statName.getEventStat().getStatSnapshot();
-                if (snapshot instanceof TimestampedEventStatSnapshot) {
-                    // Get event data snapshot
-                    eventStatsDataMap.put(statName, (TimestampedEventStatSnapshot) snapshot);
-                }
+            // counters and gauges share the timestamped snapshot
+            StatSnapshot<?> snapshot = statName.getEventStat().getStatSnapshot();
+            if (snapshot instanceof TimestampedEventStatSnapshot) {
+                // Get event data snapshot
+                eventStatsDataMap.put(statName, (TimestampedEventStatSnapshot) snapshot);
             }
         }
         return eventStatsDataMap;
@@ -0,0 +1,74 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.stats.events;
+
+import java.util.function.LongSupplier;
+
+import org.opensearch.searchrelevance.stats.common.StatSnapshot;
+
+/**
+ * Event stat that reports the current value of a component, such as the size of a cache, instead of counting events.
+ * The value is read from a supplier registered by the component each time the stat is read, so it is never out of date
+ * and is not reset. Across nodes the values are summed like counters, except {@link EventStatType#RATIO_GAUGE} values
+ * which are averaged.
+ */
+public class GaugeEventStat implements EventStat {
+    private final EventStatName statName;
+    private volatile LongSupplier valueSupplier = () -> 0L;
+
+    /**
+     * Constructor
+     * @param statName the associate stat name identifier
+     */
+    public GaugeEventStat(EventStatName statName) {
+        this.statName = statName;
+    }
+
+    /**
+     * Sets the source of the gauge value, replacing any previous source
+     * @param valueSupplier reads the current value
+     */
+    public void setValueSupplier(LongSupplier valueSupplier) {
+        this.valueSupplier = valueSupplier;
+    }
+
+    /**
+     * Gets the current value
+     * @return the current value
+     */
+    public long getValue() {
+        return valueSupplier.getAsLong();
+    }
+
+    /**
+     * Gets a snapshot of the current value. A gauge has no events, so the trailing interval value is the current value.
+     * @return the snapshot
+     */
+    public StatSnapshot<?> getStatSnapshot() {
+        long value = getValue();
+        return TimestampedEventStatSnapshot.builder()
+            .statName(statName)
+            .value(value)
+            .trailingIntervalValue(value)
+            .minutesSinceLastEvent(0)
+            .build();
+    }
+
+    /**
+     * Gauges are not incremented
+     * @throws UnsupportedOperationException always
+     */
+    public void increment() {
+        throw new UnsupportedOperationException("Gauge " + statName + " cannot be incremented");
+    }
+
+    /**
+     * Gauges read their value from the component, there is nothing to reset
+     */
+    public void reset() {}
+}
@@ -89,6 +89,7 @@ public class TimestampedEventStatSnapshot implements Writeable, StatSnapshot<Lon
         long totalValue = 0;
         long totalTrailingValue = 0;
         Long minMinutes = null;
+        int count = 0;
 
         for (TimestampedEventStatSnapshot stat : snapshots) {
             // Mixed version clusters may have nodes that return null stat snapshots not available on older versions.
@@ -105,6 +106,7 @@ public class TimestampedEventStatSnapshot implements Writeable, StatSnapshot<Lon
             }
 
             // The value is summed
+            count++;
             totalValue += stat.getValue();
 
             // The trailing value is summed
@@ -116,6 +118,12 @@ public class TimestampedEventStatSnapshot implements Writeable, StatSnapshot<Lon
             }
         }
 
+        // Ratios are averaged over the nodes instead
+        if (name != null && name.getStatType() == EventStatType.RATIO_GAUGE) {
+            totalValue /= count;
+            totalTrailingValue /= count;
+        }
+
         return TimestampedEventStatSnapshot.builder()
             .statName(name)
             .value(totalValue)
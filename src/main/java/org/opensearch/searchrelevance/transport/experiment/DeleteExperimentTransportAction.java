@@ -7,6 +7,9 @@
  */
 package org.opensearch.searchrelevance.transport.experiment;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.DocWriteResponse;
 import org.opensearch.action.delete.DeleteResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
@@ -15,25 +18,30 @@ import org.opensearch.common.inject.Inject;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.searchrelevance.dao.ExperimentDao;
+import org.opensearch.searchrelevance.dao.ExperimentResultDao;
 import org.opensearch.searchrelevance.exception.SearchRelevanceException;
 import org.opensearch.searchrelevance.transport.OpenSearchDocRequest;
 import org.opensearch.tasks.Task;
 import org.opensearch.transport.TransportService;
 
 public class DeleteExperimentTransportAction extends HandledTransportAction<OpenSearchDocRequest, DeleteResponse> {
+    private static final Logger LOGGER = LogManager.getLogger(DeleteExperimentTransportAction.class);
     private final ClusterService clusterService;
     private final ExperimentDao experimentDao;
+    private final ExperimentResultDao experimentResultDao;
 
     @Inject
     public DeleteExperimentTransportAction(
         ClusterService clusterService,
         TransportService transportService,
         ActionFilters actionFilters,
-        ExperimentDao experimentDao
+        ExperimentDao experimentDao,
+        ExperimentResultDao experimentResultDao
     ) {
         super(DeleteExperimentAction.NAME, transportService, actionFilters, OpenSearchDocRequest::new);
         this.clusterService = clusterService;
         this.experimentDao = experimentDao;
+        this.experimentResultDao = experimentResultDao;
     }
 
     @Override
@@ -44,7 +52,19 @@ public class DeleteExperimentTransportAction extends HandledTransportAction<Open
                 listener.onFailure(new SearchRelevanceException("Experiment ID cannot be null or empty", RestStatus.BAD_REQUEST));
                 return;
             }
-            experimentDao.deleteExperiment(experimentId, listener);
+            experimentDao.deleteExperiment(experimentId, ActionListener.wrap(deleteResponse -> {
+                if (deleteResponse.getResult() == DocWriteResponse.Result.NOT_FOUND) {
+                    listener.onResponse(deleteResponse);
+                    return;
+                }
+                // per-query results live in their own index, remove them together with the experiment
+                experimentResultDao.deleteExperimentResults(experimentId, ActionListener.wrap(response -> {
+                    listener.onResponse(deleteResponse);
+                }, e -> {
+                    LOGGER.warn("Failed to delete results of experiment: " + experimentId, e);
+                    listener.onResponse(deleteResponse);
+                }));
+            }, listener::onFailure));
         } catch (Exception e) {
             listener.onFailure(e);
         }
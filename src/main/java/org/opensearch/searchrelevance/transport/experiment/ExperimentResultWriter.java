@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.experiment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.searchrelevance.dao.ExperimentResultDao;
+import org.opensearch.searchrelevance.model.ExperimentResult;
+import org.opensearch.searchrelevance.utils.TimeUtils;
+
+/**
+ * Buffers per-query experiment results and writes them to the experiment result index in bulk batches,
+ * so the coordinator holds at most one batch in memory regardless of the query set size.
+ * The listener is called once, with the number of stored results, after the last query was added and every batch was written.
+ */
+class ExperimentResultWriter {
+    static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final String experimentId;
+    private final ExperimentResultDao experimentResultDao;
+    private final int batchSize;
+    private final ActionListener<Integer> listener;
+
+    private final List<ExperimentResult> buffer = new ArrayList<>();
+    private final AtomicInteger pendingQueries;
+    private final AtomicInteger pendingWrites = new AtomicInteger(0);
+    private final AtomicInteger storedResults = new AtomicInteger(0);
+    private final AtomicBoolean allQueued = new AtomicBoolean(false);
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    ExperimentResultWriter(
+        String experimentId,
+        int totalQueries,
+        int batchSize,
+        ExperimentResultDao experimentResultDao,
+        ActionListener<Integer> listener
+    ) {
+        this.experimentId = experimentId;
+        this.pendingQueries = new AtomicInteger(totalQueries);
+        this.batchSize = batchSize;
+        this.experimentResultDao = experimentResultDao;
+        this.listener = listener;
+    }
+
+    /**
+     * Adds the results of one query text, flushing the buffer when it is full or when this was the last pending query.
+     */
+    void add(String queryText, Map<String, Object> results) {
+        List<ExperimentResult> batch = null;
+        synchronized (buffer) {
+            buffer.add(new ExperimentResult(UUID.randomUUID().toString(), TimeUtils.getTimestamp(), experimentId, queryText, results));
+            boolean lastQuery = pendingQueries.decrementAndGet() == 0;
+            if (lastQuery || buffer.size() >= batchSize) {
+                batch = new ArrayList<>(buffer);
+                buffer.clear();
+                // count the write before marking all queued, so an earlier batch finishing now cannot complete the writer
+                pendingWrites.incrementAndGet();
+            }
+            if (lastQuery) {
+                allQueued.set(true);
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    private void write(List<ExperimentResult> batch) {
+        experimentResultDao.putExperimentResults(batch, ActionListener.wrap(response -> {
+            storedResults.addAndGet(batch.size());
+            if (pendingWrites.decrementAndGet() == 0 && allQueued.get() && completed.compareAndSet(false, true)) {
+                listener.onResponse(storedResults.get());
+            }
+        }, e -> {
+            if (completed.compareAndSet(false, true)) {
+                listener.onFailure(e);
+            }
+        }));
+    }
+}
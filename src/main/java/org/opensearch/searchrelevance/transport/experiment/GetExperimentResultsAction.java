@@ -0,0 +1,28 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.experiment;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.TRANSPORT_ACTION_NAME_PREFIX;
+
+import org.opensearch.action.ActionType;
+import org.opensearch.action.search.SearchResponse;
+
+/**
+ * External Action for public facing RestGetExperimentResultsAction
+ */
+public class GetExperimentResultsAction extends ActionType<SearchResponse> {
+    /** The name of this action */
+    public static final String NAME = TRANSPORT_ACTION_NAME_PREFIX + "experiment/results/get";
+
+    /** An instance of this action */
+    public static final GetExperimentResultsAction INSTANCE = new GetExperimentResultsAction();
+
+    private GetExperimentResultsAction() {
+        super(NAME, SearchResponse::new);
+    }
+}
@@ -12,6 +12,7 @@ import java.util.List;
 
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.core.common.io.stream.StreamOutput;
 import org.opensearch.searchrelevance.model.ExperimentType;
@@ -24,6 +25,11 @@ public class PutExperimentRequest extends ActionRequest {
     private final List<String> searchConfigurationList;
     private final List<String> judgmentList;
     private final int size;
+    private final boolean pointInTime;
+    private final TimeValue pointInTimeKeepAlive;
+    private final String preference;
+    private final Boolean requestCache;
+    private final double profileSampleRate;
 
     public PutExperimentRequest(
         @NonNull ExperimentType type,
@@ -31,12 +37,46 @@ public class PutExperimentRequest extends ActionRequest {
         @NonNull List<String> searchConfigurationList,
         @NonNull List<String> judgmentList,
         int size
+    ) {
+        this(type, querySetId, searchConfigurationList, judgmentList, size, false, null, null, 0.0);
+    }
+
+    public PutExperimentRequest(
+        @NonNull ExperimentType type,
+        @NonNull String querySetId,
+        @NonNull List<String> searchConfigurationList,
+        @NonNull List<String> judgmentList,
+        int size,
+        boolean pointInTime,
+        String preference,
+        Boolean requestCache,
+        double profileSampleRate
+    ) {
+        this(type, querySetId, searchConfigurationList, judgmentList, size, pointInTime, null, preference, requestCache, profileSampleRate);
+    }
+
+    public PutExperimentRequest(
+        @NonNull ExperimentType type,
+        @NonNull String querySetId,
+        @NonNull List<String> searchConfigurationList,
+        @NonNull List<String> judgmentList,
+        int size,
+        boolean pointInTime,
+        TimeValue pointInTimeKeepAlive,
+        String preference,
+        Boolean requestCache,
+        double profileSampleRate
     ) {
         this.type = type;
         this.querySetId = querySetId;
         this.searchConfigurationList = searchConfigurationList;
         this.judgmentList = judgmentList;
         this.size = size;
+        this.pointInTime = pointInTime;
+        this.pointInTimeKeepAlive = pointInTimeKeepAlive;
+        this.preference = preference;
+        this.requestCache = requestCache;
+        this.profileSampleRate = profileSampleRate;
     }
 
     public PutExperimentRequest(StreamInput in) throws IOException {
@@ -46,6 +86,11 @@ public class PutExperimentRequest extends ActionRequest {
         this.searchConfigurationList = in.readStringList();
         this.judgmentList = in.readStringList();
         this.size = in.readInt();
+        this.pointInTime = in.readBoolean();
+        this.pointInTimeKeepAlive = in.readOptionalTimeValue();
+        this.preference = in.readOptionalString();
+        this.requestCache = in.readOptionalBoolean();
+        this.profileSampleRate = in.readDouble();
     }
 
     @Override
@@ -56,6 +101,11 @@ public class PutExperimentRequest extends ActionRequest {
         out.writeStringArray(searchConfigurationList.toArray(new String[0]));
         out.writeStringArray(judgmentList.toArray(new String[0]));
         out.writeInt(size);
+        out.writeBoolean(pointInTime);
+        out.writeOptionalTimeValue(pointInTimeKeepAlive);
+        out.writeOptionalString(preference);
+        out.writeOptionalBoolean(requestCache);
+        out.writeDouble(profileSampleRate);
     }
 
     public ExperimentType getType() {
@@ -78,6 +128,29 @@ public class PutExperimentRequest extends ActionRequest {
         return judgmentList;
     }
 
+    public boolean isPointInTime() {
+        return pointInTime;
+    }
+
+    /**
+     * Gets the keep-alive of the experiment's point-in-times, null for the default
+     */
+    public TimeValue getPointInTimeKeepAlive() {
+        return pointInTimeKeepAlive;
+    }
+
+    public String getPreference() {
+        return preference;
+    }
+
+    public Boolean getRequestCache() {
+        return requestCache;
+    }
+
+    public double getProfileSampleRate() {
+        return profileSampleRate;
+    }
+
     @Override
     public ActionRequestValidationException validate() {
         return null;
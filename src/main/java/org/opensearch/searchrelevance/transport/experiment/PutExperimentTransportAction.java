@@ -14,11 +14,12 @@ import static org.opensearch.searchrelevance.experiment.ExperimentOptionsForHybr
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -26,21 +27,28 @@ import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.DeletePitRequest;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.inject.Inject;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.Strings;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.searchrelevance.dao.ExperimentDao;
+import org.opensearch.searchrelevance.dao.ExperimentResultDao;
 import org.opensearch.searchrelevance.dao.ExperimentVariantDao;
 import org.opensearch.searchrelevance.dao.QuerySetDao;
 import org.opensearch.searchrelevance.dao.SearchConfigurationDao;
 import org.opensearch.searchrelevance.exception.SearchRelevanceException;
 import org.opensearch.searchrelevance.experiment.ExperimentOptionsFactory;
 import org.opensearch.searchrelevance.experiment.ExperimentOptionsForHybridSearch;
+import org.opensearch.searchrelevance.experiment.ExperimentSearchContext;
 import org.opensearch.searchrelevance.experiment.ExperimentVariantHybridSearchDTO;
 import org.opensearch.searchrelevance.metrics.MetricsHelper;
+import org.opensearch.searchrelevance.metrics.SearchLatencyStats;
 import org.opensearch.searchrelevance.model.AsyncStatus;
 import org.opensearch.searchrelevance.model.Experiment;
 import org.opensearch.searchrelevance.model.ExperimentType;
@@ -50,6 +58,7 @@ import org.opensearch.searchrelevance.model.SearchConfiguration;
 import org.opensearch.searchrelevance.utils.TimeUtils;
 import org.opensearch.tasks.Task;
 import org.opensearch.transport.TransportService;
+import org.opensearch.transport.client.Client;
 
 /**
  * Handles transport actions for creating experiments in the system.
@@ -57,11 +66,15 @@ import org.opensearch.transport.TransportService;
 public class PutExperimentTransportAction extends HandledTransportAction<PutExperimentRequest, IndexResponse> {
 
     private final ClusterService clusterService;
+    private final Client client;
     private final ExperimentDao experimentDao;
     private final ExperimentVariantDao experimentVariantDao;
     private final QuerySetDao querySetDao;
     private final SearchConfigurationDao searchConfigurationDao;
+    private final ExperimentResultDao experimentResultDao;
     private final MetricsHelper metricsHelper;
+    // search contexts of running experiments, so point-in-times can be released and latency summarized once the experiment ends
+    private final Map<String, ExperimentSearchContext> searchContexts = new ConcurrentHashMap<>();
 
     private static final Logger LOGGER = LogManager.getLogger(PutExperimentTransportAction.class);
 
@@ -70,18 +83,22 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
         ClusterService clusterService,
         TransportService transportService,
         ActionFilters actionFilters,
+        Client client,
         ExperimentDao experimentDao,
         ExperimentVariantDao experimentVariantDao,
         QuerySetDao querySetDao,
         SearchConfigurationDao searchConfigurationDao,
+        ExperimentResultDao experimentResultDao,
         MetricsHelper metricsHelper
     ) {
         super(PutExperimentAction.NAME, transportService, actionFilters, PutExperimentRequest::new);
         this.clusterService = clusterService;
+        this.client = client;
         this.experimentDao = experimentDao;
         this.experimentVariantDao = experimentVariantDao;
         this.querySetDao = querySetDao;
         this.searchConfigurationDao = searchConfigurationDao;
+        this.experimentResultDao = experimentResultDao;
         this.metricsHelper = metricsHelper;
     }
 
@@ -139,44 +156,161 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
             for (SearchConfiguration config : searchConfigurations) {
                 indexAndQueries.put(config.id(), Arrays.asList(config.index(), config.query(), config.searchPipeline()));
             }
-            calculateMetricsAsync(experimentId, request, indexAndQueries, queryTextWithReferences);
+            openSearchContext(
+                experimentId,
+                request,
+                indexAndQueries,
+                ActionListener.wrap(
+                    searchContext -> calculateMetricsAsync(experimentId, request, indexAndQueries, queryTextWithReferences, searchContext),
+                    e -> handleAsyncFailure(experimentId, request, "Failed to start async processing", e)
+                )
+            );
         } catch (Exception e) {
             handleAsyncFailure(experimentId, request, "Failed to start async processing", e);
         }
     }
 
+    /**
+     * Opens one point-in-time per search configuration index when the experiment asks for it,
+     * so every query of the run is evaluated against the same index state.
+     */
+    private void openSearchContext(
+        String experimentId,
+        PutExperimentRequest request,
+        Map<String, List<String>> indexAndQueries,
+        ActionListener<ExperimentSearchContext> listener
+    ) {
+        TimeValue keepAlive = keepAlive(request);
+        Set<String> indices = request.isPointInTime()
+            ? indexAndQueries.values().stream().map(indexAndQuery -> indexAndQuery.get(0)).collect(Collectors.toSet())
+            : Set.of();
+        // without a point-in-time, or without an index to open one on, the experiment searches the live indices
+        if (indices.isEmpty()) {
+            ExperimentSearchContext searchContext = new ExperimentSearchContext(
+                Map.of(),
+                keepAlive,
+                request.getPreference(),
+                request.getRequestCache(),
+                request.getProfileSampleRate(),
+                new SearchLatencyStats()
+            );
+            searchContexts.put(experimentId, searchContext);
+            listener.onResponse(searchContext);
+            return;
+        }
+
+        Map<String, String> indexToPitId = new ConcurrentHashMap<>();
+        AtomicInteger pendingIndices = new AtomicInteger(indices.size());
+        AtomicBoolean hasFailure = new AtomicBoolean(false);
+
+        for (String index : indices) {
+            CreatePitRequest createPitRequest = new CreatePitRequest(keepAlive, false, Strings.splitStringByCommaToArray(index));
+            client.createPit(createPitRequest, ActionListener.wrap(response -> {
+                indexToPitId.put(index, response.getId());
+                onPitCreated(experimentId, request, indexToPitId, pendingIndices, hasFailure, listener);
+            }, e -> {
+                LOGGER.error("Failed to create point in time for index [{}] in experiment {}", index, experimentId, e);
+                if (hasFailure.compareAndSet(false, true)) {
+                    listener.onFailure(e);
+                }
+                onPitCreated(experimentId, request, indexToPitId, pendingIndices, hasFailure, listener);
+            }));
+        }
+    }
+
+    private void onPitCreated(
+        String experimentId,
+        PutExperimentRequest request,
+        Map<String, String> indexToPitId,
+        AtomicInteger pendingIndices,
+        AtomicBoolean hasFailure,
+        ActionListener<ExperimentSearchContext> listener
+    ) {
+        if (pendingIndices.decrementAndGet() != 0) {
+            return;
+        }
+        ExperimentSearchContext searchContext = new ExperimentSearchContext(
+            indexToPitId,
+            keepAlive(request),
+            request.getPreference(),
+            request.getRequestCache(),
+            request.getProfileSampleRate(),
+            new SearchLatencyStats()
+        );
+        searchContexts.put(experimentId, searchContext);
+        if (hasFailure.get()) {
+            // failure was already reported, only release the point-in-times that did get created
+            releaseSearchContext(experimentId);
+            return;
+        }
+        listener.onResponse(searchContext);
+    }
+
+    private static TimeValue keepAlive(PutExperimentRequest request) {
+        return request.getPointInTimeKeepAlive() == null ? ExperimentSearchContext.DEFAULT_KEEP_ALIVE : request.getPointInTimeKeepAlive();
+    }
+
+    private void releaseSearchContext(String experimentId) {
+        ExperimentSearchContext searchContext = searchContexts.remove(experimentId);
+        if (searchContext == null || searchContext.hasPointInTime() == false) {
+            return;
+        }
+        client.deletePits(
+            new DeletePitRequest(searchContext.getPitIds()),
+            ActionListener.wrap(
+                response -> LOGGER.debug("Released point in time for experiment: {}", experimentId),
+                e -> LOGGER.warn("Failed to release point in time for experiment: " + experimentId, e)
+            )
+        );
+    }
+
     private void calculateMetricsAsync(
         String experimentId,
         PutExperimentRequest request,
         Map<String, List<String>> indexAndQueries,
-        List<String> queryTextWithReferences
+        List<String> queryTextWithReferences,
+        ExperimentSearchContext searchContext
     ) {
         if (queryTextWithReferences == null || indexAndQueries == null) {
             throw new IllegalStateException("Missing required data for metrics calculation");
         }
 
-        processQueryTextMetrics(experimentId, request, indexAndQueries, queryTextWithReferences);
+        processQueryTextMetrics(experimentId, request, indexAndQueries, queryTextWithReferences, searchContext);
     }
 
     private void processQueryTextMetrics(
         String experimentId,
         PutExperimentRequest request,
         Map<String, List<String>> indexAndQueries,
-        List<String> queryTexts
+        List<String> queryTexts,
+        ExperimentSearchContext searchContext
     ) {
-        List<Map<String, Object>> finalResults = Collections.synchronizedList(new ArrayList<>());
-        AtomicInteger pendingQueries = new AtomicInteger(queryTexts.size());
         AtomicBoolean hasFailure = new AtomicBoolean(false);
+        if (queryTexts.isEmpty()) {
+            updateFinalExperiment(experimentId, request, 0, request.getJudgmentList());
+            return;
+        }
+        // per-query results go to the experiment result index in batches, the experiment itself only keeps a summary
+        ExperimentResultWriter resultWriter = new ExperimentResultWriter(
+            experimentId,
+            queryTexts.size(),
+            ExperimentResultWriter.DEFAULT_BATCH_SIZE,
+            experimentResultDao,
+            ActionListener.wrap(
+                resultCount -> updateFinalExperiment(experimentId, request, resultCount, request.getJudgmentList()),
+                error -> handleFailure(error, hasFailure, experimentId, request)
+            )
+        );
 
         executeExperimentEvaluation(
             experimentId,
             request,
             indexAndQueries,
             queryTexts,
-            finalResults,
-            pendingQueries,
+            resultWriter,
             hasFailure,
-            request.getJudgmentList()
+            request.getJudgmentList(),
+            searchContext
         );
     }
 
@@ -185,10 +319,10 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
         PutExperimentRequest request,
         Map<String, List<String>> indexAndQueries,
         List<String> queryTexts,
-        List<Map<String, Object>> finalResults,
-        AtomicInteger pendingQueries,
+        ExperimentResultWriter resultWriter,
         AtomicBoolean hasFailure,
-        List<String> judgmentList
+        List<String> judgmentList,
+        ExperimentSearchContext searchContext
     ) {
         for (String queryText : queryTexts) {
             if (request.getType() == ExperimentType.PAIRWISE_COMPARISON) {
@@ -196,17 +330,9 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
                     queryText,
                     indexAndQueries,
                     request.getSize(),
+                    searchContext,
                     ActionListener.wrap(
-                        queryResults -> handleQueryResults(
-                            queryText,
-                            queryResults,
-                            finalResults,
-                            pendingQueries,
-                            experimentId,
-                            request,
-                            hasFailure,
-                            judgmentList
-                        ),
+                        queryResults -> handleQueryResults(queryText, queryResults, resultWriter, experimentId, request, hasFailure),
                         error -> handleFailure(error, hasFailure, experimentId, request)
                     )
                 );
@@ -251,18 +377,10 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
                     indexAndQueries,
                     request.getSize(),
                     judgmentList,
+                    searchContext,
                     ActionListener.wrap(queryResults -> {
                         Map<String, Object> convertedResults = new HashMap<>(queryResults);
-                        handleQueryResults(
-                            queryText,
-                            convertedResults,
-                            finalResults,
-                            pendingQueries,
-                            experimentId,
-                            request,
-                            hasFailure,
-                            judgmentList
-                        );
+                        handleQueryResults(queryText, convertedResults, resultWriter, experimentId, request, hasFailure);
                     }, error -> handleFailure(error, hasFailure, experimentId, request)),
                     experimentVariants
                 );
@@ -272,18 +390,10 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
                     indexAndQueries,
                     request.getSize(),
                     judgmentList,
+                    searchContext,
                     ActionListener.wrap(queryResults -> {
                         Map<String, Object> convertedResults = new HashMap<>(queryResults);
-                        handleQueryResults(
-                            queryText,
-                            convertedResults,
-                            finalResults,
-                            pendingQueries,
-                            experimentId,
-                            request,
-                            hasFailure,
-                            judgmentList
-                        );
+                        handleQueryResults(queryText, convertedResults, resultWriter, experimentId, request, hasFailure);
                     }, error -> handleFailure(error, hasFailure, experimentId, request))
                 );
             } else {
@@ -295,23 +405,16 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
     private void handleQueryResults(
         String queryText,
         Map<String, Object> queryResults,
-        List<Map<String, Object>> finalResults,
-        AtomicInteger pendingQueries,
+        ExperimentResultWriter resultWriter,
         String experimentId,
         PutExperimentRequest request,
-        AtomicBoolean hasFailure,
-        List<String> judgmentList
+        AtomicBoolean hasFailure
     ) {
         if (hasFailure.get()) return;
 
         try {
-            synchronized (finalResults) {
-                queryResults.put(PAIRWISE_FIELD_NAME_QUERY_TEXT, queryText);
-                finalResults.add(queryResults);
-                if (pendingQueries.decrementAndGet() == 0) {
-                    updateFinalExperiment(experimentId, request, finalResults, judgmentList);
-                }
-            }
+            queryResults.put(PAIRWISE_FIELD_NAME_QUERY_TEXT, queryText);
+            resultWriter.add(queryText, queryResults);
         } catch (Exception e) {
             handleFailure(e, hasFailure, experimentId, request);
         }
@@ -326,9 +429,16 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
     private void updateFinalExperiment(
         String experimentId,
         PutExperimentRequest request,
-        List<Map<String, Object>> finalResults,
+        int resultCount,
         List<String> judgmentList
     ) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put(Experiment.SUMMARY_RESULT_COUNT, resultCount);
+        ExperimentSearchContext searchContext = searchContexts.get(experimentId);
+        if (searchContext != null && searchContext.getLatencyStats() != null) {
+            summary.put(SearchLatencyStats.LATENCY, searchContext.getLatencyStats().summarize());
+        }
+        releaseSearchContext(experimentId);
         Experiment finalExperiment = new Experiment(
             experimentId,
             TimeUtils.getTimestamp(),
@@ -338,7 +448,8 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
             request.getSearchConfigurationList(),
             judgmentList,
             request.getSize(),
-            finalResults
+            new ArrayList<>(),
+            summary
         );
 
         experimentDao.updateExperiment(
@@ -352,6 +463,7 @@ public class PutExperimentTransportAction extends HandledTransportAction<PutExpe
 
     private void handleAsyncFailure(String experimentId, PutExperimentRequest request, String message, Exception error) {
         LOGGER.error(message + " for experiment: " + experimentId, error);
+        releaseSearchContext(experimentId);
 
         Experiment errorExperiment = new Experiment(
             experimentId,
@@ -0,0 +1,27 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.TRANSPORT_ACTION_NAME_PREFIX;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Internal action fetching a chunk of a partition of the click statistics a node counted for {@link ClickthroughMapAction}
+ */
+public class ClickthroughFetchAction extends ActionType<ClickthroughFetchResponse> {
+    /** The name of this action */
+    public static final String NAME = TRANSPORT_ACTION_NAME_PREFIX + "judgment/clickthrough_fetch";
+
+    /** An instance of this action */
+    public static final ClickthroughFetchAction INSTANCE = new ClickthroughFetchAction();
+
+    private ClickthroughFetchAction() {
+        super(NAME, ClickthroughFetchResponse::new);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+
+/**
+ * Request for the next chunk of a partition a node holds for a map job. The coordinator tracks how far it read each
+ * partition, so the node keeps no read state besides the files.
+ */
+public class ClickthroughFetchRequest extends ActionRequest {
+    private final String nodeId;
+    private final String jobId;
+    private final int partition;
+    private final int fromPair;
+    private final long offset;
+
+    /**
+     * Constructor
+     *
+     * @param nodeId id of the node holding the partition
+     * @param jobId id of the map job
+     * @param partition the partition
+     * @param fromPair number of pairs of the partition read so far
+     * @param offset position in the partition of the pair fromPair, the next offset of the previous chunk
+     */
+    public ClickthroughFetchRequest(String nodeId, String jobId, int partition, int fromPair, long offset) {
+        this.nodeId = nodeId;
+        this.jobId = jobId;
+        this.partition = partition;
+        this.fromPair = fromPair;
+        this.offset = offset;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param in input stream
+     * @throws IOException in case of I/O errors
+     */
+    public ClickthroughFetchRequest(StreamInput in) throws IOException {
+        super(in);
+        this.nodeId = in.readString();
+        this.jobId = in.readString();
+        this.partition = in.readVInt();
+        this.fromPair = in.readVInt();
+        this.offset = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(nodeId);
+        out.writeString(jobId);
+        out.writeVInt(partition);
+        out.writeVInt(fromPair);
+        out.writeVLong(offset);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        return null;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public int getFromPair() {
+        return fromPair;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
+
+/**
+ * A chunk of pairs of one partition, held serialized as it is sent instead of as an object per pair
+ */
+public class ClickthroughFetchResponse extends ActionResponse {
+    private final BytesReference pairs;
+    private final int pairCount;
+    private final long nextOffset;
+
+    /**
+     * Constructor
+     *
+     * @param pairs the serialized pairs
+     * @param pairCount number of pairs in the chunk
+     * @param nextOffset position in the partition of the pair after the chunk
+     */
+    public ClickthroughFetchResponse(BytesReference pairs, int pairCount, long nextOffset) {
+        this.pairs = pairs;
+        this.pairCount = pairCount;
+        this.nextOffset = nextOffset;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param in input stream
+     * @throws IOException in case of I/O errors
+     */
+    public ClickthroughFetchResponse(StreamInput in) throws IOException {
+        super(in);
+        this.pairs = in.readBytesReference();
+        this.pairCount = in.readVInt();
+        this.nextOffset = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeBytesReference(pairs);
+        out.writeVInt(pairCount);
+        out.writeVLong(nextOffset);
+    }
+
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Visits the pairs of the chunk
+     * @param consumer consumer of the pairs
+     * @throws IOException if the chunk cannot be read
+     */
+    public void forEachPair(ClickStatisticsTable.PairConsumer consumer) throws IOException {
+        try (StreamInput in = pairs.streamInput()) {
+            for (int pair = 0; pair < pairCount; pair++) {
+                consumer.accept(in.readString(), in.readString(), in.readVLong(), in.readVLong(), in.readInt());
+            }
+        }
+    }
+}
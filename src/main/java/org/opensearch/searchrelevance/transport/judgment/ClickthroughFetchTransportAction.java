@@ -0,0 +1,78 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL_THREAD_POOL;
+
+import org.opensearch.action.ActionListenerResponseHandler;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.unit.ByteSizeUnit;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.tasks.Task;
+import org.opensearch.transport.TransportService;
+
+/**
+ * Fetches the next chunk of a partition from the node holding it. The node reads the chunk from its partition file on the
+ * click model thread pool, so the coordinator holds one chunk per request and a node holds none of its pairs in heap.
+ */
+public class ClickthroughFetchTransportAction extends HandledTransportAction<ClickthroughFetchRequest, ClickthroughFetchResponse> {
+    static final String NODE_ACTION_NAME = ClickthroughFetchAction.NAME + "[n]";
+    /**
+     * Size of a chunk past which no more pairs are added
+     */
+    static final ByteSizeValue CHUNK_SIZE = new ByteSizeValue(1, ByteSizeUnit.MB);
+
+    private final ClusterService clusterService;
+    private final TransportService transportService;
+
+    @Inject
+    public ClickthroughFetchTransportAction(
+        ClusterService clusterService,
+        TransportService transportService,
+        ActionFilters actionFilters,
+        ClickthroughPartitionStore partitionStore
+    ) {
+        super(ClickthroughFetchAction.NAME, transportService, actionFilters, ClickthroughFetchRequest::new);
+        this.clusterService = clusterService;
+        this.transportService = transportService;
+        transportService.registerRequestHandler(
+            NODE_ACTION_NAME,
+            CLICK_MODEL_THREAD_POOL,
+            ClickthroughFetchRequest::new,
+            (request, channel, task) -> channel.sendResponse(partitionStore.read(request, CHUNK_SIZE.getBytes()))
+        );
+    }
+
+    @Override
+    protected void doExecute(Task task, ClickthroughFetchRequest request, ActionListener<ClickthroughFetchResponse> listener) {
+        DiscoveryNode node = clusterService.state().nodes().get(request.getNodeId());
+        if (node == null) {
+            listener.onFailure(
+                new SearchRelevanceException(
+                    "Node [" + request.getNodeId() + "] holding click statistics partitions left the cluster",
+                    RestStatus.SERVICE_UNAVAILABLE
+                )
+            );
+            return;
+        }
+        request.setParentTask(clusterService.localNode().getId(), task.getId());
+        transportService.sendRequest(
+            node,
+            NODE_ACTION_NAME,
+            request,
+            new ActionListenerResponseHandler<>(listener, ClickthroughFetchResponse::new)
+        );
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.TRANSPORT_ACTION_NAME_PREFIX;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Internal action counting the clicks and impressions of the UBI events on the shards local to each data node
+ */
+public class ClickthroughMapAction extends ActionType<ClickthroughMapResponse> {
+    /** The name of this action */
+    public static final String NAME = TRANSPORT_ACTION_NAME_PREFIX + "judgment/clickthrough_map";
+
+    /** An instance of this action */
+    public static final ClickthroughMapAction INSTANCE = new ClickthroughMapAction();
+
+    private ClickthroughMapAction() {
+        super(NAME, ClickthroughMapResponse::new);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.transport.TransportRequest;
+
+/**
+ * Node level request of {@link ClickthroughMapAction}, carrying the shards every node counts
+ */
+public class ClickthroughMapNodeRequest extends TransportRequest {
+    private final ClickthroughMapRequest request;
+
+    /**
+     * Constructor
+     *
+     * @param in input stream
+     * @throws IOException in case of I/O errors
+     */
+    public ClickthroughMapNodeRequest(StreamInput in) throws IOException {
+        super(in);
+        this.request = new ClickthroughMapRequest(in);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param request ClickthroughMapRequest
+     */
+    public ClickthroughMapNodeRequest(ClickthroughMapRequest request) {
+        this.request = request;
+    }
+
+    public ClickthroughMapRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        request.writeTo(out);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.routing.Murmur3HashFunction;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+
+/**
+ * The number of pairs in each partition of the click statistics one node counted on its shards. The node keeps the
+ * partitions in files, see {@link ClickthroughPartitions}, and the coordinator fetches them with {@link ClickthroughFetchAction}.
+ * The partitions are split by the hash of the user query, so that all pairs of a user query, from every node, land in the
+ * same partition and the partitions can be reduced independently.
+ */
+public class ClickthroughMapNodeResponse extends BaseNodeResponse {
+    private final int[] pairCounts;
+
+    /**
+     * Constructor
+     *
+     * @param in input stream
+     * @throws IOException in case of I/O errors
+     */
+    public ClickthroughMapNodeResponse(StreamInput in) throws IOException {
+        super(in);
+        this.pairCounts = in.readVIntArray();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param node the node that counted the statistics
+     * @param pairCounts number of pairs in each partition
+     */
+    public ClickthroughMapNodeResponse(DiscoveryNode node, int[] pairCounts) {
+        super(node);
+        this.pairCounts = pairCounts;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVIntArray(pairCounts);
+    }
+
+    /**
+     * Gets the partition of a user query
+     * @param userQuery the user query
+     * @param partitionCount number of partitions
+     * @return the partition, between 0 and partitionCount
+     */
+    public static int partition(String userQuery, int partitionCount) {
+        return Math.floorMod(Murmur3HashFunction.hash(userQuery), partitionCount);
+    }
+
+    public int getPartitionCount() {
+        return pairCounts.length;
+    }
+
+    /**
+     * Gets the number of pairs the node holds in a partition
+     * @param partition the partition
+     * @return the number of pairs
+     */
+    public int getPairCount(int partition) {
+        return pairCounts[partition];
+    }
+}
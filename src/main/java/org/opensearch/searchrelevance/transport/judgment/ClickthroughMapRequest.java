@@ -0,0 +1,102 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.action.support.nodes.BaseNodesRequest;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
+
+/**
+ * Request to count clicks and impressions per user query and object on the data nodes. The shards of the UBI events
+ * index are assigned to the nodes when the request is resolved, one active copy per shard, so every event is counted once.
+ * The nodes keep the partitions of their counts under the job id of the request until the coordinator fetched them.
+ */
+public class ClickthroughMapRequest extends BaseNodesRequest<ClickthroughMapRequest> {
+    private final String jobId;
+    private final int maxRank;
+    private final UbiFilter filter;
+    private final int partitions;
+    private Map<String, List<Integer>> shardsByNode = Map.of();
+
+    /**
+     * Constructor
+     *
+     * @param jobId id the nodes keep their partitions under
+     * @param maxRank highest position to count
+     * @param filter restricts the events counted
+     * @param partitions number of partitions the counts are split into by user query hash
+     */
+    public ClickthroughMapRequest(String jobId, int maxRank, UbiFilter filter, int partitions) {
+        super((String[]) null);
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be at least 1");
+        }
+        this.jobId = jobId;
+        this.maxRank = maxRank;
+        this.filter = filter;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param in input stream
+     * @throws IOException in case of I/O errors
+     */
+    public ClickthroughMapRequest(StreamInput in) throws IOException {
+        super(in);
+        this.jobId = in.readString();
+        this.maxRank = in.readVInt();
+        this.filter = new UbiFilter(in);
+        this.partitions = in.readVInt();
+        this.shardsByNode = in.readMap(StreamInput::readString, input -> input.readList(StreamInput::readVInt));
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(jobId);
+        out.writeVInt(maxRank);
+        filter.writeTo(out);
+        out.writeVInt(partitions);
+        out.writeMap(shardsByNode, StreamOutput::writeString, (output, shards) -> output.writeCollection(shards, StreamOutput::writeVInt));
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public int getMaxRank() {
+        return maxRank;
+    }
+
+    public UbiFilter getFilter() {
+        return filter;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Gets the shard numbers of the UBI events index each node counts
+     * @return shard numbers by node id
+     */
+    public Map<String, List<Integer>> getShardsByNode() {
+        return shardsByNode;
+    }
+
+    public void setShardsByNode(Map<String, List<Integer>> shardsByNode) {
+        this.shardsByNode = shardsByNode;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+
+/**
+ * The number of pairs in each partition of the click statistics every node counted and keeps for the fetch phase
+ */
+public class ClickthroughMapResponse extends BaseNodesResponse<ClickthroughMapNodeResponse> {
+
+    /**
+     * Constructor
+     *
+     * @param in input stream
+     * @throws IOException in case of I/O errors
+     */
+    public ClickthroughMapResponse(StreamInput in) throws IOException {
+        super(in);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param clusterName cluster name
+     * @param nodes responses of the nodes that counted their shards
+     * @param failures failures of the other nodes
+     */
+    public ClickthroughMapResponse(ClusterName clusterName, List<ClickthroughMapNodeResponse> nodes, List<FailedNodeException> failures) {
+        super(clusterName, nodes, failures);
+    }
+
+    @Override
+    protected List<ClickthroughMapNodeResponse> readNodesFrom(StreamInput in) throws IOException {
+        return in.readList(ClickthroughMapNodeResponse::new);
+    }
+
+    @Override
+    protected void writeNodesTo(StreamOutput out, List<ClickthroughMapNodeResponse> nodes) throws IOException {
+        out.writeList(nodes);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL_THREAD_POOL;
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_EVENTS_INDEX;
+import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListenerResponseHandler;
+import org.opensearch.action.ActionRunnable;
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.NoShardAvailableActionException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.ChannelActionListener;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.routing.IndexRoutingTable;
+import org.opensearch.cluster.routing.IndexShardRoutingTable;
+import org.opensearch.cluster.routing.ShardRouting;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.util.concurrent.CountDown;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModel;
+import org.opensearch.searchrelevance.judgments.clickmodel.coec.CoecClickModelParameters;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Map phase of distributed COEC judgments. Every shard of the UBI events index is assigned to one node holding an active
+ * copy, spreading the shards over the nodes. Each node counts the clicks and impressions of the events on its assigned
+ * shards with composite aggregations that only search its local copies, writes the counts to partition files by the hash
+ * of the user query, see {@link ClickthroughPartitions}, and responds with the number of pairs in each partition.
+ * The coordinator then fetches the partitions with {@link ClickthroughFetchAction}.
+ * <p>
+ * {@link org.opensearch.action.support.nodes.TransportNodesAction} answers a node request with the return value of a
+ * blocking node operation, so the node requests are sent and handled here instead, and a node responds once its counting
+ * completes without holding a thread while it runs.
+ */
+public class ClickthroughMapTransportAction extends HandledTransportAction<ClickthroughMapRequest, ClickthroughMapResponse> {
+    private static final Logger LOGGER = LogManager.getLogger(ClickthroughMapTransportAction.class);
+    static final String NODE_ACTION_NAME = ClickthroughMapAction.NAME + "[n]";
+
+    private final ThreadPool threadPool;
+    private final ClusterService clusterService;
+    private final TransportService transportService;
+    private final Client client;
+    private final ClickthroughPartitionStore partitionStore;
+    private final long memoryBudget;
+    private final Path spillDirectory;
+
+    @Inject
+    public ClickthroughMapTransportAction(
+        ThreadPool threadPool,
+        ClusterService clusterService,
+        TransportService transportService,
+        ActionFilters actionFilters,
+        Client client,
+        Environment environment,
+        ClickthroughPartitionStore partitionStore
+    ) {
+        super(ClickthroughMapAction.NAME, transportService, actionFilters, ClickthroughMapRequest::new);
+        this.threadPool = threadPool;
+        this.clusterService = clusterService;
+        this.transportService = transportService;
+        this.client = client;
+        this.partitionStore = partitionStore;
+        this.memoryBudget = SEARCH_RELEVANCE_CLICK_STATISTICS_MEMORY_BUDGET.get(environment.settings()).getBytes();
+        this.spillDirectory = environment.tmpDir();
+        transportService.registerRequestHandler(
+            NODE_ACTION_NAME,
+            ThreadPool.Names.SAME,
+            ClickthroughMapNodeRequest::new,
+            (request, channel, task) -> nodeOperation(request, new ChannelActionListener<>(channel, NODE_ACTION_NAME, request))
+        );
+    }
+
+    /**
+     * Assign the shards of the UBI events index to nodes and send the request to those nodes only
+     */
+    @Override
+    protected void doExecute(Task task, ClickthroughMapRequest request, ActionListener<ClickthroughMapResponse> listener) {
+        ClusterState clusterState = clusterService.state();
+        Map<String, List<Integer>> shardsByNode;
+        try {
+            shardsByNode = assignShards(clusterState);
+        } catch (Exception e) {
+            listener.onFailure(e);
+            return;
+        }
+        request.setShardsByNode(shardsByNode);
+        List<ClickthroughMapNodeResponse> responses = Collections.synchronizedList(new ArrayList<>());
+        List<FailedNodeException> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDown pendingNodes = new CountDown(shardsByNode.size());
+        Runnable onNodeDone = () -> {
+            if (pendingNodes.countDown()) {
+                listener.onResponse(new ClickthroughMapResponse(clusterService.getClusterName(), responses, failures));
+            }
+        };
+        for (String nodeId : shardsByNode.keySet()) {
+            ClickthroughMapNodeRequest nodeRequest = new ClickthroughMapNodeRequest(request);
+            nodeRequest.setParentTask(clusterService.localNode().getId(), task.getId());
+            ActionListener<ClickthroughMapNodeResponse> nodeListener = ActionListener.wrap(response -> {
+                responses.add(response);
+                onNodeDone.run();
+            }, e -> {
+                failures.add(new FailedNodeException(nodeId, "Failed node [" + nodeId + "]", e));
+                onNodeDone.run();
+            });
+            transportService.sendRequest(
+                clusterState.nodes().get(nodeId),
+                NODE_ACTION_NAME,
+                nodeRequest,
+                new ActionListenerResponseHandler<>(nodeListener, ClickthroughMapNodeResponse::new)
+            );
+        }
+    }
+
+    /**
+     * Assign every shard of the UBI events index to one node holding an active copy, the node with the fewest shards so far
+     * @param clusterState the cluster state
+     * @return shard numbers by node id
+     */
+    static Map<String, List<Integer>> assignShards(ClusterState clusterState) {
+        IndexRoutingTable indexRouting = clusterState.routingTable().index(UBI_EVENTS_INDEX);
+        if (indexRouting == null) {
+            throw new IndexNotFoundException(UBI_EVENTS_INDEX);
+        }
+        Map<String, List<Integer>> shardsByNode = new TreeMap<>();
+        for (IndexShardRoutingTable shardRouting : indexRouting) {
+            ShardRouting copy = shardRouting.activeShards()
+                .stream()
+                .min(Comparator.comparingInt((ShardRouting active) -> shardsByNode.getOrDefault(active.currentNodeId(), List.of()).size()))
+                .orElseThrow(
+                    () -> new SearchRelevanceException(
+                        "No active copy of shard " + shardRouting.shardId() + " to count clicks on",
+                        RestStatus.SERVICE_UNAVAILABLE
+                    )
+                );
+            shardsByNode.computeIfAbsent(copy.currentNodeId(), nodeId -> new ArrayList<>()).add(shardRouting.shardId().id());
+        }
+        return shardsByNode;
+    }
+
+    /**
+     * Count the clicks and impressions on the shards assigned to this node. The counting runs asynchronously, and the
+     * partition files are written on the click model thread pool once it completes.
+     */
+    void nodeOperation(ClickthroughMapNodeRequest nodeRequest, ActionListener<ClickthroughMapNodeResponse> listener) {
+        ClickthroughMapRequest request = nodeRequest.getRequest();
+        DiscoveryNode localNode = clusterService.localNode();
+        List<Integer> shards = request.getShardsByNode().getOrDefault(localNode.getId(), List.of());
+        LOGGER.info("Counting clicks on shards {} of {}", shards, UBI_EVENTS_INDEX);
+        List<Integer> movedShards = movedShards(clusterService.state(), localNode.getId(), shards);
+        if (!movedShards.isEmpty()) {
+            // the coordinator resolves the shards again and retries on this exception
+            listener.onFailure(
+                new NoShardAvailableActionException(
+                    new ShardId(UBI_EVENTS_INDEX, IndexMetadata.INDEX_UUID_NA_VALUE, movedShards.get(0)),
+                    "shards " + movedShards + " moved off node " + localNode.getId() + " before counting clicks"
+                )
+            );
+            return;
+        }
+
+        CoecClickModelParameters parameters = new CoecClickModelParameters(request.getMaxRank(), true);
+        parameters.setFilter(request.getFilter());
+        parameters.setMemoryBudget(memoryBudget);
+        parameters.setSpillDirectory(spillDirectory);
+        parameters.setShardPreference(localShardsPreference(shards));
+        new CoecClickModel(client, parameters).getClickthroughRate(ActionListener.wrap(statistics -> {
+            ActionListener<ClickthroughMapNodeResponse> closingListener = ActionListener.runBefore(listener, statistics::close);
+            threadPool.executor(CLICK_MODEL_THREAD_POOL).execute(ActionRunnable.supply(closingListener, () -> {
+                ClickthroughPartitions partitions = ClickthroughPartitions.write(statistics, request.getPartitions(), spillDirectory);
+                partitionStore.put(request.getJobId(), partitions);
+                return new ClickthroughMapNodeResponse(localNode, partitions.getPairCounts());
+            }));
+        }, listener::onFailure));
+    }
+
+    /**
+     * Gets the shards that no longer have an active copy on the node, because they moved since they were assigned
+     * @param clusterState the cluster state
+     * @param nodeId the id of the node
+     * @param shards the shard numbers assigned to the node
+     * @return the shard numbers without an active copy on the node
+     */
+    static List<Integer> movedShards(ClusterState clusterState, String nodeId, List<Integer> shards) {
+        IndexRoutingTable indexRouting = clusterState.routingTable().index(UBI_EVENTS_INDEX);
+        if (indexRouting == null) {
+            return shards;
+        }
+        List<Integer> movedShards = new ArrayList<>();
+        for (int shard : shards) {
+            IndexShardRoutingTable shardRouting = indexRouting.shard(shard);
+            if (shardRouting == null || shardRouting.activeShards().stream().noneMatch(copy -> nodeId.equals(copy.currentNodeId()))) {
+                movedShards.add(shard);
+            }
+        }
+        return movedShards;
+    }
+
+    /**
+     * Search preference restricting a search to the local copies of the given shards
+     */
+    static String localShardsPreference(List<Integer> shards) {
+        return "_shards:" + shards.stream().map(String::valueOf).collect(Collectors.joining(",")) + "|_only_local";
+    }
+}
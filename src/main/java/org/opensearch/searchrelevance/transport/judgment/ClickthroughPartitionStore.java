@@ -0,0 +1,101 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ConcurrentCollections;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * Node local registry of the partitions map jobs wrote on this node, by job id, until the coordinator fetched them.
+ * Partitions no chunk was fetched of for the keep-alive, because the coordinator failed or gave up on the job,
+ * are deleted then.
+ */
+public class ClickthroughPartitionStore {
+    private static final Logger LOGGER = LogManager.getLogger(ClickthroughPartitionStore.class);
+    static final TimeValue KEEP_ALIVE = TimeValue.timeValueMinutes(30);
+
+    private final ThreadPool threadPool;
+    private final Map<String, ClickthroughPartitions> jobs = ConcurrentCollections.newConcurrentMap();
+
+    public ClickthroughPartitionStore(ThreadPool threadPool) {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Keep the partitions of a job until they are read, or the keep-alive passes without a read
+     * @param jobId id of the map job
+     * @param partitions the partitions, closed by the store from now on
+     */
+    public void put(String jobId, ClickthroughPartitions partitions) {
+        partitions.setLastAccess(threadPool.relativeTimeInMillis());
+        ClickthroughPartitions previous = jobs.put(jobId, partitions);
+        if (previous != null) {
+            previous.close();
+        }
+        if (partitions.isFullyRead()) {
+            release(jobId, partitions);
+            return;
+        }
+        scheduleExpiry(jobId, partitions);
+    }
+
+    /**
+     * Read the next chunk of a partition of a job, the job is released once its last partition is read
+     * @param request the fetch request
+     * @param maxBytes size of the chunk past which no more pairs are added
+     * @return the chunk
+     * @throws ResourceNotFoundException if this node holds no partitions of the job
+     * @throws IOException if the partition cannot be read
+     */
+    public ClickthroughFetchResponse read(ClickthroughFetchRequest request, long maxBytes) throws IOException {
+        ClickthroughPartitions partitions = jobs.get(request.getJobId());
+        if (partitions == null) {
+            throw new ResourceNotFoundException("No click statistics partitions of job [{}] on this node", request.getJobId());
+        }
+        partitions.setLastAccess(threadPool.relativeTimeInMillis());
+        ClickthroughFetchResponse chunk = partitions.read(request.getPartition(), request.getFromPair(), request.getOffset(), maxBytes);
+        if (partitions.isFullyRead()) {
+            release(request.getJobId(), partitions);
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets the number of jobs whose partitions this node holds
+     */
+    public int size() {
+        return jobs.size();
+    }
+
+    private void scheduleExpiry(String jobId, ClickthroughPartitions partitions) {
+        threadPool.schedule(() -> {
+            if (jobs.get(jobId) != partitions) {
+                return;
+            }
+            if (threadPool.relativeTimeInMillis() - partitions.getLastAccess() >= KEEP_ALIVE.millis()) {
+                LOGGER.warn("Deleting click statistics partitions of job [{}], not fetched for {}", jobId, KEEP_ALIVE);
+                release(jobId, partitions);
+            } else {
+                scheduleExpiry(jobId, partitions);
+            }
+        }, KEEP_ALIVE, ThreadPool.Names.GENERIC);
+    }
+
+    private void release(String jobId, ClickthroughPartitions partitions) {
+        if (jobs.remove(jobId, partitions)) {
+            partitions.close();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.lucene.util.IOUtils;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.lease.Releasable;
+import org.opensearch.core.common.io.stream.InputStreamStreamInput;
+import org.opensearch.core.common.io.stream.OutputStreamStreamOutput;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
+
+/**
+ * The click statistics one node counted for a map job, written to one temporary file per partition, so the node holds
+ * none of its pairs in heap while the coordinator fetches the partitions a chunk at a time.
+ * A partition file is deleted once its last pair is read, and the remaining files when the partitions are closed.
+ */
+public class ClickthroughPartitions implements Releasable {
+    private static final String PARTITION_PREFIX = "clickthrough-";
+    private static final String PARTITION_SUFFIX = ".partition";
+
+    private final Path[] files;
+    private final int[] pairCounts;
+    private volatile long lastAccess;
+
+    private ClickthroughPartitions(Path[] files, int[] pairCounts) {
+        this.files = files;
+        this.pairCounts = pairCounts;
+    }
+
+    /**
+     * Write the pairs of the statistics to a file per partition, by the hash of the user query
+     * @param statistics the statistics
+     * @param partitionCount number of partitions
+     * @param directory the directory of the files
+     * @return the partitions, which the caller closes
+     * @throws IOException if the statistics cannot be read or the files cannot be written
+     */
+    public static ClickthroughPartitions write(ClickStatisticsTable statistics, int partitionCount, Path directory) throws IOException {
+        Path[] files = new Path[partitionCount];
+        int[] pairCounts = new int[partitionCount];
+        StreamOutput[] outputs = new StreamOutput[partitionCount];
+        boolean success = false;
+        try {
+            for (int partition = 0; partition < partitionCount; partition++) {
+                files[partition] = Files.createTempFile(directory, PARTITION_PREFIX, PARTITION_SUFFIX);
+                outputs[partition] = new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(files[partition])));
+            }
+            statistics.forEachPair((userQuery, objectId, clicks, impressions, rank) -> {
+                int partition = ClickthroughMapNodeResponse.partition(userQuery, partitionCount);
+                writePair(outputs[partition], userQuery, objectId, clicks, impressions, rank);
+                pairCounts[partition]++;
+            });
+            IOUtils.close(outputs);
+            success = true;
+        } finally {
+            if (!success) {
+                IOUtils.closeWhileHandlingException(outputs);
+                IOUtils.deleteFilesIgnoringExceptions(files);
+            }
+        }
+        ClickthroughPartitions partitions = new ClickthroughPartitions(files, pairCounts);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (pairCounts[partition] == 0) {
+                partitions.delete(partition);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Read the next chunk of pairs of a partition, at least one pair and about maxBytes of them.
+     * The partition file is deleted when the chunk holds its last pair.
+     * @param partition the partition
+     * @param fromPair number of pairs of the partition read so far
+     * @param offset position in the partition file of the pair fromPair
+     * @param maxBytes size of the chunk past which no more pairs are added
+     * @return the chunk
+     * @throws IOException if the partition file cannot be read
+     */
+    public synchronized ClickthroughFetchResponse read(int partition, int fromPair, long offset, long maxBytes) throws IOException {
+        if (files[partition] == null) {
+            throw new IllegalStateException("partition " + partition + " was already read");
+        }
+        int pairCount = pairCounts[partition];
+        BytesStreamOutput chunk = new BytesStreamOutput();
+        int pair = fromPair;
+        SeekableByteChannel channel = Files.newByteChannel(files[partition]);
+        try (StreamInput in = new InputStreamStreamInput(new BufferedInputStream(Channels.newInputStream(channel.position(offset))))) {
+            while (pair < pairCount && chunk.size() < maxBytes) {
+                writePair(chunk, in.readString(), in.readString(), in.readVLong(), in.readVLong(), in.readInt());
+                pair++;
+            }
+        } finally {
+            channel.close();
+        }
+        if (pair == pairCount) {
+            delete(partition);
+        }
+        return new ClickthroughFetchResponse(chunk.bytes(), pair - fromPair, offset + chunk.size());
+    }
+
+    /**
+     * Gets whether every partition was read to its last pair
+     */
+    public synchronized boolean isFullyRead() {
+        for (Path file : files) {
+            if (file != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int[] getPairCounts() {
+        return pairCounts;
+    }
+
+    /**
+     * Gets the relative time in milliseconds the partitions were last written or read, 0 if never
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public void setLastAccess(long lastAccess) {
+        this.lastAccess = lastAccess;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (int partition = 0; partition < files.length; partition++) {
+            delete(partition);
+        }
+    }
+
+    private void delete(int partition) {
+        if (files[partition] != null) {
+            IOUtils.deleteFilesIgnoringExceptions(files[partition]);
+            files[partition] = null;
+        }
+    }
+
+    /**
+     * Write a pair, pairs read back from a partition file are written to a chunk with the same encoding
+     */
+    static void writePair(StreamOutput out, String userQuery, String objectId, long clicks, long impressions, int rank)
+        throws IOException {
+        out.writeString(userQuery);
+        out.writeString(objectId);
+        out.writeVLong(clicks);
+        out.writeVLong(impressions);
+        out.writeInt(rank);
+    }
+}
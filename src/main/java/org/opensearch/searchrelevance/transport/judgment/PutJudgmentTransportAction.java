@@ -8,6 +8,13 @@
 package org.opensearch.searchrelevance.transport.judgment;
 
 import static org.opensearch.searchrelevance.common.MetricsConstants.MODEL_ID;
+import static org.opensearch.searchrelevance.common.PluginConstants.AGGREGATE_EVENTS;
+import static org.opensearch.searchrelevance.common.PluginConstants.INCREMENTAL;
+import static org.opensearch.searchrelevance.common.PluginConstants.LLM_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.PluginConstants.MULTI_QUERY_PACKING;
+import static org.opensearch.searchrelevance.common.PluginConstants.SEARCH_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_FILTER;
+import static org.opensearch.searchrelevance.common.PluginConstants.WINDOW_DAYS;
 import static org.opensearch.searchrelevance.ubi.UbiValidator.checkUbiIndicesExist;
 
 import java.util.ArrayList;
@@ -103,6 +110,9 @@ public class PutJudgmentTransportAction extends HandledTransportAction<PutJudgme
                 metadata.put("tokenLimit", llmRequest.getTokenLimit());
                 metadata.put("contextFields", llmRequest.getContextFields());
                 metadata.put("ignoreFailure", llmRequest.isIgnoreFailure());
+                metadata.put(SEARCH_CONCURRENCY, llmRequest.getSearchConcurrency());
+                metadata.put(LLM_CONCURRENCY, llmRequest.getLlmConcurrency());
+                metadata.put(MULTI_QUERY_PACKING, llmRequest.isMultiQueryPacking());
             }
             case UBI_JUDGMENT -> {
                 if (!checkUbiIndicesExist(clusterService)) {
@@ -112,6 +122,12 @@ public class PutJudgmentTransportAction extends HandledTransportAction<PutJudgme
                 PutUbiJudgmentRequest ubiRequest = (PutUbiJudgmentRequest) request;
                 metadata.put("clickModel", ubiRequest.getClickModel());
                 metadata.put("maxRank", ubiRequest.getMaxRank());
+                metadata.put(AGGREGATE_EVENTS, ubiRequest.isAggregateEvents());
+                metadata.put(INCREMENTAL, ubiRequest.isIncremental());
+                metadata.put(WINDOW_DAYS, ubiRequest.getWindowDays());
+                if (!ubiRequest.getFilter().isEmpty()) {
+                    metadata.put(UBI_FILTER, ubiRequest.getFilter().toMap());
+                }
             }
             case IMPORT_JUDGMENT -> {
                 PutImportJudgmentRequest importRequest = (PutImportJudgmentRequest) request;
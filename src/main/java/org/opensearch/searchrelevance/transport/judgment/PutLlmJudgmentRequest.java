@@ -12,6 +12,7 @@ import java.util.List;
 
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.searchrelevance.common.MLConstants;
 import org.opensearch.searchrelevance.model.JudgmentType;
 
 import reactor.util.annotation.NonNull;
@@ -41,6 +42,21 @@ public class PutLlmJudgmentRequest extends PutJudgmentRequest {
      */
     private boolean ignoreFailure;
 
+    /**
+     * Maximum number of query texts whose searches run at the same time.
+     */
+    private int searchConcurrency;
+
+    /**
+     * Maximum number of query texts waiting on the LLM at the same time.
+     */
+    private int llmConcurrency;
+
+    /**
+     * Specifies whether hits of several query texts are combined into one LLM call.
+     */
+    private boolean multiQueryPacking;
+
     public PutLlmJudgmentRequest(
         @NonNull JudgmentType type,
         @NonNull String name,
@@ -52,6 +68,68 @@ public class PutLlmJudgmentRequest extends PutJudgmentRequest {
         int tokenLimit,
         List<String> contextFields,
         boolean ignoreFailure
+    ) {
+        this(
+            type,
+            name,
+            description,
+            modelId,
+            querySetId,
+            searchConfigurationList,
+            size,
+            tokenLimit,
+            contextFields,
+            ignoreFailure,
+            MLConstants.DEFAULTED_SEARCH_CONCURRENCY,
+            MLConstants.DEFAULTED_LLM_CONCURRENCY
+        );
+    }
+
+    public PutLlmJudgmentRequest(
+        @NonNull JudgmentType type,
+        @NonNull String name,
+        @NonNull String description,
+        @NonNull String modelId,
+        @NonNull String querySetId,
+        @NonNull List<String> searchConfigurationList,
+        int size,
+        int tokenLimit,
+        List<String> contextFields,
+        boolean ignoreFailure,
+        int searchConcurrency,
+        int llmConcurrency
+    ) {
+        this(
+            type,
+            name,
+            description,
+            modelId,
+            querySetId,
+            searchConfigurationList,
+            size,
+            tokenLimit,
+            contextFields,
+            ignoreFailure,
+            searchConcurrency,
+            llmConcurrency,
+            false
+        );
+    }
+
+    public PutLlmJudgmentRequest(
+        @NonNull JudgmentType type,
+        @NonNull String name,
+        @NonNull String description,
+        @NonNull String modelId,
+        @NonNull String querySetId,
+        @NonNull List<String> searchConfigurationList,
+        int size,
+        int tokenLimit,
+        List<String> contextFields,
+        boolean ignoreFailure,
+        int searchConcurrency,
+        int llmConcurrency,
+        boolean multiQueryPacking
     ) {
         super(type, name, description);
         this.modelId = modelId;
@@ -61,6 +139,9 @@ public class PutLlmJudgmentRequest extends PutJudgmentRequest {
         this.tokenLimit = tokenLimit;
         this.contextFields = contextFields;
         this.ignoreFailure = ignoreFailure;
+        this.searchConcurrency = searchConcurrency;
+        this.llmConcurrency = llmConcurrency;
+        this.multiQueryPacking = multiQueryPacking;
     }
 
     public PutLlmJudgmentRequest(StreamInput in) throws IOException {
@@ -72,6 +153,9 @@ public class PutLlmJudgmentRequest extends PutJudgmentRequest {
         this.tokenLimit = in.readOptionalInt();
         this.contextFields = in.readOptionalStringList();
         this.ignoreFailure = Boolean.TRUE.equals(in.readOptionalBoolean()); // by defaulted as false if not provided
+        this.searchConcurrency = in.readInt();
+        this.llmConcurrency = in.readInt();
+        this.multiQueryPacking = in.readBoolean();
     }
 
     @Override
@@ -84,6 +168,9 @@ public class PutLlmJudgmentRequest extends PutJudgmentRequest {
         out.writeOptionalInt(tokenLimit);
         out.writeOptionalStringArray(contextFields.toArray(new String[0]));
         out.writeOptionalBoolean(ignoreFailure);
+        out.writeInt(searchConcurrency);
+        out.writeInt(llmConcurrency);
+        out.writeBoolean(multiQueryPacking);
     }
 
     public String getModelId() {
@@ -114,4 +201,16 @@ public class PutLlmJudgmentRequest extends PutJudgmentRequest {
         return ignoreFailure;
     }
 
+    public int getSearchConcurrency() {
+        return searchConcurrency;
+    }
+
+    public int getLlmConcurrency() {
+        return llmConcurrency;
+    }
+
+    public boolean isMultiQueryPacking() {
+        return multiQueryPacking;
+    }
+
 }
@@ -12,12 +12,17 @@ import java.io.IOException;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.core.common.io.stream.StreamOutput;
 import org.opensearch.searchrelevance.model.JudgmentType;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
 
 import reactor.util.annotation.NonNull;
 
 public class PutUbiJudgmentRequest extends PutJudgmentRequest {
     private String clickModel;
     private int maxRank;
+    private boolean aggregateEvents;
+    private boolean incremental;
+    private int windowDays;
+    private UbiFilter filter;
 
     public PutUbiJudgmentRequest(
         @NonNull JudgmentType type,
@@ -25,16 +30,62 @@ public class PutUbiJudgmentRequest extends PutJudgmentRequest {
         @NonNull String description,
         @NonNull String clickModel,
         int maxRank
+    ) {
+        this(type, name, description, clickModel, maxRank, false);
+    }
+
+    public PutUbiJudgmentRequest(
+        @NonNull JudgmentType type,
+        @NonNull String name,
+        @NonNull String description,
+        @NonNull String clickModel,
+        int maxRank,
+        boolean aggregateEvents
+    ) {
+        this(type, name, description, clickModel, maxRank, aggregateEvents, false, 0);
+    }
+
+    public PutUbiJudgmentRequest(
+        @NonNull JudgmentType type,
+        @NonNull String name,
+        @NonNull String description,
+        @NonNull String clickModel,
+        int maxRank,
+        boolean aggregateEvents,
+        boolean incremental,
+        int windowDays
+    ) {
+        this(type, name, description, clickModel, maxRank, aggregateEvents, incremental, windowDays, UbiFilter.NONE);
+    }
+
+    public PutUbiJudgmentRequest(
+        @NonNull JudgmentType type,
+        @NonNull String name,
+        @NonNull String description,
+        @NonNull String clickModel,
+        int maxRank,
+        boolean aggregateEvents,
+        boolean incremental,
+        int windowDays,
+        @NonNull UbiFilter filter
     ) {
         super(type, name, description);
         this.clickModel = clickModel;
         this.maxRank = maxRank;
+        this.aggregateEvents = aggregateEvents;
+        this.incremental = incremental;
+        this.windowDays = windowDays;
+        this.filter = filter;
     }
 
     public PutUbiJudgmentRequest(StreamInput in) throws IOException {
         super(in);
         this.clickModel = in.readString();
         this.maxRank = in.readInt();
+        this.aggregateEvents = in.readBoolean();
+        this.incremental = in.readBoolean();
+        this.windowDays = in.readVInt();
+        this.filter = new UbiFilter(in);
     }
 
     @Override
@@ -42,6 +93,10 @@ public class PutUbiJudgmentRequest extends PutJudgmentRequest {
         super.writeTo(out);
         out.writeString(clickModel);
         out.writeInt(maxRank);
+        out.writeBoolean(aggregateEvents);
+        out.writeBoolean(incremental);
+        out.writeVInt(windowDays);
+        filter.writeTo(out);
     }
 
     public String getClickModel() {
@@ -51,4 +106,20 @@ public class PutUbiJudgmentRequest extends PutJudgmentRequest {
     public int getMaxRank() {
         return maxRank;
     }
+
+    public boolean isAggregateEvents() {
+        return aggregateEvents;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public UbiFilter getFilter() {
+        return filter;
+    }
 }
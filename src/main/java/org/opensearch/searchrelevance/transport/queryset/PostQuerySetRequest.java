@@ -15,6 +15,7 @@ import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.common.Nullable;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
 
 /**
  * Create Request supports sampling from ubi queries.
@@ -24,12 +25,18 @@ public class PostQuerySetRequest extends ActionRequest {
     private String description;
     private String sampling;
     private int querySetSize;
+    private UbiFilter filter;
 
     public PostQuerySetRequest(String name, String description, String sampling, int querySetSize) {
+        this(name, description, sampling, querySetSize, UbiFilter.NONE);
+    }
+
+    public PostQuerySetRequest(String name, String description, String sampling, int querySetSize, UbiFilter filter) {
         this.name = Objects.requireNonNull(name, "name cannot be null.");
         this.description = description;
         this.sampling = Objects.requireNonNull(sampling, "sampling cannot be null.");
         this.querySetSize = Objects.requireNonNull(querySetSize, "querySetSize cannot be null.");
+        this.filter = Objects.requireNonNull(filter, "filter cannot be null.");
     }
 
     public PostQuerySetRequest(StreamInput in) throws IOException {
@@ -38,6 +45,7 @@ public class PostQuerySetRequest extends ActionRequest {
         this.description = in.readString();
         this.sampling = in.readString();
         this.querySetSize = in.readInt();
+        this.filter = new UbiFilter(in);
     }
 
     @Override
@@ -47,6 +55,7 @@ public class PostQuerySetRequest extends ActionRequest {
         out.writeString(description);
         out.writeString(sampling);
         out.writeInt(querySetSize);
+        filter.writeTo(out);
     }
 
     public String getName() {
@@ -66,6 +75,10 @@ public class PostQuerySetRequest extends ActionRequest {
         return querySetSize;
     }
 
+    public UbiFilter getFilter() {
+        return filter;
+    }
+
     @Override
     public ActionRequestValidationException validate() {
         return null;
@@ -72,7 +72,7 @@ public class PostQuerySetTransportAction extends HandledTransportAction<PostQuer
         // Given sampling type and querySetSize, build the queryset accordingly
         String sampling = request.getSampling();
         int querySetSize = request.getQuerySetSize();
-        QuerySampler querySampler = QuerySampler.create(sampling, querySetSize, client);
+        QuerySampler querySampler = QuerySampler.create(sampling, querySetSize, client, request.getFilter());
         Map<String, Integer> querySetQueries = new HashMap<>();
         try {
             querySetQueries = querySampler.sample().get();
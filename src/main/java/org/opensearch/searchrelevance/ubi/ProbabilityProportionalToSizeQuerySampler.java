@@ -8,25 +8,22 @@
 package org.opensearch.searchrelevance.ubi;
 
 import static org.opensearch.searchrelevance.common.PluginConstants.UBI_QUERIES_INDEX;
+import static org.opensearch.searchrelevance.common.PluginConstants.USER_QUERY_FIELD;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.math3.distribution.UniformRealDistribution;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.opensearch.action.search.SearchRequest;
-import org.opensearch.action.search.SearchResponse;
-import org.opensearch.action.search.SearchScrollRequest;
-import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.action.ActionListener;
+import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
-import org.opensearch.search.Scroll;
 import org.opensearch.search.SearchHit;
-import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.transport.client.Client;
 
 /**
@@ -42,13 +39,16 @@ public class ProbabilityProportionalToSizeQuerySampler extends QuerySampler {
         super(size, client);
     }
 
+    public ProbabilityProportionalToSizeQuerySampler(int size, Client client, UbiFilter filter) {
+        super(size, client, filter);
+    }
+
     @Override
     public CompletableFuture<Map<String, Integer>> sample() {
         // Get queries from the UBI queries index.
-        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(QueryBuilders.matchAllQuery()).size(10000);
         CompletableFuture<Map<String, Integer>> future = new CompletableFuture<>();
 
-        getUserQueries(searchSourceBuilder, new ActionListener<Collection<String>>() {
+        getUserQueries(getFilter().filterQueries(QueryBuilders.boolQuery()), new ActionListener<Collection<String>>() {
             @Override
             public void onResponse(Collection<String> userQueries) {
                 try {
@@ -131,74 +131,19 @@ public class ProbabilityProportionalToSizeQuerySampler extends QuerySampler {
         return querySet;
     }
 
-    private void getUserQueries(SearchSourceBuilder searchSourceBuilder, ActionListener<Collection<String>> listener) {
+    private void getUserQueries(QueryBuilder query, ActionListener<Collection<String>> listener) {
         Collection<String> userQueries = new ArrayList<>();
-        scrollUserQueries(searchSourceBuilder, new Scroll(TimeValue.timeValueMinutes(10L)), userQueries, null, listener);
-    }
-
-    private void scrollUserQueries(
-        SearchSourceBuilder searchSourceBuilder,
-        Scroll scroll,
-        Collection<String> accumulator,
-        String scrollId,
-        ActionListener<Collection<String>> listener
-    ) {
-
-        try {
-            if (scrollId == null) {
-                // Initial search
-                SearchRequest searchRequest = new SearchRequest(UBI_QUERIES_INDEX).scroll(scroll).source(searchSourceBuilder);
-
-                getClient().search(
-                    searchRequest,
-                    ActionListener.wrap(
-                        searchResponse -> processSearchResponse(searchResponse, scroll, accumulator, listener),
-                        listener::onFailure
-                    )
-                );
-            } else {
-                // Subsequent scroll requests
-                SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(scroll);
-
-                getClient().searchScroll(
-                    scrollRequest,
-                    ActionListener.wrap(
-                        searchResponse -> processSearchResponse(searchResponse, scroll, accumulator, listener),
-                        listener::onFailure
-                    )
-                );
-            }
-        } catch (Exception e) {
-            listener.onFailure(e);
-        }
-    }
-
-    private void processSearchResponse(
-        SearchResponse searchResponse,
-        Scroll scroll,
-        Collection<String> accumulator,
-        ActionListener<Collection<String>> listener
-    ) {
-        try {
-            SearchHit[] hits = searchResponse.getHits().getHits();
-
-            if (hits == null || hits.length == 0) {
-                listener.onResponse(accumulator);
-                return;
-            }
-
+        Client client = getClient();
+        UbiScanner scanner = new UbiScanner(client, client.threadPool().generic(), UBI_QUERIES_INDEX, query, List.of(USER_QUERY_FIELD));
+        scanner.scan(hits -> {
             for (SearchHit hit : hits) {
-                Map<String, Object> fields = hit.getSourceAsMap();
-                String userQuery = fields.get("user_query").toString();
-                accumulator.add(userQuery);
-                LOGGER.debug("User queries count: {} user query: {}", accumulator.size(), userQuery);
+                Object userQuery = UbiScanner.docValue(hit, USER_QUERY_FIELD);
+                if (userQuery != null) {
+                    userQueries.add(getDictionary().intern(userQuery.toString()));
+                }
             }
-
-            // Continue scrolling
-            scrollUserQueries(null, scroll, accumulator, searchResponse.getScrollId(), listener);
-        } catch (Exception e) {
-            listener.onFailure(e);
-        }
+            LOGGER.debug("User queries count: {}", userQueries.size());
+        }, ActionListener.wrap(scanned -> listener.onResponse(userQueries), listener::onFailure));
     }
 
     private boolean compareDouble(double a, double b) {
@@ -14,6 +14,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.core.rest.RestStatus;
 import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.judgments.queryhash.UserQueryDictionary;
 import org.opensearch.transport.client.Client;
 
 import reactor.util.annotation.NonNull;
@@ -22,10 +23,20 @@ public abstract class QuerySampler {
     private static final Logger LOGGER = LogManager.getLogger(QuerySampler.class);
     private final Client client;
     private final int size;
+    private final UbiFilter filter;
+    /**
+     * Normalizes the sampled user queries, so case and whitespace variants of a query are counted as one query.
+     */
+    private final UserQueryDictionary dictionary = new UserQueryDictionary();
 
     protected QuerySampler(int size, @NonNull Client client) {
+        this(size, client, UbiFilter.NONE);
+    }
+
+    protected QuerySampler(int size, @NonNull Client client, @NonNull UbiFilter filter) {
         this.client = client;
         this.size = size;
+        this.filter = filter;
     }
 
     protected Client getClient() {
@@ -36,13 +47,28 @@ public abstract class QuerySampler {
         return size;
     }
 
+    protected UbiFilter getFilter() {
+        return filter;
+    }
+
+    protected UserQueryDictionary getDictionary() {
+        return dictionary;
+    }
+
     public abstract CompletableFuture<Map<String, Integer>> sample();
 
     public static QuerySampler create(String name, int size, Client client) {
+        return create(name, size, client, UbiFilter.NONE);
+    }
+
+    /**
+     * Create a sampler that only samples the UBI queries matching the filter
+     */
+    public static QuerySampler create(String name, int size, Client client, UbiFilter filter) {
         return switch (name) {
-            case ProbabilityProportionalToSizeQuerySampler.NAME -> new ProbabilityProportionalToSizeQuerySampler(size, client);
-            case RandomQuerySampler.NAME -> new RandomQuerySampler(size, client);
-            case TopNQuerySampler.NAME -> new TopNQuerySampler(size, client);
+            case ProbabilityProportionalToSizeQuerySampler.NAME -> new ProbabilityProportionalToSizeQuerySampler(size, client, filter);
+            case RandomQuerySampler.NAME -> new RandomQuerySampler(size, client, filter);
+            case TopNQuerySampler.NAME -> new TopNQuerySampler(size, client, filter);
             default -> throw new SearchRelevanceException("Unknown sampler type: " + name, RestStatus.BAD_REQUEST);
         };
     }
@@ -13,6 +13,7 @@ import static org.opensearch.searchrelevance.common.PluginConstants.USER_QUERY_F
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
@@ -43,6 +44,10 @@ public class RandomQuerySampler extends QuerySampler {
         super(size, client);
     }
 
+    public RandomQuerySampler(int size, Client client, UbiFilter filter) {
+        super(size, client, filter);
+    }
+
     @Override
     public CompletableFuture<Map<String, Integer>> sample() {
         CompletableFuture<Map<String, Integer>> future = new CompletableFuture<>();
@@ -82,7 +87,7 @@ public class RandomQuerySampler extends QuerySampler {
                 new FunctionScoreQueryBuilder.FilterFunctionBuilder(randomScoreFunction) }
         );
 
-        BoolQueryBuilder boolQueryBuilder = QueryBuilders.boolQuery()
+        BoolQueryBuilder boolQueryBuilder = getFilter().filterQueries(QueryBuilders.boolQuery())
             .must(QueryBuilders.existsQuery(USER_QUERY_FIELD))
             .must(functionScoreQueryBuilder)
             .mustNot(QueryBuilders.termQuery(USER_QUERY_FIELD, ""));
@@ -95,7 +100,7 @@ public class RandomQuerySampler extends QuerySampler {
     }
 
     private CompletableFuture<Map<String, Integer>> getQuerySet(SearchResponse searchResponse) {
-        Map<String, Integer> querySet = new HashMap<>();
+        Map<String, Integer> querySet = new ConcurrentHashMap<>();
         CompletableFuture<?>[] futures = new CompletableFuture[searchResponse.getHits().getHits().length];
 
         int i = 0;
@@ -103,7 +108,7 @@ public class RandomQuerySampler extends QuerySampler {
             String userQuery = (String) hit.getSourceAsMap().get(USER_QUERY_FIELD);
             futures[i++] = getUserQueryCount(userQuery).thenAccept(count -> {
                 LOGGER.info("Adding user query to query set: {} with frequency {}", userQuery, count);
-                querySet.put(userQuery, Math.toIntExact(count));
+                querySet.merge(getDictionary().intern(userQuery), Math.toIntExact(count), Integer::sum);
             });
         }
 
@@ -113,7 +118,9 @@ public class RandomQuerySampler extends QuerySampler {
     private CompletableFuture<Long> getUserQueryCount(String userQuery) {
         CompletableFuture<Long> future = new CompletableFuture<>();
 
-        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(QueryBuilders.termQuery(USER_QUERY_FIELD, userQuery))
+        BoolQueryBuilder queryBuilder = getFilter().filterQueries(QueryBuilders.boolQuery())
+            .filter(QueryBuilders.termQuery(USER_QUERY_FIELD, userQuery));
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(queryBuilder)
             .size(0)
             .trackTotalHits(true);
 
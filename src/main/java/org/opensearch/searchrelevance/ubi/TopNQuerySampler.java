@@ -41,6 +41,10 @@ public class TopNQuerySampler extends QuerySampler {
         super(size, client);
     }
 
+    public TopNQuerySampler(int size, Client client, UbiFilter filter) {
+        super(size, client, filter);
+    }
+
     @Override
     public CompletableFuture<Map<String, Integer>> sample() {
         CompletableFuture<Map<String, Integer>> future = new CompletableFuture<>();
@@ -81,7 +85,7 @@ public class TopNQuerySampler extends QuerySampler {
         AggregationBuilder userQueryAggregation = AggregationBuilders.terms(AGGREGATION_NAME).field(USER_QUERY_FIELD).size(getSize());
 
         // Build query
-        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery()
+        BoolQueryBuilder boolQuery = getFilter().filterQueries(QueryBuilders.boolQuery())
             .must(QueryBuilders.existsQuery(USER_QUERY_FIELD))
             .mustNot(QueryBuilders.termQuery(USER_QUERY_FIELD, ""));
 
@@ -103,7 +107,7 @@ public class TopNQuerySampler extends QuerySampler {
 
             if (query != null && !query.trim().isEmpty()) {
                 LOGGER.debug("Adding query to set: {} (count: {})", query, count);
-                querySet.put(query, Math.toIntExact(count));
+                querySet.merge(getDictionary().intern(query), Math.toIntExact(count), Integer::sum);
             }
         }
 
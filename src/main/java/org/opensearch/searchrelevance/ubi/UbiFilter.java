@@ -0,0 +1,280 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ubi;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.index.mapper.DateFieldMapper;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.RangeQueryBuilder;
+
+/**
+ * Restricts the UBI queries and events read for judgments and query sampling to a time range, an application, a client
+ * and, for events, a set of actions. The restrictions are added as filter clauses to the queries sent to the UBI indices,
+ * so documents outside of them are never read. Times are dates or date math, such as "now-30d", compared to the timestamp,
+ * and are validated when the filter is parsed.
+ * The actions are the engagement actions the click models count as clicks, such as "add_to_cart", instead of "click".
+ * Impressions are always read, since every click model counts them.
+ */
+public class UbiFilter implements Writeable {
+    public static final UbiFilter NONE = new UbiFilter(null, null, null, null, List.of());
+
+    public static final String START_TIME = "startTime";
+    public static final String END_TIME = "endTime";
+    public static final String APPLICATION = "application";
+    public static final String CLIENT_ID = "clientId";
+    public static final String ACTIONS = "actions";
+
+    static final String TIMESTAMP_FIELD = "timestamp";
+    static final String APPLICATION_FIELD = "application";
+    static final String CLIENT_ID_FIELD = "client_id";
+    static final String ACTION_NAME_FIELD = "action_name";
+    static final String CLICK_ACTION = "click";
+    static final String IMPRESSION_ACTION = "impression";
+
+    private final String startTime;
+    private final String endTime;
+    private final String application;
+    private final String clientId;
+    private final List<String> actions;
+
+    public UbiFilter(String startTime, String endTime, String application, String clientId, List<String> actions) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.application = application;
+        this.clientId = clientId;
+        this.actions = actions == null ? List.of() : List.copyOf(actions);
+    }
+
+    public UbiFilter(StreamInput in) throws IOException {
+        this.startTime = in.readOptionalString();
+        this.endTime = in.readOptionalString();
+        this.application = in.readOptionalString();
+        this.clientId = in.readOptionalString();
+        this.actions = in.readStringList();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeOptionalString(startTime);
+        out.writeOptionalString(endTime);
+        out.writeOptionalString(application);
+        out.writeOptionalString(clientId);
+        out.writeStringCollection(actions);
+    }
+
+    /**
+     * Parse the filter field of a request body
+     * @param source - the value of the field, null for no filter
+     * @return the filter
+     * @throws IllegalArgumentException if the value is not an object or not a valid filter
+     */
+    @SuppressWarnings("unchecked")
+    public static UbiFilter parse(Object source) {
+        if (source != null && !(source instanceof Map)) {
+            throw new IllegalArgumentException("UBI filter must be an object");
+        }
+        return fromMap((Map<String, Object>) source);
+    }
+
+    /**
+     * Parse a filter from a request body or judgment metadata
+     * @param source - the filter object, null for no filter
+     * @return the filter
+     * @throws IllegalArgumentException if a filter field has the wrong type or is blank, or an action is an impression
+     */
+    public static UbiFilter fromMap(Map<String, Object> source) {
+        if (source == null || source.isEmpty()) {
+            return NONE;
+        }
+        for (String field : source.keySet()) {
+            if (!List.of(START_TIME, END_TIME, APPLICATION, CLIENT_ID, ACTIONS).contains(field)) {
+                throw new IllegalArgumentException("Unknown UBI filter field: " + field);
+            }
+        }
+        Object actions = source.get(ACTIONS);
+        if (actions != null && (!(actions instanceof List<?> actionList) || actionList.stream().anyMatch(UbiFilter::isBlankOrNotString))) {
+            throw new IllegalArgumentException("UBI filter " + ACTIONS + " must be a list of action names");
+        }
+        @SuppressWarnings("unchecked")
+        List<String> actionNames = (List<String>) actions;
+        if (actionNames != null && actionNames.stream().anyMatch(IMPRESSION_ACTION::equalsIgnoreCase)) {
+            throw new IllegalArgumentException("UBI filter " + ACTIONS + " are counted as clicks and cannot include " + IMPRESSION_ACTION);
+        }
+        return new UbiFilter(
+            dateField(source, START_TIME),
+            dateField(source, END_TIME),
+            stringField(source, APPLICATION),
+            stringField(source, CLIENT_ID),
+            actionNames
+        );
+    }
+
+    /**
+     * Gets the filter as it is stored in the judgment metadata, the inverse of {@link #fromMap(Map)}
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        putIfNotNull(map, START_TIME, startTime);
+        putIfNotNull(map, END_TIME, endTime);
+        putIfNotNull(map, APPLICATION, application);
+        putIfNotNull(map, CLIENT_ID, clientId);
+        if (!actions.isEmpty()) {
+            map.put(ACTIONS, actions);
+        }
+        return map;
+    }
+
+    public boolean isEmpty() {
+        return startTime == null && endTime == null && application == null && clientId == null && actions.isEmpty();
+    }
+
+    /**
+     * Add the filter clauses that apply to the ubi_queries index
+     * @param query - the query to restrict
+     * @return the query
+     */
+    public BoolQueryBuilder filterQueries(BoolQueryBuilder query) {
+        if (startTime != null || endTime != null) {
+            RangeQueryBuilder timeRange = QueryBuilders.rangeQuery(TIMESTAMP_FIELD);
+            if (startTime != null) {
+                timeRange.gte(startTime);
+            }
+            if (endTime != null) {
+                timeRange.lte(endTime);
+            }
+            query.filter(timeRange);
+        }
+        if (application != null) {
+            query.filter(QueryBuilders.termQuery(APPLICATION_FIELD, application));
+        }
+        if (clientId != null) {
+            query.filter(QueryBuilders.termQuery(CLIENT_ID_FIELD, clientId));
+        }
+        return query;
+    }
+
+    /**
+     * Add the filter clauses that apply to the ubi_events index, which also restrict the actions to the filtered ones
+     * and impressions
+     * @param query - the query to restrict
+     * @return the query
+     */
+    public BoolQueryBuilder filterEvents(BoolQueryBuilder query) {
+        filterQueries(query);
+        if (!actions.isEmpty()) {
+            query.filter(clickQuery().should(QueryBuilders.termQuery(ACTION_NAME_FIELD, IMPRESSION_ACTION).caseInsensitive(true)));
+        }
+        return query;
+    }
+
+    /**
+     * Gets the actions counted as clicks, the filtered actions or else "click"
+     */
+    public List<String> getClickActions() {
+        return actions.isEmpty() ? List.of(CLICK_ACTION) : actions;
+    }
+
+    /**
+     * Whether events of an action are counted as clicks, action names are compared ignoring case
+     */
+    public boolean isClick(String action) {
+        return getClickActions().stream().anyMatch(clickAction -> clickAction.equalsIgnoreCase(action));
+    }
+
+    /**
+     * Query matching the events counted as clicks
+     */
+    public BoolQueryBuilder clickQuery() {
+        BoolQueryBuilder clickQuery = QueryBuilders.boolQuery().minimumShouldMatch(1);
+        for (String clickAction : getClickActions()) {
+            clickQuery.should(QueryBuilders.termQuery(ACTION_NAME_FIELD, clickAction).caseInsensitive(true));
+        }
+        return clickQuery;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public List<String> getActions() {
+        return actions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UbiFilter that = (UbiFilter) o;
+        return Objects.equals(startTime, that.startTime)
+            && Objects.equals(endTime, that.endTime)
+            && Objects.equals(application, that.application)
+            && Objects.equals(clientId, that.clientId)
+            && actions.equals(that.actions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startTime, endTime, application, clientId, actions);
+    }
+
+    @Override
+    public String toString() {
+        return "UbiFilter" + toMap();
+    }
+
+    private static String stringField(Map<String, Object> source, String field) {
+        Object value = source.get(field);
+        if (value != null && isBlankOrNotString(value)) {
+            throw new IllegalArgumentException("UBI filter " + field + " must be a non-empty string");
+        }
+        return (String) value;
+    }
+
+    private static String dateField(Map<String, Object> source, String field) {
+        String value = stringField(source, field);
+        if (value != null) {
+            try {
+                DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER.toDateMathParser().parse(value, System::currentTimeMillis);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("UBI filter " + field + " must be a date or date math, but was [" + value + "]", e);
+            }
+        }
+        return value;
+    }
+
+    private static boolean isBlankOrNotString(Object value) {
+        return !(value instanceof String string) || string.isBlank();
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String field, String value) {
+        if (value != null) {
+            map.put(field, value);
+        }
+    }
+}
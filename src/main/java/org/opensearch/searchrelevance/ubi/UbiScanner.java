@@ -0,0 +1,318 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ubi;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.DeletePitRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.ShardSearchFailure;
+import org.opensearch.common.CheckedConsumer;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.PointInTimeBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.slice.SliceBuilder;
+import org.opensearch.search.sort.FieldSortBuilder;
+import org.opensearch.search.sort.SortBuilders;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Reads every matching document of a UBI index through a point in time, one slice per shard, with search_after paging.
+ * Only the requested doc value fields are returned, so no _source is parsed.
+ * A slice requests its next page while earlier pages are still being processed, up to {@link #DEFAULT_PREFETCH_PAGES} pages
+ * waiting, so fetching and processing overlap. Pages are handed to the consumer one at a time on the given executor,
+ * so the consumer does not need to be thread safe. A {@link PageConsumer} may finish a page asynchronously, the next page
+ * is handed over once it completes the page, without a thread waiting in between.
+ * Each slice covers exactly one shard and pages in doc id order, which is why a scan reads a single index.
+ * A page that misses shards fails the scan, so a scan never succeeds with the events of a shard left out.
+ */
+public class UbiScanner {
+    private static final Logger LOGGER = LogManager.getLogger(UbiScanner.class);
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    public static final int DEFAULT_PREFETCH_PAGES = 4;
+    public static final TimeValue DEFAULT_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
+
+    private final Client client;
+    private final Executor executor;
+    private final String index;
+    private final QueryBuilder query;
+    private final List<String> docValueFields;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final TimeValue keepAlive;
+
+    public UbiScanner(Client client, Executor executor, String index, QueryBuilder query, List<String> docValueFields) {
+        this(client, executor, index, query, docValueFields, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_PAGES, DEFAULT_KEEP_ALIVE);
+    }
+
+    public UbiScanner(
+        Client client,
+        Executor executor,
+        String index,
+        QueryBuilder query,
+        List<String> docValueFields,
+        int pageSize,
+        int prefetchPages,
+        TimeValue keepAlive
+    ) {
+        if (pageSize < 1 || prefetchPages < 1) {
+            throw new IllegalArgumentException("pageSize and prefetchPages must be at least 1");
+        }
+        this.client = client;
+        this.executor = executor;
+        this.index = index;
+        this.query = query;
+        this.docValueFields = List.copyOf(docValueFields);
+        this.pageSize = pageSize;
+        this.prefetchPages = prefetchPages;
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Scan the index
+     * @param consumer - called with the hits of each page, one page at a time
+     * @param listener - completed once every page was consumed and the point in time was released, or on the first failure
+     */
+    public void scan(CheckedConsumer<SearchHit[], Exception> consumer, ActionListener<Void> listener) {
+        scan((hits, pageListener) -> ActionListener.completeWith(pageListener, () -> {
+            consumer.accept(hits);
+            return null;
+        }), listener);
+    }
+
+    /**
+     * Scan the index, with a consumer that may complete pages asynchronously
+     * @param consumer - called with the hits of each page, the next page is handed over once it completes the previous one
+     * @param listener - completed once every page was consumed and the point in time was released, or on the first failure
+     */
+    public void scan(PageConsumer consumer, ActionListener<Void> listener) {
+        CreatePitRequest createPitRequest = new CreatePitRequest(keepAlive, false, index);
+        client.createPit(createPitRequest, ActionListener.wrap(response -> {
+            int slices = Math.max(1, response.getTotalShards());
+            LOGGER.debug("Scanning {} with {} slices", index, slices);
+            new Scan(response.getId(), slices, consumer, listener).start();
+        }, listener::onFailure));
+    }
+
+    /**
+     * Reads a doc value field of a scanned hit
+     * @return the first value of the field, null when the document has no value
+     */
+    public static Object docValue(SearchHit hit, String field) {
+        DocumentField documentField = hit.field(field);
+        return documentField == null ? null : documentField.getValue();
+    }
+
+    /**
+     * Fail a search response that misses shards, its hits would silently leave out the documents of those shards
+     * @param response - the search response
+     * @param operation - what the search was for, starts the message
+     * @param index - the index searched
+     * @throws SearchRelevanceException if a shard failed or was skipped, or the search timed out
+     */
+    public static void ensureAllShardsRead(SearchResponse response, String operation, String index) {
+        if (response.getFailedShards() > 0 || response.getSkippedShards() > 0 || response.isTimedOut()) {
+            ShardSearchFailure[] shardFailures = response.getShardFailures();
+            throw new SearchRelevanceException(
+                String.format(
+                    Locale.ROOT,
+                    "%s read %d of %d shards of %s, %d failed, %d skipped, timed out: %b",
+                    operation,
+                    response.getSuccessfulShards(),
+                    response.getTotalShards(),
+                    index,
+                    response.getFailedShards(),
+                    response.getSkippedShards(),
+                    response.isTimedOut()
+                ),
+                shardFailures == null || shardFailures.length == 0 ? null : shardFailures[0].getCause(),
+                RestStatus.SERVICE_UNAVAILABLE
+            );
+        }
+    }
+
+    /**
+     * Consumes the pages of a scan
+     */
+    @FunctionalInterface
+    public interface PageConsumer {
+        /**
+         * Consume a page
+         * @param hits - the hits of the page
+         * @param listener - to complete once the page was consumed, failing it fails the scan
+         */
+        void accept(SearchHit[] hits, ActionListener<Void> listener);
+    }
+
+    SearchRequest pageRequest(String pitId, int slice, int slices, Object[] searchAfter) {
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder().query(query)
+            .size(pageSize)
+            .fetchSource(false)
+            .trackTotalHits(false)
+            .sort(SortBuilders.fieldSort(FieldSortBuilder.DOC_FIELD_NAME))
+            .pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(keepAlive));
+        docValueFields.forEach(sourceBuilder::docValueField);
+        if (slices > 1) {
+            sourceBuilder.slice(new SliceBuilder(slice, slices));
+        }
+        if (searchAfter != null) {
+            sourceBuilder.searchAfter(searchAfter);
+        }
+        return new SearchRequest().source(sourceBuilder);
+    }
+
+    /**
+     * State of one scan, guarded by its monitor
+     */
+    private class Scan {
+        private final String pitId;
+        private final int slices;
+        private final PageConsumer consumer;
+        private final ActionListener<Void> listener;
+        private final Deque<SearchHit[]> readyPages = new ArrayDeque<>();
+        private final Deque<Runnable> parkedFetches = new ArrayDeque<>();
+        private int activeSlices;
+        private boolean draining;
+        private boolean done;
+
+        Scan(String pitId, int slices, PageConsumer consumer, ActionListener<Void> listener) {
+            this.pitId = pitId;
+            this.slices = slices;
+            this.consumer = consumer;
+            this.listener = listener;
+            this.activeSlices = slices;
+        }
+
+        void start() {
+            for (int slice = 0; slice < slices; slice++) {
+                fetch(slice, null);
+            }
+        }
+
+        private void fetch(int slice, Object[] searchAfter) {
+            client.search(pageRequest(pitId, slice, slices, searchAfter), ActionListener.wrap(response -> {
+                // a failed shard returns no hits for its slice, which would end the slice as if it had been read
+                ensureAllShardsRead(response, "Scanning", index);
+                SearchHit[] hits = response.getHits().getHits();
+                Runnable nextFetch = null;
+                synchronized (this) {
+                    if (done) {
+                        return;
+                    }
+                    if (hits.length > 0) {
+                        readyPages.add(hits);
+                    }
+                    if (hits.length < pageSize) {
+                        activeSlices--;
+                    } else {
+                        Object[] lastSortValues = hits[hits.length - 1].getSortValues();
+                        Runnable fetchNext = () -> fetch(slice, lastSortValues);
+                        if (readyPages.size() < prefetchPages) {
+                            nextFetch = fetchNext;
+                        } else {
+                            parkedFetches.add(fetchNext);
+                        }
+                    }
+                }
+                if (nextFetch != null) {
+                    nextFetch.run();
+                }
+                scheduleDrain();
+            }, this::fail));
+        }
+
+        private void scheduleDrain() {
+            synchronized (this) {
+                if (draining || done) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SearchHit[] page;
+                Runnable parkedFetch;
+                synchronized (this) {
+                    page = readyPages.poll();
+                    if (page == null) {
+                        draining = false;
+                        if (activeSlices == 0 && done == false) {
+                            done = true;
+                            release(() -> listener.onResponse(null));
+                        }
+                        return;
+                    }
+                    parkedFetch = parkedFetches.poll();
+                }
+                if (parkedFetch != null) {
+                    parkedFetch.run();
+                }
+                // whichever of the consumer returning and the page completing comes second continues the drain
+                AtomicBoolean handedOver = new AtomicBoolean();
+                AtomicBoolean failed = new AtomicBoolean();
+                ActionListener<Void> pageListener = ActionListener.wrap(consumed -> {
+                    if (handedOver.compareAndSet(false, true) == false) {
+                        executor.execute(this::drain);
+                    }
+                }, e -> {
+                    failed.set(true);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    fail(e);
+                });
+                try {
+                    consumer.accept(page, pageListener);
+                } catch (Exception e) {
+                    pageListener.onFailure(e);
+                }
+                if (failed.get() || handedOver.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                readyPages.clear();
+                parkedFetches.clear();
+            }
+            LOGGER.error("Failed to scan " + index, e);
+            release(() -> listener.onFailure(e));
+        }
+
+        private void release(Runnable then) {
+            client.deletePits(new DeletePitRequest(List.of(pitId)), ActionListener.wrap(response -> then.run(), e -> {
+                LOGGER.warn("Failed to release point in time of scan on " + index, e);
+                then.run();
+            }));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ubi;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_QUERIES_INDEX;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.collapse.CollapseBuilder;
+import org.opensearch.searchrelevance.judgments.queryhash.UserQueryDictionary;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Joins UBI events to the user query of their query id in bulk. The ids a caller does not find in the cache are looked up
+ * in {@link org.opensearch.searchrelevance.common.PluginConstants#UBI_QUERIES_INDEX} with terms queries of at most
+ * {@link #DEFAULT_LOOKUP_BATCH_SIZE} ids, reading doc values only. Hits are collapsed on the query id, so a query id logged
+ * more than once takes a single hit and each batch stays within the default {@code index.max_result_window}.
+ * Resolved ids, and ids without a query, are kept in a bounded least recently used cache, so ids that repeat across pages
+ * of events are looked up once. Resolved user queries are normalized by {@link UserQueryDictionary#normalize(String)}.
+ * Instances are thread safe.
+ */
+public class UserQueryResolver {
+    private static final Logger LOGGER = LogManager.getLogger(UserQueryResolver.class);
+    public static final int DEFAULT_CACHE_SIZE = 100_000;
+    public static final int DEFAULT_LOOKUP_BATCH_SIZE = 1000;
+    static final String QUERY_ID_FIELD = "query_id";
+    static final String USER_QUERY_FIELD = "user_query";
+    private static final TimeValue SEARCH_TIMEOUT = TimeValue.timeValueMinutes(5);
+    /**
+     * Cached for query ids without a query, so they are not looked up again.
+     */
+    private static final String UNKNOWN_QUERY = "";
+
+    private final Client client;
+    private final Map<String, String> cache;
+    private final int lookupBatchSize;
+
+    public UserQueryResolver(Client client) {
+        this(client, DEFAULT_CACHE_SIZE);
+    }
+
+    public UserQueryResolver(Client client, int cacheSize) {
+        this(client, cacheSize, DEFAULT_LOOKUP_BATCH_SIZE);
+    }
+
+    public UserQueryResolver(Client client, int cacheSize, int lookupBatchSize) {
+        if (cacheSize < 1 || lookupBatchSize < 1) {
+            throw new IllegalArgumentException("cacheSize and lookupBatchSize must be at least 1");
+        }
+        this.client = client;
+        this.lookupBatchSize = lookupBatchSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Resolve query ids to their user queries
+     * @param queryIds - the query ids, duplicates are looked up once
+     * @param listener - responds with the normalized user query of each id that has one, ids without a query are left out
+     */
+    public void resolve(Collection<String> queryIds, ActionListener<Map<String, String>> listener) {
+        Map<String, String> userQueries = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (String queryId : new LinkedHashSet<>(queryIds)) {
+                String userQuery = cache.get(queryId);
+                if (userQuery == null) {
+                    missing.add(queryId);
+                } else if (!UNKNOWN_QUERY.equals(userQuery)) {
+                    userQueries.put(queryId, userQuery);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            listener.onResponse(userQueries);
+            return;
+        }
+
+        LOGGER.debug("Looking up user queries of {} query ids", missing.size());
+        lookUp(missing, 0, userQueries, listener);
+    }
+
+    /**
+     * Look up the missing ids one batch at a time, starting at the given offset
+     */
+    private void lookUp(List<String> missing, int from, Map<String, String> userQueries, ActionListener<Map<String, String>> listener) {
+        List<String> batch = missing.subList(from, Math.min(missing.size(), from + lookupBatchSize));
+        client.search(buildLookupRequest(batch), ActionListener.wrap(response -> {
+            Map<String, String> found = new HashMap<>();
+            for (SearchHit hit : response.getHits().getHits()) {
+                Object queryId = UbiScanner.docValue(hit, QUERY_ID_FIELD);
+                Object userQuery = UbiScanner.docValue(hit, USER_QUERY_FIELD);
+                if (queryId != null && userQuery != null) {
+                    found.putIfAbsent(queryId.toString(), UserQueryDictionary.normalize(userQuery.toString()));
+                }
+            }
+            synchronized (cache) {
+                for (String queryId : batch) {
+                    cache.put(queryId, found.getOrDefault(queryId, UNKNOWN_QUERY));
+                }
+            }
+            userQueries.putAll(found);
+            int next = from + batch.size();
+            if (next < missing.size()) {
+                lookUp(missing, next, userQueries, listener);
+            } else {
+                listener.onResponse(userQueries);
+            }
+        }, e -> {
+            LOGGER.error("Failed to look up user queries", e);
+            listener.onFailure(e);
+        }));
+    }
+
+    SearchRequest buildLookupRequest(List<String> queryIds) {
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder().query(QueryBuilders.termsQuery(QUERY_ID_FIELD, queryIds))
+            .size(queryIds.size())
+            .collapse(new CollapseBuilder(QUERY_ID_FIELD))
+            .fetchSource(false)
+            .trackTotalHits(false)
+            .timeout(SEARCH_TIMEOUT)
+            .docValueField(QUERY_ID_FIELD)
+            .docValueField(USER_QUERY_FIELD);
+        return new SearchRequest(UBI_QUERIES_INDEX).source(sourceBuilder);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Bounds the number of asynchronous tasks running at the same time without blocking any thread.
+ * A task receives a release callback and must call it once its asynchronous work is done, which starts the next queued task.
+ * Queued tasks are started on the given executor, so a task that releases synchronously never recurses into the next one.
+ * A task that throws releases its slot and hands the exception to its failure callback, which is the only way the failure
+ * of a queued task can reach its caller.
+ */
+public class ConcurrencyLimiter {
+    private final int maxConcurrency;
+    private final Executor executor;
+    private final Deque<Task> pendingTasks = new ArrayDeque<>();
+    private int runningTasks;
+
+    public ConcurrencyLimiter(int maxConcurrency, Executor executor) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, got: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.executor = executor;
+    }
+
+    /**
+     * Run the task now when a slot is free, otherwise queue it until a running task releases its slot
+     * @param task - asynchronous task, called with the callback that releases its slot
+     * @param onFailure - called with the exception the task throws, after its slot is released
+     */
+    public void execute(Consumer<Runnable> task, Consumer<Exception> onFailure) {
+        execute(new Task(task, onFailure));
+    }
+
+    private void execute(Task task) {
+        synchronized (this) {
+            if (runningTasks >= maxConcurrency) {
+                pendingTasks.add(task);
+                return;
+            }
+            runningTasks++;
+        }
+        run(task);
+    }
+
+    public synchronized int getRunningTasks() {
+        return runningTasks;
+    }
+
+    public synchronized int getPendingTasks() {
+        return pendingTasks.size();
+    }
+
+    private void run(Task task) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                onRelease();
+            }
+        };
+        try {
+            task.body().accept(release);
+        } catch (Exception e) {
+            release.run();
+            task.onFailure().accept(e);
+        }
+    }
+
+    private void onRelease() {
+        Task nextTask;
+        synchronized (this) {
+            nextTask = pendingTasks.poll();
+            if (nextTask == null) {
+                runningTasks--;
+                return;
+            }
+        }
+        executor.execute(() -> run(nextTask));
+    }
+
+    private record Task(Consumer<Runnable> body, Consumer<Exception> onFailure) {
+    }
+}
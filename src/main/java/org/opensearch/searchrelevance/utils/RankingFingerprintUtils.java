@@ -0,0 +1,31 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.utils;
+
+import java.util.List;
+
+/**
+ * Utility to fingerprint a ranked result list, so identical rankings can be detected without comparing doc id lists.
+ */
+public class RankingFingerprintUtils {
+
+    /**
+     * Generate a fingerprint of a ranked list of doc ids, the order of the ids is part of the fingerprint.
+     * @param docIds - ranked doc ids
+     * @return Base64 encoded SHA-256 digest of the ranking
+     */
+    public static String fingerprint(List<String> docIds) {
+        Sha256Digest digest = new Sha256Digest().putInt(docIds.size());
+        for (String docId : docIds) {
+            digest.putString(docId);
+        }
+        return digest.toBase64();
+    }
+
+    private RankingFingerprintUtils() {}
+}
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.searchrelevance.model.ExperimentType;
 import org.opensearch.searchrelevance.transport.experiment.PutExperimentRequest;
@@ -35,6 +36,49 @@ public class PutExperimentActionTests extends OpenSearchTestCase {
         assertEquals(10, serialized.getSize());
     }
 
+    public void testStreamsWithSearchContextOptions() throws IOException {
+        PutExperimentRequest request = new PutExperimentRequest(
+            ExperimentType.POINTWISE_EVALUATION,
+            "1234",
+            List.of("5678"),
+            List.of("0000"),
+            10,
+            true,
+            "experiment-1234",
+            Boolean.TRUE,
+            0.1
+        );
+        BytesStreamOutput output = new BytesStreamOutput();
+        request.writeTo(output);
+        StreamInput in = StreamInput.wrap(output.bytes().toBytesRef().bytes);
+        PutExperimentRequest serialized = new PutExperimentRequest(in);
+        assertTrue(serialized.isPointInTime());
+        assertEquals("experiment-1234", serialized.getPreference());
+        assertEquals(Boolean.TRUE, serialized.getRequestCache());
+        assertEquals(0.1, serialized.getProfileSampleRate(), 0.0);
+    }
+
+    public void testStreamsWithPointInTimeKeepAlive() throws IOException {
+        PutExperimentRequest request = new PutExperimentRequest(
+            ExperimentType.POINTWISE_EVALUATION,
+            "1234",
+            List.of("5678"),
+            List.of("0000"),
+            10,
+            true,
+            TimeValue.timeValueMinutes(30),
+            null,
+            null,
+            0.0
+        );
+        BytesStreamOutput output = new BytesStreamOutput();
+        request.writeTo(output);
+        StreamInput in = StreamInput.wrap(output.bytes().toBytesRef().bytes);
+        PutExperimentRequest serialized = new PutExperimentRequest(in);
+        assertEquals(TimeValue.timeValueMinutes(30), serialized.getPointInTimeKeepAlive());
+        assertNull(serialized.getPreference());
+    }
+
     public void testRequestValidation() {
         PutExperimentRequest request = new PutExperimentRequest(
             ExperimentType.PAIRWISE_COMPARISON,
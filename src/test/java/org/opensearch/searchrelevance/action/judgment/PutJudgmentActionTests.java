@@ -16,13 +16,24 @@ import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.searchrelevance.model.JudgmentType;
 import org.opensearch.searchrelevance.transport.judgment.PutImportJudgmentRequest;
 import org.opensearch.searchrelevance.transport.judgment.PutJudgmentRequest;
+import org.opensearch.searchrelevance.transport.judgment.PutLlmJudgmentRequest;
 import org.opensearch.searchrelevance.transport.judgment.PutUbiJudgmentRequest;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
 import org.opensearch.test.OpenSearchTestCase;
 
 public class PutJudgmentActionTests extends OpenSearchTestCase {
 
     public void testStreams() throws IOException {
-        PutJudgmentRequest request = new PutUbiJudgmentRequest(JudgmentType.UBI_JUDGMENT, "name", "description", "coec", 20);
+        PutJudgmentRequest request = new PutUbiJudgmentRequest(
+            JudgmentType.UBI_JUDGMENT,
+            "name",
+            "description",
+            "coec",
+            20,
+            true,
+            true,
+            30
+        );
         BytesStreamOutput output = new BytesStreamOutput();
         request.writeTo(output);
         StreamInput in = StreamInput.wrap(output.bytes().toBytesRef().bytes);
@@ -31,6 +42,60 @@ public class PutJudgmentActionTests extends OpenSearchTestCase {
         assertEquals(JudgmentType.UBI_JUDGMENT, serialized.getType());
         assertEquals("description", serialized.getDescription());
         assertEquals("coec", serialized.getClickModel());
+        assertEquals(20, serialized.getMaxRank());
+        assertTrue(serialized.isAggregateEvents());
+        assertTrue(serialized.isIncremental());
+        assertEquals(30, serialized.getWindowDays());
+        assertTrue(serialized.getFilter().isEmpty());
+    }
+
+    public void testStreamsWithFilter() throws IOException {
+        UbiFilter filter = new UbiFilter("now-30d", null, "storefront", null, List.of("click", "add_to_cart"));
+        PutJudgmentRequest request = new PutUbiJudgmentRequest(
+            JudgmentType.UBI_JUDGMENT,
+            "name",
+            "description",
+            "pbm",
+            10,
+            false,
+            false,
+            0,
+            filter
+        );
+        BytesStreamOutput output = new BytesStreamOutput();
+        request.writeTo(output);
+        StreamInput in = StreamInput.wrap(output.bytes().toBytesRef().bytes);
+        PutUbiJudgmentRequest serialized = new PutUbiJudgmentRequest(in);
+        assertEquals("pbm", serialized.getClickModel());
+        assertEquals(filter, serialized.getFilter());
+    }
+
+    public void testLlmJudgmentStreams() throws IOException {
+        PutJudgmentRequest request = new PutLlmJudgmentRequest(
+            JudgmentType.LLM_JUDGMENT,
+            "name",
+            "description",
+            "model",
+            "querySet",
+            List.of("config"),
+            10,
+            4000,
+            List.of("title"),
+            true,
+            8,
+            3,
+            true
+        );
+        BytesStreamOutput output = new BytesStreamOutput();
+        request.writeTo(output);
+        StreamInput in = StreamInput.wrap(output.bytes().toBytesRef().bytes);
+        PutLlmJudgmentRequest serialized = new PutLlmJudgmentRequest(in);
+        assertEquals("model", serialized.getModelId());
+        assertEquals(List.of("title"), serialized.getContextFields());
+        assertTrue(serialized.isIgnoreFailure());
+        assertEquals(8, serialized.getSearchConcurrency());
+        assertEquals(3, serialized.getLlmConcurrency());
+        assertTrue(serialized.isMultiQueryPacking());
     }
 
     public void testRequestValidation() {
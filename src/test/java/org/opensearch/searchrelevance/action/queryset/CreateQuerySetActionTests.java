@@ -8,10 +8,12 @@
 package org.opensearch.searchrelevance.action.queryset;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.searchrelevance.transport.queryset.PostQuerySetRequest;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
 import org.opensearch.test.OpenSearchTestCase;
 
 public class CreateQuerySetActionTests extends OpenSearchTestCase {
@@ -26,6 +28,18 @@ public class CreateQuerySetActionTests extends OpenSearchTestCase {
         assertEquals("test_description", serialized.getDescription());
         assertEquals("random", serialized.getSampling());
         assertEquals(10, serialized.getQuerySetSize());
+        assertEquals(UbiFilter.NONE, serialized.getFilter());
+    }
+
+    public void testStreamsWithFilter() throws IOException {
+        UbiFilter filter = new UbiFilter("now-30d", "now", "storefront", "client-1", List.of());
+        PostQuerySetRequest request = new PostQuerySetRequest("test_name", "test_description", "topn", 10, filter);
+        BytesStreamOutput output = new BytesStreamOutput();
+        request.writeTo(output);
+        StreamInput in = StreamInput.wrap(output.bytes().toBytesRef().bytes);
+        PostQuerySetRequest serialized = new PostQuerySetRequest(in);
+        assertEquals("topn", serialized.getSampling());
+        assertEquals(filter, serialized.getFilter());
     }
 
     public void testRequestValidation() {
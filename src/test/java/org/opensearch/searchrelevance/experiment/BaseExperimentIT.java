@@ -7,6 +7,7 @@
  */
 package org.opensearch.searchrelevance.experiment;
 
+import static org.opensearch.searchrelevance.common.PluginConstants.EXPERIMENTS_URI;
 import static org.opensearch.searchrelevance.common.PluginConstants.EXPERIMENT_INDEX;
 import static org.opensearch.searchrelevance.common.PluginConstants.JUDGMENTS_URL;
 import static org.opensearch.searchrelevance.common.PluginConstants.QUERYSETS_URL;
@@ -232,6 +233,31 @@ public abstract class BaseExperimentIT extends BaseSearchRelevanceIT {
         return source;
     }
 
+    /**
+     * Reads the per-query results of an experiment, which are stored outside the experiment document
+     */
+    @SneakyThrows
+    protected List<Map<String, Object>> getExperimentResults(String experimentId) {
+        Response getExperimentResultsResponse = makeRequest(
+            client(),
+            RestRequest.Method.GET.name(),
+            String.join("/", EXPERIMENTS_URI, experimentId, "results"),
+            Map.of("size", "1000"),
+            null,
+            ImmutableList.of(new BasicHeader(HttpHeaders.USER_AGENT, DEFAULT_USER_AGENT))
+        );
+        Map<String, Object> getExperimentResultsJson = entityAsMap(getExperimentResultsResponse);
+        List<Map<String, Object>> hits = (List<Map<String, Object>>) ((Map<String, Object>) getExperimentResultsJson.get("hits")).get(
+            "hits"
+        );
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map<String, Object> hit : hits) {
+            Map<String, Object> source = (Map<String, Object>) hit.get("_source");
+            results.add((Map<String, Object>) source.get("results"));
+        }
+        return results;
+    }
+
     protected void assertListsHaveSameElements(List<String> expected, List<String> actual) {
         List<String> sortedExpected = new ArrayList<>(expected);
         List<String> sortedActual = new ArrayList<>(actual);
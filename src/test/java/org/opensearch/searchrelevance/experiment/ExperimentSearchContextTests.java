@@ -0,0 +1,93 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.experiment;
+
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ExperimentSearchContextTests extends OpenSearchTestCase {
+
+    private static final String TEST_INDEX = "test_index";
+    private static final String TEST_PIT_ID = "test_pit_id";
+
+    public void testApply_whenPointInTimeExists_thenSearchThroughPit() {
+        ExperimentSearchContext searchContext = new ExperimentSearchContext(
+            Map.of(TEST_INDEX, TEST_PIT_ID),
+            ExperimentSearchContext.DEFAULT_KEEP_ALIVE,
+            "stable",
+            Boolean.TRUE
+        );
+        SearchRequest searchRequest = new SearchRequest(TEST_INDEX).source(new SearchSourceBuilder());
+
+        searchContext.apply(searchRequest, TEST_INDEX);
+
+        assertNotNull("Point in time should be set", searchRequest.source().pointInTimeBuilder());
+        assertEquals("Pit id should match", TEST_PIT_ID, searchRequest.source().pointInTimeBuilder().getId());
+        assertEquals("Indices should be resolved from the pit", 0, searchRequest.indices().length);
+        assertNull("Preference should not be used with pit", searchRequest.preference());
+        assertEquals("Request cache should be set", Boolean.TRUE, searchRequest.requestCache());
+        assertTrue(searchContext.hasPointInTime());
+        assertEquals(List.of(TEST_PIT_ID), searchContext.getPitIds());
+    }
+
+    public void testApply_whenNoPointInTime_thenUsePreference() {
+        ExperimentSearchContext searchContext = new ExperimentSearchContext(
+            Map.of(),
+            ExperimentSearchContext.DEFAULT_KEEP_ALIVE,
+            "stable",
+            null
+        );
+        SearchRequest searchRequest = new SearchRequest(TEST_INDEX).source(new SearchSourceBuilder());
+
+        searchContext.apply(searchRequest, TEST_INDEX);
+
+        assertNull("Point in time should not be set", searchRequest.source().pointInTimeBuilder());
+        assertEquals("Index should match", TEST_INDEX, searchRequest.indices()[0]);
+        assertEquals("Preference should match", "stable", searchRequest.preference());
+        assertNull("Request cache should be left to the index setting", searchRequest.requestCache());
+        assertFalse(searchContext.hasPointInTime());
+    }
+
+    public void testApply_whenNone_thenRequestUnchanged() {
+        SearchRequest searchRequest = new SearchRequest(TEST_INDEX).source(new SearchSourceBuilder());
+
+        ExperimentSearchContext.NONE.apply(searchRequest, TEST_INDEX);
+
+        assertNull(searchRequest.source().pointInTimeBuilder());
+        assertNull(searchRequest.preference());
+        assertNull(searchRequest.requestCache());
+    }
+
+    public void testApply_whenProfileSampleRateIsOne_thenProfileSearch() {
+        ExperimentSearchContext searchContext = new ExperimentSearchContext(
+            Map.of(),
+            ExperimentSearchContext.DEFAULT_KEEP_ALIVE,
+            null,
+            null,
+            1.0,
+            null
+        );
+        SearchRequest searchRequest = new SearchRequest(TEST_INDEX).source(new SearchSourceBuilder());
+
+        searchContext.apply(searchRequest, TEST_INDEX);
+
+        assertTrue("Search should be profiled", searchRequest.source().profile());
+    }
+
+    public void testApply_whenProfileSampleRateIsZero_thenNoProfile() {
+        SearchRequest searchRequest = new SearchRequest(TEST_INDEX).source(new SearchSourceBuilder());
+
+        ExperimentSearchContext.NONE.apply(searchRequest, TEST_INDEX);
+
+        assertFalse("Search should not be profiled", searchRequest.source().profile());
+    }
+}
@@ -111,7 +111,7 @@ public class PointwiseExperimentIT extends BaseExperimentIT {
         // Assert common experiment fields
         assertCommonExperimentFields(source, judgmentId, searchConfigurationId, querySetId, "POINTWISE_EVALUATION");
 
-        List<Map<String, Object>> results = (List<Map<String, Object>>) source.get("results");
+        List<Map<String, Object>> results = getExperimentResults(experimentId);
         assertNotNull(results);
 
         // convert list of actual results to map of query text and evaluation id
@@ -97,7 +97,7 @@ public class SearchEvaluationExperimentIT extends BaseExperimentIT {
         assertEquals("COMPLETED", source.get("status"));
 
         // Assert results structure
-        List<Map<String, Object>> results = (List<Map<String, Object>>) source.get("results");
+        List<Map<String, Object>> results = getExperimentResults((String) source.get("id"));
         assertNotNull(results);
         assertEquals(8, results.size()); // Should have results for all 8 expected query terms
 
@@ -116,7 +116,7 @@ public class SearchEvaluationExperimentIT extends BaseExperimentIT {
     }
 
     private Map<String, String> extractQueryTextToEvaluationId(Map<String, Object> experimentSource) {
-        List<Map<String, Object>> results = (List<Map<String, Object>>) experimentSource.get("results");
+        List<Map<String, Object>> results = getExperimentResults((String) experimentSource.get("id"));
         Map<String, String> queryTextToEvaluationId = new HashMap<>();
 
         for (Map<String, Object> result : results) {
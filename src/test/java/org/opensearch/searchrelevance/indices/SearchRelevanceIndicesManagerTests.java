@@ -32,6 +32,8 @@ import org.opensearch.action.admin.indices.create.CreateIndexRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
 import org.opensearch.action.delete.DeleteRequestBuilder;
 import org.opensearch.action.delete.DeleteResponse;
+import org.opensearch.action.get.MultiGetRequestBuilder;
+import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.action.index.IndexRequestBuilder;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
@@ -197,6 +199,20 @@ public class SearchRelevanceIndicesManagerTests extends OpenSearchTestCase {
         assertTrue(exception.getMessage().contains("Failed to store doc"));
     }
 
+    public void testMultiGetDocsWhenSucceeded() {
+        List<String> docIds = List.of("doc_1", "doc_2");
+        MultiGetRequestBuilder multiGetRequestBuilder = mock(MultiGetRequestBuilder.class);
+        when(client.prepareMultiGet()).thenReturn(multiGetRequestBuilder);
+        when(multiGetRequestBuilder.add(QUERY_SET.getIndexName(), docIds)).thenReturn(multiGetRequestBuilder);
+
+        @SuppressWarnings("unchecked")
+        ActionListener<MultiGetResponse> listener = mock(ActionListener.class);
+        indicesManager.multiGetDocs(docIds, QUERY_SET, listener);
+
+        verify(multiGetRequestBuilder).add(QUERY_SET.getIndexName(), docIds);
+        verify(multiGetRequestBuilder).execute(any(ActionListener.class));
+    }
+
     public void testGetDocByDocIdWhenSucceeded() throws IOException {
         String docId = "test_id";
         QuerySet querySet = new QuerySet(docId, "test_name", "test_description", "test_timestamp", "test_sampling", List.of());
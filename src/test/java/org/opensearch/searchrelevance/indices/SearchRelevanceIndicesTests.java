@@ -39,6 +39,8 @@ public class SearchRelevanceIndicesTests extends OpenSearchTestCase {
             SearchRelevanceIndices.JUDGMENT_CACHE,
             SearchRelevanceIndices.EVALUATION_RESULT,
             SearchRelevanceIndices.EXPERIMENT_VARIANT,
+            SearchRelevanceIndices.EXPERIMENT_RESULT,
+            SearchRelevanceIndices.CLICK_STATISTICS,
             SearchRelevanceIndices.QUERY_SET
         );
         for (SearchRelevanceIndices index : notProtectedIndices) {
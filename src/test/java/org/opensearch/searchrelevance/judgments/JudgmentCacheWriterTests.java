@@ -0,0 +1,86 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.searchrelevance.dao.JudgmentCacheDao;
+import org.opensearch.searchrelevance.model.JudgmentCache;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class JudgmentCacheWriterTests extends OpenSearchTestCase {
+
+    public void testAdd_writesFullBatchesAndFlushWritesRemainder() {
+        JudgmentCacheDao judgmentCacheDao = mock(JudgmentCacheDao.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<JudgmentCache> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(mock(BulkResponse.class));
+            return null;
+        }).when(judgmentCacheDao).putJudgmentCaches(anyList(), any());
+
+        JudgmentCacheWriter writer = new JudgmentCacheWriter(judgmentCacheDao, 2);
+        for (int i = 0; i < 5; i++) {
+            writer.add(judgmentCache(i));
+        }
+        assertEquals(List.of(2, 2), batchSizes);
+
+        AtomicBoolean flushed = new AtomicBoolean(false);
+        writer.flush(ActionListener.wrap(v -> flushed.set(true), e -> fail("flush should not fail")));
+
+        assertTrue(flushed.get());
+        assertEquals(List.of(2, 2, 1), batchSizes);
+    }
+
+    public void testFlush_waitsForPendingWritesAndIgnoresFailures() {
+        JudgmentCacheDao judgmentCacheDao = mock(JudgmentCacheDao.class);
+        List<ActionListener<BulkResponse>> pendingListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            pendingListeners.add(invocation.getArgument(1));
+            return null;
+        }).when(judgmentCacheDao).putJudgmentCaches(anyList(), any());
+
+        JudgmentCacheWriter writer = new JudgmentCacheWriter(judgmentCacheDao, 1);
+        writer.add(judgmentCache(0));
+
+        AtomicBoolean flushed = new AtomicBoolean(false);
+        writer.flush(ActionListener.wrap(v -> flushed.set(true), e -> fail("flush should not fail")));
+        assertFalse(flushed.get());
+
+        pendingListeners.get(0).onFailure(new RuntimeException("bulk failed"));
+        assertTrue(flushed.get());
+    }
+
+    public void testFlush_withoutEntries() {
+        JudgmentCacheDao judgmentCacheDao = mock(JudgmentCacheDao.class);
+        JudgmentCacheWriter writer = new JudgmentCacheWriter(judgmentCacheDao, 10);
+
+        AtomicBoolean flushed = new AtomicBoolean(false);
+        writer.flush(ActionListener.wrap(v -> flushed.set(true), e -> fail("flush should not fail")));
+
+        assertTrue(flushed.get());
+        verify(judgmentCacheDao, never()).putJudgmentCaches(anyList(), any());
+    }
+
+    private JudgmentCache judgmentCache(int i) {
+        return new JudgmentCache("id-" + i, "2025-01-01T00:00:00", "red shoes#", "products::" + i, List.of("title"), "1.0", "model-1");
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.searchrelevance.ml.ChunkResult;
+import org.opensearch.searchrelevance.ml.LlmRating;
+import org.opensearch.searchrelevance.ml.MLAccessor;
+import org.opensearch.searchrelevance.utils.ConcurrencyLimiter;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.Scheduler;
+
+public class LlmJudgmentBatcherTests extends OpenSearchTestCase {
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+    private final List<List<MLAccessor.QueryHits>> batches = new ArrayList<>();
+    private MLAccessor mlAccessor;
+    private Scheduler scheduler;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        scheduler = mock(Scheduler.class);
+        doAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            return mock(Scheduler.ScheduledCancellable.class);
+        }).when(scheduler).schedule(any(Runnable.class), any(TimeValue.class), anyString());
+
+        // the model rates every hit of a query text with the position of the query text
+        mlAccessor = mock(MLAccessor.class);
+        doAnswer(invocation -> {
+            List<MLAccessor.QueryHits> queries = invocation.getArgument(3);
+            batches.add(queries);
+            List<LlmRating> ratings = new ArrayList<>();
+            for (int q = 0; q < queries.size(); q++) {
+                for (String compositeKey : queries.get(q).hits().keySet()) {
+                    ratings.add(new LlmRating(MLAccessor.taggedHitId(q, compositeKey), q));
+                }
+            }
+            ActionListener<ChunkResult> listener = invocation.getArgument(5);
+            listener.onResponse(new ChunkResult(0, 1, true, ratings, null, 1, 0));
+            return null;
+        }).when(mlAccessor).predictMultiQuery(anyString(), anyString(), anyInt(), anyList(), anyBoolean(), any());
+    }
+
+    public void testSubmit_fullBatchIsSentAndRatingsAreDemultiplexed() {
+        LlmJudgmentBatcher batcher = batcher(2);
+        Map<String, Map<String, String>> ratings = new HashMap<>();
+        batcher.submit("banana", null, Map.of("products::1", "banana"), listener("banana", ratings));
+        assertTrue(batches.isEmpty());
+
+        batcher.submit("apple", "red fruit", Map.of("products::1", "apple", "products::2", "apple pie"), listener("apple", ratings));
+
+        assertEquals(1, batches.size());
+        assertEquals(Map.of("products::1", "0.0"), ratings.get("banana"));
+        assertEquals(Map.of("products::1", "1.0", "products::2", "1.0"), ratings.get("apple"));
+    }
+
+    public void testSubmit_partialBatchIsSentAfterLinger() {
+        LlmJudgmentBatcher batcher = batcher(10);
+        Map<String, Map<String, String>> ratings = new HashMap<>();
+        batcher.submit("banana", null, Map.of("products::1", "banana"), listener("banana", ratings));
+        verify(mlAccessor, never()).predictMultiQuery(anyString(), anyString(), anyInt(), anyList(), anyBoolean(), any());
+
+        assertEquals(1, scheduledTasks.size());
+        scheduledTasks.get(0).run();
+
+        verify(mlAccessor, times(1)).predictMultiQuery(anyString(), anyString(), anyInt(), anyList(), anyBoolean(), any());
+        assertEquals(Map.of("products::1", "0.0"), ratings.get("banana"));
+    }
+
+    public void testSubmit_ratingsOfHitsNotSentWithTheQueryTextAreDropped() {
+        mixedUpRatings();
+        LlmJudgmentBatcher batcher = batcher(2, true);
+        Map<String, Map<String, String>> ratings = new HashMap<>();
+        batcher.submit("banana", null, Map.of("products::1", "banana"), listener("banana", ratings));
+        batcher.submit("apple", null, Map.of("products::1", "apple", "products::2", "apple pie"), listener("apple", ratings));
+
+        assertEquals(Map.of("products::1", "0.5"), ratings.get("banana"));
+        // the unrated hit is left out like the hits of a failed chunk
+        assertEquals(Map.of("products::1", "0.7"), ratings.get("apple"));
+    }
+
+    public void testSubmit_unratedHitsAreLeftOutWhetherOrNotFailuresAreIgnored() {
+        mixedUpRatings();
+        Map<String, Map<String, String>> ratings = new HashMap<>();
+        LlmJudgmentBatcher batcher = batcher(2, false);
+        batcher.submit("banana", null, Map.of("products::1", "banana"), listener("banana", ratings));
+        batcher.submit("apple", null, Map.of("products::1", "apple", "products::2", "apple pie"), listener("apple", ratings));
+
+        // the same ratings as with ignored failures, and as a query text judged on its own
+        assertEquals(Map.of("products::1", "0.5"), ratings.get("banana"));
+        assertEquals(Map.of("products::1", "0.7"), ratings.get("apple"));
+    }
+
+    /**
+     * The model rates a hit of the second query text under the first one, and leaves a hit of the second query text unrated
+     */
+    private void mixedUpRatings() {
+        doAnswer(invocation -> {
+            List<LlmRating> ratings = List.of(
+                new LlmRating(MLAccessor.taggedHitId(0, "products::1"), 0.5),
+                new LlmRating(MLAccessor.taggedHitId(0, "products::2"), 0.5),
+                new LlmRating(MLAccessor.taggedHitId(1, "products::1"), 0.7),
+                new LlmRating(MLAccessor.taggedHitId(2, "products::1"), 0.9)
+            );
+            ActionListener<ChunkResult> listener = invocation.getArgument(5);
+            listener.onResponse(new ChunkResult(0, 1, true, ratings, null, 1, 0));
+            return null;
+        }).when(mlAccessor).predictMultiQuery(anyString(), anyString(), anyInt(), anyList(), anyBoolean(), any());
+    }
+
+    private LlmJudgmentBatcher batcher(int maxQueries) {
+        return batcher(maxQueries, false);
+    }
+
+    private LlmJudgmentBatcher batcher(int maxQueries, boolean ignoreFailure) {
+        ConcurrencyLimiter llmLimiter = new ConcurrencyLimiter(1, Runnable::run);
+        TimeValue linger = TimeValue.timeValueMillis(100);
+        return new LlmJudgmentBatcher(mlAccessor, "model", "job", 4000, ignoreFailure, llmLimiter, scheduler, maxQueries, linger);
+    }
+
+    private ActionListener<Map<String, String>> listener(String searchText, Map<String, Map<String, String>> ratings) {
+        return ActionListener.wrap(rating -> ratings.put(searchText, rating), e -> fail("batch should not fail"));
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.opensearch.searchrelevance.common.PluginConstants.LLM_CONCURRENCY;
+import static org.opensearch.searchrelevance.common.PluginConstants.MULTI_QUERY_PACKING;
+import static org.opensearch.searchrelevance.common.PluginConstants.SEARCH_CONCURRENCY;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.search.TotalHits;
+import org.opensearch.action.StepListener;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.searchrelevance.dao.JudgmentCacheDao;
+import org.opensearch.searchrelevance.dao.QuerySetDao;
+import org.opensearch.searchrelevance.dao.SearchConfigurationDao;
+import org.opensearch.searchrelevance.ml.FakeMachineLearningNodeClient;
+import org.opensearch.searchrelevance.ml.MLAccessor;
+import org.opensearch.searchrelevance.ml.ModelRateLimiter;
+import org.opensearch.searchrelevance.model.QuerySet;
+import org.opensearch.searchrelevance.model.QuerySetEntry;
+import org.opensearch.searchrelevance.model.SearchConfiguration;
+import org.opensearch.searchrelevance.util.TestUtils;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.TestThreadPool;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.client.Client;
+
+/**
+ * Drives full LLM judgment jobs through {@link LlmJudgmentsProcessor} against {@link FakeMachineLearningNodeClient},
+ * with searches and the judgment cache stubbed in memory, and reports model calls, tokens, wall time and heap per query.
+ * The smoke tests always run. The load scenarios only run with -Dtests.llm.benchmark=true, and
+ * -Dtests.llm.benchmark.queries sets the number of query texts per job.
+ */
+public class LlmJudgmentBenchmarkTests extends OpenSearchTestCase {
+    private static final Logger LOGGER = LogManager.getLogger(LlmJudgmentBenchmarkTests.class);
+    private static final String INDEX = "products";
+    private static final String QUERY = "{\"query\":{\"match\":{\"title\":\"%SearchText%\"}}}";
+    private static final TimeValue JOB_TIMEOUT = TimeValue.timeValueMinutes(30);
+
+    private ThreadPool threadPool;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        TestUtils.initializeEventStatsManager();
+        threadPool = new TestThreadPool(getClass().getSimpleName());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    public void testSmoke_oneCallPerQueryText() {
+        try (FakeMachineLearningNodeClient mlClient = FakeMachineLearningNodeClient.builder().build()) {
+            BenchmarkResult result = runJob("smoke", mlClient, new JobConfig(20, 5, false, 4, 2, 0, 0));
+            assertEquals(20, result.ratings());
+            assertEquals(100, result.ratedDocs());
+            assertEquals(20, mlClient.getCalls());
+            assertTrue(mlClient.getPromptTokens() > 0);
+        }
+    }
+
+    public void testSmoke_multiQueryPackingSharesCalls() {
+        try (FakeMachineLearningNodeClient mlClient = FakeMachineLearningNodeClient.builder().build()) {
+            BenchmarkResult result = runJob("smoke-packed", mlClient, new JobConfig(20, 5, true, 4, 2, 0, 0));
+            assertEquals(20, result.ratings());
+            assertEquals(100, result.ratedDocs());
+            assertTrue("expected shared calls, got " + mlClient.getCalls(), mlClient.getCalls() < 20);
+        }
+    }
+
+    public void testBenchmark_latencyTail() {
+        assumeBenchmark();
+        int queries = benchmarkQueries();
+        FakeMachineLearningNodeClient.Builder latencyTail = FakeMachineLearningNodeClient.builder().logNormalLatency(800, 4000).threads(16);
+        try (FakeMachineLearningNodeClient mlClient = latencyTail.build()) {
+            runJob("lognormal-latency", mlClient, new JobConfig(queries, 10, false, 8, 16, 0, 0));
+        }
+        try (FakeMachineLearningNodeClient mlClient = latencyTail.build()) {
+            runJob("lognormal-latency-packed", mlClient, new JobConfig(queries, 10, true, 8, 16, 0, 0));
+        }
+    }
+
+    public void testBenchmark_errorsAndThrottling() {
+        assumeBenchmark();
+        try (
+            FakeMachineLearningNodeClient mlClient = FakeMachineLearningNodeClient.builder()
+                .uniformLatency(200, 600)
+                .errorRate(0.05)
+                .throttleRate(0.02, 1)
+                .threads(16)
+                .build()
+        ) {
+            runJob("errors-and-429", mlClient, new JobConfig(benchmarkQueries(), 10, false, 8, 16, 0, 0));
+        }
+    }
+
+    public void testBenchmark_tokenQuota() {
+        assumeBenchmark();
+        int quota = 200_000;
+        try (
+            FakeMachineLearningNodeClient mlClient = FakeMachineLearningNodeClient.builder()
+                .fixedLatency(300)
+                .tokensPerMinuteQuota(quota, 5)
+                .threads(16)
+                .build()
+        ) {
+            runJob("token-quota-unlimited-client", mlClient, new JobConfig(benchmarkQueries(), 10, false, 8, 16, 0, 0));
+        }
+        try (
+            FakeMachineLearningNodeClient mlClient = FakeMachineLearningNodeClient.builder()
+                .fixedLatency(300)
+                .tokensPerMinuteQuota(quota, 5)
+                .threads(16)
+                .build()
+        ) {
+            runJob("token-quota-rate-limited", mlClient, new JobConfig(benchmarkQueries(), 10, false, 8, 16, 0, quota));
+        }
+    }
+
+    private record JobConfig(
+        int queries,
+        int hitsPerQuery,
+        boolean multiQueryPacking,
+        int searchConcurrency,
+        int llmConcurrency,
+        int requestsPerMinute,
+        int tokensPerMinute
+    ) {
+    }
+
+    private record BenchmarkResult(int ratings, int ratedDocs, long wallMillis, long heapBytesPerQuery) {
+    }
+
+    private BenchmarkResult runJob(String name, FakeMachineLearningNodeClient mlClient, JobConfig config) {
+        MLAccessor mlAccessor = new MLAccessor(
+            mlClient,
+            new ModelRateLimiter(config.requestsPerMinute(), config.tokensPerMinute(), threadPool)
+        );
+        LlmJudgmentsProcessor processor = new LlmJudgmentsProcessor(
+            mlAccessor,
+            querySetDao(config.queries()),
+            searchConfigurationDao(),
+            judgmentCacheDao(),
+            new LocalJudgmentCache(ByteSizeValue.ZERO),
+            client(config.hitsPerQuery())
+        );
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("querySetId", "query-set");
+        metadata.put("searchConfigurationList", List.of("config"));
+        metadata.put("size", config.hitsPerQuery());
+        metadata.put("modelId", "model");
+        metadata.put("tokenLimit", 4000);
+        metadata.put("contextFields", List.of("title"));
+        metadata.put("ignoreFailure", true);
+        metadata.put(SEARCH_CONCURRENCY, config.searchConcurrency());
+        metadata.put(LLM_CONCURRENCY, config.llmConcurrency());
+        metadata.put(MULTI_QUERY_PACKING, config.multiQueryPacking());
+
+        long baselineHeap = resetHeapPeak();
+        long start = System.nanoTime();
+        PlainActionFuture<List<Map<String, Object>>> future = PlainActionFuture.newFuture();
+        processor.generateJudgmentRating(metadata, future);
+        List<Map<String, Object>> judgments = future.actionGet(JOB_TIMEOUT);
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long heapBytesPerQuery = Math.max(0, peakHeap() - baselineHeap) / config.queries();
+
+        int ratedDocs = 0;
+        for (Map<String, Object> judgment : judgments) {
+            ratedDocs += ((List<?>) judgment.get("ratings")).size();
+        }
+        LOGGER.info(
+            String.format(
+                Locale.ROOT,
+                "[%s] queries=%d hits/query=%d packed=%b calls=%d failed=%d throttled=%d maxInFlight=%d promptTokens=%d "
+                    + "completionTokens=%d ratedDocs=%d wall=%dms heap/query=%dB",
+                name,
+                config.queries(),
+                config.hitsPerQuery(),
+                config.multiQueryPacking(),
+                mlClient.getCalls(),
+                mlClient.getFailedCalls(),
+                mlClient.getThrottledCalls(),
+                mlClient.getMaxInFlight(),
+                mlClient.getPromptTokens(),
+                mlClient.getCompletionTokens(),
+                ratedDocs,
+                wallMillis,
+                heapBytesPerQuery
+            )
+        );
+        return new BenchmarkResult(judgments.size(), ratedDocs, wallMillis, heapBytesPerQuery);
+    }
+
+    private QuerySetDao querySetDao(int queries) {
+        List<QuerySetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < queries; i++) {
+            entries.add(new QuerySetEntry("query " + i));
+        }
+        QuerySetDao querySetDao = mock(QuerySetDao.class);
+        when(querySetDao.getQuerySetSync(any())).thenReturn(new QuerySet("query-set", "query-set", "", "", "manual", entries));
+        return querySetDao;
+    }
+
+    private SearchConfigurationDao searchConfigurationDao() {
+        SearchConfigurationDao searchConfigurationDao = mock(SearchConfigurationDao.class);
+        when(searchConfigurationDao.getSearchConfigurationSync(any())).thenReturn(
+            new SearchConfiguration("config", "config", "", INDEX, QUERY, null)
+        );
+        return searchConfigurationDao;
+    }
+
+    /**
+     * A cache index that exists and is empty, writes succeed
+     */
+    private JudgmentCacheDao judgmentCacheDao() {
+        JudgmentCacheDao judgmentCacheDao = mock(JudgmentCacheDao.class);
+        doAnswer(invocation -> {
+            StepListener<Void> listener = invocation.getArgument(0);
+            listener.onResponse(null);
+            return null;
+        }).when(judgmentCacheDao).createIndexIfAbsent(any());
+        doAnswer(invocation -> {
+            ActionListener<MultiGetResponse> listener = invocation.getArgument(1);
+            listener.onResponse(new MultiGetResponse(new MultiGetItemResponse[0]));
+            return null;
+        }).when(judgmentCacheDao).getJudgmentCachesByIds(anyCollection(), any());
+        doAnswer(invocation -> {
+            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(mock(BulkResponse.class));
+            return null;
+        }).when(judgmentCacheDao).putJudgmentCaches(anyList(), any());
+        return judgmentCacheDao;
+    }
+
+    /**
+     * Every search returns its own hits, answered on the generic pool like a real search
+     */
+    private Client client(int hitsPerQuery) {
+        Client client = mock(Client.class);
+        when(client.threadPool()).thenReturn(threadPool);
+        doAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            int querySeed = request.source().toString().hashCode();
+            SearchHit[] hits = new SearchHit[hitsPerQuery];
+            for (int i = 0; i < hitsPerQuery; i++) {
+                String docId = "doc-" + Integer.toHexString(querySeed) + "-" + i;
+                String source = "{\"title\":\"product " + i + " with a title of a typical length for a catalog\",\"price\":" + i + "}";
+                hits[i] = new SearchHit(i, docId, Map.of(), Map.of()).sourceRef(new BytesArray(source));
+            }
+            SearchResponse response = mock(SearchResponse.class);
+            when(response.getHits()).thenReturn(new SearchHits(hits, new TotalHits(hitsPerQuery, TotalHits.Relation.EQUAL_TO), 1.0f));
+            threadPool.generic().execute(() -> listener.onResponse(response));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        return client;
+    }
+
+    private static long resetHeapPeak() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static void assumeBenchmark() {
+        assumeTrue("load scenarios run with -Dtests.llm.benchmark=true", Boolean.getBoolean("tests.llm.benchmark"));
+    }
+
+    private static int benchmarkQueries() {
+        return Integer.getInteger("tests.llm.benchmark.queries", 200);
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class LlmJudgmentsProcessorTests extends OpenSearchTestCase {
+
+    public void testIsRatedByModel_onlyAcceptsEntriesOfTheJobModel() {
+        assertTrue(LlmJudgmentsProcessor.isRatedByModel("model-a", "model-a"));
+        assertTrue(LlmJudgmentsProcessor.isRatedByModel(" model-a ", "model-a"));
+        assertFalse(LlmJudgmentsProcessor.isRatedByModel("model-a", "model-b"));
+        assertFalse(LlmJudgmentsProcessor.isRatedByModel(null, "model-b"));
+    }
+}
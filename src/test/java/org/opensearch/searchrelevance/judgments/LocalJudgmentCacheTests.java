@@ -0,0 +1,86 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.opensearch.core.common.unit.ByteSizeUnit;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.searchrelevance.stats.events.EventStatName;
+import org.opensearch.searchrelevance.util.TestUtils;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class LocalJudgmentCacheTests extends OpenSearchTestCase {
+    private static final String QUERY_TEXT = "red shoes#";
+    private static final String MODEL_ID = "model-1";
+
+    @Before
+    public void setup() {
+        TestUtils.initializeEventStatsManager();
+    }
+
+    public void testGet_hitAndMiss() {
+        LocalJudgmentCache cache = new LocalJudgmentCache(new ByteSizeValue(1, ByteSizeUnit.MB));
+        cache.registerStats();
+        cache.put(QUERY_TEXT, "products::1", List.of("title", "brand"), MODEL_ID, "0.8");
+
+        // context fields are part of the key regardless of their order
+        assertEquals("0.8", cache.get(QUERY_TEXT, "products::1", List.of("brand", "title"), MODEL_ID));
+        assertNull(cache.get(QUERY_TEXT, "products::1", List.of("title"), MODEL_ID));
+        assertNull(cache.get(QUERY_TEXT, "products::1", List.of("title", "brand"), "model-2"));
+        assertNull(cache.get(QUERY_TEXT, "products::2", List.of("title", "brand"), MODEL_ID));
+
+        assertEquals(1, EventStatName.LLM_JUDGMENT_CACHE_HITS.getEventStat().getValue());
+        assertEquals(3, EventStatName.LLM_JUDGMENT_CACHE_MISSES.getEventStat().getValue());
+        assertEquals(cache.memoryUsageInBytes(), EventStatName.LLM_JUDGMENT_CACHE_MEMORY_BYTES.getEventStat().getValue());
+        assertEquals(1, EventStatName.LLM_JUDGMENT_CACHE_ENTRIES.getEventStat().getValue());
+        assertEquals(25, EventStatName.LLM_JUDGMENT_CACHE_HIT_RATIO_PERCENT.getEventStat().getValue());
+    }
+
+    public void testRegisterStats_gaugesFollowEvictions() {
+        LocalJudgmentCache cache = new LocalJudgmentCache(new ByteSizeValue(1, ByteSizeUnit.KB));
+        cache.registerStats();
+        for (int i = 0; i < 100; i++) {
+            cache.put(QUERY_TEXT, "products::" + i, null, MODEL_ID, "1.0");
+        }
+
+        long memory = EventStatName.LLM_JUDGMENT_CACHE_MEMORY_BYTES.getEventStat().getValue();
+        assertTrue(memory > 0 && memory <= 1024);
+        assertEquals(cache.memoryUsageInBytes(), memory);
+        assertEquals(cache.count(), EventStatName.LLM_JUDGMENT_CACHE_ENTRIES.getEventStat().getValue());
+
+        // gauges are read from the cache, so resetting the stats does not lose them
+        TestUtils.initializeEventStatsManager();
+        assertEquals(memory, EventStatName.LLM_JUDGMENT_CACHE_MEMORY_BYTES.getEventStat().getValue());
+    }
+
+    public void testPut_evictsLeastRecentlyUsedWhenFull() {
+        LocalJudgmentCache cache = new LocalJudgmentCache(new ByteSizeValue(1, ByteSizeUnit.KB));
+        for (int i = 0; i < 100; i++) {
+            cache.put(QUERY_TEXT, "products::" + i, null, MODEL_ID, "1.0");
+        }
+
+        assertTrue(cache.count() < 100);
+        assertTrue(cache.memoryUsageInBytes() <= 1024);
+        assertEquals(100 - cache.count(), EventStatName.LLM_JUDGMENT_CACHE_EVICTIONS.getEventStat().getValue());
+        assertEquals("1.0", cache.get(QUERY_TEXT, "products::99", null, MODEL_ID));
+        assertNull(cache.get(QUERY_TEXT, "products::0", null, MODEL_ID));
+    }
+
+    public void testDisabled_whenSizeIsZero() {
+        LocalJudgmentCache cache = new LocalJudgmentCache(ByteSizeValue.ZERO);
+        cache.put(QUERY_TEXT, "products::1", null, MODEL_ID, "0.5");
+
+        assertNull(cache.get(QUERY_TEXT, "products::1", null, MODEL_ID));
+        assertEquals(0, cache.count());
+        assertEquals(0, EventStatName.LLM_JUDGMENT_CACHE_MISSES.getEventStat().getValue());
+        assertEquals(0, cache.memoryUsageInBytes());
+        assertEquals(0, cache.hitRatioPercent());
+    }
+}
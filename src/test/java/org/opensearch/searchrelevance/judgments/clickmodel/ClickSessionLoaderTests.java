@@ -0,0 +1,153 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.opensearch.search.aggregations.bucket.filter.Filter;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.transport.client.Client;
+
+public class ClickSessionLoaderTests extends OpenSearchTestCase {
+
+    public void testLoad_buildsSessionsAcrossPages() {
+        Client client = mock(Client.class);
+        List<SearchRequest> requests = new ArrayList<>();
+        // the session of q1 continues on the second page
+        List<SearchResponse> pages = List.of(
+            page(List.of(bucket("q1", "shoes", 0L, "doc1", 0L, 1L), bucket("q1", "shoes", 1L, "doc2", 1L, 1L)), Map.of("page", 1)),
+            page(List.of(bucket("q1", "shoes", 2L, "doc3", 0L, 1L), bucket("q2", "shoes", 0L, "doc1", 0L, 1L)), Map.of("page", 2)),
+            page(List.of(), null)
+        );
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(pages.get(requests.size() - 1));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        ClickSessionLoader loader = new ClickSessionLoader(client, new EmClickModelParameters(10));
+        AtomicReference<ClickSessions> result = new AtomicReference<>();
+        loader.load(ActionListener.wrap(result::set, e -> fail("loading should not fail")));
+
+        assertEquals(3, requests.size());
+        assertEquals(0, requests.get(0).source().size());
+        assertTrue(requests.get(1).source().toString().contains("\"after\":{\"page\":1}"));
+        try (ClickSessions sessions = result.get()) {
+            assertEquals(2, sessions.size());
+            assertEquals(3, sessions.end(0) - sessions.start(0));
+            assertTrue(sessions.clicked(sessions.start(0) + 1));
+            assertEquals(2, sessions.rank(sessions.start(0) + 2));
+            assertEquals(1, sessions.end(1) - sessions.start(1));
+            assertEquals(3, sessions.pairCount());
+        }
+    }
+
+    public void testFoldSessionBuckets_joinsEventsWithoutUserQuery() {
+        ClickSessionLoader loader = new ClickSessionLoader(mock(Client.class), new EmClickModelParameters(10));
+        assertTrue(loader.buildSessionAggregationRequest(null).source().toString().contains("\"missing_bucket\":true"));
+
+        try (ClickSessions sessions = new ClickSessions()) {
+            loader.foldSessionBuckets(
+                List.of(
+                    bucket("q1", null, 0L, "doc1", 1L, 1L),
+                    bucket("q1", null, 1L, "doc2", 0L, 1L),
+                    bucket("q2", "boots", 0L, "doc3", 0L, 1L),
+                    bucket("q3", null, 0L, "doc4", 1L, 1L)
+                ),
+                Map.of("q1", "shoes"),
+                sessions
+            );
+            loader.finish(sessions);
+
+            // q3 has no user query and is left out
+            assertEquals(2, sessions.size());
+            assertEquals(2, sessions.end(0) - sessions.start(0));
+            assertTrue(sessions.clicked(sessions.start(0)));
+            assertEquals(1, sessions.end(1) - sessions.start(1));
+            assertEquals(3, sessions.pairCount());
+        }
+    }
+
+    public void testLoad_failsAboveMaxSessions() {
+        Client client = mock(Client.class);
+        SearchResponse response = page(
+            List.of(
+                bucket("q1", "shoes", 0L, "doc1", 1L, 1L),
+                bucket("q2", "shoes", 0L, "doc2", 1L, 1L),
+                bucket("q3", "shoes", 0L, "doc3", 1L, 1L)
+            ),
+            Map.of("page", 1)
+        );
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(response);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        ClickSessionLoader loader = new ClickSessionLoader(client, new EmClickModelParameters(10, 10, 1e-4, 1, 1));
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        loader.load(ActionListener.wrap(sessions -> fail("loading should fail"), failure::set));
+
+        assertTrue(failure.get() instanceof SearchRelevanceException);
+    }
+
+    private static SearchResponse page(List<CompositeAggregation.Bucket> buckets, Map<String, Object> afterKey) {
+        CompositeAggregation composite = mock(CompositeAggregation.class);
+        doAnswer(invocation -> buckets).when(composite).getBuckets();
+        when(composite.afterKey()).thenReturn(afterKey);
+        Aggregations aggregations = mock(Aggregations.class);
+        when(aggregations.get(ClickSessionLoader.SESSIONS_AGGREGATION)).thenReturn(composite);
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getAggregations()).thenReturn(aggregations);
+        return response;
+    }
+
+    private static CompositeAggregation.Bucket bucket(
+        String queryId,
+        String userQuery,
+        long position,
+        String objectId,
+        long clicks,
+        long impressions
+    ) {
+        Filter clickFilter = mock(Filter.class);
+        when(clickFilter.getDocCount()).thenReturn(clicks);
+        Filter impressionFilter = mock(Filter.class);
+        when(impressionFilter.getDocCount()).thenReturn(impressions);
+        Aggregations aggregations = mock(Aggregations.class);
+        when(aggregations.get(ClickSessionLoader.CLICKS)).thenReturn(clickFilter);
+        when(aggregations.get(ClickSessionLoader.IMPRESSIONS)).thenReturn(impressionFilter);
+
+        // an event without a user query takes the missing bucket
+        Map<String, Object> key = new HashMap<>();
+        key.put(ClickSessionLoader.QUERY_ID_SOURCE, queryId);
+        key.put(ClickSessionLoader.USER_QUERY_SOURCE, userQuery);
+        key.put(ClickSessionLoader.POSITION_SOURCE, position);
+        key.put(ClickSessionLoader.OBJECT_ID_SOURCE, objectId);
+        CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+        when(bucket.getKey()).thenReturn(key);
+        when(bucket.getAggregations()).thenReturn(aggregations);
+        return bucket;
+    }
+}
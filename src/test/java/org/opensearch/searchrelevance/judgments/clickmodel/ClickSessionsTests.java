@@ -0,0 +1,83 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ClickSessionsTests extends OpenSearchTestCase {
+
+    public void testEndSession_storesIdenticalSessionsOnceWithWeight() {
+        try (ClickSessions sessions = new ClickSessions()) {
+            for (int i = 0; i < 3; i++) {
+                sessions.startSession("shoes");
+                sessions.addResult("doc1", 0, false);
+                sessions.addResult("doc2", 1, true);
+                sessions.endSession();
+            }
+            sessions.startSession("shoes");
+            sessions.addResult("doc1", 0, true);
+            sessions.addResult("doc2", 1, false);
+            sessions.endSession();
+
+            assertEquals(2, sessions.size());
+            assertEquals(3, sessions.weight(0));
+            assertEquals(1, sessions.weight(1));
+            assertEquals(2, sessions.pairCount());
+            assertEquals(4, sessions.end(1));
+
+            int entry = sessions.start(0) + 1;
+            assertEquals("doc2", sessions.pairs().objectId(sessions.pair(entry)));
+            assertEquals(1, sessions.rank(entry));
+            assertTrue(sessions.clicked(entry));
+            assertEquals(3, sessions.pairs().clicks(sessions.pair(entry)));
+            assertEquals(4, sessions.pairs().impressions(sessions.pair(entry)));
+        }
+    }
+
+    public void testEndSession_dropsEmptySessionsAndSeparatesQueries() {
+        try (ClickSessions sessions = new ClickSessions()) {
+            sessions.startSession("shoes");
+            sessions.endSession();
+            sessions.startSession("shoes");
+            sessions.addResult("doc1", 0, true);
+            sessions.endSession();
+            sessions.startSession("boots");
+            sessions.addResult("doc1", 0, true);
+            sessions.endSession();
+
+            assertEquals(2, sessions.size());
+            assertEquals(1, sessions.weight(0));
+            assertEquals(1, sessions.weight(1));
+            assertEquals(2, sessions.pairs().queryCount());
+        }
+    }
+
+    public void testEndSession_growsPastInitialCapacity() {
+        try (ClickSessions sessions = new ClickSessions()) {
+            int distinct = 5000;
+            for (int i = 0; i < distinct * 2; i++) {
+                sessions.startSession("query" + (i % distinct));
+                sessions.addResult("doc" + (i % 10), i % 10, (i % distinct) % 3 == 0);
+                sessions.endSession();
+            }
+
+            assertEquals(distinct, sessions.size());
+            for (int session = 0; session < sessions.size(); session++) {
+                assertEquals(2, sessions.weight(session));
+                assertEquals(1, sessions.end(session) - sessions.start(session));
+            }
+        }
+    }
+
+    public void testAddResult_rejectsRankAboveMax() {
+        try (ClickSessions sessions = new ClickSessions()) {
+            sessions.startSession("shoes");
+            expectThrows(IllegalArgumentException.class, () -> sessions.addResult("doc1", ClickSessions.MAX_RANK + 1, false));
+        }
+    }
+}
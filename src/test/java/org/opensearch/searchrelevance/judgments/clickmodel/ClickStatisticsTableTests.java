@@ -0,0 +1,201 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ClickStatisticsTableTests extends OpenSearchTestCase {
+
+    public void testPairIndex_isStablePerQueryAndObject() {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            int shoesDoc1 = statistics.pairIndex("shoes", "doc1");
+            int bootsDoc1 = statistics.pairIndex("boots", "doc1");
+            int shoesDoc2 = statistics.pairIndex("shoes", "doc2");
+
+            assertEquals(shoesDoc1, statistics.pairIndex("shoes", "doc1"));
+            assertNotEquals(shoesDoc1, bootsDoc1);
+            assertNotEquals(shoesDoc1, shoesDoc2);
+            assertEquals(3, statistics.size());
+            assertEquals(2, statistics.queryCount());
+            assertEquals("boots", statistics.userQuery(statistics.queryNumber(bootsDoc1)));
+            assertEquals("doc2", statistics.objectId(shoesDoc2));
+            assertEquals(Integer.MAX_VALUE, statistics.rank(shoesDoc2));
+        }
+    }
+
+    public void testLog_countsAndKeepsLowestRank() {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            int pair = statistics.pairIndex("shoes", "doc1");
+            statistics.logImpressions(pair, 1);
+            statistics.logRank(pair, 4);
+            statistics.logImpressions(pair, 2);
+            statistics.logRank(pair, 2);
+            statistics.logClicks(pair, 1);
+            statistics.logRank(pair, 3);
+
+            assertEquals(1, statistics.clicks(pair));
+            assertEquals(3, statistics.impressions(pair));
+            assertEquals(2, statistics.rank(pair));
+        }
+    }
+
+    public void testPairIndex_growsPastInitialCapacity() {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            int pairs = 5000;
+            for (int i = 0; i < pairs; i++) {
+                statistics.logClicks(statistics.pairIndex("query" + (i % 7), "doc" + i), i);
+            }
+
+            assertEquals(pairs, statistics.size());
+            assertEquals(7, statistics.queryCount());
+            for (int i = 0; i < pairs; i++) {
+                int pair = statistics.pairIndex("query" + (i % 7), "doc" + i);
+                assertEquals(i, statistics.clicks(pair));
+                assertEquals("doc" + i, statistics.objectId(pair));
+            }
+        }
+    }
+
+    public void testForEachPair_withoutSpillVisitsPairsInIndexOrder() throws IOException {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            int shoes = statistics.pairIndex("shoes", "doc2");
+            statistics.logClicks(shoes, 2);
+            statistics.logRank(shoes, 1);
+            int boots = statistics.pairIndex("boots", "doc1");
+            statistics.logImpressions(boots, 3);
+
+            List<String> visited = new ArrayList<>();
+            statistics.forEachPair(
+                (userQuery, objectId, clicks, impressions, rank) -> visited.add(
+                    userQuery + "/" + objectId + "/" + clicks + "/" + impressions + "/" + rank
+                )
+            );
+
+            assertEquals(List.of("shoes/doc2/2/0/1", "boots/doc1/0/3/" + Integer.MAX_VALUE), visited);
+            assertEquals(0, statistics.runCount());
+        }
+    }
+
+    public void testPairIndex_mergesCaseAndWhitespaceVariantsOfAQuery() {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            int pair = statistics.pairIndex("Running Shoes", "doc1");
+            statistics.logClicks(pair, 1);
+            assertEquals(pair, statistics.pairIndex("  running   shoes ", "doc1"));
+            statistics.logClicks(pair, 1);
+            int other = statistics.pairIndex("RUNNING SHOES", "doc2");
+
+            assertEquals(2, statistics.clicks(pair));
+            assertEquals(2, statistics.size());
+            assertEquals(1, statistics.queryCount());
+            assertEquals("running shoes", statistics.userQuery(statistics.queryNumber(pair)));
+            // variants of a query share one number and hand out the same string
+            assertEquals(statistics.queryNumber(pair), statistics.queryNumber(other));
+            assertSame(statistics.userQuery(statistics.queryNumber(pair)), statistics.userQuery(statistics.queryNumber(other)));
+        }
+    }
+
+    public void testPairIndex_releasesTheQueriesOfSpilledPairs() throws IOException {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable(0, createTempDir())) {
+            for (int i = 0; i < 100; i++) {
+                statistics.logClicks(statistics.pairIndex("query" + i, "doc1"), 1);
+                // every pair spills the one before, along with its query
+                assertEquals(1, statistics.queryCount());
+                assertEquals("query" + i, statistics.userQuery(0));
+            }
+            assertEquals(99, statistics.runCount());
+            assertEquals(100, pairs(statistics).size());
+        }
+    }
+
+    public void testForEachPair_mergesSpilledRunsToTheInMemoryCounts() throws IOException {
+        Path spillDirectory = createTempDir();
+        try (
+            ClickStatisticsTable inMemory = new ClickStatisticsTable();
+            ClickStatisticsTable spilling = new ClickStatisticsTable(4096, spillDirectory)
+        ) {
+            for (int i = 0; i < 2000; i++) {
+                String userQuery = "query" + randomIntBetween(0, 20);
+                String objectId = "doc" + randomIntBetween(0, 50);
+                int clicks = randomIntBetween(0, 3);
+                int impressions = randomIntBetween(0, 5);
+                int rank = randomIntBetween(0, 10);
+                for (ClickStatisticsTable statistics : List.of(inMemory, spilling)) {
+                    int pair = statistics.pairIndex(userQuery, objectId);
+                    statistics.logClicks(pair, clicks);
+                    statistics.logImpressions(pair, impressions);
+                    statistics.logRank(pair, rank);
+                }
+            }
+            assertTrue(spilling.runCount() > 1);
+
+            Map<String, String> expected = pairs(inMemory);
+            List<String> keys = new ArrayList<>();
+            Map<String, String> merged = new HashMap<>();
+            spilling.forEachPair((userQuery, objectId, clicks, impressions, rank) -> {
+                String key = userQuery + "/" + objectId;
+                keys.add(key);
+                assertNull("pair " + key + " is visited once", merged.put(key, clicks + "/" + impressions + "/" + rank));
+            });
+
+            assertEquals(expected, merged);
+            List<String> sorted = new ArrayList<>(keys);
+            sorted.sort(null);
+            assertEquals(sorted, keys);
+        }
+        try (Stream<Path> runs = Files.list(spillDirectory)) {
+            assertEquals(0, runs.count());
+        }
+    }
+
+    public void testForEachPair_mergesMoreRunsThanTheMergeWidth() throws IOException {
+        Path spillDirectory = createTempDir();
+        int pairs = ClickStatisticsTable.MAX_MERGE_WIDTH * 3;
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable(0, spillDirectory)) {
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < pairs; i++) {
+                    int pair = statistics.pairIndex("query" + (i % 5), "doc" + i);
+                    statistics.logClicks(pair, 1);
+                    statistics.logImpressions(pair, i);
+                    statistics.logRank(pair, round == 0 ? i + 1 : i);
+                }
+            }
+            assertTrue(statistics.runCount() > ClickStatisticsTable.MAX_MERGE_WIDTH);
+
+            Map<String, String> merged = pairs(statistics);
+            assertEquals(pairs, merged.size());
+            for (int i = 0; i < pairs; i++) {
+                assertEquals("2/" + (2L * i) + "/" + i, merged.get("query" + (i % 5) + "/doc" + i));
+            }
+            assertTrue(statistics.runCount() <= ClickStatisticsTable.MAX_MERGE_WIDTH);
+            // every merged run is counted once
+            try (Stream<Path> runs = Files.list(spillDirectory)) {
+                assertEquals(statistics.runCount(), runs.count());
+            }
+        }
+        try (Stream<Path> runs = Files.list(spillDirectory)) {
+            assertEquals(0, runs.count());
+        }
+    }
+
+    private static Map<String, String> pairs(ClickStatisticsTable statistics) throws IOException {
+        Map<String, String> pairs = new HashMap<>();
+        statistics.forEachPair((userQuery, objectId, clicks, impressions, rank) -> {
+            pairs.put(userQuery + "/" + objectId, clicks + "/" + impressions + "/" + rank);
+        });
+        return pairs;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.cascade;
+
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickSessions;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModelParameters;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class CascadeClickModelTests extends OpenSearchTestCase {
+
+    @SuppressWarnings("unchecked")
+    public void testFit_countsClicksUpToFirstClick() {
+        try (ClickSessions sessions = new ClickSessions()) {
+            // B clicked twice out of three examinations, C is never examined before a click
+            for (int i = 0; i < 2; i++) {
+                sessions.startSession("shoes");
+                sessions.addResult("A", 0, false);
+                sessions.addResult("B", 1, true);
+                sessions.addResult("C", 2, true);
+                sessions.endSession();
+            }
+            sessions.startSession("shoes");
+            sessions.addResult("A", 0, false);
+            sessions.addResult("B", 1, false);
+            sessions.addResult("C", 2, false);
+            sessions.endSession();
+
+            CascadeClickModel model = new CascadeClickModel(null, new EmClickModelParameters(3));
+            assertEquals(1, model.fit(sessions, Runnable::run));
+
+            List<Map<String, Object>> judgments = model.judgments(sessions);
+            assertEquals(1, judgments.size());
+            Map<String, String> ratings = (Map<String, String>) judgments.get(0).get("ratings");
+            assertEquals("0.000", ratings.get("A"));
+            assertEquals("0.667", ratings.get("B"));
+            assertEquals("0.000", ratings.get("C"));
+        }
+    }
+}
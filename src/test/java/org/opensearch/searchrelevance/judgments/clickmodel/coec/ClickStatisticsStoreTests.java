@@ -0,0 +1,297 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.coec;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opensearch.action.StepListener;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.ExistsQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.RangeQueryBuilder;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.opensearch.search.aggregations.bucket.filter.Filter;
+import org.opensearch.search.aggregations.metrics.Sum;
+import org.opensearch.searchrelevance.dao.ClickStatisticsDao;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
+import org.opensearch.searchrelevance.model.ClickCounter;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.transport.client.Client;
+
+public class ClickStatisticsStoreTests extends OpenSearchTestCase {
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final long NOW = 20 * DAY + 12 * 60 * 60 * 1000L;
+
+    public void testCountersOf_skipsBucketsWithoutClicksOrImpressions() {
+        List<ClickCounter> counters = ClickStatisticsStore.countersOf(
+            List.of(eventBucket("shoes", "doc1", 2L, 19 * DAY, 1L, 4L), eventBucket("shoes", "doc2", 3L, 19 * DAY, 0L, 0L)),
+            "2025-01-01T00:00:00.000Z"
+        );
+
+        assertEquals(1, counters.size());
+        ClickCounter counter = counters.get(0);
+        assertEquals("shoes", counter.userQuery());
+        assertEquals("doc1", counter.objectId());
+        assertEquals(2, counter.position());
+        assertEquals(19 * DAY, counter.day());
+        assertEquals(1L, counter.clicks());
+        assertEquals(4L, counter.impressions());
+        assertEquals(ClickCounter.generateId("shoes", "doc1", 2, 19 * DAY), counter.id());
+    }
+
+    public void testCountersOf_countsEventsWithoutUserQueryUnderTheirQueryId() {
+        List<ClickCounter> counters = ClickStatisticsStore.countersOf(
+            List.of(eventBucket(CoecClickModel.QUERY_ID_SOURCE, "shoes", "doc1", 2L, 19 * DAY, 1L, 4L)),
+            CoecClickModel.QUERY_ID_SOURCE,
+            "2025-01-01T00:00:00.000Z"
+        );
+
+        assertEquals(1, counters.size());
+        ClickCounter counter = counters.get(0);
+        assertNull(counter.userQuery());
+        assertEquals("shoes", counter.queryId());
+        assertEquals(ClickCounter.generateQueryIdCounterId("shoes", "doc1", 2, 19 * DAY), counter.id());
+        assertNotEquals(ClickCounter.generateId("shoes", "doc1", 2, 19 * DAY), counter.id());
+    }
+
+    public void testGenerateId_staysShortAndKeepsFieldsApart() {
+        String longQuery = "running shoes ".repeat(100);
+        String id = ClickCounter.generateId(longQuery, "doc1", 2, 19 * DAY);
+        assertEquals(43, id.length());
+        assertEquals(id, ClickCounter.generateId(longQuery, "doc1", 2, 19 * DAY));
+
+        assertNotEquals(ClickCounter.generateId("a::b", "c", 1, DAY), ClickCounter.generateId("a", "b::c", 1, DAY));
+        assertNotEquals(ClickCounter.generateId("shoes", "doc1", 1, DAY), ClickCounter.generateId("shoes", "doc1", 2, DAY));
+        assertNotEquals(ClickCounter.generateId("shoes", "doc1", 1, DAY), ClickCounter.generateId("shoes", "doc1", 1, 2 * DAY));
+    }
+
+    public void testFoldCounterBuckets_sumsPositionsPerQueryAndObject() {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            ClickStatisticsStore.foldCounterBuckets(
+                List.of(counterBucket("shoes", "doc1", 3L, 2.0, 10.0), counterBucket("shoes", "doc1", 1L, 1.0, 5.0)),
+                statistics
+            );
+
+            assertEquals(1, statistics.size());
+            int pair = statistics.pairIndex("shoes", "doc1");
+            assertEquals(3, statistics.clicks(pair));
+            assertEquals(15, statistics.impressions(pair));
+            assertEquals(1, statistics.rank(pair));
+        }
+    }
+
+    public void testFoldCounterBuckets_joinsQueryIdsAndSkipsUnknownOnes() {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            ClickStatisticsStore.foldCounterBuckets(List.of(counterBucket("shoes", "doc1", 1L, 2.0, 10.0)), statistics);
+            Map<String, String> userQueries = Map.of("q-1", "shoes");
+            ClickStatisticsStore.foldCounterBuckets(
+                List.of(
+                    counterBucket(CoecClickModel.QUERY_ID_SOURCE, "q-1", "doc1", 2L, 1.0, 5.0),
+                    counterBucket(CoecClickModel.QUERY_ID_SOURCE, "q-2", "doc1", 1L, 1.0, 5.0)
+                ),
+                key -> userQueries.get(String.valueOf(key.get(CoecClickModel.QUERY_ID_SOURCE))),
+                statistics
+            );
+
+            assertEquals(1, statistics.size());
+            int pair = statistics.pairIndex("shoes", "doc1");
+            assertEquals(3, statistics.clicks(pair));
+            assertEquals(15, statistics.impressions(pair));
+            assertEquals(1, statistics.rank(pair));
+        }
+    }
+
+    public void testBuildCounterAggregation_keysQueryIdCountersOnTheirQueryId() {
+        ClickStatisticsStore store = new ClickStatisticsStore(mock(Client.class), mock(ClickStatisticsDao.class), () -> NOW);
+
+        BoolQueryBuilder query = (BoolQueryBuilder) store.buildCounterAggregation(CoecClickModel.QUERY_ID_SOURCE, 20, 0, null).query();
+        assertEquals(ClickCounter.QUERY_ID, ((ExistsQueryBuilder) query.filter().get(0)).fieldName());
+    }
+
+    public void testAdvance_recountsWatermarkDayAndMovesWatermark() {
+        Client client = mock(Client.class);
+        ClickStatisticsDao dao = mock(ClickStatisticsDao.class);
+        doAnswer(invocation -> {
+            StepListener<Void> listener = invocation.getArgument(0);
+            listener.onResponse(null);
+            return null;
+        }).when(dao).createIndexIfAbsent(any());
+        doAnswer(invocation -> {
+            ActionListener<Long> listener = invocation.getArgument(0);
+            listener.onResponse(19 * DAY + 60_000L);
+            return null;
+        }).when(dao).getWatermark(any());
+        doAnswer(invocation -> {
+            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(mock(BulkResponse.class));
+            return null;
+        }).when(dao).putClickCounters(anyList(), any());
+        AtomicLong storedWatermark = new AtomicLong();
+        doAnswer(invocation -> {
+            storedWatermark.set(invocation.getArgument(0));
+            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(mock(BulkResponse.class));
+            return null;
+        }).when(dao).putWatermark(anyLong(), any());
+
+        List<SearchRequest> requests = new ArrayList<>();
+        List<SearchResponse> pages = List.of(
+            page(List.of(eventBucket("shoes", "doc1", 1L, 19 * DAY, 1L, 2L)), Map.of("page", 1)),
+            page(List.of(), null),
+            page(List.of(eventBucket(CoecClickModel.QUERY_ID_SOURCE, "q-1", "doc1", 1L, 19 * DAY, 1L, 1L)), null)
+        );
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(pages.get(requests.size() - 1));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        ClickStatisticsStore store = new ClickStatisticsStore(client, dao, () -> NOW);
+        List<Long> result = new ArrayList<>();
+        store.advance(ActionListener.wrap(result::add, e -> fail("advance should not fail")));
+
+        long expectedWatermark = NOW - ClickStatisticsStore.LATENESS.millis();
+        assertEquals(List.of(expectedWatermark), result);
+        assertEquals(expectedWatermark, storedWatermark.get());
+        assertEquals(3, requests.size());
+        RangeQueryBuilder timestampRange = timestampRange(requests.get(0).source().query());
+        assertEquals(19 * DAY, timestampRange.from());
+        assertEquals(expectedWatermark, timestampRange.to());
+        BoolQueryBuilder unjoinedQuery = (BoolQueryBuilder) requests.get(2).source().query();
+        assertEquals(1, unjoinedQuery.mustNot().size());
+        assertEquals(timestampRange, timestampRange(unjoinedQuery));
+        verify(dao, times(2)).putClickCounters(anyList(), any());
+        verify(dao, times(1)).putWatermark(eq(expectedWatermark), any());
+    }
+
+    public void testBuildCounterAggregation_restrictsToWindow() {
+        ClickStatisticsStore store = new ClickStatisticsStore(mock(Client.class), mock(ClickStatisticsDao.class), () -> NOW);
+
+        BoolQueryBuilder allDays = (BoolQueryBuilder) store.buildCounterAggregation(20, 0, null).query();
+        assertEquals(2, allDays.filter().size());
+
+        BoolQueryBuilder window = (BoolQueryBuilder) store.buildCounterAggregation(20, 7, null).query();
+        assertEquals(3, window.filter().size());
+        RangeQueryBuilder dayRange = (RangeQueryBuilder) window.filter().get(2);
+        assertEquals(ClickCounter.DAY, dayRange.fieldName());
+        assertEquals(14 * DAY, dayRange.from());
+    }
+
+    private static RangeQueryBuilder timestampRange(QueryBuilder query) {
+        return (RangeQueryBuilder) ((BoolQueryBuilder) query).filter().get(0);
+    }
+
+    private static SearchResponse page(List<CompositeAggregation.Bucket> buckets, Map<String, Object> afterKey) {
+        CompositeAggregation composite = mock(CompositeAggregation.class);
+        doAnswer(invocation -> buckets).when(composite).getBuckets();
+        when(composite.afterKey()).thenReturn(afterKey);
+        Aggregations aggregations = mock(Aggregations.class);
+        when(aggregations.get(ClickStatisticsStore.EVENT_COUNTS_AGGREGATION)).thenReturn(composite);
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getAggregations()).thenReturn(aggregations);
+        return response;
+    }
+
+    private static CompositeAggregation.Bucket eventBucket(
+        String userQuery,
+        String objectId,
+        long position,
+        long day,
+        long clicks,
+        long impressions
+    ) {
+        return eventBucket(CoecClickModel.USER_QUERY_SOURCE, userQuery, objectId, position, day, clicks, impressions);
+    }
+
+    private static CompositeAggregation.Bucket eventBucket(
+        String querySource,
+        String query,
+        String objectId,
+        long position,
+        long day,
+        long clicks,
+        long impressions
+    ) {
+        Filter clickFilter = mock(Filter.class);
+        when(clickFilter.getDocCount()).thenReturn(clicks);
+        Filter impressionFilter = mock(Filter.class);
+        when(impressionFilter.getDocCount()).thenReturn(impressions);
+        Aggregations aggregations = mock(Aggregations.class);
+        when(aggregations.get(ClickStatisticsStore.CLICKS)).thenReturn(clickFilter);
+        when(aggregations.get(ClickStatisticsStore.IMPRESSIONS)).thenReturn(impressionFilter);
+
+        CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+        when(bucket.getKey()).thenReturn(
+            Map.of(
+                querySource,
+                query,
+                CoecClickModel.OBJECT_ID_SOURCE,
+                objectId,
+                CoecClickModel.POSITION_SOURCE,
+                position,
+                ClickStatisticsStore.DAY_SOURCE,
+                day
+            )
+        );
+        when(bucket.getAggregations()).thenReturn(aggregations);
+        return bucket;
+    }
+
+    private static CompositeAggregation.Bucket counterBucket(
+        String userQuery,
+        String objectId,
+        long position,
+        double clicks,
+        double impressions
+    ) {
+        return counterBucket(CoecClickModel.USER_QUERY_SOURCE, userQuery, objectId, position, clicks, impressions);
+    }
+
+    private static CompositeAggregation.Bucket counterBucket(
+        String querySource,
+        String query,
+        String objectId,
+        long position,
+        double clicks,
+        double impressions
+    ) {
+        Sum clickSum = mock(Sum.class);
+        when(clickSum.getValue()).thenReturn(clicks);
+        Sum impressionSum = mock(Sum.class);
+        when(impressionSum.getValue()).thenReturn(impressions);
+        Aggregations aggregations = mock(Aggregations.class);
+        when(aggregations.get(ClickStatisticsStore.CLICKS)).thenReturn(clickSum);
+        when(aggregations.get(ClickStatisticsStore.IMPRESSIONS)).thenReturn(impressionSum);
+
+        CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+        when(bucket.getKey()).thenReturn(
+            Map.of(querySource, query, CoecClickModel.OBJECT_ID_SOURCE, objectId, CoecClickModel.POSITION_SOURCE, position)
+        );
+        when(bucket.getAggregations()).thenReturn(aggregations);
+        return bucket;
+    }
+}
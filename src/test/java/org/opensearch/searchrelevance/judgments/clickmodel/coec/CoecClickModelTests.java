@@ -0,0 +1,535 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.coec;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_MODEL_THREAD_POOL;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.lucene.search.TotalHits;
+import org.opensearch.Version;
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.NoShardAvailableActionException;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.SearchScrollRequest;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchRequest;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughFetchResponse;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapNodeResponse;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapRequest;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughMapResponse;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughPartitionStore;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughPartitions;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
+import org.opensearch.searchrelevance.ubi.UserQueryResolver;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.client.Client;
+
+public class CoecClickModelTests extends OpenSearchTestCase {
+
+    public void testFoldClickthroughBuckets_countsClicksAndImpressionsPerQueryAndObject() {
+        ClickStatisticsTable statistics = new ClickStatisticsTable();
+        CoecClickModel.foldClickthroughBuckets(
+            List.of(
+                bucket("shoes", "doc1", "impression", 3L, 10),
+                bucket("shoes", "doc1", "impression", 1L, 4),
+                bucket("shoes", "doc1", "click", 2L, 3),
+                bucket("shoes", "doc1", "add_to_cart", 7L, 1),
+                bucket("shoes", "doc2", "impression", 5L, 2)
+            ),
+            statistics
+        );
+
+        assertEquals(1, statistics.queryCount());
+        assertEquals(2, statistics.size());
+        int doc1 = statistics.pairIndex("shoes", "doc1");
+        assertEquals(3, statistics.clicks(doc1));
+        assertEquals(14, statistics.impressions(doc1));
+        assertEquals(1, statistics.rank(doc1));
+        int doc2 = statistics.pairIndex("shoes", "doc2");
+        assertEquals(0, statistics.clicks(doc2));
+        assertEquals(2, statistics.impressions(doc2));
+        assertEquals(5, statistics.rank(doc2));
+    }
+
+    public void testFoldClickthroughBuckets_countsTheActionsOfTheFilterAsClicks() throws IOException {
+        List<CompositeAggregation.Bucket> buckets = List.of(
+            bucket("shoes", "doc1", "impression", 1L, 14),
+            bucket("shoes", "doc1", "click", 1L, 3),
+            bucket("shoes", "doc1", "add_to_cart", 1L, 7)
+        );
+        Map<Integer, Double> rankAggregatedClickThrough = Map.of(1, 0.5);
+        UbiFilter addToCart = new UbiFilter(null, null, null, null, List.of("add_to_cart"));
+
+        try (ClickStatisticsTable clicks = new ClickStatisticsTable(); ClickStatisticsTable carts = new ClickStatisticsTable()) {
+            CoecClickModel.foldClickthroughBuckets(buckets, clicks);
+            CoecClickModel.foldClickthroughBuckets(buckets, key -> "shoes", addToCart, carts);
+
+            assertEquals("0.429", rating(CoecClickModel.calculateCoecJudgments(rankAggregatedClickThrough, clicks), "doc1"));
+            assertEquals("1.000", rating(CoecClickModel.calculateCoecJudgments(rankAggregatedClickThrough, carts), "doc1"));
+        }
+    }
+
+    public void testLogClickthroughEvents_readsDocValuesAndSkipsIncompleteEvents() {
+        ClickStatisticsTable statistics = new ClickStatisticsTable();
+        SearchHit[] hits = new SearchHit[] {
+            event(0, "shoes", "doc1", "impression", 2L),
+            event(1, "shoes", "doc1", "click", 1L),
+            event(2, "shoes", "doc1", "hover", 0L),
+            event(3, "shoes", null, "click", 0L) };
+
+        Client client = mock(Client.class);
+        logClickthroughEvents(hits, statistics, new UserQueryResolver(client));
+
+        verify(client, never()).search(any(SearchRequest.class), any());
+
+        assertEquals(1, statistics.size());
+        int pair = statistics.pairIndex("shoes", "doc1");
+        assertEquals(1, statistics.clicks(pair));
+        assertEquals(1, statistics.impressions(pair));
+        assertEquals(1, statistics.rank(pair));
+    }
+
+    public void testLogClickthroughEvents_joinsEventsWithoutUserQueryOncePerPage() {
+        Client client = mock(Client.class);
+        List<SearchRequest> lookups = new ArrayList<>();
+        doAnswer(invocation -> {
+            lookups.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(queries(Map.of("q1", "boots")));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        ClickStatisticsTable statistics = new ClickStatisticsTable();
+        SearchHit[] hits = new SearchHit[] {
+            event(0, "shoes", "doc1", "click", 0L),
+            unjoinedEvent(1, "q1", "doc2", "impression", 1L),
+            unjoinedEvent(2, "q1", "doc2", "click", 1L),
+            unjoinedEvent(3, "q2", "doc3", "click", 2L) };
+
+        logClickthroughEvents(hits, statistics, new UserQueryResolver(client));
+
+        assertEquals(1, lookups.size());
+        assertEquals(2, statistics.queryCount());
+        assertEquals(1, statistics.clicks(statistics.pairIndex("shoes", "doc1")));
+        int boots = statistics.pairIndex("boots", "doc2");
+        assertEquals(1, statistics.clicks(boots));
+        assertEquals(1, statistics.impressions(boots));
+        assertEquals(2, statistics.size());
+    }
+
+    public void testGetClickthroughRate_pagesThroughCompositeBuckets() {
+        Client client = mock(Client.class);
+        List<SearchRequest> requests = new ArrayList<>();
+        List<SearchResponse> pages = List.of(
+            page(List.of(bucket("shoes", "doc1", "impression", 4L, 1)), Map.of("page", 1)),
+            page(List.of(bucket("shoes", "doc1", "click", 1L, 1), bucket("boots", "doc2", "impression", 2L, 2)), Map.of("page", 2)),
+            page(List.of(), null),
+            page(List.of(), null)
+        );
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(pages.get(requests.size() - 1));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        CoecClickModel model = new CoecClickModel(client, new CoecClickModelParameters(20, true));
+        List<ClickStatisticsTable> result = new ArrayList<>();
+        model.getClickthroughRate(ActionListener.wrap(result::add, e -> fail("aggregation should not fail")));
+
+        assertEquals(4, requests.size());
+        assertEquals(0, requests.get(0).source().size());
+        assertFalse(requests.get(0).source().toString().contains("\"after\""));
+        assertTrue(requests.get(1).source().toString().contains("\"after\":{\"page\":1}"));
+        assertTrue(requests.get(2).source().toString().contains("\"after\":{\"page\":2}"));
+        assertTrue(requests.get(3).source().toString().contains("\"must_not\""));
+        verify(client, never()).searchScroll(any(SearchScrollRequest.class), any());
+
+        ClickStatisticsTable statistics = result.get(0);
+        assertEquals(2, statistics.queryCount());
+        int shoes = statistics.pairIndex("shoes", "doc1");
+        assertEquals(1, statistics.clicks(shoes));
+        assertEquals(1, statistics.impressions(shoes));
+        assertEquals(2, statistics.impressions(statistics.pairIndex("boots", "doc2")));
+    }
+
+    public void testGetClickthroughRate_failsOnAPageThatMissesShards() {
+        Client client = mock(Client.class);
+        List<SearchRequest> requests = new ArrayList<>();
+        SearchResponse partialPage = page(List.of(bucket("shoes", "doc1", "impression", 4L, 1)), Map.of("page", 1));
+        when(partialPage.getTotalShards()).thenReturn(2);
+        when(partialPage.getSuccessfulShards()).thenReturn(1);
+        when(partialPage.getFailedShards()).thenReturn(1);
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(partialPage);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        CoecClickModel model = new CoecClickModel(client, new CoecClickModelParameters(20, true));
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        model.getClickthroughRate(ActionListener.wrap(statistics -> fail("a partial count should fail"), failure::set));
+
+        assertEquals(1, requests.size());
+        assertTrue(failure.get() instanceof SearchRelevanceException);
+        assertTrue(failure.get().getMessage().contains("read 1 of 2 shards"));
+    }
+
+    public void testEnsureAllShardsCounted_failsOnSkippedShardsAndTimeouts() {
+        SearchResponse skipped = mock(SearchResponse.class);
+        when(skipped.getSkippedShards()).thenReturn(1);
+        expectThrows(SearchRelevanceException.class, () -> CoecClickModel.ensureAllShardsCounted(skipped));
+        SearchResponse timedOut = mock(SearchResponse.class);
+        when(timedOut.isTimedOut()).thenReturn(true);
+        expectThrows(SearchRelevanceException.class, () -> CoecClickModel.ensureAllShardsCounted(timedOut));
+        CoecClickModel.ensureAllShardsCounted(mock(SearchResponse.class));
+    }
+
+    public void testGetClickthroughRate_joinsBucketsWithoutUserQuery() {
+        Client client = mock(Client.class);
+        List<SearchRequest> requests = new ArrayList<>();
+        List<SearchResponse> responses = List.of(
+            page(List.of(), null),
+            page(List.of(unjoinedBucket("q1", "doc1", "click", 0L, 2), unjoinedBucket("q2", "doc1", "impression", 0L, 5)), null),
+            queries(Map.of("q1", "shoes"))
+        );
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(responses.get(requests.size() - 1));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        CoecClickModel model = new CoecClickModel(client, new CoecClickModelParameters(20, true));
+        List<ClickStatisticsTable> result = new ArrayList<>();
+        model.getClickthroughRate(ActionListener.wrap(result::add, e -> fail("aggregation should not fail")));
+
+        assertEquals(3, requests.size());
+        assertArrayEquals(new String[] { "ubi_queries" }, requests.get(2).indices());
+        ClickStatisticsTable statistics = result.get(0);
+        assertEquals(1, statistics.size());
+        assertEquals(2, statistics.clicks(statistics.pairIndex("shoes", "doc1")));
+    }
+
+    public void testBuildClickthroughAggregationRequest_pushesDownFilter() {
+        CoecClickModelParameters parameters = new CoecClickModelParameters(20, true);
+        parameters.setFilter(new UbiFilter("now-30d", null, "storefront", null, List.of()));
+        CoecClickModel model = new CoecClickModel(mock(Client.class), parameters);
+
+        for (SearchRequest request : List.of(
+            model.buildClickthroughAggregationRequest(null),
+            model.buildUnjoinedClickthroughAggregationRequest(null)
+        )) {
+            String source = request.source().toString();
+            assertTrue(source.contains("\"timestamp\":{\"from\":\"now-30d\""));
+            assertTrue(source.contains("\"application\":{\"value\":\"storefront\""));
+        }
+    }
+
+    public void testBuildClickthroughAggregationRequest_restrictsToShardPreference() {
+        CoecClickModelParameters parameters = new CoecClickModelParameters(20, true);
+        assertNull(new CoecClickModel(mock(Client.class), parameters).buildClickthroughAggregationRequest(null).preference());
+
+        parameters.setShardPreference("_shards:0,2|_only_local");
+        CoecClickModel model = new CoecClickModel(mock(Client.class), parameters);
+
+        assertEquals("_shards:0,2|_only_local", model.buildClickthroughAggregationRequest(null).preference());
+        assertEquals("_shards:0,2|_only_local", model.buildUnjoinedClickthroughAggregationRequest(null).preference());
+    }
+
+    public void testCalculateJudgments_resolvesShardsAgainWhenTheyMoved() {
+        Client client = distributedClient();
+        ClusterName clusterName = new ClusterName("test");
+        ShardId shard = new ShardId("ubi_events", "_na_", 0);
+        SearchRelevanceException moved = new SearchRelevanceException(
+            "Counting clicks read 1 of 2 shards",
+            new NoShardAvailableActionException(shard),
+            RestStatus.SERVICE_UNAVAILABLE
+        );
+        List<ClickthroughMapResponse> responses = List.of(
+            new ClickthroughMapResponse(clusterName, List.of(), List.of(new FailedNodeException("node1", "moved", moved))),
+            new ClickthroughMapResponse(clusterName, List.of(), List.of())
+        );
+        List<ClickthroughMapRequest> requests = new ArrayList<>();
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(1));
+            ActionListener<ClickthroughMapResponse> listener = invocation.getArgument(2);
+            listener.onResponse(responses.get(requests.size() - 1));
+            return null;
+        }).when(client).execute(eq(ClickthroughMapAction.INSTANCE), any(ClickthroughMapRequest.class), any());
+
+        CoecClickModelParameters parameters = new CoecClickModelParameters(20, true);
+        parameters.setDistributed(true);
+        parameters.setPartitions(2);
+        AtomicReference<List<Map<String, Object>>> judgments = new AtomicReference<>();
+        new CoecClickModel(client, parameters).calculateJudgments(ActionListener.wrap(judgments::set, e -> fail("retry should succeed")));
+
+        assertEquals(2, requests.size());
+        assertNotEquals(requests.get(0).getJobId(), requests.get(1).getJobId());
+        assertEquals(List.of(), judgments.get());
+    }
+
+    public void testCalculateJudgments_reducesThePartitionsFetchedFromEveryNodeInChunks() throws IOException {
+        Client client = distributedClient();
+        ClickthroughPartitionStore store = new ClickthroughPartitionStore(mock(ThreadPool.class));
+        int partitions = 3;
+        List<ClickthroughMapNodeResponse> nodes = new ArrayList<>();
+        List<ClickthroughFetchRequest> fetches = new ArrayList<>();
+        doAnswer(invocation -> {
+            ClickthroughMapRequest request = invocation.getArgument(1);
+            mapOnNodes(request, partitions, store, nodes);
+            ActionListener<ClickthroughMapResponse> listener = invocation.getArgument(2);
+            listener.onResponse(new ClickthroughMapResponse(new ClusterName("test"), nodes, List.of()));
+            return null;
+        }).when(client).execute(eq(ClickthroughMapAction.INSTANCE), any(ClickthroughMapRequest.class), any());
+        doAnswer(invocation -> {
+            ClickthroughFetchRequest request = invocation.getArgument(1);
+            fetches.add(request);
+            ClickthroughFetchRequest nodeRequest = new ClickthroughFetchRequest(
+                request.getNodeId(),
+                request.getJobId() + "/" + request.getNodeId(),
+                request.getPartition(),
+                request.getFromPair(),
+                request.getOffset()
+            );
+            ActionListener<ClickthroughFetchResponse> listener = invocation.getArgument(2);
+            // a chunk of a single pair, so every partition is fetched in several chunks
+            listener.onResponse(store.read(nodeRequest, 1));
+            return null;
+        }).when(client).execute(eq(ClickthroughFetchAction.INSTANCE), any(ClickthroughFetchRequest.class), any());
+
+        CoecClickModelParameters parameters = new CoecClickModelParameters(20, true);
+        parameters.setDistributed(true);
+        parameters.setPartitions(partitions);
+        AtomicReference<List<Map<String, Object>>> judgments = new AtomicReference<>();
+        new CoecClickModel(client, parameters).calculateJudgments(ActionListener.wrap(judgments::set, e -> fail(e.getMessage())));
+
+        assertEquals(5, judgments.get().size());
+        Set<Object> queries = new HashSet<>();
+        for (Map<String, Object> judgment : judgments.get()) {
+            assertTrue(queries.add(judgment.get("query")));
+            assertEquals(4, ((Map<?, ?>) judgment.get("ratings")).size());
+        }
+        // one pair per chunk, 20 pairs on each node
+        assertEquals(40, fetches.size());
+        assertEquals(0, store.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testMergeChunk_addsUpTheCountsOfEveryNode() throws IOException {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            CoecClickModel.mergeChunk(chunk(1, 4, 0), statistics);
+            CoecClickModel.mergeChunk(chunk(1, 4, 1), statistics);
+
+            List<Map<String, Object>> judgments = CoecClickModel.calculateCoecJudgments(Map.of(0, 0.5, 1, 0.25), statistics);
+
+            assertEquals(1, judgments.size());
+            assertEquals("shoes", judgments.get(0).get("query"));
+            // 2 clicks over 8 impressions at the lowest rank 0, expecting 0.5 * 8 clicks
+            assertEquals(Map.of("doc1", "0.500"), (Map<String, String>) judgments.get(0).get("ratings"));
+        }
+    }
+
+    /**
+     * Count 20 pairs of 5 queries on each of two nodes, and keep their partitions in the store by job and node id
+     */
+    private static void mapOnNodes(
+        ClickthroughMapRequest request,
+        int partitions,
+        ClickthroughPartitionStore store,
+        List<ClickthroughMapNodeResponse> nodes
+    ) throws IOException {
+        for (String nodeId : List.of("node1", "node2")) {
+            try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+                for (int i = 0; i < 20; i++) {
+                    int pair = statistics.pairIndex("query" + (i % 5), "doc" + i);
+                    statistics.logClicks(pair, 1);
+                    statistics.logImpressions(pair, 2);
+                    statistics.logRank(pair, 0);
+                }
+                ClickthroughPartitions written = ClickthroughPartitions.write(statistics, partitions, createTempDir());
+                store.put(request.getJobId() + "/" + nodeId, written);
+                DiscoveryNode node = new DiscoveryNode(nodeId, buildNewFakeTransportAddress(), Version.CURRENT);
+                nodes.add(new ClickthroughMapNodeResponse(node, written.getPairCounts()));
+            }
+        }
+    }
+
+    private static ClickthroughFetchResponse chunk(int clicks, int impressions, int rank) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.writeString("shoes");
+        out.writeString("doc1");
+        out.writeVLong(clicks);
+        out.writeVLong(impressions);
+        out.writeInt(rank);
+        return new ClickthroughFetchResponse(out.bytes(), 1, out.size());
+    }
+
+    /**
+     * Client of a coordinator, with an empty rank-aggregated click-through and a direct click model executor
+     */
+    private static Client distributedClient() {
+        Client client = mock(Client.class);
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.executor(CLICK_MODEL_THREAD_POOL)).thenReturn(OpenSearchExecutors.newDirectExecutorService());
+        when(client.threadPool()).thenReturn(threadPool);
+        Terms actions = mock(Terms.class);
+        doAnswer(invocation -> List.of()).when(actions).getBuckets();
+        Aggregations aggregations = mock(Aggregations.class);
+        when(aggregations.get("actions")).thenReturn(actions);
+        SearchResponse rankAggregation = mock(SearchResponse.class);
+        when(rankAggregation.getAggregations()).thenReturn(aggregations);
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(rankAggregation);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        return client;
+    }
+
+    private static SearchResponse queries(Map<String, String> userQueryById) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (Map.Entry<String, String> query : userQueryById.entrySet()) {
+            Map<String, DocumentField> fields = new HashMap<>();
+            fields.put("query_id", new DocumentField("query_id", List.<Object>of(query.getKey())));
+            fields.put("user_query", new DocumentField("user_query", List.<Object>of(query.getValue())));
+            hits.add(new SearchHit(hits.size(), query.getKey(), fields, Map.of()));
+        }
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getHits()).thenReturn(
+            new SearchHits(hits.toArray(new SearchHit[0]), new TotalHits(hits.size(), TotalHits.Relation.EQUAL_TO), 1.0f)
+        );
+        return response;
+    }
+
+    private static SearchResponse page(List<CompositeAggregation.Bucket> buckets, Map<String, Object> afterKey) {
+        CompositeAggregation composite = mock(CompositeAggregation.class);
+        doAnswer(invocation -> buckets).when(composite).getBuckets();
+        when(composite.afterKey()).thenReturn(afterKey);
+        Aggregations aggregations = mock(Aggregations.class);
+        when(aggregations.get(CoecClickModel.CLICKTHROUGH_AGGREGATION)).thenReturn(composite);
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getAggregations()).thenReturn(aggregations);
+        return response;
+    }
+
+    private static SearchHit event(int docId, String userQuery, String objectId, String action, long position) {
+        Map<String, DocumentField> fields = new HashMap<>();
+        fields.put(CoecClickModel.USER_QUERY_FIELD, new DocumentField(CoecClickModel.USER_QUERY_FIELD, List.<Object>of(userQuery)));
+        if (objectId != null) {
+            fields.put(CoecClickModel.OBJECT_ID_FIELD, new DocumentField(CoecClickModel.OBJECT_ID_FIELD, List.<Object>of(objectId)));
+        }
+        fields.put(CoecClickModel.ACTION_NAME_FIELD, new DocumentField(CoecClickModel.ACTION_NAME_FIELD, List.<Object>of(action)));
+        fields.put(CoecClickModel.POSITION_FIELD, new DocumentField(CoecClickModel.POSITION_FIELD, List.<Object>of(position)));
+        return new SearchHit(docId, String.valueOf(docId), fields, Map.of());
+    }
+
+    private static SearchHit unjoinedEvent(int docId, String queryId, String objectId, String action, long position) {
+        Map<String, DocumentField> fields = new HashMap<>();
+        fields.put(CoecClickModel.QUERY_ID_FIELD, new DocumentField(CoecClickModel.QUERY_ID_FIELD, List.<Object>of(queryId)));
+        fields.put(CoecClickModel.OBJECT_ID_FIELD, new DocumentField(CoecClickModel.OBJECT_ID_FIELD, List.<Object>of(objectId)));
+        fields.put(CoecClickModel.ACTION_NAME_FIELD, new DocumentField(CoecClickModel.ACTION_NAME_FIELD, List.<Object>of(action)));
+        fields.put(CoecClickModel.POSITION_FIELD, new DocumentField(CoecClickModel.POSITION_FIELD, List.<Object>of(position)));
+        return new SearchHit(docId, String.valueOf(docId), fields, Map.of());
+    }
+
+    private static CompositeAggregation.Bucket unjoinedBucket(
+        String queryId,
+        String objectId,
+        String action,
+        long position,
+        long docCount
+    ) {
+        CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+        when(bucket.getKey()).thenReturn(
+            Map.of(
+                CoecClickModel.QUERY_ID_SOURCE,
+                queryId,
+                CoecClickModel.OBJECT_ID_SOURCE,
+                objectId,
+                CoecClickModel.ACTION_SOURCE,
+                action,
+                CoecClickModel.POSITION_SOURCE,
+                position
+            )
+        );
+        when(bucket.getDocCount()).thenReturn(docCount);
+        return bucket;
+    }
+
+    private static CompositeAggregation.Bucket bucket(String userQuery, String objectId, String action, long position, long docCount) {
+        CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+        when(bucket.getKey()).thenReturn(
+            Map.of(
+                CoecClickModel.USER_QUERY_SOURCE,
+                userQuery,
+                CoecClickModel.OBJECT_ID_SOURCE,
+                objectId,
+                CoecClickModel.ACTION_SOURCE,
+                action,
+                CoecClickModel.POSITION_SOURCE,
+                position
+            )
+        );
+        when(bucket.getDocCount()).thenReturn(docCount);
+        return bucket;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String rating(List<Map<String, Object>> judgments, String objectId) {
+        assertEquals(1, judgments.size());
+        return ((Map<String, String>) judgments.get(0).get("ratings")).get(objectId);
+    }
+
+    private static void logClickthroughEvents(SearchHit[] hits, ClickStatisticsTable statistics, UserQueryResolver resolver) {
+        AtomicBoolean logged = new AtomicBoolean();
+        CoecClickModel.logClickthroughEvents(
+            hits,
+            statistics,
+            UbiFilter.NONE,
+            resolver,
+            Runnable::run,
+            ActionListener.wrap(r -> logged.set(true), e -> fail("logging should not fail"))
+        );
+        assertTrue(logged.get());
+    }
+}
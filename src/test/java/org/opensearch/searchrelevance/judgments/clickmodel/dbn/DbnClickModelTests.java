@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.dbn;
+
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickSessions;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModelParameters;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class DbnClickModelTests extends OpenSearchTestCase {
+
+    @SuppressWarnings("unchecked")
+    public void testFit_ranksSatisfyingResultsFirst() {
+        try (ClickSessions sessions = new ClickSessions()) {
+            // A is mostly clicked and ends the session, B is clicked less often and users move on to C
+            for (int i = 0; i < 80; i++) {
+                addSession(sessions, "A", true, "B", false, "C", false);
+            }
+            for (int i = 0; i < 20; i++) {
+                addSession(sessions, "A", false, "B", false, "C", false);
+            }
+            for (int i = 0; i < 30; i++) {
+                addSession(sessions, "B", true, "A", false, "C", true);
+            }
+            for (int i = 0; i < 70; i++) {
+                addSession(sessions, "B", false, "A", true, "C", false);
+            }
+
+            DbnClickModel model = new DbnClickModel(null, new EmClickModelParameters(3, 200, 1e-6, 2, 1000));
+            model.fit(sessions, Runnable::run);
+
+            List<Map<String, Object>> judgments = model.judgments(sessions);
+            assertEquals(1, judgments.size());
+            Map<String, String> ratings = (Map<String, String>) judgments.get(0).get("ratings");
+            assertTrue(Double.parseDouble(ratings.get("A")) > Double.parseDouble(ratings.get("B")));
+            assertTrue(model.continuation() > 0);
+            assertTrue(model.continuation() < 1);
+        }
+    }
+
+    private static void addSession(
+        ClickSessions sessions,
+        String first,
+        boolean firstClicked,
+        String second,
+        boolean secondClicked,
+        String third,
+        boolean thirdClicked
+    ) {
+        sessions.startSession("shoes");
+        sessions.addResult(first, 0, firstClicked);
+        sessions.addResult(second, 1, secondClicked);
+        sessions.addResult(third, 2, thirdClicked);
+        sessions.endSession();
+    }
+}
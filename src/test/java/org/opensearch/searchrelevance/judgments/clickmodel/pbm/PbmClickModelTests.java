@@ -0,0 +1,96 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.clickmodel.pbm;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickSessions;
+import org.opensearch.searchrelevance.judgments.clickmodel.EmClickModelParameters;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class PbmClickModelTests extends OpenSearchTestCase {
+
+    private static final String[] DOCS = new String[] { "A", "B", "C" };
+    private static final double[] ATTRACTIVENESS = new double[] { 0.8, 0.5, 0.2 };
+    private static final double[] EXAMINATION = new double[] { 1.0, 0.6, 0.3 };
+    private static final int SESSIONS_PER_CELL = 1000;
+
+    public void testFit_recoversOrderAndClickProbabilities() {
+        try (ClickSessions sessions = syntheticSessions()) {
+            PbmClickModel model = new PbmClickModel(null, new EmClickModelParameters(3, 500, 1e-7, 2, 1000));
+            model.fit(sessions, Runnable::run);
+
+            Map<String, String> ratings = ratings(model.judgments(sessions));
+            double a = Double.parseDouble(ratings.get("A"));
+            double b = Double.parseDouble(ratings.get("B"));
+            double c = Double.parseDouble(ratings.get("C"));
+            assertTrue(a > b);
+            assertTrue(b > c);
+
+            // attractiveness and examination are identified up to a common factor, their products are not
+            double[] fitted = new double[] { a, b, c };
+            for (int doc = 0; doc < DOCS.length; doc++) {
+                for (int rank = 0; rank < EXAMINATION.length; rank++) {
+                    assertEquals(ATTRACTIVENESS[doc] * EXAMINATION[rank], fitted[doc] * model.examination(rank), 0.02);
+                }
+            }
+        }
+    }
+
+    public void testFit_parallelMatchesSerial() {
+        try (ClickSessions sessions = syntheticSessions()) {
+            PbmClickModel serial = new PbmClickModel(null, new EmClickModelParameters(3, 100, 1e-7, 1, 1000));
+            PbmClickModel parallel = new PbmClickModel(null, new EmClickModelParameters(3, 100, 1e-7, 4, 1000));
+            PbmClickModel rejected = new PbmClickModel(null, new EmClickModelParameters(3, 100, 1e-7, 4, 1000));
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                serial.fit(sessions, Runnable::run);
+                parallel.fit(sessions, executor);
+            } finally {
+                terminate(executor);
+            }
+            // partitions the executor rejects run on the calling thread
+            rejected.fit(sessions, task -> { throw new RejectedExecutionException("rejected"); });
+            for (PbmClickModel model : List.of(parallel, rejected)) {
+                assertEquals(serial.judgments(sessions), model.judgments(sessions));
+                for (int rank = 0; rank < EXAMINATION.length; rank++) {
+                    assertEquals(serial.examination(rank), model.examination(rank), 1e-9);
+                }
+            }
+        }
+    }
+
+    /**
+     * One single result session per object, rank and click outcome, clicked as often as the model predicts.
+     */
+    private static ClickSessions syntheticSessions() {
+        ClickSessions sessions = new ClickSessions();
+        for (int doc = 0; doc < DOCS.length; doc++) {
+            for (int rank = 0; rank < EXAMINATION.length; rank++) {
+                int clicks = (int) Math.round(SESSIONS_PER_CELL * ATTRACTIVENESS[doc] * EXAMINATION[rank]);
+                for (int i = 0; i < SESSIONS_PER_CELL; i++) {
+                    sessions.startSession("shoes");
+                    sessions.addResult(DOCS[doc], rank, i < clicks);
+                    sessions.endSession();
+                }
+            }
+        }
+        return sessions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> ratings(List<Map<String, Object>> judgments) {
+        assertEquals(1, judgments.size());
+        assertEquals("shoes", judgments.get(0).get("query"));
+        return (Map<String, String>) judgments.get(0).get("ratings");
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.judgments.queryhash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class UserQueryDictionaryTests extends OpenSearchTestCase {
+
+    public void testNormalize_lowerCasesTrimsAndCollapsesWhitespace() {
+        assertEquals("running shoes", UserQueryDictionary.normalize("  Running \t SHOES\n"));
+        assertEquals("running shoes", UserQueryDictionary.normalize("running  shoes"));
+        assertEquals("straße", UserQueryDictionary.normalize("STRAßE"));
+        assertEquals("", UserQueryDictionary.normalize("   "));
+
+        String normalized = "running shoes";
+        assertSame(normalized, UserQueryDictionary.normalize(normalized));
+    }
+
+    public void testGetHash_numbersVariantsOfAQueryDenselyAsOne() {
+        UserQueryDictionary dictionary = new UserQueryDictionary();
+
+        assertEquals(0, dictionary.getHash("Shoes"));
+        assertEquals(1, dictionary.getHash("boots"));
+        assertEquals(0, dictionary.getHash(" shoes "));
+        assertEquals(0, dictionary.getHash("SHOES"));
+        assertEquals(2, dictionary.size());
+        assertEquals("shoes", dictionary.userQuery(0));
+        assertEquals("boots", dictionary.userQuery(1));
+    }
+
+    public void testIntern_returnsOneInstancePerQuery() {
+        UserQueryDictionary dictionary = new UserQueryDictionary();
+
+        String interned = dictionary.intern("Red Shoes");
+        assertEquals("red shoes", interned);
+        assertSame(interned, dictionary.intern("red   shoes"));
+        assertSame(interned, dictionary.intern(new String("red shoes")));
+    }
+
+    public void testGetHash_isConsistentAcrossThreads() throws Exception {
+        UserQueryDictionary dictionary = new UserQueryDictionary();
+        int queries = 5000;
+        int threadCount = 4;
+        int[][] numbers = new int[threadCount][queries];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < queries; i++) {
+                    // half of the threads use an upper case variant of the same queries
+                    String query = "query " + i;
+                    numbers[thread][i] = dictionary.getHash(thread % 2 == 0 ? query : query.toUpperCase(Locale.ROOT));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(queries, dictionary.size());
+        boolean[] seen = new boolean[queries];
+        for (int i = 0; i < queries; i++) {
+            int number = numbers[0][i];
+            for (int t = 1; t < threadCount; t++) {
+                assertEquals(number, numbers[t][i]);
+            }
+            assertFalse(seen[number]);
+            seen[number] = true;
+            assertEquals("query " + i, dictionary.userQuery(number));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.metrics;
+
+import java.util.Map;
+
+import org.opensearch.searchrelevance.model.Judgment;
+import org.opensearch.searchrelevance.model.JudgmentType;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class MetricsHelperTests extends OpenSearchTestCase {
+
+    public void testJudgedQueryOf_normalizesQueryTextForUbiJudgmentsOnly() {
+        Map<String, Object> ubiJudgment = Map.of(Judgment.TYPE, JudgmentType.UBI_JUDGMENT.name());
+        assertEquals("running shoes", MetricsHelper.judgedQueryOf("  Running   Shoes ", ubiJudgment));
+
+        Map<String, Object> llmJudgment = Map.of(Judgment.TYPE, JudgmentType.LLM_JUDGMENT.name());
+        assertEquals("  Running   Shoes ", MetricsHelper.judgedQueryOf("  Running   Shoes ", llmJudgment));
+        assertEquals("Running Shoes", MetricsHelper.judgedQueryOf("Running Shoes", Map.of()));
+    }
+}
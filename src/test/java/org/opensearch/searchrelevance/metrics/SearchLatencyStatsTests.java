@@ -0,0 +1,114 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.metrics;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class SearchLatencyStatsTests extends OpenSearchTestCase {
+
+    public void testPercentile() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+        assertEquals(50L, SearchLatencyStats.percentile(sorted, 50));
+        assertEquals(95L, SearchLatencyStats.percentile(sorted, 95));
+        assertEquals(99L, SearchLatencyStats.percentile(sorted, 99));
+        assertEquals(7L, SearchLatencyStats.percentile(new long[] { 7 }, 99));
+        assertEquals(0L, SearchLatencyStats.percentile(new long[0], 50));
+    }
+
+    public void testSummarize_perConfigurationAndVariant() {
+        SearchLatencyStats stats = new SearchLatencyStats();
+        stats.record("config-b", null, mockResponse(30, 2));
+        stats.record("config-a", "variant-1", mockResponse(10, 1));
+        stats.record("config-a", "variant-1", mockResponse(20, 1));
+        stats.record("config-a", "variant-2", mockResponse(40, 3));
+
+        List<Map<String, Object>> summary = stats.summarize();
+
+        assertEquals(3, summary.size());
+        assertEquals("config-a", summary.get(0).get(SearchLatencyStats.SEARCH_CONFIGURATION_ID));
+        assertEquals("variant-1", summary.get(0).get(SearchLatencyStats.VARIANT));
+        assertEquals(2, summary.get(0).get(SearchLatencyStats.COUNT));
+        assertEquals(10L, summary.get(0).get(SearchLatencyStats.P50_IN_MILLIS));
+        assertEquals(20L, summary.get(0).get(SearchLatencyStats.P99_IN_MILLIS));
+        assertEquals(1.0, (double) summary.get(0).get(SearchLatencyStats.AVG_TOTAL_SHARDS), 0.0);
+        assertEquals("variant-2", summary.get(1).get(SearchLatencyStats.VARIANT));
+        assertEquals("config-b", summary.get(2).get(SearchLatencyStats.SEARCH_CONFIGURATION_ID));
+        assertFalse(summary.get(2).containsKey(SearchLatencyStats.VARIANT));
+        assertEquals(30L, summary.get(2).get(SearchLatencyStats.MAX_IN_MILLIS));
+    }
+
+    public void testBucket_coversEveryValueOnceAndWithinRelativeError() {
+        for (long took = 0; took < 1 << 16; took++) {
+            int bucket = SearchLatencyStats.bucket(took);
+            long upperBound = SearchLatencyStats.bucketUpperBound(bucket);
+            assertTrue(upperBound >= took);
+            assertTrue(upperBound - took <= took / SearchLatencyStats.SUB_BUCKETS);
+            if (took < SearchLatencyStats.EXACT_MILLIS) {
+                assertEquals(took, upperBound);
+            }
+        }
+        assertEquals(SearchLatencyStats.BUCKETS - 1, SearchLatencyStats.bucket(Long.MAX_VALUE));
+    }
+
+    public void testSummarize_keepsPercentilesOfManySearchesInFixedBuckets() {
+        SearchLatencyStats stats = new SearchLatencyStats();
+        for (int took = 1; took <= 2_000; took++) {
+            stats.record("config-a", null, mockResponse(took, 1));
+        }
+
+        Map<String, Object> summary = stats.summarize().get(0);
+
+        assertEquals(2_000, summary.get(SearchLatencyStats.COUNT));
+        assertEquals(1_000L, (long) summary.get(SearchLatencyStats.P50_IN_MILLIS), 1_000 / SearchLatencyStats.SUB_BUCKETS);
+        assertEquals(1_980L, (long) summary.get(SearchLatencyStats.P99_IN_MILLIS), 1_980 / SearchLatencyStats.SUB_BUCKETS);
+        assertEquals(2_000L, summary.get(SearchLatencyStats.MAX_IN_MILLIS));
+    }
+
+    public void testToSearchStats_withoutProfile() {
+        Map<String, Object> searchStats = SearchLatencyStats.toSearchStats(mockResponse(12, 5));
+
+        assertEquals(12L, searchStats.get(SearchLatencyStats.TOOK_IN_MILLIS));
+        assertEquals(5, searchStats.get(SearchLatencyStats.TOTAL_SHARDS));
+        assertFalse(searchStats.containsKey(SearchLatencyStats.PROFILE));
+    }
+
+    public void testVariantKey_isStableAcrossParameterOrder() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("normalization", "min_max");
+        parameters.put("combination", "arithmetic_mean");
+        parameters.put("weights", new float[] { 0.3f, 0.7f });
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("weights", new float[] { 0.3f, 0.7f });
+        reordered.put("combination", "arithmetic_mean");
+        reordered.put("normalization", "min_max");
+
+        assertEquals("combination=arithmetic_mean,normalization=min_max,weights=[0.3, 0.7]", SearchLatencyStats.variantKey(parameters));
+        assertEquals(SearchLatencyStats.variantKey(parameters), SearchLatencyStats.variantKey(reordered));
+    }
+
+    private SearchResponse mockResponse(long tookInMillis, int totalShards) {
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getTook()).thenReturn(TimeValue.timeValueMillis(tookInMillis));
+        when(response.getTotalShards()).thenReturn(totalShards);
+        when(response.getSuccessfulShards()).thenReturn(totalShards);
+        when(response.getProfileResults()).thenReturn(Map.of());
+        return response;
+    }
+}
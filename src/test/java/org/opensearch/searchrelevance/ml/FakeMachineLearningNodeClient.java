@@ -0,0 +1,267 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ml;
+
+import static org.opensearch.searchrelevance.common.MLConstants.PARAM_MESSAGES_FIELD;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.ml.client.MachineLearningNodeClient;
+import org.opensearch.ml.common.dataset.remote.RemoteInferenceInputDataSet;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.output.MLOutput;
+import org.opensearch.ml.common.output.model.ModelTensor;
+import org.opensearch.ml.common.output.model.ModelTensorOutput;
+import org.opensearch.ml.common.output.model.ModelTensors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Offline stand-in for a remote chat model behind ml-commons, for tests and load runs without network.
+ * Every predict call is answered with a well-formed rating for each hit id found in the prompt, after a latency drawn
+ * from the configured distribution. A share of calls fails, or is throttled with a 429 and a Retry-After time,
+ * and a tokens per minute quota can be enforced the way a provider would. Calls and tokens are counted for reporting.
+ */
+public class FakeMachineLearningNodeClient extends MachineLearningNodeClient implements AutoCloseable {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern HIT_ID_PATTERN = Pattern.compile("\\{\"id\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final ToLongFunction<Random> latencyMillis;
+    private final double errorRate;
+    private final double throttleRate;
+    private final int retryAfterSeconds;
+    private final int tokensPerMinuteQuota;
+    private final Random random;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong throttledCalls = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private long quotaWindowStartNanos = System.nanoTime();
+    private long quotaWindowTokens;
+
+    private FakeMachineLearningNodeClient(Builder builder) {
+        super(null);
+        this.latencyMillis = builder.latencyMillis;
+        this.errorRate = builder.errorRate;
+        this.throttleRate = builder.throttleRate;
+        this.retryAfterSeconds = builder.retryAfterSeconds;
+        this.tokensPerMinuteQuota = builder.tokensPerMinuteQuota;
+        this.random = new Random(builder.seed);
+        this.executor = Executors.newScheduledThreadPool(builder.threads);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void predict(String modelId, MLInput mlInput, ActionListener<MLOutput> listener) {
+        calls.incrementAndGet();
+        String messages = ((RemoteInferenceInputDataSet) mlInput.getInputDataset()).getParameters().get(PARAM_MESSAGES_FIELD);
+        int tokens = TokenizerUtil.countTokens(messages);
+        promptTokens.addAndGet(tokens);
+
+        long delayMillis;
+        boolean fail;
+        boolean throttle;
+        synchronized (random) {
+            delayMillis = Math.max(0, latencyMillis.applyAsLong(random));
+            double outcome = random.nextDouble();
+            throttle = outcome < throttleRate || exceedsQuota(tokens);
+            fail = throttle == false && outcome < throttleRate + errorRate;
+        }
+
+        int running = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(running, Math::max);
+        executor.schedule(() -> {
+            inFlight.decrementAndGet();
+            if (throttle) {
+                throttledCalls.incrementAndGet();
+                listener.onFailure(
+                    new OpenSearchStatusException(
+                        "Error from remote service: 429 Too Many Requests, Retry-After: " + retryAfterSeconds,
+                        RestStatus.TOO_MANY_REQUESTS
+                    )
+                );
+            } else if (fail) {
+                failedCalls.incrementAndGet();
+                listener.onFailure(new OpenSearchStatusException("Error from remote service: 503", RestStatus.SERVICE_UNAVAILABLE));
+            } else {
+                try {
+                    String content = ratingsFor(messages);
+                    completionTokens.addAndGet(TokenizerUtil.countTokens(content));
+                    listener.onResponse(modelOutput(content));
+                } catch (Exception e) {
+                    listener.onFailure(e);
+                }
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Count the prompt against the tokens per minute quota, a call over the quota is throttled
+     */
+    private boolean exceedsQuota(int tokens) {
+        if (tokensPerMinuteQuota <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - quotaWindowStartNanos >= TimeUnit.MINUTES.toNanos(1)) {
+            quotaWindowStartNanos = now;
+            quotaWindowTokens = 0;
+        }
+        if (quotaWindowTokens + tokens > tokensPerMinuteQuota) {
+            return true;
+        }
+        quotaWindowTokens += tokens;
+        return false;
+    }
+
+    /**
+     * A rating for every hit of the user message, derived from the hit id so repeated runs rate alike
+     */
+    private static String ratingsFor(String messages) throws IOException {
+        JsonNode messageArray = OBJECT_MAPPER.readTree(messages);
+        String userContent = messageArray.get(messageArray.size() - 1).get("content").asText();
+        StringBuilder ratings = new StringBuilder("[");
+        Matcher matcher = HIT_ID_PATTERN.matcher(userContent);
+        while (matcher.find()) {
+            if (ratings.length() > 1) {
+                ratings.append(',');
+            }
+            String id = matcher.group(1);
+            double score = Math.floorMod(id.hashCode(), 11) / 10.0;
+            ratings.append(String.format(Locale.ROOT, "{\"id\":\"%s\",\"rating_score\":%.1f}", id, score));
+        }
+        return ratings.append(']').toString();
+    }
+
+    private static MLOutput modelOutput(String content) {
+        Map<String, Object> dataAsMap = Map.of("choices", List.of(Map.of("message", Map.of("content", content))));
+        ModelTensor tensor = ModelTensor.builder().name("response").dataAsMap(dataAsMap).build();
+        ModelTensors tensors = ModelTensors.builder().mlModelTensors(new ArrayList<>(List.of(tensor))).build();
+        return ModelTensorOutput.builder().mlModelOutputs(new ArrayList<>(List.of(tensors))).build();
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getFailedCalls() {
+        return failedCalls.get();
+    }
+
+    public long getThrottledCalls() {
+        return throttledCalls.get();
+    }
+
+    public long getPromptTokens() {
+        return promptTokens.get();
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Builder {
+        private ToLongFunction<Random> latencyMillis = random -> 0;
+        private double errorRate;
+        private double throttleRate;
+        private int retryAfterSeconds = 1;
+        private int tokensPerMinuteQuota;
+        private long seed = 42;
+        private int threads = 4;
+
+        public Builder fixedLatency(long millis) {
+            this.latencyMillis = random -> millis;
+            return this;
+        }
+
+        public Builder uniformLatency(long minMillis, long maxMillis) {
+            this.latencyMillis = random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+            return this;
+        }
+
+        /**
+         * Long-tailed latency as seen from hosted models, the median and the 99th percentile define the log-normal distribution
+         */
+        public Builder logNormalLatency(long medianMillis, long p99Millis) {
+            double mu = Math.log(medianMillis);
+            double sigma = (Math.log(p99Millis) - mu) / 2.326;
+            this.latencyMillis = random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder throttleRate(double throttleRate, int retryAfterSeconds) {
+            this.throttleRate = throttleRate;
+            this.retryAfterSeconds = retryAfterSeconds;
+            return this;
+        }
+
+        public Builder tokensPerMinuteQuota(int tokensPerMinuteQuota, int retryAfterSeconds) {
+            this.tokensPerMinuteQuota = tokensPerMinuteQuota;
+            this.retryAfterSeconds = retryAfterSeconds;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public FakeMachineLearningNodeClient build() {
+            return new FakeMachineLearningNodeClient(this);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ml;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensearch.core.common.ParsingException;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class LlmRatingParserTests extends OpenSearchTestCase {
+
+    public void testParse_ratingsInResponseOrder() throws IOException {
+        String response = "[{\"id\":\"products::1\",\"rating_score\":0.9},{\"id\":\"products::2\",\"rating_score\":0}]";
+        assertEquals(
+            List.of(new LlmRating("products::1", 0.9), new LlmRating("products::2", 0.0)),
+            LlmRatingParser.parse(response)
+        );
+    }
+
+    public void testParse_codeFencesAndExtraFields() throws IOException {
+        String response = "```json\n[{\"id\":\"products::1\",\"reason\":{\"text\":\"exact\"},\"rating_score\":\"0.7\"}]\n```";
+        assertEquals(List.of(new LlmRating("products::1", 0.7)), LlmRatingParser.parse(response));
+    }
+
+    public void testParse_objectsWithoutArray() throws IOException {
+        String response = "{\"id\":\"products::1\",\"rating_score\":1.0}";
+        assertEquals(List.of(new LlmRating("products::1", 1.0)), LlmRatingParser.parse(response));
+    }
+
+    public void testParse_missingScore() {
+        expectThrows(ParsingException.class, () -> LlmRatingParser.parse("[{\"id\":\"products::1\"}]"));
+    }
+}
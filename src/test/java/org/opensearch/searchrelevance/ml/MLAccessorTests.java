@@ -7,13 +7,35 @@
  */
 package org.opensearch.searchrelevance.ml;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.ml.client.MachineLearningNodeClient;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.output.MLOutput;
+import org.opensearch.ml.common.output.model.ModelTensor;
+import org.opensearch.ml.common.output.model.ModelTensorOutput;
+import org.opensearch.ml.common.output.model.ModelTensors;
+import org.opensearch.searchrelevance.stats.events.EventStatName;
+import org.opensearch.searchrelevance.util.TestUtils;
 import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.Scheduler;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -128,4 +150,228 @@ public class MLAccessorTests extends OpenSearchTestCase {
         JsonNode jsonNode = OBJECT_MAPPER.readTree(messagesJson);
         assertNotNull("JSON should not be null", jsonNode);
     }
+
+    public void testPackHits_staysWithinTokenLimit() {
+        Map<String, String> hits = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            hits.put("products::" + i, "{\"title\":\"" + "banana split with extra toppings ".repeat(1 + i % 7) + i + "\"}");
+        }
+        int tokenLimit = 2000;
+
+        List<MLAccessor.PromptChunk> chunks = MLAccessor.packHits(tokenLimit, "banana", null, hits);
+
+        Set<String> packedIds = new HashSet<>();
+        for (MLAccessor.PromptChunk chunk : chunks) {
+            assertFalse(chunk.hits().isEmpty());
+            assertTrue(chunk.tokens() <= tokenLimit);
+            assertTrue(TokenizerUtil.countTokens(MLAccessor.formatMessages("banana", null, chunk.hits())) <= tokenLimit);
+            for (String id : chunk.hits().keySet()) {
+                assertTrue("hit should be packed once: " + id, packedIds.add(id));
+            }
+        }
+        assertEquals(hits.keySet(), packedIds);
+    }
+
+    public void testPackHits_truncatesOversizedHit() {
+        Map<String, String> hits = new HashMap<>();
+        hits.put("products::1", "banana ".repeat(2000));
+        hits.put("products::2", "apple");
+        int tokenLimit = 1000;
+
+        List<MLAccessor.PromptChunk> chunks = MLAccessor.packHits(tokenLimit, "banana", "yellow fruit", hits);
+
+        assertEquals(2, chunks.size());
+        for (MLAccessor.PromptChunk chunk : chunks) {
+            assertTrue(TokenizerUtil.countTokens(MLAccessor.formatMessages("banana", "yellow fruit", chunk.hits())) <= tokenLimit);
+        }
+        assertTrue(chunks.get(0).hits().get("products::1").length() < hits.get("products::1").length());
+        assertEquals("apple", chunks.get(1).hits().get("products::2"));
+    }
+
+    public void testPackMultiQueryHits_sharesChunksAcrossQueries() {
+        List<MLAccessor.QueryHits> queries = new ArrayList<>();
+        for (int q = 0; q < 20; q++) {
+            Map<String, String> hits = new HashMap<>();
+            for (int i = 0; i < 3; i++) {
+                hits.put("products::" + q + "-" + i, "{\"title\":\"banana split " + q + "-" + i + "\"}");
+            }
+            queries.add(new MLAccessor.QueryHits("banana " + q, q % 2 == 0 ? null : "yellow fruit", hits));
+        }
+        int tokenLimit = 2000;
+
+        List<MLAccessor.PromptChunk> chunks = MLAccessor.packMultiQueryHits(tokenLimit, queries);
+
+        // a single-query prompt per query text would need 20 calls
+        assertTrue("expected shared chunks, got " + chunks.size(), chunks.size() < 5);
+        int packedHits = 0;
+        for (MLAccessor.PromptChunk chunk : chunks) {
+            assertTrue(chunk.tokens() <= tokenLimit);
+            assertTrue(TokenizerUtil.countTokens(MLAccessor.formatMultiQueryMessages(queries, chunk.hits())) <= tokenLimit);
+            for (Map.Entry<String, String> hit : chunk.hits().entrySet()) {
+                int queryIndex = MLAccessor.queryIndexOfTaggedHitId(hit.getKey());
+                String compositeKey = MLAccessor.compositeKeyOfTaggedHitId(hit.getKey());
+                assertEquals(hit.getValue(), queries.get(queryIndex).hits().get(compositeKey));
+                packedHits++;
+            }
+        }
+        assertEquals(60, packedHits);
+    }
+
+    public void testTaggedHitId() {
+        String taggedId = MLAccessor.taggedHitId(12, "products::doc-1");
+        assertEquals(12, MLAccessor.queryIndexOfTaggedHitId(taggedId));
+        assertEquals("products::doc-1", MLAccessor.compositeKeyOfTaggedHitId(taggedId));
+        assertEquals(-1, MLAccessor.queryIndexOfTaggedHitId("products::doc-1"));
+        assertEquals(-1, MLAccessor.queryIndexOfTaggedHitId(null));
+    }
+
+    public void testPredict_chunkMissesDeadline() {
+        TestUtils.initializeEventStatsManager();
+        List<Runnable> scheduledTasks = new ArrayList<>();
+        MachineLearningNodeClient mlClient = mock(MachineLearningNodeClient.class);
+        MLAccessor mlAccessor = new MLAccessor(mlClient, rateLimiter(scheduledTasks), TimeValue.timeValueSeconds(30), 0);
+
+        List<ChunkResult> results = new ArrayList<>();
+        Map<String, String> hits = Map.of("products::1", "banana");
+        mlAccessor.predict("model", "job", 4000, "banana", null, hits, true, ActionListener.wrap(results::add, e -> {
+            fail("ignoreFailure should report failed chunks");
+        }));
+        assertTrue(results.isEmpty());
+
+        // the model never answers, so every attempt misses the deadline until the retries are spent
+        runScheduledTasks(scheduledTasks);
+
+        ChunkResult result = results.get(results.size() - 1);
+        assertTrue(result.isLastChunk());
+        assertEquals(1, result.getFailedChunksCount());
+        assertEquals(4, EventStatName.LLM_JUDGMENT_CHUNK_TIMEOUTS.getEventStat().getValue());
+        verify(mlClient, times(4)).predict(anyString(), any(MLInput.class), any());
+    }
+
+    public void testPredict_timedOutChunkIsRetried() {
+        TestUtils.initializeEventStatsManager();
+        List<Runnable> scheduledTasks = new ArrayList<>();
+        MachineLearningNodeClient mlClient = mock(MachineLearningNodeClient.class);
+        AtomicInteger predictCalls = new AtomicInteger();
+        doAnswer(invocation -> {
+            // the first attempt hangs, the retry answers
+            if (predictCalls.incrementAndGet() > 1) {
+                ActionListener<MLOutput> listener = invocation.getArgument(2);
+                listener.onResponse(modelOutput("[{\"id\":\"products::1\",\"rating_score\":0.9}]"));
+            }
+            return null;
+        }).when(mlClient).predict(anyString(), any(MLInput.class), any());
+        MLAccessor mlAccessor = new MLAccessor(mlClient, rateLimiter(scheduledTasks), TimeValue.timeValueSeconds(30), 0);
+
+        List<ChunkResult> results = new ArrayList<>();
+        Map<String, String> hits = Map.of("products::1", "banana");
+        mlAccessor.predict("model", "job", 4000, "banana", null, hits, false, ActionListener.wrap(results::add, e -> {
+            fail("the retry should answer");
+        }));
+        runScheduledTasks(scheduledTasks);
+
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).getSuccessfulChunksCount());
+        assertEquals(1, EventStatName.LLM_JUDGMENT_CHUNK_TIMEOUTS.getEventStat().getValue());
+        assertEquals(2, predictCalls.get());
+    }
+
+    public void testPredict_hedgedRequestWins() {
+        TestUtils.initializeEventStatsManager();
+        List<Runnable> scheduledTasks = new ArrayList<>();
+        MachineLearningNodeClient mlClient = mock(MachineLearningNodeClient.class);
+        AtomicInteger predictCalls = new AtomicInteger();
+        AtomicReference<ActionListener<MLOutput>> hangingCall = new AtomicReference<>();
+        doAnswer(invocation -> {
+            ActionListener<MLOutput> listener = invocation.getArgument(2);
+            // the first call after warm up hangs, every other call answers right away
+            if (predictCalls.incrementAndGet() == ModelLatencyTracker.MIN_SAMPLES + 1) {
+                hangingCall.set(listener);
+            } else {
+                listener.onResponse(modelOutput("[{\"id\":\"products::1\",\"rating_score\":0.9}]"));
+            }
+            return null;
+        }).when(mlClient).predict(anyString(), any(MLInput.class), any());
+        MLAccessor mlAccessor = new MLAccessor(mlClient, rateLimiter(scheduledTasks), TimeValue.ZERO, 95);
+
+        Map<String, String> hits = Map.of("products::1", "banana");
+        for (int i = 0; i < ModelLatencyTracker.MIN_SAMPLES; i++) {
+            mlAccessor.predict("model", "job", 4000, "banana", null, hits, false, ActionListener.wrap(r -> {}, e -> {
+                fail("warm up calls should succeed");
+            }));
+        }
+
+        List<ChunkResult> results = new ArrayList<>();
+        mlAccessor.predict("model", "job", 4000, "banana", null, hits, false, ActionListener.wrap(results::add, e -> {
+            fail("the hedged request should answer");
+        }));
+        assertNotNull(hangingCall.get());
+        assertTrue(results.isEmpty());
+
+        scheduledTasks.forEach(Runnable::run);
+
+        assertFalse(results.isEmpty());
+        assertEquals(1, results.get(results.size() - 1).getSuccessfulChunksCount());
+        assertEquals(1, EventStatName.LLM_JUDGMENT_HEDGED_REQUESTS.getEventStat().getValue());
+
+        // the late response of the first request is dropped
+        int resultCount = results.size();
+        hangingCall.get().onResponse(modelOutput("[{\"id\":\"products::1\",\"rating_score\":0.1}]"));
+        assertEquals(resultCount, results.size());
+    }
+
+    public void testPredict_deliversEveryChunkOnce() {
+        MachineLearningNodeClient mlClient = mock(MachineLearningNodeClient.class);
+        doAnswer(invocation -> {
+            ActionListener<MLOutput> listener = invocation.getArgument(2);
+            listener.onResponse(modelOutput("```json [{\"id\":\"products::1\",\"rating_score\":0.5}] ```"));
+            return null;
+        }).when(mlClient).predict(anyString(), any(MLInput.class), any());
+        MLAccessor mlAccessor = new MLAccessor(mlClient, rateLimiter(new ArrayList<>()));
+        Map<String, String> hits = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            hits.put("products::" + i, "{\"title\":\"" + "banana split with extra toppings ".repeat(5) + i + "\"}");
+        }
+        int chunkCount = MLAccessor.packHits(1000, "banana", null, hits).size();
+        assertTrue(chunkCount > 1);
+
+        List<ChunkResult> results = new ArrayList<>();
+        mlAccessor.predict("model", "job", 1000, "banana", null, hits, false, ActionListener.wrap(results::add, e -> {
+            fail("no chunk fails");
+        }));
+
+        assertEquals(chunkCount, results.size());
+        Set<Integer> chunkIndexes = new HashSet<>();
+        for (int i = 0; i < results.size(); i++) {
+            ChunkResult result = results.get(i);
+            assertTrue(chunkIndexes.add(result.getChunkIndex()));
+            assertEquals(i == results.size() - 1, result.isLastChunk());
+            assertEquals(i + 1, result.getSuccessfulChunksCount());
+            assertEquals(List.of(new LlmRating("products::1", 0.5)), result.getRatings());
+        }
+    }
+
+    private static void runScheduledTasks(List<Runnable> scheduledTasks) {
+        while (scheduledTasks.isEmpty() == false) {
+            List<Runnable> tasks = new ArrayList<>(scheduledTasks);
+            scheduledTasks.clear();
+            tasks.forEach(Runnable::run);
+        }
+    }
+
+    private static ModelRateLimiter rateLimiter(List<Runnable> scheduledTasks) {
+        Scheduler scheduler = mock(Scheduler.class);
+        doAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            return mock(Scheduler.ScheduledCancellable.class);
+        }).when(scheduler).schedule(any(Runnable.class), any(TimeValue.class), anyString());
+        return new ModelRateLimiter(0, 0, scheduler, System::nanoTime);
+    }
+
+    private static MLOutput modelOutput(String content) {
+        Map<String, Object> dataAsMap = Map.of("choices", List.of(Map.of("message", Map.of("content", content))));
+        ModelTensor tensor = ModelTensor.builder().dataAsMap(dataAsMap).build();
+        ModelTensors tensors = ModelTensors.builder().mlModelTensors(List.of(tensor)).build();
+        return ModelTensorOutput.builder().mlModelOutputs(List.of(tensors)).build();
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ml;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.Scheduler;
+
+public class ModelRateLimiterTests extends OpenSearchTestCase {
+    private final AtomicLong nanoTime = new AtomicLong(0);
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+    private Scheduler scheduler;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        scheduler = mock(Scheduler.class);
+        doAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            return null;
+        }).when(scheduler).schedule(any(Runnable.class), any(TimeValue.class), anyString());
+    }
+
+    public void testAcquire_unlimitedRunsImmediately() {
+        ModelRateLimiter limiter = new ModelRateLimiter(0, 0, scheduler, nanoTime::get);
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("model", "job", 1000, calls::incrementAndGet);
+        }
+        assertEquals(100, calls.get());
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    public void testAcquire_requestBudgetQueuesUntilRefill() {
+        ModelRateLimiter limiter = new ModelRateLimiter(2, 0, scheduler, nanoTime::get);
+        List<Integer> started = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int call = i;
+            limiter.acquire("model", "job", 10, () -> started.add(call));
+        }
+        assertEquals(List.of(0, 1), started);
+        assertEquals(2, limiter.getPendingCalls("model"));
+        assertEquals(1, scheduledTasks.size());
+
+        // half a minute refills one request at 2 requests per minute
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        runScheduledTasks();
+        assertEquals(List.of(0, 1, 2), started);
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        runScheduledTasks();
+        assertEquals(List.of(0, 1, 2, 3), started);
+        assertEquals(0, limiter.getPendingCalls("model"));
+    }
+
+    public void testAcquire_jobsTakeTurns() {
+        ModelRateLimiter limiter = new ModelRateLimiter(1, 0, scheduler, nanoTime::get);
+        List<String> started = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int call = i;
+            limiter.acquire("model", "job-a", 10, () -> started.add("a" + call));
+        }
+        limiter.acquire("model", "job-b", 10, () -> started.add("b0"));
+        limiter.acquire("model", "job-c", 10, () -> started.add("c0"));
+        assertEquals(List.of("a0"), started);
+        assertEquals(4, limiter.getPendingCalls("model"));
+
+        for (int i = 0; i < 4; i++) {
+            nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(1));
+            runScheduledTasks();
+        }
+        // the calls queued by job-a first do not hold back the other jobs
+        assertEquals(List.of("a0", "a1", "b0", "c0", "a2"), started);
+        assertEquals(0, limiter.getPendingCalls("model"));
+    }
+
+    public void testAcquire_tokenBudgetAndModelsAreIndependent() {
+        ModelRateLimiter limiter = new ModelRateLimiter(0, 1000, scheduler, nanoTime::get);
+        AtomicInteger calls = new AtomicInteger();
+        limiter.acquire("model-a", "job", 800, calls::incrementAndGet);
+        limiter.acquire("model-a", "job", 800, calls::incrementAndGet);
+        limiter.acquire("model-b", "job", 800, calls::incrementAndGet);
+        assertEquals(2, calls.get());
+        assertEquals(1, limiter.getPendingCalls("model-a"));
+
+        // a call larger than the whole budget waits for a full budget instead of forever
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        limiter.acquire("model-b", "job", 5000, calls::incrementAndGet);
+        runScheduledTasks();
+        assertEquals(4, calls.get());
+    }
+
+    public void testOnThrottled_pausesModel() {
+        ModelRateLimiter limiter = new ModelRateLimiter(0, 0, scheduler, nanoTime::get);
+        AtomicInteger calls = new AtomicInteger();
+        limiter.onThrottled("model", 2000);
+        limiter.acquire("model", "job", 10, calls::incrementAndGet);
+        assertEquals(0, calls.get());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        runScheduledTasks();
+        assertEquals(0, calls.get());
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        runScheduledTasks();
+        assertEquals(1, calls.get());
+    }
+
+    public void testThrottledRetryAfterMillis() {
+        ModelRateLimiter limiter = new ModelRateLimiter(0, 0, 2000, scheduler, System::nanoTime);
+        assertEquals(-1, limiter.throttledRetryAfterMillis(new RuntimeException("connection reset")));
+        // without a Retry-After header the configured back-off applies, the message text is not parsed
+        OpenSearchStatusException remoteError = new OpenSearchStatusException(
+            "Error from remote service: Too Many Requests, Retry-After: 12",
+            RestStatus.TOO_MANY_REQUESTS
+        );
+        assertEquals(2000, limiter.throttledRetryAfterMillis(remoteError));
+        remoteError.addHeader("Retry-After", "12");
+        assertEquals(12000, limiter.throttledRetryAfterMillis(remoteError));
+        // the header may be carried by a wrapped cause
+        OpenSearchStatusException wrapped = new OpenSearchStatusException("wrapped", RestStatus.TOO_MANY_REQUESTS, remoteError);
+        assertEquals(12000, limiter.throttledRetryAfterMillis(wrapped));
+        // only the status marks a throttled call, not a 429 somewhere in the message
+        assertEquals(-1, limiter.throttledRetryAfterMillis(new RuntimeException("Invalid document 4291, retry-after: 12")));
+        assertEquals(
+            ModelRateLimiter.DEFAULT_THROTTLE_BACKOFF_MS,
+            new ModelRateLimiter(0, 0, scheduler, System::nanoTime).throttledRetryAfterMillis(
+                new OpenSearchStatusException("slow down", RestStatus.TOO_MANY_REQUESTS)
+            )
+        );
+    }
+
+    public void testThrottledRetryAfterMillis_httpDate() {
+        ModelRateLimiter limiter = new ModelRateLimiter(0, 0, 2000, scheduler, System::nanoTime);
+        long now = ZonedDateTime.of(2015, 10, 21, 7, 28, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        OpenSearchStatusException dated = new OpenSearchStatusException("Too Many Requests", RestStatus.TOO_MANY_REQUESTS);
+        dated.addHeader("Retry-After", "Wed, 21 Oct 2015 07:28:30 GMT");
+        assertEquals(30000, limiter.throttledRetryAfterMillis(dated, now));
+        // a date in the past retries right away, and a malformed date falls back to the configured back-off
+        assertEquals(0, limiter.throttledRetryAfterMillis(dated, now + 60000));
+        OpenSearchStatusException malformed = new OpenSearchStatusException("Too Many Requests", RestStatus.TOO_MANY_REQUESTS);
+        malformed.addHeader("Retry-After", "Wed, 41 Oct 2015 07:28:30 GMT");
+        assertEquals(2000, limiter.throttledRetryAfterMillis(malformed, now));
+    }
+
+    private void runScheduledTasks() {
+        List<Runnable> tasks = new ArrayList<>(scheduledTasks);
+        scheduledTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Map;
 
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.internal.SearchContext;
 import org.opensearch.test.OpenSearchTestCase;
 
 public class SearchRequestBuilderTests extends OpenSearchTestCase {
@@ -23,6 +24,7 @@ public class SearchRequestBuilderTests extends OpenSearchTestCase {
     private static final String TEST_QUERY_TEXT = "test_query";
     private static final String TEST_PIPELINE = "test_pipeline";
     private static final int TEST_SIZE = 10;
+    private static final String TEST_QUERY = "{\"query\":{\"match\":{\"title\":\"" + WILDCARD_QUERY_TEXT + "\"}}}";
 
     public void testBuildSearchRequestSimpleQuery() {
         String simpleQuery = "{\"query\":{\"match\":{\"title\":\"" + WILDCARD_QUERY_TEXT + "\"}}}";
@@ -140,4 +142,54 @@ public class SearchRequestBuilderTests extends OpenSearchTestCase {
         );
         assertEquals("invalid hybrid query: expected exactly [2] sub-queries but found [1]", exception.getMessage());
     }
+
+    public void testApplyLeanRetrieval_whenSourceNotNeeded_thenDisableSourceAndTotalHits() {
+        SearchRequest searchRequest = SearchRequestBuilder.applyLeanRetrieval(
+            SearchRequestBuilder.buildSearchRequest(TEST_INDEX, TEST_QUERY, TEST_QUERY_TEXT, null, TEST_SIZE),
+            false,
+            null
+        );
+
+        SearchSourceBuilder sourceBuilder = searchRequest.source();
+        assertNotNull("SearchSourceBuilder should not be null", sourceBuilder);
+        assertEquals("Size should match", TEST_SIZE, sourceBuilder.size());
+        assertEquals(
+            "Total hits tracking should be disabled",
+            Integer.valueOf(SearchContext.TRACK_TOTAL_HITS_DISABLED),
+            sourceBuilder.trackTotalHitsUpTo()
+        );
+        assertNotNull("Source context should be set", sourceBuilder.fetchSource());
+        assertFalse("Source should not be fetched", sourceBuilder.fetchSource().fetchSource());
+    }
+
+    public void testApplyLeanRetrieval_whenSourceIncludesProvided_thenLimitSource() {
+        List<String> contextFields = List.of("name", "description");
+        SearchRequest searchRequest = SearchRequestBuilder.applyLeanRetrieval(
+            SearchRequestBuilder.buildSearchRequest(TEST_INDEX, TEST_QUERY, TEST_QUERY_TEXT, null, TEST_SIZE),
+            true,
+            contextFields
+        );
+
+        SearchSourceBuilder sourceBuilder = searchRequest.source();
+        assertNotNull("Source context should be set", sourceBuilder.fetchSource());
+        assertTrue("Source should be fetched", sourceBuilder.fetchSource().fetchSource());
+        assertArrayEquals("Source includes should match", contextFields.toArray(new String[0]), sourceBuilder.fetchSource().includes());
+        assertEquals(
+            "Total hits tracking should be disabled",
+            Integer.valueOf(SearchContext.TRACK_TOTAL_HITS_DISABLED),
+            sourceBuilder.trackTotalHitsUpTo()
+        );
+    }
+
+    public void testApplyLeanRetrieval_whenNoSourceIncludes_thenKeepConfiguredSource() {
+        SearchRequest searchRequest = SearchRequestBuilder.applyLeanRetrieval(
+            SearchRequestBuilder.buildSearchRequest(TEST_INDEX, TEST_QUERY, TEST_QUERY_TEXT, null, TEST_SIZE),
+            true,
+            List.of()
+        );
+
+        SearchSourceBuilder sourceBuilder = searchRequest.source();
+        assertNull("Source context should not be touched", sourceBuilder.fetchSource());
+        assertNull("Stored fields should not be touched", sourceBuilder.storedFields());
+    }
 }
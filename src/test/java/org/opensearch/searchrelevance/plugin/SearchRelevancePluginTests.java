@@ -8,6 +8,7 @@
 package org.opensearch.searchrelevance.plugin;
 
 import static org.mockito.Mockito.when;
+import static org.opensearch.searchrelevance.common.PluginConstants.CLICK_STATISTICS_INDEX;
 import static org.opensearch.searchrelevance.common.PluginConstants.EXPERIMENT_INDEX;
 import static org.opensearch.searchrelevance.common.PluginConstants.JUDGMENT_CACHE_INDEX;
 import static org.opensearch.searchrelevance.settings.SearchRelevanceSettings.SEARCH_RELEVANCE_QUERY_SET_MAX_LIMIT;
@@ -29,8 +30,11 @@ import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.ClusterSettings;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.core.action.ActionResponse;
 import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.core.common.unit.ByteSizeUnit;
+import org.opensearch.core.common.unit.ByteSizeValue;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.env.Environment;
 import org.opensearch.env.NodeEnvironment;
@@ -39,20 +43,25 @@ import org.opensearch.plugins.ActionPlugin;
 import org.opensearch.plugins.SystemIndexPlugin;
 import org.opensearch.repositories.RepositoriesService;
 import org.opensearch.script.ScriptService;
+import org.opensearch.searchrelevance.dao.ClickStatisticsDao;
 import org.opensearch.searchrelevance.dao.EvaluationResultDao;
 import org.opensearch.searchrelevance.dao.ExperimentDao;
+import org.opensearch.searchrelevance.dao.ExperimentResultDao;
 import org.opensearch.searchrelevance.dao.ExperimentVariantDao;
 import org.opensearch.searchrelevance.dao.JudgmentCacheDao;
 import org.opensearch.searchrelevance.dao.JudgmentDao;
 import org.opensearch.searchrelevance.dao.QuerySetDao;
 import org.opensearch.searchrelevance.dao.SearchConfigurationDao;
 import org.opensearch.searchrelevance.indices.SearchRelevanceIndicesManager;
+import org.opensearch.searchrelevance.judgments.LocalJudgmentCache;
 import org.opensearch.searchrelevance.metrics.MetricsHelper;
 import org.opensearch.searchrelevance.ml.MLAccessor;
 import org.opensearch.searchrelevance.stats.info.InfoStatsManager;
 import org.opensearch.searchrelevance.transport.experiment.DeleteExperimentAction;
 import org.opensearch.searchrelevance.transport.experiment.GetExperimentAction;
+import org.opensearch.searchrelevance.transport.experiment.GetExperimentResultsAction;
 import org.opensearch.searchrelevance.transport.experiment.PutExperimentAction;
+import org.opensearch.searchrelevance.transport.judgment.ClickthroughPartitionStore;
 import org.opensearch.searchrelevance.transport.queryset.DeleteQuerySetAction;
 import org.opensearch.searchrelevance.transport.queryset.GetQuerySetAction;
 import org.opensearch.searchrelevance.transport.queryset.PostQuerySetAction;
@@ -61,6 +70,7 @@ import org.opensearch.searchrelevance.transport.searchConfiguration.DeleteSearch
 import org.opensearch.searchrelevance.transport.searchConfiguration.GetSearchConfigurationAction;
 import org.opensearch.searchrelevance.transport.searchConfiguration.PutSearchConfigurationAction;
 import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ExecutorBuilder;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.client.Client;
 import org.opensearch.watcher.ResourceWatcherService;
@@ -92,17 +102,21 @@ public class SearchRelevancePluginTests extends OpenSearchTestCase {
     private NodeEnvironment nodeEnvironment;
     private SearchRelevancePlugin plugin;
 
-    public static final Set<String> SUPPORTED_SYSTEM_INDEX_PATTERN = Set.of(EXPERIMENT_INDEX, JUDGMENT_CACHE_INDEX);
+    public static final Set<String> SUPPORTED_SYSTEM_INDEX_PATTERN = Set.of(EXPERIMENT_INDEX, JUDGMENT_CACHE_INDEX, CLICK_STATISTICS_INDEX);
 
     private final Set<Class> SUPPORTED_COMPONENTS = Set.of(
         SearchRelevanceIndicesManager.class,
         QuerySetDao.class,
         ExperimentDao.class,
         ExperimentVariantDao.class,
+        ExperimentResultDao.class,
         SearchConfigurationDao.class,
         JudgmentDao.class,
         EvaluationResultDao.class,
         JudgmentCacheDao.class,
+        ClickStatisticsDao.class,
+        ClickthroughPartitionStore.class,
+        LocalJudgmentCache.class,
         MLAccessor.class,
         MetricsHelper.class,
         InfoStatsManager.class
@@ -174,7 +188,7 @@ public class SearchRelevancePluginTests extends OpenSearchTestCase {
     }
 
     public void testTotalRestHandlers() {
-        assertEquals(14, plugin.getRestHandlers(Settings.EMPTY, null, null, null, null, null, null).size());
+        assertEquals(15, plugin.getRestHandlers(Settings.EMPTY, null, null, null, null, null, null).size());
     }
 
     public void testQuerySetTransportIsAdded() {
@@ -197,12 +211,16 @@ public class SearchRelevancePluginTests extends OpenSearchTestCase {
         );
         assertEquals(1, actions.stream().filter(actionHandler -> actionHandler.getAction() instanceof PutExperimentAction).count());
         assertEquals(1, actions.stream().filter(actionHandler -> actionHandler.getAction() instanceof GetExperimentAction).count());
+        assertEquals(
+            1,
+            actions.stream().filter(actionHandler -> actionHandler.getAction() instanceof GetExperimentResultsAction).count()
+        );
         assertEquals(1, actions.stream().filter(actionHandler -> actionHandler.getAction() instanceof DeleteExperimentAction).count());
     }
 
     public void testGetSettings() {
         List<Setting<?>> settings = plugin.getSettings();
-        assertEquals(3, settings.size());
+        assertEquals(11, settings.size());
 
         Setting<?> setting0 = settings.get(0);
         assertEquals("plugins.search_relevance.workbench_enabled", setting0.getKey());
@@ -215,5 +233,49 @@ public class SearchRelevancePluginTests extends OpenSearchTestCase {
         Setting<?> setting2 = settings.get(2);
         assertEquals("plugins.search_relevance.query_set.maximum", setting2.getKey());
         assertEquals(1000, setting2.get(Settings.EMPTY));
+
+        Setting<?> setting3 = settings.get(3);
+        assertEquals("plugins.search_relevance.judgment_cache.local_size", setting3.getKey());
+        assertEquals(new ByteSizeValue(16, ByteSizeUnit.MB), setting3.get(Settings.EMPTY));
+
+        Setting<?> setting4 = settings.get(4);
+        assertEquals("plugins.search_relevance.llm.requests_per_minute", setting4.getKey());
+        assertEquals(0, setting4.get(Settings.EMPTY));
+
+        Setting<?> setting5 = settings.get(5);
+        assertEquals("plugins.search_relevance.llm.tokens_per_minute", setting5.getKey());
+        assertEquals(0, setting5.get(Settings.EMPTY));
+
+        Setting<?> setting6 = settings.get(6);
+        assertEquals("plugins.search_relevance.llm.chunk_timeout", setting6.getKey());
+        assertEquals(TimeValue.ZERO, setting6.get(Settings.EMPTY));
+
+        Setting<?> setting7 = settings.get(7);
+        assertEquals("plugins.search_relevance.llm.hedge_percentile", setting7.getKey());
+        assertEquals(0.0, setting7.get(Settings.EMPTY));
+
+        Setting<?> setting8 = settings.get(8);
+        assertEquals("plugins.search_relevance.judgment.click_statistics_memory_budget", setting8.getKey());
+        assertTrue(((ByteSizeValue) setting8.get(Settings.EMPTY)).getBytes() > 0);
+
+        Setting<?> setting9 = settings.get(9);
+        assertEquals("plugins.search_relevance.judgment.distributed_click_statistics", setting9.getKey());
+        assertEquals(false, setting9.get(Settings.EMPTY));
+
+        Setting<?> setting10 = settings.get(10);
+        assertEquals("plugins.search_relevance.llm.throttle_backoff", setting10.getKey());
+        assertEquals(TimeValue.timeValueSeconds(5), setting10.get(Settings.EMPTY));
+    }
+
+    public void testGetExecutorBuilders() {
+        Settings settings = Settings.builder().put("node.processors", 2).build();
+        List<ExecutorBuilder<?>> executorBuilders = plugin.getExecutorBuilders(settings);
+        assertEquals(1, executorBuilders.size());
+
+        List<Setting<?>> settingsOfPool = executorBuilders.get(0).getRegisteredSettings();
+        assertEquals("thread_pool.search_relevance_click_model.size", settingsOfPool.get(0).getKey());
+        assertEquals(2, settingsOfPool.get(0).get(settings));
+        assertEquals("thread_pool.search_relevance_click_model.queue_size", settingsOfPool.get(1).getKey());
+        assertEquals(1000, settingsOfPool.get(1).get(settings));
     }
 }
@@ -130,5 +130,46 @@ public class RestCreateQuerySetActionTests extends SearchRelevanceRestTestCase {
         PostQuerySetRequest capturedRequest = requestCaptor.getValue();
         assertEquals("pptss", capturedRequest.getSampling());
         assertEquals(10, capturedRequest.getQuerySetSize());
+        assertTrue(capturedRequest.getFilter().isEmpty());
+    }
+
+    public void testPrepareRequest_WithFilter() throws Exception {
+        when(settingsAccessor.isWorkbenchEnabled()).thenReturn(true);
+        when(settingsAccessor.getMaxQuerySetAllowed()).thenReturn(1000);
+        RestRequest request = createPutRestRequestWithContent(
+            "{\"name\": \"test_name\", \"filter\": {\"startTime\": \"now-30d\", \"application\": \"storefront\"}}",
+            "query_sets"
+        );
+        when(channel.request()).thenReturn(request);
+
+        ArgumentCaptor<PostQuerySetRequest> requestCaptor = ArgumentCaptor.forClass(PostQuerySetRequest.class);
+        doAnswer(invocation -> {
+            ActionListener<IndexResponse> listener = invocation.getArgument(2);
+            listener.onResponse(mock(IndexResponse.class));
+            return null;
+        }).when(client).execute(eq(PostQuerySetAction.INSTANCE), requestCaptor.capture(), any());
+
+        restCreateQuerySetAction.handleRequest(request, channel, client);
+
+        PostQuerySetRequest capturedRequest = requestCaptor.getValue();
+        assertEquals("now-30d", capturedRequest.getFilter().getStartTime());
+        assertEquals("storefront", capturedRequest.getFilter().getApplication());
+    }
+
+    public void testPrepareRequest_RejectsActionFilter() throws Exception {
+        when(settingsAccessor.isWorkbenchEnabled()).thenReturn(true);
+        when(settingsAccessor.getMaxQuerySetAllowed()).thenReturn(1000);
+        RestRequest request = createPutRestRequestWithContent(
+            "{\"name\": \"test_name\", \"filter\": {\"actions\": [\"click\"]}}",
+            "query_sets"
+        );
+        when(channel.request()).thenReturn(request);
+
+        restCreateQuerySetAction.handleRequest(request, channel, client);
+
+        ArgumentCaptor<BytesRestResponse> responseCaptor = ArgumentCaptor.forClass(BytesRestResponse.class);
+        verify(channel).sendResponse(responseCaptor.capture());
+        assertEquals(RestStatus.BAD_REQUEST, responseCaptor.getValue().status());
+        verify(client, never()).execute(eq(PostQuerySetAction.INSTANCE), any(PostQuerySetRequest.class), any());
     }
 }
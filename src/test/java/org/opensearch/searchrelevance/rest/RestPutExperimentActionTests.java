@@ -12,6 +12,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.mockito.ArgumentCaptor;
 import org.opensearch.action.DocWriteResponse;
@@ -119,6 +120,28 @@ public class RestPutExperimentActionTests extends SearchRelevanceRestTestCase {
         assertTrue(exception.getMessage().contains("Invalid or missing experiment type"));
     }
 
+    public void testPutExperiment_WrongTypeOfOptionalField() throws Exception {
+        when(settingsAccessor.isWorkbenchEnabled()).thenReturn(true);
+        List<String> fields = List.of(
+            "\"preference\": 1",
+            "\"requestCache\": \"yes\"",
+            "\"pointInTimeKeepAlive\": 5",
+            "\"profileSampleRate\": \"all\"",
+            "\"profileSampleRate\": 2"
+        );
+        for (String field : fields) {
+            String content = VALID_EXPERIMENT_CONTENT.substring(0, VALID_EXPERIMENT_CONTENT.length() - 1) + "," + field + "}";
+            RestRequest request = createPutRestRequestWithContent(content, "experiments");
+            when(channel.request()).thenReturn(request);
+
+            IllegalArgumentException exception = expectThrows(
+                IllegalArgumentException.class,
+                () -> restPutExperimentAction.handleRequest(request, channel, client)
+            );
+            assertTrue(exception.getMessage().startsWith(field.substring(1, field.indexOf('"', 1))));
+        }
+    }
+
     public void testPutExperiment_Failure() throws Exception {
         // Setup
         when(settingsAccessor.isWorkbenchEnabled()).thenReturn(true);
@@ -14,6 +14,7 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 
 import org.mockito.ArgumentCaptor;
+import org.opensearch.ExceptionsHelper;
 import org.opensearch.action.index.IndexResponse;
 import org.opensearch.common.xcontent.json.JsonXContent;
 import org.opensearch.core.action.ActionListener;
@@ -233,6 +234,28 @@ public class RestPutJudgmentActionTests extends SearchRelevanceRestTestCase {
         assertEquals(RestStatus.INTERNAL_SERVER_ERROR, exception.status());
     }
 
+    public void testPutUbiJudgment_IncrementalEmClickModel() throws Exception {
+        // Setup
+        when(settingsAccessor.isWorkbenchEnabled()).thenReturn(true);
+        String content = "{"
+            + "\"name\": \"test_name\","
+            + "\"type\": \"UBI_JUDGMENT\","
+            + "\"clickModel\": \"pbm\","
+            + "\"maxRank\": 10,"
+            + "\"incremental\": true"
+            + "}";
+        RestRequest request = createPutRestRequestWithContent(content, "judgment");
+        when(channel.request()).thenReturn(request);
+
+        // Execute and verify
+        IllegalArgumentException exception = expectThrows(
+            IllegalArgumentException.class,
+            () -> restPutJudgmentAction.handleRequest(request, channel, client)
+        );
+        assertEquals("aggregateEvents and incremental are only supported by the coec click model", exception.getMessage());
+        assertEquals(RestStatus.BAD_REQUEST, ExceptionsHelper.status(exception));
+    }
+
     public void testPutJudgment_Failure() throws Exception {
         // Setup
         when(settingsAccessor.isWorkbenchEnabled()).thenReturn(true);
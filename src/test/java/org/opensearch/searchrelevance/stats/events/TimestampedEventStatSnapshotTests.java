@@ -78,6 +78,19 @@ public class TimestampedEventStatSnapshotTests extends OpenSearchTestCase {
         assertEquals(5L, aggregatedSnapshot.getMinutesSinceLastEvent());
     }
 
+    public void test_aggregateEventStatSnapshots_averagesRatios() {
+        EventStatName ratio = EventStatName.LLM_JUDGMENT_CACHE_HIT_RATIO_PERCENT;
+        TimestampedEventStatSnapshot snapshot1 = new TimestampedEventStatSnapshot(ratio, 80L, 80L, 0L);
+        TimestampedEventStatSnapshot snapshot2 = new TimestampedEventStatSnapshot(ratio, 40L, 40L, 0L);
+
+        TimestampedEventStatSnapshot aggregatedSnapshot = TimestampedEventStatSnapshot.aggregateEventStatSnapshots(
+            Arrays.asList(snapshot1, null, snapshot2)
+        );
+
+        assertEquals(60L, aggregatedSnapshot.getValue().longValue());
+        assertEquals(60L, aggregatedSnapshot.getTrailingIntervalValue());
+    }
+
     public void test_aggregateEventStatSnapshotsReturnsNull() {
         assertNull(TimestampedEventStatSnapshot.aggregateEventStatSnapshots(Collections.emptyList()));
     }
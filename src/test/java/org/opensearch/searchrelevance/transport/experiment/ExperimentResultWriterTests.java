@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.experiment;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.searchrelevance.dao.ExperimentResultDao;
+import org.opensearch.searchrelevance.model.ExperimentResult;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ExperimentResultWriterTests extends OpenSearchTestCase {
+
+    private static final String EXPERIMENT_ID = "test_experiment_id";
+
+    public void testAdd_whenQueriesExceedBatchSize_thenWriteInBatches() {
+        ExperimentResultDao experimentResultDao = mock(ExperimentResultDao.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<ExperimentResult> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            batch.forEach(result -> assertEquals(EXPERIMENT_ID, result.experimentId()));
+            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(mock(BulkResponse.class));
+            return null;
+        }).when(experimentResultDao).putExperimentResults(anyList(), any());
+
+        AtomicReference<Integer> storedResults = new AtomicReference<>();
+        AtomicInteger completions = new AtomicInteger();
+        ExperimentResultWriter writer = new ExperimentResultWriter(EXPERIMENT_ID, 5, 2, experimentResultDao, ActionListener.wrap(count -> {
+            storedResults.set(count);
+            completions.incrementAndGet();
+        }, e -> fail("writer should not fail")));
+
+        for (int i = 0; i < 5; i++) {
+            assertNull("Writer should not complete before the last query", storedResults.get());
+            writer.add("query " + i, new HashMap<>(Map.of("evaluationId", "eval " + i)));
+        }
+
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(Integer.valueOf(5), storedResults.get());
+        assertEquals(1, completions.get());
+        verify(experimentResultDao, times(3)).putExperimentResults(anyList(), any());
+    }
+
+    public void testAdd_whenWriteFails_thenFailOnce() {
+        ExperimentResultDao experimentResultDao = mock(ExperimentResultDao.class);
+        doAnswer(invocation -> {
+            ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onFailure(new IllegalStateException("bulk failed"));
+            return null;
+        }).when(experimentResultDao).putExperimentResults(anyList(), any());
+
+        AtomicInteger failures = new AtomicInteger();
+        ExperimentResultWriter writer = new ExperimentResultWriter(
+            EXPERIMENT_ID,
+            4,
+            2,
+            experimentResultDao,
+            ActionListener.wrap(count -> fail("writer should not complete"), e -> failures.incrementAndGet())
+        );
+
+        for (int i = 0; i < 4; i++) {
+            writer.add("query " + i, new HashMap<>());
+        }
+
+        assertEquals(1, failures.get());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import static org.opensearch.searchrelevance.common.PluginConstants.UBI_EVENTS_INDEX;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.Version;
+import org.opensearch.action.support.replication.ClusterStateCreationUtils;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.searchrelevance.ubi.UbiFilter;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ClickthroughMapTransportActionTests extends OpenSearchTestCase {
+
+    public void testAssignShards_assignsEveryShardOnceSpreadOverTheNodes() {
+        ClusterState clusterState = ClusterStateCreationUtils.stateWithAssignedPrimariesAndReplicas(UBI_EVENTS_INDEX, 4, 1);
+
+        Map<String, List<Integer>> shardsByNode = ClickthroughMapTransportAction.assignShards(clusterState);
+
+        List<Integer> shards = new ArrayList<>();
+        shardsByNode.values().forEach(shards::addAll);
+        shards.sort(null);
+        assertEquals(List.of(0, 1, 2, 3), shards);
+        assertEquals(2, shardsByNode.size());
+        for (List<Integer> nodeShards : shardsByNode.values()) {
+            assertEquals(2, nodeShards.size());
+        }
+    }
+
+    public void testAssignShards_failsWithoutEventsIndex() {
+        ClusterState clusterState = ClusterState.builder(new ClusterName("test")).build();
+
+        expectThrows(IndexNotFoundException.class, () -> ClickthroughMapTransportAction.assignShards(clusterState));
+    }
+
+    public void testMovedShards_findsShardsWithoutLocalCopy() {
+        ClusterState clusterState = ClusterStateCreationUtils.stateWithAssignedPrimariesAndReplicas(UBI_EVENTS_INDEX, 4, 1);
+        Map<String, List<Integer>> shardsByNode = ClickthroughMapTransportAction.assignShards(clusterState);
+
+        for (Map.Entry<String, List<Integer>> node : shardsByNode.entrySet()) {
+            assertEquals(List.of(), ClickthroughMapTransportAction.movedShards(clusterState, node.getKey(), node.getValue()));
+        }
+        assertEquals(List.of(0, 3), ClickthroughMapTransportAction.movedShards(clusterState, "gone", List.of(0, 3)));
+    }
+
+    public void testLocalShardsPreference() {
+        assertEquals("_shards:0,3|_only_local", ClickthroughMapTransportAction.localShardsPreference(List.of(0, 3)));
+    }
+
+    public void testRequestStreams() throws IOException {
+        ClickthroughMapRequest request = new ClickthroughMapRequest("job1", 20, new UbiFilter("now-7d", null, "shop", null, List.of()), 4);
+        request.setShardsByNode(Map.of("node1", List.of(0, 2), "node2", List.of(1)));
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        new ClickthroughMapNodeRequest(request).writeTo(out);
+        ClickthroughMapRequest read = new ClickthroughMapNodeRequest(out.bytes().streamInput()).getRequest();
+
+        assertEquals("job1", read.getJobId());
+        assertEquals(20, read.getMaxRank());
+        assertEquals(request.getFilter(), read.getFilter());
+        assertEquals(4, read.getPartitions());
+        assertEquals(request.getShardsByNode(), read.getShardsByNode());
+    }
+
+    public void testNodeResponseStreams() throws IOException {
+        DiscoveryNode node = new DiscoveryNode("node1", buildNewFakeTransportAddress(), Version.CURRENT);
+        ClickthroughMapNodeResponse response = new ClickthroughMapNodeResponse(node, new int[] { 3, 0, 7 });
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        response.writeTo(out);
+        ClickthroughMapNodeResponse read = new ClickthroughMapNodeResponse(out.bytes().streamInput());
+
+        assertEquals("node1", read.getNode().getId());
+        assertEquals(3, read.getPartitionCount());
+        assertEquals(3, read.getPairCount(0));
+        assertEquals(0, read.getPairCount(1));
+        assertEquals(7, read.getPairCount(2));
+    }
+
+    public void testRequest_rejectsNoPartitions() {
+        expectThrows(IllegalArgumentException.class, () -> new ClickthroughMapRequest("job1", 20, UbiFilter.NONE, 0));
+    }
+}
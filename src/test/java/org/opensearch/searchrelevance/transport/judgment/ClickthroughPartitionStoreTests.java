@@ -0,0 +1,78 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.mockito.ArgumentCaptor;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+public class ClickthroughPartitionStoreTests extends OpenSearchTestCase {
+
+    public void testRead_releasesTheJobAfterItsLastPair() throws IOException {
+        Path directory = createTempDir();
+        ClickthroughPartitionStore store = new ClickthroughPartitionStore(mock(ThreadPool.class));
+        store.put("job1", write(directory));
+        assertEquals(1, store.size());
+
+        ClickthroughFetchResponse chunk = store.read(new ClickthroughFetchRequest("node1", "job1", 0, 0, 0), 1);
+        assertEquals(1, chunk.getPairCount());
+        assertEquals(1, store.size());
+        store.read(new ClickthroughFetchRequest("node1", "job1", 0, 1, chunk.getNextOffset()), 1);
+
+        assertEquals(0, store.size());
+        assertEquals(0, fileCount(directory));
+        expectThrows(ResourceNotFoundException.class, () -> store.read(new ClickthroughFetchRequest("node1", "job1", 0, 0, 0), 1));
+    }
+
+    public void testPut_deletesPartitionsNotFetchedForTheKeepAlive() throws IOException {
+        Path directory = createTempDir();
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.relativeTimeInMillis()).thenReturn(0L);
+        ClickthroughPartitionStore store = new ClickthroughPartitionStore(threadPool);
+        store.put("job1", write(directory));
+        ArgumentCaptor<Runnable> expiry = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool).schedule(expiry.capture(), eq(ClickthroughPartitionStore.KEEP_ALIVE), any());
+
+        when(threadPool.relativeTimeInMillis()).thenReturn(ClickthroughPartitionStore.KEEP_ALIVE.millis());
+        expiry.getValue().run();
+
+        assertEquals(0, store.size());
+        assertEquals(0, fileCount(directory));
+    }
+
+    private static ClickthroughPartitions write(Path directory) throws IOException {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            for (String objectId : new String[] { "doc1", "doc2" }) {
+                int pair = statistics.pairIndex("shoes", objectId);
+                statistics.logClicks(pair, 1);
+                statistics.logImpressions(pair, 2);
+                statistics.logRank(pair, 0);
+            }
+            return ClickthroughPartitions.write(statistics, 1, directory);
+        }
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.transport.judgment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.searchrelevance.judgments.clickmodel.ClickStatisticsTable;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ClickthroughPartitionsTests extends OpenSearchTestCase {
+
+    public void testWrite_partitionsPairsByUserQueryAndReadsThemInChunks() throws IOException {
+        int partitionCount = 3;
+        Path directory = createTempDir();
+        Map<String, String> pairs = new HashMap<>();
+        try (ClickthroughPartitions partitions = write(directory, partitionCount)) {
+            int[] pairCounts = partitions.getPairCounts();
+            assertEquals(50, pairCounts[0] + pairCounts[1] + pairCounts[2]);
+            for (int partition = 0; partition < partitionCount; partition++) {
+                int expectedPartition = partition;
+                int fromPair = 0;
+                long offset = 0;
+                while (fromPair < pairCounts[partition]) {
+                    ClickthroughFetchResponse chunk = roundTrip(partitions.read(partition, fromPair, offset, 64));
+                    assertTrue(chunk.getPairCount() > 0);
+                    chunk.forEachPair((userQuery, objectId, clicks, impressions, rank) -> {
+                        assertEquals(expectedPartition, ClickthroughMapNodeResponse.partition(userQuery, partitionCount));
+                        pairs.put(userQuery + "/" + objectId, clicks + "/" + impressions + "/" + rank);
+                    });
+                    fromPair += chunk.getPairCount();
+                    offset = chunk.getNextOffset();
+                }
+                assertEquals(pairCounts[partition], fromPair);
+            }
+            assertTrue(partitions.isFullyRead());
+            assertEquals(0, fileCount(directory));
+        }
+        assertEquals(50, pairs.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i + "/" + (2 * i) + "/" + (i % 5), pairs.get("query" + (i % 10) + "/doc" + i));
+        }
+    }
+
+    public void testClose_deletesThePartitionsNotReadYet() throws IOException {
+        Path directory = createTempDir();
+        ClickthroughPartitions partitions = write(directory, 2);
+        assertFalse(partitions.isFullyRead());
+        assertTrue(fileCount(directory) > 0);
+
+        partitions.close();
+
+        assertTrue(partitions.isFullyRead());
+        assertEquals(0, fileCount(directory));
+    }
+
+    public void testFetchRequestStreams() throws IOException {
+        ClickthroughFetchRequest request = new ClickthroughFetchRequest("node1", "job1", 2, 10, 4096L);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+        ClickthroughFetchRequest read = new ClickthroughFetchRequest(out.bytes().streamInput());
+
+        assertEquals("node1", read.getNodeId());
+        assertEquals("job1", read.getJobId());
+        assertEquals(2, read.getPartition());
+        assertEquals(10, read.getFromPair());
+        assertEquals(4096L, read.getOffset());
+    }
+
+    private static ClickthroughPartitions write(Path directory, int partitionCount) throws IOException {
+        try (ClickStatisticsTable statistics = new ClickStatisticsTable()) {
+            for (int i = 0; i < 50; i++) {
+                int pair = statistics.pairIndex("query" + (i % 10), "doc" + i);
+                statistics.logClicks(pair, i);
+                statistics.logImpressions(pair, 2 * i);
+                statistics.logRank(pair, i % 5);
+            }
+            return ClickthroughPartitions.write(statistics, partitionCount, directory);
+        }
+    }
+
+    private static ClickthroughFetchResponse roundTrip(ClickthroughFetchResponse response) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        response.writeTo(out);
+        return new ClickthroughFetchResponse(out.bytes().streamInput());
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ubi;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.RangeQueryBuilder;
+import org.opensearch.index.query.TermQueryBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class UbiFilterTests extends OpenSearchTestCase {
+
+    private static final Map<String, Object> SOURCE = Map.of(
+        UbiFilter.START_TIME,
+        "now-30d",
+        UbiFilter.END_TIME,
+        "now",
+        UbiFilter.APPLICATION,
+        "storefront",
+        UbiFilter.CLIENT_ID,
+        "client-1",
+        UbiFilter.ACTIONS,
+        List.of("click", "add_to_cart")
+    );
+
+    public void testParse_roundTripsThroughMetadata() {
+        UbiFilter filter = UbiFilter.parse(SOURCE);
+        assertEquals("now-30d", filter.getStartTime());
+        assertEquals("now", filter.getEndTime());
+        assertEquals("storefront", filter.getApplication());
+        assertEquals("client-1", filter.getClientId());
+        assertEquals(List.of("click", "add_to_cart"), filter.getActions());
+        assertFalse(filter.isEmpty());
+        assertEquals(filter, UbiFilter.fromMap(filter.toMap()));
+    }
+
+    public void testParse_missingOrEmptyIsNone() {
+        assertSame(UbiFilter.NONE, UbiFilter.parse(null));
+        assertSame(UbiFilter.NONE, UbiFilter.parse(Map.of()));
+        assertTrue(UbiFilter.NONE.isEmpty());
+        assertTrue(UbiFilter.NONE.toMap().isEmpty());
+    }
+
+    public void testParse_rejectsInvalidFilters() {
+        assertBadRequest("storefront");
+        assertBadRequest(Map.of("app", "storefront"));
+        assertBadRequest(Map.of(UbiFilter.APPLICATION, ""));
+        assertBadRequest(Map.of(UbiFilter.START_TIME, 30));
+        assertBadRequest(Map.of(UbiFilter.START_TIME, "last month"));
+        assertBadRequest(Map.of(UbiFilter.END_TIME, "now-30x"));
+        assertBadRequest(Map.of(UbiFilter.ACTIONS, "click"));
+        assertBadRequest(Map.of(UbiFilter.ACTIONS, List.of("click", " ")));
+        assertBadRequest(Map.of(UbiFilter.ACTIONS, List.of("click", "Impression")));
+    }
+
+    public void testParse_acceptsDatesAndDateMath() {
+        UbiFilter filter = UbiFilter.parse(Map.of(UbiFilter.START_TIME, "2025-01-01T00:00:00Z", UbiFilter.END_TIME, "now/d"));
+        assertEquals("2025-01-01T00:00:00Z", filter.getStartTime());
+        assertEquals("now/d", filter.getEndTime());
+    }
+
+    public void testStreams() throws IOException {
+        UbiFilter filter = UbiFilter.parse(SOURCE);
+        BytesStreamOutput output = new BytesStreamOutput();
+        filter.writeTo(output);
+        StreamInput in = StreamInput.wrap(output.bytes().toBytesRef().bytes);
+        assertEquals(filter, new UbiFilter(in));
+    }
+
+    public void testFilterEvents_addsAllClauses() {
+        BoolQueryBuilder query = UbiFilter.parse(SOURCE).filterEvents(QueryBuilders.boolQuery());
+
+        assertEquals(4, query.filter().size());
+        RangeQueryBuilder timeRange = (RangeQueryBuilder) query.filter().get(0);
+        assertEquals(UbiFilter.TIMESTAMP_FIELD, timeRange.fieldName());
+        assertEquals("now-30d", timeRange.from());
+        assertEquals("now", timeRange.to());
+        assertEquals("storefront", ((TermQueryBuilder) query.filter().get(1)).value());
+        assertEquals(UbiFilter.CLIENT_ID_FIELD, ((TermQueryBuilder) query.filter().get(2)).fieldName());
+        BoolQueryBuilder actions = (BoolQueryBuilder) query.filter().get(3);
+        assertEquals(3, actions.should().size());
+        assertEquals("click", ((TermQueryBuilder) actions.should().get(0)).value());
+        assertEquals("add_to_cart", ((TermQueryBuilder) actions.should().get(1)).value());
+    }
+
+    public void testFilterEvents_keepsImpressionsAndOnlyTheFilteredClickActions() {
+        UbiFilter filter = new UbiFilter(null, null, null, null, List.of("add_to_cart"));
+        BoolQueryBuilder query = filter.filterEvents(QueryBuilders.boolQuery());
+
+        assertEquals(1, query.filter().size());
+        BoolQueryBuilder actions = (BoolQueryBuilder) query.filter().get(0);
+        assertEquals("1", actions.minimumShouldMatch());
+        assertEquals(2, actions.should().size());
+        TermQueryBuilder carts = (TermQueryBuilder) actions.should().get(0);
+        assertEquals(UbiFilter.ACTION_NAME_FIELD, carts.fieldName());
+        assertEquals("add_to_cart", carts.value());
+        assertTrue(carts.caseInsensitive());
+        TermQueryBuilder impressions = (TermQueryBuilder) actions.should().get(1);
+        assertEquals("impression", impressions.value());
+        assertTrue(impressions.caseInsensitive());
+    }
+
+    public void testIsClick_defaultsToClickAndOtherwiseUsesTheFilteredActions() {
+        assertTrue(UbiFilter.NONE.isClick("Click"));
+        assertFalse(UbiFilter.NONE.isClick("add_to_cart"));
+        UbiFilter filter = new UbiFilter(null, null, null, null, List.of("add_to_cart"));
+        assertTrue(filter.isClick("ADD_TO_CART"));
+        assertFalse(filter.isClick("click"));
+        assertFalse(filter.isClick("impression"));
+    }
+
+    public void testFilterQueries_skipsActionsAndMissingBounds() {
+        UbiFilter filter = new UbiFilter("2025-01-01", null, "storefront", null, List.of("click"));
+        BoolQueryBuilder query = filter.filterQueries(QueryBuilders.boolQuery());
+
+        assertEquals(2, query.filter().size());
+        RangeQueryBuilder timeRange = (RangeQueryBuilder) query.filter().get(0);
+        assertEquals("2025-01-01", timeRange.from());
+        assertNull(timeRange.to());
+        assertEquals(UbiFilter.APPLICATION_FIELD, ((TermQueryBuilder) query.filter().get(1)).fieldName());
+        assertTrue(UbiFilter.NONE.filterEvents(QueryBuilders.boolQuery()).filter().isEmpty());
+    }
+
+    private static void assertBadRequest(Object source) {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> UbiFilter.parse(source));
+        assertTrue(e.getMessage(), e.getMessage().contains("UBI filter"));
+        assertEquals(RestStatus.BAD_REQUEST, ExceptionsHelper.status(e));
+    }
+}
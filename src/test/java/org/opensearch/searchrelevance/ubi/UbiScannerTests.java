@@ -0,0 +1,223 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ubi;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.CreatePitResponse;
+import org.opensearch.action.search.DeletePitRequest;
+import org.opensearch.action.search.DeletePitResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.DocValueFormat;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.searchrelevance.exception.SearchRelevanceException;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.transport.client.Client;
+
+public class UbiScannerTests extends OpenSearchTestCase {
+    private static final String FIELD = "user_query";
+
+    private Client client;
+    private final List<SearchRequest> requests = new ArrayList<>();
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        client = mock(Client.class);
+        doAnswer(invocation -> {
+            ActionListener<DeletePitResponse> listener = invocation.getArgument(1);
+            listener.onResponse(mock(DeletePitResponse.class));
+            return null;
+        }).when(client).deletePits(any(DeletePitRequest.class), any());
+    }
+
+    public void testScan_readsEverySliceUntilShortPage() {
+        // slice 0 holds 5 documents, slice 1 holds 1 document
+        mockShards(2, Map.of(0, 5, 1, 1));
+        UbiScanner scanner = scanner(2, 4);
+
+        List<String> values = new ArrayList<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Boolean> completed = new ArrayList<>();
+        scanner.scan(hits -> {
+            for (SearchHit hit : hits) {
+                values.add((String) UbiScanner.docValue(hit, FIELD));
+            }
+        }, ActionListener.wrap(r -> completed.add(true), failure::set));
+
+        assertNull(failure.get());
+        assertEquals(List.of(true), completed);
+        assertEquals(6, values.size());
+        assertTrue(values.containsAll(List.of("s0-d0", "s0-d1", "s0-d2", "s0-d3", "s0-d4", "s1-d0")));
+        // slice 0 reads pages of 2, 2 and 1 documents, slice 1 a single page
+        assertEquals(4, requests.size());
+        SearchSourceBuilder firstPage = requests.get(0).source();
+        assertFalse(firstPage.fetchSource().fetchSource());
+        assertEquals("pit-id", firstPage.pointInTimeBuilder().getId());
+        assertEquals(2, firstPage.slice().getMax());
+        assertTrue(requests.stream().anyMatch(request -> request.source().searchAfter() != null));
+        verify(client, times(1)).deletePits(any(DeletePitRequest.class), any());
+    }
+
+    public void testScan_boundsPrefetchedPages() {
+        mockShards(1, Map.of(0, 10));
+        List<Runnable> tasks = new ArrayList<>();
+        UbiScanner scanner = new UbiScanner(
+            client,
+            tasks::add,
+            "ubi_queries",
+            QueryBuilders.matchAllQuery(),
+            List.of(FIELD),
+            1,
+            2,
+            TimeValue.timeValueMinutes(1)
+        );
+
+        List<String> values = new ArrayList<>();
+        scanner.scan(hits -> values.add((String) UbiScanner.docValue(hits[0], FIELD)), ActionListener.wrap(r -> {}, e -> fail()));
+
+        // two pages wait for the consumer, the slice does not fetch further
+        assertEquals(2, requests.size());
+        assertNull(requests.get(0).source().slice());
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        while (tasks.isEmpty() == false) {
+            tasks.remove(0).run();
+        }
+        assertEquals(10, values.size());
+        verify(client, times(1)).deletePits(any(DeletePitRequest.class), any());
+    }
+
+    public void testScan_handsOverNextPageOnceAsyncConsumerCompletes() {
+        mockShards(1, Map.of(0, 3));
+        UbiScanner scanner = scanner(1, 4);
+
+        List<String> values = new ArrayList<>();
+        List<ActionListener<Void>> pending = new ArrayList<>();
+        List<Boolean> completed = new ArrayList<>();
+        scanner.scan((hits, listener) -> {
+            values.add((String) UbiScanner.docValue(hits[0], FIELD));
+            pending.add(listener);
+        }, ActionListener.wrap(r -> completed.add(true), e -> fail()));
+
+        // the first page is not completed yet, so the next one waits
+        assertEquals(List.of("s0-d0"), values);
+        while (pending.isEmpty() == false) {
+            pending.remove(0).onResponse(null);
+        }
+        assertEquals(List.of("s0-d0", "s0-d1", "s0-d2"), values);
+        assertEquals(List.of(true), completed);
+        verify(client, times(1)).deletePits(any(DeletePitRequest.class), any());
+    }
+
+    public void testScan_consumerFailureFailsScanAndReleasesPit() {
+        mockShards(1, Map.of(0, 3));
+        UbiScanner scanner = scanner(2, 4);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        scanner.scan(hits -> { throw new IllegalStateException("boom"); }, ActionListener.wrap(r -> fail(), failure::set));
+
+        assertEquals("boom", failure.get().getMessage());
+        verify(client, times(1)).deletePits(any(DeletePitRequest.class), any());
+    }
+
+    public void testScan_failedShardFailsScanInsteadOfEndingItsSlice() {
+        mockShards(2, Map.of(0, 3, 1, 3), 1);
+        UbiScanner scanner = scanner(2, 4);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        scanner.scan(hits -> {}, ActionListener.wrap(r -> fail("a shard was not read"), failure::set));
+
+        assertTrue(failure.get() instanceof SearchRelevanceException);
+        assertTrue(failure.get().getMessage().contains("read 1 of 2 shards"));
+        verify(client, times(1)).deletePits(any(DeletePitRequest.class), any());
+    }
+
+    private UbiScanner scanner(int pageSize, int prefetchPages) {
+        return new UbiScanner(
+            client,
+            Runnable::run,
+            "ubi_events",
+            QueryBuilders.matchAllQuery(),
+            List.of(FIELD),
+            pageSize,
+            prefetchPages,
+            TimeValue.timeValueMinutes(1)
+        );
+    }
+
+    /**
+     * Mock a point in time over the given shards, each slice serves its documents in doc id order
+     */
+    private void mockShards(int shards, Map<Integer, Integer> docsPerSlice) {
+        mockShards(shards, docsPerSlice, -1);
+    }
+
+    /**
+     * Mock a point in time over the given shards, the shard of the failed slice fails and returns no hits
+     */
+    private void mockShards(int shards, Map<Integer, Integer> docsPerSlice, int failedSlice) {
+        CreatePitResponse pitResponse = mock(CreatePitResponse.class);
+        when(pitResponse.getId()).thenReturn("pit-id");
+        when(pitResponse.getTotalShards()).thenReturn(shards);
+        doAnswer(invocation -> {
+            ActionListener<CreatePitResponse> listener = invocation.getArgument(1);
+            listener.onResponse(pitResponse);
+            return null;
+        }).when(client).createPit(any(CreatePitRequest.class), any());
+
+        doAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            requests.add(request);
+            SearchSourceBuilder source = request.source();
+            int slice = source.slice() == null ? 0 : source.slice().getId();
+            int from = source.searchAfter() == null ? 0 : ((Number) source.searchAfter()[0]).intValue() + 1;
+            int to = slice == failedSlice ? from : Math.min(docsPerSlice.get(slice), from + source.size());
+            List<SearchHit> hits = new ArrayList<>();
+            for (int doc = from; doc < to; doc++) {
+                SearchHit hit = new SearchHit(
+                    doc,
+                    "s" + slice + "-" + doc,
+                    Map.of(FIELD, new DocumentField(FIELD, List.<Object>of("s" + slice + "-d" + doc))),
+                    Map.of()
+                );
+                hit.sortValues(new Object[] { doc }, new DocValueFormat[] { DocValueFormat.RAW });
+                hits.add(hit);
+            }
+            SearchResponse response = mock(SearchResponse.class);
+            when(response.getHits()).thenReturn(new SearchHits(hits.toArray(new SearchHit[0]), null, Float.NaN));
+            if (slice == failedSlice) {
+                when(response.getTotalShards()).thenReturn(shards);
+                when(response.getSuccessfulShards()).thenReturn(shards - 1);
+                when(response.getFailedShards()).thenReturn(1);
+            }
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(response);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+    }
+}
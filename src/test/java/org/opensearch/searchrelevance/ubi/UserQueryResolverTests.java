@@ -0,0 +1,128 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.ubi;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.lucene.search.TotalHits;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.transport.client.Client;
+
+public class UserQueryResolverTests extends OpenSearchTestCase {
+
+    public void testResolve_looksUpMissingIdsOnceWithOneTermsQuery() {
+        Client client = mock(Client.class);
+        List<SearchRequest> requests = new ArrayList<>();
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(queries(Map.of("q1", "shoes", "q2", "boots")));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        UserQueryResolver resolver = new UserQueryResolver(client);
+
+        Map<String, String> first = resolve(resolver, List.of("q1", "q2", "q1", "q3"));
+        assertEquals(Map.of("q1", "shoes", "q2", "boots"), first);
+        assertEquals(1, requests.size());
+        assertArrayEquals(new String[] { "ubi_queries" }, requests.get(0).indices());
+        assertEquals(3, requests.get(0).source().size());
+        assertTrue(requests.get(0).source().toString().contains("\"terms\""));
+
+        // found and unknown ids are both served from the cache
+        Map<String, String> second = resolve(resolver, List.of("q2", "q3"));
+        assertEquals(Map.of("q2", "boots"), second);
+        assertEquals(1, requests.size());
+    }
+
+    public void testResolve_evictsLeastRecentlyUsedIds() {
+        Client client = mock(Client.class);
+        List<SearchRequest> requests = new ArrayList<>();
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(queries(Map.of("q1", "shoes", "q2", "boots", "q3", "socks")));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        UserQueryResolver resolver = new UserQueryResolver(client, 2);
+
+        resolve(resolver, List.of("q1"));
+        resolve(resolver, List.of("q2"));
+        resolve(resolver, List.of("q1"));
+        assertEquals(2, requests.size());
+        resolve(resolver, List.of("q3"));
+        resolve(resolver, List.of("q1"));
+        assertEquals(3, requests.size());
+        resolve(resolver, List.of("q2"));
+        assertEquals(4, requests.size());
+    }
+
+    public void testResolve_looksUpMissingIdsInBatches() {
+        Client client = mock(Client.class);
+        List<SearchRequest> requests = new ArrayList<>();
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(queries(Map.of("q1", "shoes", "q2", "boots", "q3", "socks", "q4", "hats", "q5", "belts")));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        UserQueryResolver resolver = new UserQueryResolver(client, 100, 2);
+
+        Map<String, String> userQueries = resolve(resolver, List.of("q1", "q2", "q3", "q4", "q5"));
+        assertEquals(Map.of("q1", "shoes", "q2", "boots", "q3", "socks", "q4", "hats", "q5", "belts"), userQueries);
+        assertEquals(3, requests.size());
+        assertEquals(List.of(2, 2, 1), requests.stream().map(request -> request.source().size()).toList());
+        // a query id logged more than once takes a single hit of the batch
+        assertEquals("query_id", requests.get(0).source().collapse().getField());
+    }
+
+    public void testConstructor_rejectsEmptyCache() {
+        expectThrows(IllegalArgumentException.class, () -> new UserQueryResolver(mock(Client.class), 0));
+    }
+
+    private static Map<String, String> resolve(UserQueryResolver resolver, List<String> queryIds) {
+        AtomicReference<Map<String, String>> result = new AtomicReference<>();
+        resolver.resolve(queryIds, ActionListener.wrap(result::set, e -> fail("resolving should not fail")));
+        return result.get();
+    }
+
+    private static SearchResponse queries(Map<String, String> userQueryById) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (Map.Entry<String, String> query : userQueryById.entrySet()) {
+            Map<String, DocumentField> fields = new HashMap<>();
+            fields.put(
+                UserQueryResolver.QUERY_ID_FIELD,
+                new DocumentField(UserQueryResolver.QUERY_ID_FIELD, List.<Object>of(query.getKey()))
+            );
+            fields.put(
+                UserQueryResolver.USER_QUERY_FIELD,
+                new DocumentField(UserQueryResolver.USER_QUERY_FIELD, List.<Object>of(query.getValue()))
+            );
+            hits.add(new SearchHit(hits.size(), query.getKey(), fields, Map.of()));
+        }
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getHits()).thenReturn(
+            new SearchHits(hits.toArray(new SearchHit[0]), new TotalHits(hits.size(), TotalHits.Relation.EQUAL_TO), 1.0f)
+        );
+        return response;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensearch.searchrelevance.utils.ConcurrencyLimiter;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class ConcurrencyLimiterTests extends OpenSearchTestCase {
+
+    public void testExecute_whenLimitReached_thenQueueUntilReleased() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, Runnable::run);
+        List<Runnable> releases = new ArrayList<>();
+        List<Integer> started = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            int task = i;
+            limiter.execute(release -> {
+                started.add(task);
+                releases.add(release);
+            }, e -> fail("unexpected failure " + e));
+        }
+
+        assertEquals(List.of(0, 1), started);
+        assertEquals(2, limiter.getRunningTasks());
+        assertEquals(3, limiter.getPendingTasks());
+
+        releases.get(0).run();
+        // releasing twice must not free a second slot
+        releases.get(0).run();
+        assertEquals(List.of(0, 1, 2), started);
+        assertEquals(2, limiter.getRunningTasks());
+
+        releases.get(1).run();
+        releases.get(2).run();
+        releases.get(3).run();
+        releases.get(4).run();
+        assertEquals(List.of(0, 1, 2, 3, 4), started);
+        assertEquals(0, limiter.getRunningTasks());
+        assertEquals(0, limiter.getPendingTasks());
+    }
+
+    public void testExecute_whenTaskReleasesSynchronously_thenAllTasksRun() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, Runnable::run);
+        List<Integer> started = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            int task = i;
+            limiter.execute(release -> {
+                started.add(task);
+                release.run();
+            }, e -> fail("unexpected failure " + e));
+        }
+
+        assertEquals(100, started.size());
+        assertEquals(0, limiter.getRunningTasks());
+    }
+
+    public void testExecute_whenTaskThrows_thenSlotIsReleasedAndFailureReported() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, Runnable::run);
+        List<Exception> failures = new ArrayList<>();
+
+        limiter.execute(release -> { throw new IllegalStateException("boom"); }, failures::add);
+
+        assertEquals(1, failures.size());
+        assertEquals("boom", failures.get(0).getMessage());
+        assertEquals(0, limiter.getRunningTasks());
+    }
+
+    public void testExecute_whenQueuedTaskThrows_thenFailureReachesItsCallback() {
+        List<Runnable> scheduled = new ArrayList<>();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, scheduled::add);
+        List<Runnable> releases = new ArrayList<>();
+        List<Exception> failures = new ArrayList<>();
+
+        limiter.execute(releases::add, failures::add);
+        limiter.execute(release -> { throw new IllegalStateException("queued boom"); }, failures::add);
+        assertEquals(1, limiter.getPendingTasks());
+
+        releases.get(0).run();
+        assertEquals(1, scheduled.size());
+        // the queued task runs on the executor, where a rethrown exception would be lost
+        scheduled.get(0).run();
+
+        assertEquals(1, failures.size());
+        assertEquals("queued boom", failures.get(0).getMessage());
+        assertEquals(0, limiter.getRunningTasks());
+        assertEquals(0, limiter.getPendingTasks());
+    }
+
+    public void testInvalidConcurrency() {
+        expectThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter(0, Runnable::run));
+    }
+}
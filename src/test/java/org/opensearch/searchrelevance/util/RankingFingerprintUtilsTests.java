@@ -0,0 +1,41 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.util;
+
+import java.util.List;
+
+import org.opensearch.searchrelevance.utils.RankingFingerprintUtils;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class RankingFingerprintUtilsTests extends OpenSearchTestCase {
+
+    public void testSameRankingSameFingerprint() {
+        assertEquals(
+            RankingFingerprintUtils.fingerprint(List.of("doc1", "doc2", "doc3")),
+            RankingFingerprintUtils.fingerprint(List.of("doc1", "doc2", "doc3"))
+        );
+    }
+
+    public void testOrderChangesFingerprint() {
+        assertNotEquals(
+            RankingFingerprintUtils.fingerprint(List.of("doc1", "doc2", "doc3")),
+            RankingFingerprintUtils.fingerprint(List.of("doc2", "doc1", "doc3"))
+        );
+    }
+
+    public void testIdBoundariesChangeFingerprint() {
+        assertNotEquals(
+            RankingFingerprintUtils.fingerprint(List.of("ab", "c")),
+            RankingFingerprintUtils.fingerprint(List.of("a", "bc"))
+        );
+    }
+
+    public void testEmptyRanking() {
+        assertNotEquals(RankingFingerprintUtils.fingerprint(List.of()), RankingFingerprintUtils.fingerprint(List.of("")));
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.searchrelevance.util;
+
+import org.opensearch.searchrelevance.utils.Sha256Digest;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class Sha256DigestTests extends OpenSearchTestCase {
+
+    public void testStringBoundariesChangeDigest() {
+        assertNotEquals(
+            new Sha256Digest().putString("ab").putString("c").toBase64(),
+            new Sha256Digest().putString("a").putString("bc").toBase64()
+        );
+        assertEquals(new Sha256Digest().putString("a").putInt(1).toBase64(), new Sha256Digest().putString("a").putInt(1).toBase64());
+    }
+
+    public void testDigestHasFixedLength() {
+        String longValue = randomAlphaOfLength(1000);
+        assertEquals(43, new Sha256Digest().putString(longValue).putLong(randomLong()).toBase64().length());
+    }
+}